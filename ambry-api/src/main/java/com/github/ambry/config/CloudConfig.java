@@ -49,6 +49,11 @@ public class CloudConfig {
       "cloud.blob.compaction.shutdown.timeout.secs";
   public static final String CLOUD_COMPACTION_PURGE_LIMIT = "cloud.compaction.purge.limit";
   public static final String CLOUD_RECENT_BLOB_CACHE_LIMIT = "cloud.recent.blob.cache.limit";
+  public static final String CLOUD_BLOB_STORE_UPLOAD_CONCURRENCY = "cloud.blob.store.upload.concurrency";
+  public static final String CLOUD_UPLOAD_THREAD_COUNT = "cloud.upload.thread.count";
+  public static final String CLOUD_FIND_MISSING_KEYS_PARALLELISM = "cloud.find.missing.keys.parallelism";
+  public static final String CLOUD_FIND_MISSING_KEYS_MIN_BATCH_SIZE = "cloud.find.missing.keys.min.batch.size";
+  public static final String CLOUD_REQUEST_THREAD_COUNT = "cloud.request.thread.count";
   public static final String CLOUD_MAX_ATTEMPTS = "cloud.max.attempts";
   public static final String CLOUD_DEFAULT_RETRY_DELAY = "cloud.default.retry.delay";
   public static final String CLOUD_REQUEST_TIMEOUT = "cloud.request.timeout";
@@ -90,6 +95,11 @@ public class CloudConfig {
   public static final int DEFAULT_COMPACTION_LOOKBACK_DAYS = 364; // Multiple of 7
   public static final int DEFAULT_COMPACTION_TIMEOUT = 10;
   public static final int DEFAULT_RECENT_BLOB_CACHE_LIMIT = 10000;
+  public static final int DEFAULT_BLOB_STORE_UPLOAD_CONCURRENCY = 1;
+  public static final int DEFAULT_UPLOAD_THREAD_COUNT = 16;
+  public static final int DEFAULT_FIND_MISSING_KEYS_PARALLELISM = 1;
+  public static final int DEFAULT_FIND_MISSING_KEYS_MIN_BATCH_SIZE = 100;
+  public static final int DEFAULT_REQUEST_THREAD_COUNT = 16;
   public static final int DEFAULT_MAX_ATTEMPTS = 3;
   public static final int DEFAULT_RETRY_DELAY_VALUE = 50;
   public static final int DEFAULT_CLOUD_REQUEST_TIMEOUT = 500;
@@ -289,6 +299,50 @@ public class CloudConfig {
   @Default("10000")
   public final int recentBlobCacheLimit;
 
+  /**
+   * The max number of blobs of a single cloud blob store that are uploaded at once. The blobs of a put are read in
+   * order and handed to a thread pool shared by all the stores of the node (see {@link #cloudUploadThreadCount}), and
+   * the put returns once all of them are uploaded. A value of 1 uploads the blobs one at a time on the thread calling
+   * put.
+   */
+  @Config(CLOUD_BLOB_STORE_UPLOAD_CONCURRENCY)
+  @Default("1")
+  public final int cloudBlobStoreUploadConcurrency;
+
+  /**
+   * The number of threads of the pool that uploads blobs for all the cloud blob stores of a node. Only used if
+   * {@link #cloudBlobStoreUploadConcurrency} is above 1.
+   */
+  @Config(CLOUD_UPLOAD_THREAD_COUNT)
+  @Default("16")
+  public final int cloudUploadThreadCount;
+
+  /**
+   * The max number of metadata queries that a single findMissingKeys call of a cloud blob store runs at once. The keys
+   * that are not in the recent blob cache are split into this many queries, as long as each query has at least
+   * {@link #cloudFindMissingKeysMinBatchSize} keys. A value of 1 looks up all the keys with a single query.
+   */
+  @Config(CLOUD_FIND_MISSING_KEYS_PARALLELISM)
+  @Default("1")
+  public final int cloudFindMissingKeysParallelism;
+
+  /**
+   * The min number of keys in each of the concurrent metadata queries of findMissingKeys, so that the fixed cost of
+   * a query is spread over enough keys.
+   */
+  @Config(CLOUD_FIND_MISSING_KEYS_MIN_BATCH_SIZE)
+  @Default("100")
+  public final int cloudFindMissingKeysMinBatchSize;
+
+  /**
+   * The number of threads of the pool that runs the concurrent metadata queries of findMissingKeys for all the cloud
+   * blob stores of a node. It is separate from the upload pool, so that queries don't wait behind long uploads. Only
+   * used if {@link #cloudFindMissingKeysParallelism} is above 1.
+   */
+  @Config(CLOUD_REQUEST_THREAD_COUNT)
+  @Default("16")
+  public final int cloudRequestThreadCount;
+
   /**
    * The comma-separated list of statically assigned partitions.
    * Used by static VCR cluster only.
@@ -468,6 +522,21 @@ public class CloudConfig {
     cloudCompactionNumThreads =
         verifiableProperties.getInt(CLOUD_COMPACTION_NUM_THREADS, DEFAULT_CLOUD_COMPACTION_NUM_THREADS);
     recentBlobCacheLimit = verifiableProperties.getInt(CLOUD_RECENT_BLOB_CACHE_LIMIT, DEFAULT_RECENT_BLOB_CACHE_LIMIT);
+    cloudBlobStoreUploadConcurrency =
+        verifiableProperties.getIntInRange(CLOUD_BLOB_STORE_UPLOAD_CONCURRENCY, DEFAULT_BLOB_STORE_UPLOAD_CONCURRENCY,
+            1, Integer.MAX_VALUE);
+    cloudUploadThreadCount =
+        verifiableProperties.getIntInRange(CLOUD_UPLOAD_THREAD_COUNT, DEFAULT_UPLOAD_THREAD_COUNT, 1,
+            Integer.MAX_VALUE);
+    cloudFindMissingKeysParallelism =
+        verifiableProperties.getIntInRange(CLOUD_FIND_MISSING_KEYS_PARALLELISM, DEFAULT_FIND_MISSING_KEYS_PARALLELISM,
+            1, Integer.MAX_VALUE);
+    cloudFindMissingKeysMinBatchSize =
+        verifiableProperties.getIntInRange(CLOUD_FIND_MISSING_KEYS_MIN_BATCH_SIZE,
+            DEFAULT_FIND_MISSING_KEYS_MIN_BATCH_SIZE, 1, Integer.MAX_VALUE);
+    cloudRequestThreadCount =
+        verifiableProperties.getIntInRange(CLOUD_REQUEST_THREAD_COUNT, DEFAULT_REQUEST_THREAD_COUNT, 1,
+            Integer.MAX_VALUE);
     cloudMaxAttempts = verifiableProperties.getInt(CLOUD_MAX_ATTEMPTS, DEFAULT_MAX_ATTEMPTS);
     cloudDefaultRetryDelay = verifiableProperties.getInt(CLOUD_DEFAULT_RETRY_DELAY, DEFAULT_RETRY_DELAY_VALUE);
     cloudRequestTimeout = verifiableProperties.getInt(CLOUD_REQUEST_TIMEOUT, DEFAULT_CLOUD_REQUEST_TIMEOUT);
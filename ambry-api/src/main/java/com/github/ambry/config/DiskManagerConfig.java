@@ -32,11 +32,22 @@ public class DiskManagerConfig {
   @Default("false")
   public final boolean diskManagerEnableSegmentPooling;
 
+  /**
+   * The maximum number of stores of a disk that are started at the same time. Starting a store reads its index and
+   * recovers the tail of its log, so starting all the stores of a disk at once makes them contend for the disk.
+   * 0 starts all the stores of a disk at the same time.
+   */
+  @Config("disk.manager.store.startup.parallelism")
+  @Default("0")
+  public final int diskManagerStoreStartupParallelism;
+
   public DiskManagerConfig(VerifiableProperties verifiableProperties) {
     diskManagerReserveFileDirName =
         verifiableProperties.getString("disk.manager.reserve.file.dir.name", "reserve-pool");
     diskManagerRequiredSwapSegmentsPerSize =
         verifiableProperties.getIntInRange("disk.manager.required.swap.segments.per.size", 1, 0, 1000);
     diskManagerEnableSegmentPooling = verifiableProperties.getBoolean("disk.manager.enable.segment.pooling", false);
+    diskManagerStoreStartupParallelism =
+        verifiableProperties.getIntInRange("disk.manager.store.startup.parallelism", 0, 0, Integer.MAX_VALUE);
   }
 }
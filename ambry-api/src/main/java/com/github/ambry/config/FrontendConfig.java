@@ -234,6 +234,22 @@ public class FrontendConfig {
   @Default("")
   public final List<String> containerMetricsExcludedAccounts;
 
+  /**
+   * The maximum number of blob infos cached by the frontend to answer HEAD, blob info and conditional GET requests
+   * without going to the storage nodes. 0 disables the cache.
+   */
+  @Config("frontend.blob.info.cache.max.entries")
+  @Default("0")
+  public final int blobInfoCacheMaxEntries;
+
+  /**
+   * The time for which a cached blob info can be served. Bounds how long a frontend can keep serving a blob that was
+   * deleted or had its TTL updated through another frontend.
+   */
+  @Config("frontend.blob.info.cache.entry.ttl.secs")
+  @Default("60")
+  public final long blobInfoCacheEntryTtlSecs;
+
   public FrontendConfig(VerifiableProperties verifiableProperties) {
     cacheValiditySeconds = verifiableProperties.getLong("frontend.cache.validity.seconds", 365 * 24 * 60 * 60);
     optionsValiditySeconds = verifiableProperties.getLong("frontend.options.validity.seconds", 24 * 60 * 60);
@@ -287,6 +303,10 @@ public class FrontendConfig {
     namedBlobDbFactory = verifiableProperties.getString(NAMED_BLOB_DB_FACTORY, null);
     containerMetricsExcludedAccounts =
         Utils.splitString(verifiableProperties.getString(CONTAINER_METRICS_EXCLUDED_ACCOUNTS, ""), ",");
+    blobInfoCacheMaxEntries =
+        verifiableProperties.getIntInRange("frontend.blob.info.cache.max.entries", 0, 0, Integer.MAX_VALUE);
+    blobInfoCacheEntryTtlSecs =
+        verifiableProperties.getLongInRange("frontend.blob.info.cache.entry.ttl.secs", 60, 0, Long.MAX_VALUE);
   }
 
   /**
@@ -21,6 +21,9 @@ public class MySqlNamedBlobDbConfig {
   public static final String LOCAL_POOL_SIZE = PREFIX + "local.pool.size";
   public static final String REMOTE_POOL_SIZE = PREFIX + "remote.pool.size";
   public static final String  LIST_MAX_RESULTS = PREFIX + "list.max.results";
+  public static final String GET_CACHE_MAX_ENTRIES = PREFIX + "get.cache.max.entries";
+  public static final String GET_CACHE_TTL_MS = PREFIX + "get.cache.ttl.ms";
+  public static final String GET_BATCH_MAX_SIZE = PREFIX + "get.batch.max.size";
 
   /**
    * Serialized json array containing the information about all mysql end points.
@@ -50,10 +53,39 @@ public class MySqlNamedBlobDbConfig {
   @Default("100")
   public final int listMaxResults;
 
+  /**
+   * The maximum number of named blob records to keep in the cache of recently resolved names. Get requests for a
+   * cached name are answered without a database query. If 0, resolved names are not cached.
+   */
+  @Config(GET_CACHE_MAX_ENTRIES)
+  @Default("0")
+  public final int getCacheMaxEntries;
+
+  /**
+   * The time in milliseconds for which a cached named blob record is served. Puts and deletes made through this
+   * instance invalidate the record right away, but the ones made through other instances are only seen once it is
+   * older than this.
+   */
+  @Config(GET_CACHE_TTL_MS)
+  @Default("1000")
+  public final long getCacheTtlMs;
+
+  /**
+   * The maximum number of names of the same container to look up in a single query. Get requests that queue up while
+   * all the database threads of the local datacenter are busy are batched up to this size. If 1, every get request is
+   * looked up in its own query.
+   */
+  @Config(GET_BATCH_MAX_SIZE)
+  @Default("1")
+  public final int getBatchMaxSize;
+
   public MySqlNamedBlobDbConfig(VerifiableProperties verifiableProperties) {
     this.dbInfo = verifiableProperties.getString(DB_INFO);
     this.localPoolSize = verifiableProperties.getIntInRange(LOCAL_POOL_SIZE, 5, 1, Integer.MAX_VALUE);
     this.remotePoolSize = verifiableProperties.getIntInRange(REMOTE_POOL_SIZE, 1, 1, Integer.MAX_VALUE);
     this.listMaxResults = verifiableProperties.getIntInRange(LIST_MAX_RESULTS, 100, 1, Integer.MAX_VALUE);
+    this.getCacheMaxEntries = verifiableProperties.getIntInRange(GET_CACHE_MAX_ENTRIES, 0, 0, Integer.MAX_VALUE);
+    this.getCacheTtlMs = verifiableProperties.getLongInRange(GET_CACHE_TTL_MS, 1000, 0, Long.MAX_VALUE);
+    this.getBatchMaxSize = verifiableProperties.getIntInRange(GET_BATCH_MAX_SIZE, 1, 1, 1000);
   }
 }
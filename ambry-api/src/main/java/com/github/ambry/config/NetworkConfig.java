@@ -32,6 +32,12 @@ public class NetworkConfig {
   public static final String SELECTOR_EXECUTOR_POOL_SIZE = "selector.executor.pool.size";
   public static final String SELECTOR_MAX_KEY_TO_PROCESS = "selector.max.key.to.process";
   public static final String SELECTOR_USE_DIRECT_BUFFERS = "selector.use.direct.buffers";
+  public static final String REQUEST_QUEUE_TYPE = "request.queue.type";
+  public static final String REQUEST_QUEUE_CLIENT_WEIGHT = "request.queue.client.weight";
+  public static final String REQUEST_QUEUE_REPLICATION_WEIGHT = "request.queue.replication.weight";
+  public static final String REQUEST_QUEUE_ADMIN_WEIGHT = "request.queue.admin.weight";
+  public static final String REQUEST_QUEUE_TIMEOUT_MS = "request.queue.timeout.ms";
+  public static final String REQUEST_QUEUE_NUM_LANES = "request.queue.num.lanes";
 
   /**
    * The number of io threads that the server uses for carrying out network requests
@@ -119,6 +125,54 @@ public class NetworkConfig {
   @Default("false")
   public final boolean selectorUseDirectBuffers;
 
+  /**
+   * The type of the queue that requests wait in until a request handler picks them up. "FifoNetworkRequestQueue"
+   * serves requests in arrival order. "WeightedFairNetworkRequestQueue" queues client, replication and admin requests
+   * separately and serves them in proportion to their weights. "PartitionShardedNetworkRequestQueue" routes requests to
+   * a request handler lane by partition (by disk for reads), and lets idle handlers steal only read requests.
+   */
+  @Config(REQUEST_QUEUE_TYPE)
+  @Default("FifoNetworkRequestQueue")
+  public final String requestQueueType;
+
+  /**
+   * The weight of client requests in the weighted fair request queue.
+   */
+  @Config(REQUEST_QUEUE_CLIENT_WEIGHT)
+  @Default("8")
+  public final int requestQueueClientWeight;
+
+  /**
+   * The weight of replication requests in the weighted fair request queue.
+   */
+  @Config(REQUEST_QUEUE_REPLICATION_WEIGHT)
+  @Default("2")
+  public final int requestQueueReplicationWeight;
+
+  /**
+   * The weight of admin requests in the weighted fair request queue.
+   */
+  @Config(REQUEST_QUEUE_ADMIN_WEIGHT)
+  @Default("1")
+  public final int requestQueueAdminWeight;
+
+  /**
+   * Requests that have waited longer than this in the weighted fair request queue are dropped instead of being handled,
+   * since their client has most likely timed out already. 0 disables dropping.
+   */
+  @Config(REQUEST_QUEUE_TIMEOUT_MS)
+  @Default("0")
+  public final long requestQueueTimeoutMs;
+
+  /**
+   * The number of request handler lanes of the partition sharded request queue. Requests are mapped to a lane by the
+   * hash of their shard key modulo this number, so it is fixed when the queue is created. It should be set to the
+   * number of request handler threads (server.request.handler.num.of.threads).
+   */
+  @Config(REQUEST_QUEUE_NUM_LANES)
+  @Default("7")
+  public final int requestQueueNumLanes;
+
   public NetworkConfig(VerifiableProperties verifiableProperties) {
     numIoThreads = verifiableProperties.getIntInRange(NUM_IO_THREADS, 8, 1, Integer.MAX_VALUE);
     queuedMaxRequests = verifiableProperties.getIntInRange(QUEUED_MAX_REQUESTS, 500, 1, Integer.MAX_VALUE);
@@ -137,5 +191,11 @@ public class NetworkConfig {
     selectorMaxKeyToProcess =
         verifiableProperties.getIntInRange(SELECTOR_MAX_KEY_TO_PROCESS, -1, -1, Integer.MAX_VALUE);
     selectorUseDirectBuffers = verifiableProperties.getBoolean(SELECTOR_USE_DIRECT_BUFFERS, false);
+    requestQueueType = verifiableProperties.getString(REQUEST_QUEUE_TYPE, "FifoNetworkRequestQueue");
+    requestQueueClientWeight = verifiableProperties.getIntInRange(REQUEST_QUEUE_CLIENT_WEIGHT, 8, 1, 1000);
+    requestQueueReplicationWeight = verifiableProperties.getIntInRange(REQUEST_QUEUE_REPLICATION_WEIGHT, 2, 1, 1000);
+    requestQueueAdminWeight = verifiableProperties.getIntInRange(REQUEST_QUEUE_ADMIN_WEIGHT, 1, 1, 1000);
+    requestQueueTimeoutMs = verifiableProperties.getLongInRange(REQUEST_QUEUE_TIMEOUT_MS, 0, 0, Long.MAX_VALUE);
+    requestQueueNumLanes = verifiableProperties.getIntInRange(REQUEST_QUEUE_NUM_LANES, 7, 1, Integer.MAX_VALUE);
   }
 }
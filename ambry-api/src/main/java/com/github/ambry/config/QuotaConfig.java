@@ -41,6 +41,8 @@ public class QuotaConfig {
       QUOTA_CONFIG_PREFIX + "bandwidth.throttling.feature.enabled";
   public static final String CU_QUOTA_AGGREGATION_WINDOW_IN_SECS =
       QUOTA_CONFIG_PREFIX + "cu.quota.aggregation.windows.in.secs";
+  public static final String CU_QUOTA_AGGREGATION_WINDOW_NUM_BUCKETS =
+      QUOTA_CONFIG_PREFIX + "cu.quota.aggregation.window.num.buckets";
   public static final String QUOTA_USAGE_WARNING_THRESHOLD_IN_PERCENTAGE =
       QUOTA_CONFIG_PREFIX + "usage.warning.threshold.in.precentage";
 
@@ -53,6 +55,7 @@ public class QuotaConfig {
   public static final String DEFAULT_FRONTEND_BANDWIDTH_CAPACITY_IN_JSON = "{}";
   public static final boolean DEFAULT_BANDWIDTH_THROTTLING_FEATURE_ENABLED = false;
   public static final long DEFAULT_CU_QUOTA_AGGREGATION_WINDOW_IN_SECS = 10;
+  public static final int DEFAULT_CU_QUOTA_AGGREGATION_WINDOW_NUM_BUCKETS = 10;
   public static final int DEFAULT_QUOTA_USAGE_WARNING_THRESHOLD_IN_PERCENTAGE = 80;
   public StorageQuotaConfig storageQuotaConfig;
 
@@ -166,6 +169,13 @@ public class QuotaConfig {
   @Config(CU_QUOTA_AGGREGATION_WINDOW_IN_SECS)
   public long cuQuotaAggregationWindowInSecs;
 
+  /**
+   * Number of sub-windows the aggregation window is split into by quota sources that count CU usage over a sliding
+   * window. Usage slides forward one sub-window at a time.
+   */
+  @Config(CU_QUOTA_AGGREGATION_WINDOW_NUM_BUCKETS)
+  public int cuQuotaAggregationWindowNumBuckets;
+
   /**
    * Quota usage threshold in percentage at which Ambry will generate usage warning in response headers.
    */
@@ -200,6 +210,8 @@ public class QuotaConfig {
         DEFAULT_BANDWIDTH_THROTTLING_FEATURE_ENABLED);
     cuQuotaAggregationWindowInSecs = verifiableProperties.getLongInRange(CU_QUOTA_AGGREGATION_WINDOW_IN_SECS,
         DEFAULT_CU_QUOTA_AGGREGATION_WINDOW_IN_SECS, 1, Long.MAX_VALUE);
+    cuQuotaAggregationWindowNumBuckets = verifiableProperties.getIntInRange(CU_QUOTA_AGGREGATION_WINDOW_NUM_BUCKETS,
+        DEFAULT_CU_QUOTA_AGGREGATION_WINDOW_NUM_BUCKETS, 1, 1000);
     quotaUsageWarningThresholdInPercentage =
         verifiableProperties.getIntInRange(QUOTA_USAGE_WARNING_THRESHOLD_IN_PERCENTAGE,
             DEFAULT_QUOTA_USAGE_WARNING_THRESHOLD_IN_PERCENTAGE, 0, 100);
@@ -224,6 +224,38 @@ public class ReplicationConfig {
   @Default("120")
   public final int replicationStandbyWaitTimeoutToTriggerCrossColoFetchSeconds;
 
+  /**
+   * True to drive replication with a non blocking {@link com.github.ambry.network.NetworkClient} instead of blocking
+   * channels from the connection pool. In this mode, a replica thread keeps metadata and GET requests to several remote
+   * nodes in flight at the same time, so far fewer replica threads are needed.
+   */
+  @Config("replication.use.network.client")
+  @Default("false")
+  public final boolean replicationUseNetworkClient;
+
+  /**
+   * The maximum number of requests a replica thread keeps in flight across all remote nodes when replication uses the
+   * network client.
+   */
+  @Config("replication.network.client.max.in.flight.requests.per.thread")
+  @Default("32")
+  public final int replicationNetworkClientMaxInFlightRequestsPerThread;
+
+  /**
+   * The maximum number of requests a replica thread keeps in flight to a single remote node when replication uses the
+   * network client.
+   */
+  @Config("replication.network.client.max.in.flight.requests.per.node")
+  @Default("4")
+  public final int replicationNetworkClientMaxInFlightRequestsPerNode;
+
+  /**
+   * The time after which a request that is in flight is dropped when replication uses the network client.
+   */
+  @Config("replication.network.client.request.timeout.ms")
+  @Default("30000")
+  public final int replicationNetworkClientRequestTimeoutMs;
+
   public ReplicationConfig(VerifiableProperties verifiableProperties) {
 
     replicationStoreTokenFactory =
@@ -275,5 +307,15 @@ public class ReplicationConfig {
     replicationStandbyWaitTimeoutToTriggerCrossColoFetchSeconds =
         verifiableProperties.getIntInRange(REPLICATION_STANDBY_WAIT_TIMEOUT_TO_TRIGGER_CROSS_COLO_FETCH_SECONDS, 120,
             -1, Integer.MAX_VALUE);
+    replicationUseNetworkClient = verifiableProperties.getBoolean("replication.use.network.client", false);
+    replicationNetworkClientMaxInFlightRequestsPerThread =
+        verifiableProperties.getIntInRange("replication.network.client.max.in.flight.requests.per.thread", 32, 1,
+            Integer.MAX_VALUE);
+    replicationNetworkClientMaxInFlightRequestsPerNode =
+        verifiableProperties.getIntInRange("replication.network.client.max.in.flight.requests.per.node", 4, 1,
+            Integer.MAX_VALUE);
+    replicationNetworkClientRequestTimeoutMs =
+        verifiableProperties.getIntInRange("replication.network.client.request.timeout.ms", 30000, 1,
+            Integer.MAX_VALUE);
   }
 }
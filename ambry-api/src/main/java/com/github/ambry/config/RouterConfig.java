@@ -35,6 +35,8 @@ public class RouterConfig {
 
   // config keys
   public static final String ROUTER_SCALING_UNIT_COUNT = "router.scaling.unit.count";
+  public static final String ROUTER_OPERATION_CONTROLLER_PARTITION_AFFINITY_ENABLED =
+      "router.operation.controller.partition.affinity.enabled";
   public static final String ROUTER_HOSTNAME = "router.hostname";
   public static final String ROUTER_DATACENTER_NAME = "router.datacenter.name";
   public static final String ROUTER_SCALING_UNIT_MAX_CONNECTIONS_PER_PORT_PLAIN_TEXT =
@@ -95,8 +97,21 @@ public class RouterConfig {
       "router.operation.tracker.histogram.dump.period";
   public static final String ROUTER_OPERATION_TRACKER_HISTOGRAM_CACHE_TIMEOUT_MS =
       "router.operation.tracker.histogram.cache.timeout.ms";
+  public static final String ROUTER_OPERATION_TRACKER_LOAD_AWARE_SELECTION_ENABLED =
+      "router.operation.tracker.load.aware.selection.enabled";
+  public static final String ROUTER_PUT_LOAD_AWARE_PARTITION_SELECTION_ENABLED =
+      "router.put.load.aware.partition.selection.enabled";
+  public static final String ROUTER_OPERATION_TRACKER_LATENCY_EWMA_ALPHA =
+      "router.operation.tracker.latency.ewma.alpha";
+  public static final String ROUTER_OPERATION_TRACKER_HEDGE_MAX_BLOB_SIZE_BYTES =
+      "router.operation.tracker.hedge.max.blob.size.bytes";
+  public static final String ROUTER_OPERATION_TRACKER_HEDGE_BUDGET_RATIO =
+      "router.operation.tracker.hedge.budget.ratio";
   public static final String ROUTER_MAX_IN_MEM_PUT_CHUNKS = "router.max.in.mem.put.chunks";
   public static final String ROUTER_MAX_IN_MEM_GET_CHUNKS = "router.max.in.mem.get.chunks";
+  public static final String ROUTER_GET_READ_AHEAD_ENABLED = "router.get.read.ahead.enabled";
+  public static final String ROUTER_GET_READ_AHEAD_MAX_CHUNKS = "router.get.read.ahead.max.chunks";
+  public static final String ROUTER_GET_READ_AHEAD_MEMORY_BUDGET_BYTES = "router.get.read.ahead.memory.budget.bytes";
   public static final String ROUTER_GET_ELIGIBLE_REPLICAS_BY_STATE_ENABLED =
       "router.get.eligible.replicas.by.state.enabled";
   public static final String ROUTER_PUT_USE_DYNAMIC_SUCCESS_TARGET = "router.put.use.dynamic.success.target";
@@ -119,6 +134,16 @@ public class RouterConfig {
   @Default("1")
   public final int routerScalingUnitCount;
 
+  /**
+   * If {@code true}, operations on an existing blob (GET, DELETE, UNDELETE, TTL update) are routed to the scaling unit
+   * picked by consistently hashing the partition of the blob, instead of a random one. Each scaling unit then talks to
+   * the replicas of a stable subset of partitions, which reduces duplicated connections and lets requests to the same
+   * hosts be batched. PUTs pick their partition later and are still routed randomly.
+   */
+  @Config(ROUTER_OPERATION_CONTROLLER_PARTITION_AFFINITY_ENABLED)
+  @Default("false")
+  public final boolean routerOperationControllerPartitionAffinityEnabled;
+
   /**
    * The hostname of the node upon which the router runs.
    */
@@ -453,6 +478,48 @@ public class RouterConfig {
   @Default("1000")
   public final long routerOperationTrackerHistogramCacheTimeoutMs;
 
+  /**
+   * If {@code true}, the adaptive tracker ranks the local replicas of GET operations by the load this router sees on
+   * their data nodes (an EWMA of the request latency scaled by the number of requests outstanding to the node) instead
+   * of trying them in random order, and may hedge small GETs (see
+   * {@link RouterConfig#routerOperationTrackerHedgeMaxBlobSizeBytes}).
+   */
+  @Config(ROUTER_OPERATION_TRACKER_LOAD_AWARE_SELECTION_ENABLED)
+  @Default("false")
+  public final boolean routerOperationTrackerLoadAwareSelectionEnabled;
+
+  /**
+   * If {@code true}, a PUT chunk samples two random writable partitions instead of one and writes to the one whose
+   * local replicas currently look less loaded: a replica that is down rules its partition out, and otherwise the
+   * partition is scored by the slowest EWMA of recent PUT latencies that this router saw on its local data nodes.
+   */
+  @Config(ROUTER_PUT_LOAD_AWARE_PARTITION_SELECTION_ENABLED)
+  @Default("false")
+  public final boolean routerPutLoadAwarePartitionSelectionEnabled;
+
+  /**
+   * The weight of the most recent latency sample in the per data node latency EWMA used by load aware selection.
+   */
+  @Config(ROUTER_OPERATION_TRACKER_LATENCY_EWMA_ALPHA)
+  @Default("0.3")
+  public final double routerOperationTrackerLatencyEwmaAlpha;
+
+  /**
+   * With load aware selection, a GET whose response is known to be at most this many bytes is sent to the best two
+   * replicas right away instead of waiting for the first request to be past due. A negative value disables hedging.
+   */
+  @Config(ROUTER_OPERATION_TRACKER_HEDGE_MAX_BLOB_SIZE_BYTES)
+  @Default("4194304")
+  public final long routerOperationTrackerHedgeMaxBlobSizeBytes;
+
+  /**
+   * The router wide budget for hedged requests, as the ratio of hedged requests to GET operations. Each GET operation
+   * adds this much to the budget and each hedged request takes one from it.
+   */
+  @Config(ROUTER_OPERATION_TRACKER_HEDGE_BUDGET_RATIO)
+  @Default("0.05")
+  public final double routerOperationTrackerHedgeBudgetRatio;
+
   /**
    * The max number of chunks per PutOperation that may be buffered in memory.
    */
@@ -467,6 +534,31 @@ public class RouterConfig {
   @Default("4")
   public final int routerMaxInMemGetChunks;
 
+  /**
+   * If {@code true}, the number of chunks a GetBlobOperation fetches ahead of the chunk being written out is adapted
+   * to how fast the caller drains the blob: it grows while the caller keeps up and shrinks when the caller applies
+   * backpressure. If {@code false}, {@link #routerMaxInMemGetChunks} chunks are always fetched ahead.
+   */
+  @Config(ROUTER_GET_READ_AHEAD_ENABLED)
+  @Default("false")
+  public final boolean routerGetReadAheadEnabled;
+
+  /**
+   * The max number of chunks per GetBlobOperation that may be fetched ahead when read ahead is enabled. Only the chunks
+   * above {@link #routerMaxInMemGetChunks} are charged against {@link #routerGetReadAheadMemoryBudgetBytes}.
+   */
+  @Config(ROUTER_GET_READ_AHEAD_MAX_CHUNKS)
+  @Default("16")
+  public final int routerGetReadAheadMaxChunks;
+
+  /**
+   * The max number of bytes that all the GetBlobOperations of a router may fetch ahead beyond
+   * {@link #routerMaxInMemGetChunks} chunks each, when read ahead is enabled.
+   */
+  @Config(ROUTER_GET_READ_AHEAD_MEMORY_BUDGET_BYTES)
+  @Default("256 * 1024 * 1024")
+  public final long routerGetReadAheadMemoryBudgetBytes;
+
   /**
    * if {@code true}, operation tracker will get replicas in required states based on the type of operation. This helps
    * dynamically manage replicas in cluster (i.e. add/remove/move replicas) without restarting frontends.
@@ -558,6 +650,8 @@ public class RouterConfig {
    */
   public RouterConfig(VerifiableProperties verifiableProperties) {
     routerScalingUnitCount = verifiableProperties.getIntInRange(ROUTER_SCALING_UNIT_COUNT, 1, 1, Integer.MAX_VALUE);
+    routerOperationControllerPartitionAffinityEnabled =
+        verifiableProperties.getBoolean(ROUTER_OPERATION_CONTROLLER_PARTITION_AFFINITY_ENABLED, false);
     routerHostname = verifiableProperties.getString(ROUTER_HOSTNAME);
     routerDatacenterName = verifiableProperties.getString(ROUTER_DATACENTER_NAME);
     routerScalingUnitMaxConnectionsPerPortPlainText =
@@ -648,10 +742,26 @@ public class RouterConfig {
     }
     routerOperationTrackerTerminateOnNotFoundEnabled =
         verifiableProperties.getBoolean(ROUTER_OPERATION_TRACKER_TERMINATE_ON_NOT_FOUND_ENABLED, false);
+    routerOperationTrackerLoadAwareSelectionEnabled =
+        verifiableProperties.getBoolean(ROUTER_OPERATION_TRACKER_LOAD_AWARE_SELECTION_ENABLED, false);
+    routerPutLoadAwarePartitionSelectionEnabled =
+        verifiableProperties.getBoolean(ROUTER_PUT_LOAD_AWARE_PARTITION_SELECTION_ENABLED, false);
+    routerOperationTrackerLatencyEwmaAlpha =
+        verifiableProperties.getDoubleInRange(ROUTER_OPERATION_TRACKER_LATENCY_EWMA_ALPHA, 0.3, 0.0, 1.0);
+    routerOperationTrackerHedgeMaxBlobSizeBytes =
+        verifiableProperties.getLong(ROUTER_OPERATION_TRACKER_HEDGE_MAX_BLOB_SIZE_BYTES, 4 * 1024 * 1024);
+    routerOperationTrackerHedgeBudgetRatio =
+        verifiableProperties.getDoubleInRange(ROUTER_OPERATION_TRACKER_HEDGE_BUDGET_RATIO, 0.05, 0.0, 1.0);
     routerMaxInMemPutChunks = verifiableProperties.getIntInRange(ROUTER_MAX_IN_MEM_PUT_CHUNKS, 4, 1,
         Integer.MAX_VALUE / routerMaxPutChunkSizeBytes);
     routerMaxInMemGetChunks = verifiableProperties.getIntInRange(ROUTER_MAX_IN_MEM_GET_CHUNKS, 4, 1,
         Integer.MAX_VALUE / routerMaxPutChunkSizeBytes);
+    routerGetReadAheadEnabled = verifiableProperties.getBoolean(ROUTER_GET_READ_AHEAD_ENABLED, false);
+    routerGetReadAheadMaxChunks = verifiableProperties.getIntInRange(ROUTER_GET_READ_AHEAD_MAX_CHUNKS, 16, 1,
+        Integer.MAX_VALUE / routerMaxPutChunkSizeBytes);
+    routerGetReadAheadMemoryBudgetBytes =
+        verifiableProperties.getLongInRange(ROUTER_GET_READ_AHEAD_MEMORY_BUDGET_BYTES, 256 * 1024 * 1024L, 0,
+            Long.MAX_VALUE);
     routerGetEligibleReplicasByStateEnabled =
         verifiableProperties.getBoolean(ROUTER_GET_ELIGIBLE_REPLICAS_BY_STATE_ENABLED, false);
     routerPutUseDynamicSuccessTarget = verifiableProperties.getBoolean(ROUTER_PUT_USE_DYNAMIC_SUCCESS_TARGET, false);
@@ -114,6 +114,14 @@ public class ServerConfig {
   @Default("com.github.ambry.server.AmbryServerSecurityServiceFactory")
   public final String serverSecurityServiceFactory;
 
+  /**
+   * True to compute the CRC32 checksums of messages, index segments and bloom filters with the intrinsified java
+   * native implementation instead of the pure java one. Both produce the same checksums.
+   */
+  @Config("server.use.java.native.crc32")
+  @Default("false")
+  public final boolean serverUseJavaNativeCrc32;
+
   public ServerConfig(VerifiableProperties verifiableProperties) {
     serverRequestHandlerNumOfThreads = verifiableProperties.getInt("server.request.handler.num.of.threads", 7);
     serverSchedulerNumOfthreads = verifiableProperties.getInt("server.scheduler.num.of.threads", 10);
@@ -138,5 +146,6 @@ public class ServerConfig {
         verifiableProperties.getLong("server.participants.consistency.checker.period.sec", 0);
     serverSecurityServiceFactory = verifiableProperties.getString("server.security.service.factory",
         "com.github.ambry.server.AmbryServerSecurityServiceFactory");
+    serverUseJavaNativeCrc32 = verifiableProperties.getBoolean("server.use.java.native.crc32", false);
   }
 }
@@ -159,6 +159,15 @@ public class StoreConfig {
   @Default("IndexSegmentValidEntryFilterWithoutUndelete")
   public final String storeCompactionFilter;
 
+  /**
+   * The number of index segments whose valid entries are computed ahead, on a separate thread, while the compaction
+   * copy phase copies the records of the current index segment. 0 computes the valid entries of each index segment
+   * right before copying it, on the compaction thread.
+   */
+  @Config("store.compaction.copy.valid.entries.lookahead")
+  @Default("0")
+  public final int storeCompactionCopyValidEntriesLookahead;
+
   /**
    * Whether hard deletes are to be enabled or not
    */
@@ -394,6 +403,14 @@ public class StoreConfig {
   @Default("false")
   public final boolean storeIndexRebuildBloomFilterEnabled;
 
+  /**
+   * Whether index segments use a cache line blocked bloom filter instead of a standard one for the bloom filters they
+   * build. Bloom filter files of either kind can be loaded regardless of this setting.
+   */
+  @Config("store.index.blocked.bloom.filter.enabled")
+  @Default("false")
+  public final boolean storeIndexBlockedBloomFilterEnabled;
+
   /**
    * Maximum page count to invalidate some corrupted bloom files that may compute super large value for number of pages
    * and cause OutOfMemory issue. If computed page count is larger this value, an exception will be thrown to either
@@ -464,6 +481,117 @@ public class StoreConfig {
   @Default("200")
   public final int storeDiskIoReservoirTimeWindowMs;
 
+  /**
+   * True to enable group commit for PUTs. Concurrent PUTs to the same store are queued and the thread that acquires the
+   * store write lock appends all pending message sets to the log and adds their entries to the index in one batch.
+   */
+  @Config("store.group.commit.enabled")
+  @Default("false")
+  public final boolean storeGroupCommitEnabled;
+
+  /**
+   * The maximum number of queued PUTs that are committed together in one batch when group commit is enabled.
+   */
+  @Config("store.group.commit.max.batch.size")
+  @Default("64")
+  public final int storeGroupCommitMaxBatchSize;
+
+  /**
+   * True to keep the entries of unsealed index segments in off-heap slabs indexed by a primitive hash table instead of
+   * an on-heap skip list map.
+   */
+  @Config("store.index.in.mem.segment.off.heap.enabled")
+  @Default("false")
+  public final boolean storeIndexInMemSegmentOffHeapEnabled;
+
+  /**
+   * The number of entries between two fence keys of a sealed index segment. Fence keys are sampled from the segment on
+   * its first lookup and kept on heap so that a lookup only has to search the entries between two adjacent fences in
+   * the mapped file. 0 disables fences.
+   */
+  @Config("store.index.sealed.segment.fence.interval")
+  @Default("0")
+  public final int storeIndexSealedSegmentFenceInterval;
+
+  /**
+   * The maximum number of keys whose latest index value is cached by the index of a store to avoid searching all index
+   * segments on repeated lookups of the same key. 0 disables the cache.
+   */
+  @Config("store.index.key.lookup.cache.max.entries")
+  @Default("0")
+  public final int storeIndexKeyLookupCacheMaxEntries;
+
+  /**
+   * True to track, for each new log segment, whether any of its index entries may have become invalid, and to persist
+   * this along with the index. Compaction and the compaction stats then skip validating the entries of log segments
+   * whose records are known to be valid.
+   */
+  @Config("store.index.log.segment.validity.tracking.enabled")
+  @Default("false")
+  public final boolean storeIndexLogSegmentValidityTrackingEnabled;
+
+  /**
+   * True to persist the crcs of the recent blobs held by the journal along with the index, and to restore them when the
+   * journal is rebuilt from the index on startup.
+   */
+  @Config("store.journal.crc.snapshot.enabled")
+  @Default("false")
+  public final boolean storeJournalCrcSnapshotEnabled;
+
+  /**
+   * True to let the disk I/O scheduler of each disk adjust the rates of background jobs (hard delete, compaction,
+   * stats index scans) from the p99 latency of foreground reads and writes on that disk.
+   */
+  @Config("store.disk.io.scheduler.adaptive.enabled")
+  @Default("false")
+  public final boolean storeDiskIoSchedulerAdaptiveEnabled;
+
+  /**
+   * The minimum interval between two adjustments of the background share by the adaptive disk I/O scheduler.
+   */
+  @Config("store.disk.io.scheduler.adjust.interval.ms")
+  @Default("1000")
+  public final int storeDiskIoSchedulerAdjustIntervalMs;
+
+  /**
+   * A normalized foreground read latency threshold(per MB). If the p99 of foreground disk reads is higher than the
+   * threshold, the adaptive disk I/O scheduler shrinks the share of background jobs.
+   */
+  @Config("store.disk.io.scheduler.foreground.read.latency.threshold.ms")
+  @Default("50")
+  public final int storeDiskIoSchedulerForegroundReadLatencyThresholdMs;
+
+  /**
+   * A normalized foreground write latency threshold(per MB). If the p99 of foreground disk writes is higher than the
+   * threshold, the adaptive disk I/O scheduler shrinks the share of background jobs.
+   */
+  @Config("store.disk.io.scheduler.foreground.write.latency.threshold.ms")
+  @Default("50")
+  public final int storeDiskIoSchedulerForegroundWriteLatencyThresholdMs;
+
+  /**
+   * The lower bound of the share of their configured rate that background jobs are always allowed by the adaptive disk
+   * I/O scheduler.
+   */
+  @Config("store.disk.io.scheduler.min.background.share")
+  @Default("0.1")
+  public final double storeDiskIoSchedulerMinBackgroundShare;
+
+  /**
+   * The total size in bytes of the cache of serialized messages of frequently read small blobs that is shared by all
+   * the stores on a node. 0 disables the cache.
+   */
+  @Config("store.blob.read.cache.size.bytes")
+  @Default("0")
+  public final long storeBlobReadCacheSizeBytes;
+
+  /**
+   * The size in bytes of the largest message that is kept in the blob read cache.
+   */
+  @Config("store.blob.read.cache.max.entry.size.bytes")
+  @Default("65536")
+  public final int storeBlobReadCacheMaxEntrySizeBytes;
+
   public StoreConfig(VerifiableProperties verifiableProperties) {
 
     storeKeyFactory = verifiableProperties.getString("store.key.factory", "com.github.ambry.commons.BlobIdFactory");
@@ -500,6 +628,8 @@ public class StoreConfig {
         verifiableProperties.getIntInRange("store.compaction.min.buffer.size", 10 * 1024 * 1024, 0, Integer.MAX_VALUE);
     storeCompactionFilter =
         verifiableProperties.getString("store.compaction.filter", "IndexSegmentValidEntryFilterWithoutUndelete");
+    storeCompactionCopyValidEntriesLookahead =
+        verifiableProperties.getIntInRange("store.compaction.copy.valid.entries.lookahead", 0, 0, 16);
     storeEnableHardDelete = verifiableProperties.getBoolean("store.enable.hard.delete", false);
     storeSegmentSizeInBytes =
         verifiableProperties.getLongInRange("store.segment.size.in.bytes", Long.MAX_VALUE, 1, Long.MAX_VALUE);
@@ -551,6 +681,8 @@ public class StoreConfig {
     storeUuidBasedBloomFilterEnabled = verifiableProperties.getBoolean("store.uuid.based.bloom.filter.enabled", false);
     storeIndexRebuildBloomFilterEnabled =
         verifiableProperties.getBoolean("store.index.rebuild.bloom.filter.enabled", false);
+    storeIndexBlockedBloomFilterEnabled =
+        verifiableProperties.getBoolean("store.index.blocked.bloom.filter.enabled", false);
     storeBloomFilterMaximumPageCount =
         verifiableProperties.getIntInRange("store.bloom.filter.maximum.page.count", 128, 1, Integer.MAX_VALUE);
     storeContainerDeletionEnabled = verifiableProperties.getBoolean("store.container.deletion.enabled", false);
@@ -573,5 +705,34 @@ public class StoreConfig {
             Integer.MAX_VALUE);
     storeDiskIoReservoirTimeWindowMs =
         verifiableProperties.getIntInRange("store.disk.io.reservoir.time.window.ms", 200, 0, Integer.MAX_VALUE);
+    storeGroupCommitEnabled = verifiableProperties.getBoolean("store.group.commit.enabled", false);
+    storeGroupCommitMaxBatchSize =
+        verifiableProperties.getIntInRange("store.group.commit.max.batch.size", 64, 1, Integer.MAX_VALUE);
+    storeIndexInMemSegmentOffHeapEnabled =
+        verifiableProperties.getBoolean("store.index.in.mem.segment.off.heap.enabled", false);
+    storeIndexSealedSegmentFenceInterval =
+        verifiableProperties.getIntInRange("store.index.sealed.segment.fence.interval", 0, 0, Integer.MAX_VALUE);
+    storeIndexKeyLookupCacheMaxEntries =
+        verifiableProperties.getIntInRange("store.index.key.lookup.cache.max.entries", 0, 0, Integer.MAX_VALUE);
+    storeIndexLogSegmentValidityTrackingEnabled =
+        verifiableProperties.getBoolean("store.index.log.segment.validity.tracking.enabled", false);
+    storeJournalCrcSnapshotEnabled = verifiableProperties.getBoolean("store.journal.crc.snapshot.enabled", false);
+    storeDiskIoSchedulerAdaptiveEnabled =
+        verifiableProperties.getBoolean("store.disk.io.scheduler.adaptive.enabled", false);
+    storeDiskIoSchedulerAdjustIntervalMs =
+        verifiableProperties.getIntInRange("store.disk.io.scheduler.adjust.interval.ms", 1000, 0, Integer.MAX_VALUE);
+    storeDiskIoSchedulerForegroundReadLatencyThresholdMs =
+        verifiableProperties.getIntInRange("store.disk.io.scheduler.foreground.read.latency.threshold.ms", 50, 0,
+            Integer.MAX_VALUE);
+    storeDiskIoSchedulerForegroundWriteLatencyThresholdMs =
+        verifiableProperties.getIntInRange("store.disk.io.scheduler.foreground.write.latency.threshold.ms", 50, 0,
+            Integer.MAX_VALUE);
+    storeDiskIoSchedulerMinBackgroundShare =
+        verifiableProperties.getDoubleInRange("store.disk.io.scheduler.min.background.share", 0.1, 0.0, 1.0);
+    storeBlobReadCacheSizeBytes =
+        verifiableProperties.getLongInRange("store.blob.read.cache.size.bytes", 0, 0, Long.MAX_VALUE);
+    storeBlobReadCacheMaxEntrySizeBytes =
+        verifiableProperties.getIntInRange("store.blob.read.cache.max.entry.size.bytes", 64 * 1024, 1,
+            Integer.MAX_VALUE);
   }
 }
@@ -120,6 +120,15 @@ public class RestUtils {
      * has been modified after the value set for this header.
      */
     public static final String IF_MODIFIED_SINCE = "If-Modified-Since";
+    /**
+     * Header to be set by the clients during a Get blob call to denote, that blob should be served only if its entity
+     * tag does not match any of the entity tags set for this header.
+     */
+    public static final String IF_NONE_MATCH = "If-None-Match";
+    /**
+     * Header that is set in the response of GET and HEAD blob requests with the entity tag of the blob.
+     */
+    public static final String ETAG = "ETag";
     /**
      * Header that is set in the response of OPTIONS request that specifies the allowed methods.
      */
@@ -13,7 +13,11 @@
  */
 package com.github.ambry.store;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.Unpooled;
 import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
 import java.nio.channels.ReadableByteChannel;
 
 
@@ -39,4 +43,16 @@ public interface Write {
    * @throws StoreException if store error occurs when writing into underlying interface
    */
   void appendFrom(ReadableByteChannel channel, long size) throws StoreException;
+
+  /**
+   * Appends the content of all the given buffers to the underlying write interface as a single unit, i.e. the data of
+   * all the buffers is written contiguously. Implementations backed by a file should override this to use a gathering
+   * write instead of copying the buffers through an intermediate buffer.
+   * @param buffers The buffers from which data needs to be written from
+   * @throws StoreException if store error occurs when writing into underlying interface
+   */
+  default void appendFrom(ByteBuffer[] buffers) throws StoreException {
+    ByteBuf wrapped = Unpooled.wrappedBuffer(buffers);
+    appendFrom(Channels.newChannel(new ByteBufInputStream(wrapped)), wrapped.readableBytes());
+  }
 }
@@ -47,13 +47,19 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -67,8 +73,6 @@ import static com.github.ambry.cloud.CloudBlobMetadata.*;
 class CloudBlobStore implements Store {
 
   private static final Logger logger = LoggerFactory.getLogger(CloudBlobStore.class);
-  private static final int cacheInitialCapacity = 1000;
-  private static final float cacheLoadFactor = 0.75f;
   static final int STATUS_NOT_FOUND = 404;
   private static final short IGNORE_LIFE_VERSION = -2;
   private final PartitionId partitionId;
@@ -82,11 +86,19 @@ class CloudBlobStore implements Store {
   private final long ttlUpdateBufferTimeMs;
 
   // Map blobId to state (created, ttlUpdated, deleted)
-  private final Map<String, BlobLifeState> recentBlobCache;
+  private final RecentBlobCache recentBlobCache;
   private final long minTtlMillis;
   private final boolean requireEncryption;
   // Distinguishes between VCR and live serving mode
   private final boolean isVcr;
+  // Runs the uploads of a put concurrently. Null if the blobs are uploaded one at a time on the thread calling put.
+  private final ExecutorService uploadExecutor;
+  // Runs the metadata queries of findMissingKeys concurrently. Null if all the keys are looked up with one query.
+  private final ExecutorService findMissingKeysExecutor;
+  private final int findMissingKeysParallelism;
+  private final int findMissingKeysMinBatchSize;
+  // Bounds the number of uploads of this store that are in flight at once.
+  private final Semaphore uploadPermits;
   private boolean started;
   private volatile ReplicaState currentState = ReplicaState.OFFLINE;
 
@@ -101,6 +113,27 @@ class CloudBlobStore implements Store {
    */
   CloudBlobStore(VerifiableProperties properties, PartitionId partitionId, CloudDestination cloudDestination,
       ClusterMap clusterMap, VcrMetrics vcrMetrics) throws IllegalStateException {
+    this(properties, partitionId, cloudDestination, clusterMap, vcrMetrics, null, null);
+  }
+
+  /**
+   * Constructor for CloudBlobStore
+   * @param properties the {@link VerifiableProperties} to use.
+   * @param partitionId partition associated with BlobStore.
+   * @param cloudDestination the {@link CloudDestination} to use.
+   * @param clusterMap the {@link ClusterMap} to use.
+   * @param vcrMetrics the {@link VcrMetrics} to use.
+   * @param uploadExecutor the {@link ExecutorService} to run the uploads of a put on, up to
+   *                       {@link CloudConfig#cloudBlobStoreUploadConcurrency} at once. If {@code null}, blobs are
+   *                       uploaded one at a time on the thread calling put.
+   * @param findMissingKeysExecutor the {@link ExecutorService} to run the metadata queries of findMissingKeys on, up to
+   *                                {@link CloudConfig#cloudFindMissingKeysParallelism} at once. If {@code null}, all
+   *                                the keys are looked up with a single query on the calling thread.
+   * @throws IllegalStateException if construction failed.
+   */
+  CloudBlobStore(VerifiableProperties properties, PartitionId partitionId, CloudDestination cloudDestination,
+      ClusterMap clusterMap, VcrMetrics vcrMetrics, ExecutorService uploadExecutor,
+      ExecutorService findMissingKeysExecutor) throws IllegalStateException {
     CloudConfig cloudConfig = new CloudConfig(properties);
     ClusterMapConfig clusterMapConfig = new ClusterMapConfig(properties);
     this.clusterMap = clusterMap;
@@ -115,12 +148,18 @@ class CloudBlobStore implements Store {
     if (isVcr) {
       logger.info("Creating cloud blob store for partition {} with cache size {}", partitionId.toPathString(),
           cloudConfig.recentBlobCacheLimit);
-      recentBlobCache = Collections.synchronizedMap(new RecentBlobCache(cloudConfig.recentBlobCacheLimit));
+      recentBlobCache = new RecentBlobCache(cloudConfig.recentBlobCacheLimit);
     } else {
       logger.info("Creating cloud blob store for partition {} with no cache", partitionId.toPathString());
-      recentBlobCache = Collections.emptyMap();
+      recentBlobCache = new RecentBlobCache(0);
     }
     requestAgent = new CloudRequestAgent(cloudConfig, vcrMetrics);
+    this.uploadExecutor = cloudConfig.cloudBlobStoreUploadConcurrency > 1 ? uploadExecutor : null;
+    uploadPermits = new Semaphore(cloudConfig.cloudBlobStoreUploadConcurrency);
+    this.findMissingKeysExecutor =
+        cloudConfig.cloudFindMissingKeysParallelism > 1 ? findMissingKeysExecutor : null;
+    findMissingKeysParallelism = cloudConfig.cloudFindMissingKeysParallelism;
+    findMissingKeysMinBatchSize = cloudConfig.cloudFindMissingKeysMinBatchSize;
 
     String cryptoAgentFactoryClass = cloudConfig.cloudBlobCryptoAgentFactoryClass;
     try {
@@ -251,7 +290,14 @@ class CloudBlobStore implements Store {
 
     // Write the blobs in the message set
     CloudWriteChannel cloudWriter = new CloudWriteChannel(this, messageSetToWrite.getMessageSetInfo());
-    messageSetToWrite.writeTo(cloudWriter);
+    try {
+      messageSetToWrite.writeTo(cloudWriter);
+    } finally {
+      // The put must not return while uploads are in flight, so that a TTL update or delete of a blob that follows it
+      // can't overtake the upload of the blob.
+      cloudWriter.awaitPendingUploads();
+    }
+    cloudWriter.throwIfUploadFailed();
   }
 
   /**
@@ -742,14 +788,7 @@ class CloudBlobStore implements Store {
   // Visible for test.
   void addToCache(String blobKey, short lifeVersion, BlobState blobState) {
     if (isVcr) {
-      if (blobState == BlobState.TTL_UPDATED) {
-        // In case of ttl update we update the ttl without taking into account the life version.
-        // So make sure that we do not decrease the lifeVersion in cache due to an incoming ttl update.
-        if (recentBlobCache.containsKey(blobKey)) {
-          lifeVersion = (short) Math.max(lifeVersion, recentBlobCache.get(blobKey).getLifeVersion());
-        }
-      }
-      recentBlobCache.put(blobKey, new BlobLifeState(blobState, lifeVersion, recentBlobCache.get(blobKey)));
+      recentBlobCache.merge(blobKey, lifeVersion, blobState);
     }
   }
 
@@ -817,19 +856,67 @@ class CloudBlobStore implements Store {
       return Collections.emptySet();
     }
     try {
-      Set<String> foundSet =
-          requestAgent.doWithRetries(() -> cloudDestination.getBlobMetadata(blobIdQueryList), "FindMissingKeys",
-              partitionId.toPathString()).keySet();
+      Map<String, CloudBlobMetadata> foundMetadata = getBlobMetadataBatched(blobIdQueryList);
+      // Remember the blobs that exist in cloud, so that the next lookups and puts of them don't need a query.
+      for (CloudBlobMetadata metadata : foundMetadata.values()) {
+        addToCache(metadata.getId(), metadata.getLifeVersion(),
+            metadata.isDeleted() ? BlobState.DELETED : BlobState.CREATED);
+      }
+      Set<String> foundSet = foundMetadata.keySet();
       // return input keys - cached keys - keys returned by query
       return keys.stream()
           .filter(key -> !foundSet.contains(key.getID()))
-          .filter(key -> !recentBlobCache.containsKey(key.getID()))
+          .filter(key -> !recentBlobCache.contains(key.getID()))
           .collect(Collectors.toSet());
     } catch (CloudStorageException ex) {
       throw new StoreException(ex, StoreErrorCodes.IOError);
     }
   }
 
+  /**
+   * Get the metadata of the specified blobs. If findMissingKeys parallelism is enabled, the blobs are split into up to
+   * {@link CloudConfig#cloudFindMissingKeysParallelism} batches of at least
+   * {@link CloudConfig#cloudFindMissingKeysMinBatchSize} blobs that are queried concurrently.
+   * @param blobIds the blobs to get the metadata of.
+   * @return the {@link CloudBlobMetadata} of the blobs that exist in cloud, keyed by blob id.
+   * @throws CloudStorageException if any of the queries failed.
+   */
+  private Map<String, CloudBlobMetadata> getBlobMetadataBatched(List<BlobId> blobIds) throws CloudStorageException {
+    int batchSize = Math.max(findMissingKeysMinBatchSize,
+        (blobIds.size() + findMissingKeysParallelism - 1) / findMissingKeysParallelism);
+    if (findMissingKeysExecutor == null || blobIds.size() <= batchSize) {
+      return requestAgent.doWithRetries(() -> cloudDestination.getBlobMetadata(blobIds), "FindMissingKeys",
+          partitionId.toPathString());
+    }
+    List<Future<Map<String, CloudBlobMetadata>>> futures = new ArrayList<>();
+    try {
+      for (List<BlobId> batch : Utils.partitionList(blobIds, batchSize)) {
+        futures.add(findMissingKeysExecutor.submit(
+            () -> requestAgent.doWithRetries(() -> cloudDestination.getBlobMetadata(batch), "FindMissingKeys",
+                partitionId.toPathString())));
+      }
+      Map<String, CloudBlobMetadata> metadataMap = new HashMap<>();
+      for (Future<Map<String, CloudBlobMetadata>> future : futures) {
+        metadataMap.putAll(future.get());
+      }
+      vcrMetrics.findMissingKeysBatchCount.inc(futures.size());
+      return metadataMap;
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof CloudStorageException) {
+        throw (CloudStorageException) e.getCause();
+      }
+      throw new CloudStorageException("Failed to get blob metadata", e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new CloudStorageException("Interrupted while getting blob metadata", e);
+    } catch (RejectedExecutionException e) {
+      throw new CloudStorageException("Failed to get blob metadata", e);
+    } finally {
+      // no-op for the queries that are done already.
+      futures.forEach(future -> future.cancel(true));
+    }
+  }
+
   @Override
   public MessageInfo findKey(StoreKey key) throws StoreException {
     try {
@@ -1019,10 +1106,15 @@ class CloudBlobStore implements Store {
     }
   }
 
-  /** A {@link Write} implementation used by this store to write data. */
+  /**
+   * A {@link Write} implementation used by this store to write data. If the store has an upload executor, the blobs are
+   * uploaded on it, so the caller must wait for them with {@link #awaitPendingUploads()}.
+   */
   private class CloudWriteChannel implements Write {
     private final CloudBlobStore cloudBlobStore;
     private final List<MessageInfo> messageInfoList;
+    private final List<Future<?>> pendingUploads = new ArrayList<>();
+    private final AtomicReference<StoreException> uploadException = new AtomicReference<>();
     private int messageIndex = 0;
 
     CloudWriteChannel(CloudBlobStore cloudBlobStore, List<MessageInfo> messageInfoList) {
@@ -1055,29 +1147,84 @@ class CloudBlobStore implements Store {
           bytesRead += readResult;
         }
         messageBuf.flip();
-        cloudBlobStore.putBlob(messageInfo, messageBuf, size);
+        if (uploadExecutor == null) {
+          cloudBlobStore.putBlob(messageInfo, messageBuf, size);
+        } else {
+          submitUpload(messageInfo, messageBuf, size);
+        }
         messageIndex++;
       } catch (IOException | CloudStorageException e) {
         throw new StoreException(e, StoreErrorCodes.IOError);
       }
     }
-  }
 
-  /**
-   * A local LRA cache of recent blobs processed by this store.
-   */
-  private class RecentBlobCache extends LinkedHashMap<String, BlobLifeState> {
-    private final int maxEntries;
+    /**
+     * Uploads the blob on the upload executor once fewer than {@link CloudConfig#cloudBlobStoreUploadConcurrency}
+     * uploads of the store are in flight.
+     * @param messageInfo the {@link MessageInfo} containing blob metadata.
+     * @param messageBuf the bytes to be uploaded.
+     * @param size the number of bytes to upload.
+     * @throws StoreException if an earlier upload of this put failed or the upload couldn't be submitted.
+     */
+    private void submitUpload(MessageInfo messageInfo, ByteBuffer messageBuf, long size) throws StoreException {
+      throwIfUploadFailed();
+      try {
+        uploadPermits.acquire();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new StoreException("Interrupted while waiting to upload " + messageInfo.getStoreKey().getID(),
+            StoreErrorCodes.IOError);
+      }
+      try {
+        pendingUploads.add(uploadExecutor.submit(() -> {
+          try {
+            cloudBlobStore.putBlob(messageInfo, messageBuf, size);
+          } catch (StoreException e) {
+            uploadException.compareAndSet(null, e);
+          } catch (Exception e) {
+            uploadException.compareAndSet(null, new StoreException(e, StoreErrorCodes.IOError));
+          } finally {
+            uploadPermits.release();
+          }
+        }));
+      } catch (RejectedExecutionException e) {
+        uploadPermits.release();
+        throw new StoreException(e, StoreErrorCodes.IOError);
+      }
+    }
 
-    public RecentBlobCache(int maxEntries) {
-      // Use access order for eviction
-      super(cacheInitialCapacity, cacheLoadFactor, true);
-      this.maxEntries = maxEntries;
+    /**
+     * Waits for all the uploads submitted by this channel to finish.
+     */
+    void awaitPendingUploads() {
+      boolean interrupted = false;
+      for (Future<?> pendingUpload : pendingUploads) {
+        while (true) {
+          try {
+            pendingUpload.get();
+            break;
+          } catch (InterruptedException e) {
+            interrupted = true;
+          } catch (ExecutionException e) {
+            // the upload task records its own failures, so this is only reached on an Error.
+            uploadException.compareAndSet(null, new StoreException(e.getCause(), StoreErrorCodes.IOError));
+            break;
+          }
+        }
+      }
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
     }
 
-    @Override
-    protected boolean removeEldestEntry(Map.Entry<String, BlobLifeState> eldest) {
-      return (this.size() > maxEntries);
+    /**
+     * @throws StoreException the failure of the first upload submitted by this channel that failed, if any.
+     */
+    void throwIfUploadFailed() throws StoreException {
+      StoreException e = uploadException.get();
+      if (e != null) {
+        throw e;
+      }
     }
   }
 }
@@ -16,14 +16,19 @@ package com.github.ambry.cloud;
 import com.github.ambry.clustermap.ClusterMap;
 import com.github.ambry.clustermap.PartitionId;
 import com.github.ambry.clustermap.ReplicaId;
+import com.github.ambry.config.CloudConfig;
 import com.github.ambry.config.VerifiableProperties;
 import com.github.ambry.server.ServerErrorCode;
 import com.github.ambry.server.StoreManager;
 import com.github.ambry.store.Store;
+import com.github.ambry.utils.Utils;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import org.slf4j.Logger;
@@ -40,6 +45,10 @@ public class CloudStorageManager implements StoreManager {
   private final CloudDestination cloudDestination;
   private final VcrMetrics vcrMetrics;
   private final ClusterMap clusterMap;
+  // Uploads the blobs of all the stores. Null if each store uploads its blobs one at a time.
+  private final ExecutorService uploadExecutor;
+  // Runs the metadata queries of findMissingKeys of all the stores. Null if each store runs a single query.
+  private final ExecutorService findMissingKeysExecutor;
   private static final Logger logger = LoggerFactory.getLogger(CloudStorageManager.class);
 
   public CloudStorageManager(VerifiableProperties properties, VcrMetrics vcrMetrics, CloudDestination cloudDestination,
@@ -49,6 +58,13 @@ public class CloudStorageManager implements StoreManager {
     this.cloudDestination = cloudDestination;
     this.vcrMetrics = vcrMetrics;
     this.clusterMap = clusterMap;
+    CloudConfig cloudConfig = new CloudConfig(properties);
+    uploadExecutor = cloudConfig.cloudBlobStoreUploadConcurrency > 1 ? Executors.newFixedThreadPool(
+        cloudConfig.cloudUploadThreadCount, runnable -> Utils.newThread("cloud-blob-store-upload", runnable, true))
+        : null;
+    findMissingKeysExecutor = cloudConfig.cloudFindMissingKeysParallelism > 1 ? Executors.newFixedThreadPool(
+        cloudConfig.cloudRequestThreadCount, runnable -> Utils.newThread("cloud-blob-store-request", runnable, true))
+        : null;
     lock = new ReentrantReadWriteLock();
   }
 
@@ -133,6 +149,19 @@ public class CloudStorageManager implements StoreManager {
     }
   }
 
+  /**
+   * Shuts down the thread pools that run the concurrent uploads and metadata queries of the stores. Uploads and queries
+   * that are already queued are run first. Must be called once the stores don't take requests anymore.
+   */
+  public void shutdown() {
+    if (uploadExecutor != null) {
+      Utils.shutDownExecutorService(uploadExecutor, 1, TimeUnit.MINUTES);
+    }
+    if (findMissingKeysExecutor != null) {
+      Utils.shutDownExecutorService(findMissingKeysExecutor, 1, TimeUnit.MINUTES);
+    }
+  }
+
   @Override
   public ServerErrorCode checkLocalPartitionStatus(PartitionId partition, ReplicaId localReplica) {
     /*
@@ -154,7 +183,8 @@ public class CloudStorageManager implements StoreManager {
       if (partitionToStore.containsKey(partitionId)) {
         return partitionToStore.get(partitionId);
       }
-      CloudBlobStore store = new CloudBlobStore(properties, partitionId, cloudDestination, clusterMap, vcrMetrics);
+      CloudBlobStore store = new CloudBlobStore(properties, partitionId, cloudDestination, clusterMap, vcrMetrics,
+          uploadExecutor, findMissingKeysExecutor);
       partitionToStore.put(partitionId, store);
       store.start();
       return store;
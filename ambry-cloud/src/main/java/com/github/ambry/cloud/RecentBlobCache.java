@@ -0,0 +1,192 @@
+/**
+ * Copyright 2021 LinkedIn Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ */
+package com.github.ambry.cloud;
+
+import com.github.ambry.cloud.CloudBlobStore.BlobLifeState;
+import com.github.ambry.cloud.CloudBlobStore.BlobState;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+
+/**
+ * A cache of the life states of the blobs recently processed by a {@link CloudBlobStore}, bounded by a number of
+ * entries. The cache is split into segments that each guard an access ordered {@link LinkedHashMap} with their own
+ * lock, so that the replica threads of a VCR only contend when they touch blobs of the same segment. Eviction is least
+ * recently accessed first within a segment, so approximate LRU for the cache as a whole. Blob ids are kept in their
+ * binary form rather than as base64 strings.
+ */
+class RecentBlobCache {
+  private static final int MAX_SEGMENT_COUNT = 16;
+  private static final int MIN_ENTRIES_PER_SEGMENT = 1024;
+  private static final int SEGMENT_INITIAL_CAPACITY = 64;
+  private static final float SEGMENT_LOAD_FACTOR = 0.75f;
+
+  private final Segment[] segments;
+
+  /**
+   * @param maxEntries the max number of blobs in the cache.
+   */
+  RecentBlobCache(int maxEntries) {
+    int segmentCount =
+        Integer.highestOneBit(Math.max(1, Math.min(MAX_SEGMENT_COUNT, maxEntries / MIN_ENTRIES_PER_SEGMENT)));
+    int maxEntriesPerSegment = (maxEntries + segmentCount - 1) / segmentCount;
+    segments = new Segment[segmentCount];
+    for (int i = 0; i < segmentCount; i++) {
+      segments[i] = new Segment(maxEntriesPerSegment);
+    }
+  }
+
+  /**
+   * @param blobKey the id of the blob.
+   * @return the cached {@link BlobLifeState} of the blob, or {@code null} if it isn't cached.
+   */
+  BlobLifeState get(String blobKey) {
+    Key key = new Key(blobKey);
+    return getSegment(key).get(key);
+  }
+
+  /**
+   * @param blobKey the id of the blob.
+   * @return {@code true} if the blob is cached. Unlike {@link #get(String)}, this doesn't count as an access.
+   */
+  boolean contains(String blobKey) {
+    Key key = new Key(blobKey);
+    return getSegment(key).contains(key);
+  }
+
+  /**
+   * Atomically merges a new state of a blob into its cached state. A TTL update never lowers the cached life version,
+   * and a blob whose TTL was updated stays TTL updated.
+   * @param blobKey the id of the blob.
+   * @param lifeVersion the life version of the blob in the new state.
+   * @param blobState the new {@link BlobState} of the blob.
+   */
+  void merge(String blobKey, short lifeVersion, BlobState blobState) {
+    Key key = new Key(blobKey);
+    getSegment(key).merge(key, lifeVersion, blobState);
+  }
+
+  /**
+   * @param blobKey the id of the blob to remove.
+   */
+  void remove(String blobKey) {
+    Key key = new Key(blobKey);
+    getSegment(key).remove(key);
+  }
+
+  /**
+   * Removes all the blobs from the cache.
+   */
+  void clear() {
+    for (Segment segment : segments) {
+      segment.clear();
+    }
+  }
+
+  /**
+   * @return the number of blobs in the cache.
+   */
+  int size() {
+    int size = 0;
+    for (Segment segment : segments) {
+      size += segment.size();
+    }
+    return size;
+  }
+
+  private Segment getSegment(Key key) {
+    int hash = key.hashCode();
+    return segments[(hash ^ (hash >>> 16)) & (segments.length - 1)];
+  }
+
+  /**
+   * The binary form of a blob id.
+   */
+  private static class Key {
+    private final byte[] bytes;
+    private final int hash;
+
+    Key(String blobKey) {
+      byte[] decoded;
+      try {
+        decoded = Base64.getUrlDecoder().decode(blobKey);
+      } catch (IllegalArgumentException e) {
+        // not a blob id, fall back to the raw string.
+        decoded = blobKey.getBytes(StandardCharsets.UTF_8);
+      }
+      bytes = decoded;
+      hash = Arrays.hashCode(bytes);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return this == o || (o instanceof Key && Arrays.equals(bytes, ((Key) o).bytes));
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+
+  /**
+   * A part of the cache with its own lock and LRU order.
+   */
+  private static class Segment {
+    private final Map<Key, BlobLifeState> map;
+
+    Segment(int maxEntries) {
+      // Use access order for eviction
+      map = new LinkedHashMap<Key, BlobLifeState>(SEGMENT_INITIAL_CAPACITY, SEGMENT_LOAD_FACTOR, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, BlobLifeState> eldest) {
+          return size() > maxEntries;
+        }
+      };
+    }
+
+    synchronized BlobLifeState get(Key key) {
+      return map.get(key);
+    }
+
+    synchronized boolean contains(Key key) {
+      return map.containsKey(key);
+    }
+
+    synchronized void merge(Key key, short lifeVersion, BlobState blobState) {
+      BlobLifeState previous = map.get(key);
+      if (blobState == BlobState.TTL_UPDATED && previous != null) {
+        // In case of ttl update we update the ttl without taking into account the life version.
+        // So make sure that we do not decrease the lifeVersion in cache due to an incoming ttl update.
+        lifeVersion = (short) Math.max(lifeVersion, previous.getLifeVersion());
+      }
+      map.put(key, new BlobLifeState(blobState, lifeVersion, previous));
+    }
+
+    synchronized void remove(Key key) {
+      map.remove(key);
+    }
+
+    synchronized void clear() {
+      map.clear();
+    }
+
+    synchronized int size() {
+      return map.size();
+    }
+  }
+}
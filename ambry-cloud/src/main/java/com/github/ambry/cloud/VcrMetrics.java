@@ -38,6 +38,7 @@ public class VcrMetrics {
   // Cache counters
   public final Counter blobCacheLookupCount;
   public final Counter blobCacheHitCount;
+  public final Counter findMissingKeysBatchCount;
   // Error counters
   public final Counter blobUploadSkippedCount;
   public final Counter updateTtlNotSetError;
@@ -76,6 +77,8 @@ public class VcrMetrics {
     updateTtlNotSetError = registry.counter(MetricRegistry.name(CloudBlobStore.class, "UpdateTtlNotSetError"));
     blobCacheLookupCount = registry.counter(MetricRegistry.name(CloudBlobStore.class, "BlobCacheLookupCount"));
     blobCacheHitCount = registry.counter(MetricRegistry.name(CloudBlobStore.class, "BlobCacheHitCount"));
+    findMissingKeysBatchCount =
+        registry.counter(MetricRegistry.name(CloudBlobStore.class, "FindMissingKeysBatchCount"));
     retryCount = registry.counter(MetricRegistry.name(CloudBlobStore.class, "RetryCount"));
     retryWaitTimeMsec = registry.counter(MetricRegistry.name(CloudBlobStore.class, "RetryWaitTimeMsec"));
     blobCompactionRate = registry.meter(MetricRegistry.name(CloudStorageCompactor.class, "BlobCompactionRate"));
@@ -81,6 +81,7 @@ public class VcrServer {
   private NetworkServer networkServer = null;
   private ScheduledExecutorService scheduler = null;
   private VcrReplicationManager vcrReplicationManager = null;
+  private CloudStorageManager cloudStorageManager = null;
   private static final Logger logger = LoggerFactory.getLogger(VcrServer.class);
   private final VerifiableProperties properties;
   private final ClusterAgentsFactory clusterAgentsFactory;
@@ -198,8 +199,7 @@ public class VcrServer {
       StoreKeyConverterFactory storeKeyConverterFactory =
           Utils.getObj(serverConfig.serverStoreKeyConverterFactory, properties, registry);
       VcrMetrics vcrMetrics = new VcrMetrics(registry);
-      CloudStorageManager cloudStorageManager =
-          new CloudStorageManager(properties, vcrMetrics, cloudDestination, clusterMap);
+      cloudStorageManager = new CloudStorageManager(properties, vcrMetrics, cloudDestination, clusterMap);
       vcrReplicationManager =
           new VcrReplicationManager(cloudConfig, replicationConfig, clusterMapConfig, storeConfig, cloudStorageManager,
               storeKeyFactory, clusterMap, vcrClusterParticipant, cloudDestination, scheduler, connectionPool,
@@ -286,6 +286,9 @@ public class VcrServer {
       if (vcrReplicationManager != null) {
         vcrReplicationManager.shutdown();
       }
+      if (cloudStorageManager != null) {
+        cloudStorageManager.shutdown();
+      }
       if (connectionPool != null) {
         connectionPool.shutdown();
       }
@@ -71,12 +71,16 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Random;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.Test;
@@ -522,6 +526,70 @@ public class CloudBlobStoreTest {
     }
   }
 
+  /** Test that findMissingKeys splits the keys into concurrent metadata queries when parallelism is enabled. */
+  @Test
+  public void testFindMissingKeysBatched() throws Exception {
+    int parallelism = 4;
+    int minBatchSize = 5;
+    Properties props = new Properties();
+    setBasicProperties(props);
+    props.setProperty(CloudConfig.VCR_REQUIRE_ENCRYPTION, "false");
+    props.setProperty(CloudConfig.CLOUD_BLOB_CRYPTO_AGENT_FACTORY_CLASS,
+        TestCloudBlobCryptoAgentFactory.class.getName());
+    props.setProperty(CloudConfig.CLOUD_FIND_MISSING_KEYS_PARALLELISM, Integer.toString(parallelism));
+    props.setProperty(CloudConfig.CLOUD_FIND_MISSING_KEYS_MIN_BATCH_SIZE, Integer.toString(minBatchSize));
+    dest = mock(CloudDestination.class);
+    vcrMetrics = new VcrMetrics(new MetricRegistry());
+    ExecutorService findMissingKeysExecutor = Executors.newFixedThreadPool(parallelism);
+    try {
+      store = new CloudBlobStore(new VerifiableProperties(props), partitionId, dest, clusterMap, vcrMetrics, null,
+          findMissingKeysExecutor);
+      store.start();
+      int count = 20;
+      List<StoreKey> keys = new ArrayList<>();
+      Map<String, CloudBlobMetadata> metadataMap = new HashMap<>();
+      Set<StoreKey> expectedMissingKeys = new HashSet<>();
+      for (int j = 0; j < count; j++) {
+        BlobId existentBlobId = getUniqueId(refAccountId, refContainerId, false, partitionId);
+        keys.add(existentBlobId);
+        metadataMap.put(existentBlobId.getID(),
+            new CloudBlobMetadata(existentBlobId, operationTime, Utils.Infinite_Time, 1024,
+                CloudBlobMetadata.EncryptionOrigin.ROUTER));
+        BlobId nonexistentBlobId = getUniqueId(refAccountId, refContainerId, false, partitionId);
+        keys.add(nonexistentBlobId);
+        expectedMissingKeys.add(nonexistentBlobId);
+      }
+      // each query only returns the metadata of the blobs it asked for.
+      when(dest.getBlobMetadata(anyList())).thenAnswer(invocation -> {
+        List<BlobId> blobIds = invocation.getArgument(0);
+        Map<String, CloudBlobMetadata> result = new HashMap<>();
+        blobIds.stream()
+            .filter(blobId -> metadataMap.containsKey(blobId.getID()))
+            .forEach(blobId -> result.put(blobId.getID(), metadataMap.get(blobId.getID())));
+        return result;
+      });
+      assertEquals("Unexpected missing keys", expectedMissingKeys, store.findMissingKeys(keys));
+      verify(dest, times(parallelism)).getBlobMetadata(anyList());
+      assertEquals("Unexpected batch count", parallelism, vcrMetrics.findMissingKeysBatchCount.getCount());
+
+      // no more keys than the min batch size are looked up with a single query.
+      List<StoreKey> fewKeys = keys.subList(0, minBatchSize);
+      store.findMissingKeys(fewKeys);
+      verify(dest, times(parallelism + 1)).getBlobMetadata(anyList());
+
+      if (isVcr) {
+        // the blobs found in cloud were cached, so only the missing ones are queried again.
+        reset(dest);
+        when(dest.getBlobMetadata(anyList())).thenReturn(Collections.emptyMap());
+        assertEquals("Unexpected missing keys", expectedMissingKeys, store.findMissingKeys(keys));
+        verify(dest, times(parallelism)).getBlobMetadata(argThat(blobIds -> blobIds.stream().allMatch(
+            blobId -> expectedMissingKeys.contains(blobId))));
+      }
+    } finally {
+      findMissingKeysExecutor.shutdownNow();
+    }
+  }
+
   /** Test the CloudBlobStore findEntriesSince method. */
   @Test
   public void testFindEntriesSince() throws Exception {
@@ -660,6 +728,60 @@ public class CloudBlobStoreTest {
     }
   }
 
+  /** Test that the blobs of a put are uploaded concurrently when the store has an upload executor. */
+  @Test
+  public void testConcurrentUploads() throws Exception {
+    int uploadConcurrency = 4;
+    CloudDestination concurrentDest = mock(CloudDestination.class);
+    CountDownLatch allUploadsStarted = new CountDownLatch(uploadConcurrency);
+    when(concurrentDest.uploadBlob(any(BlobId.class), anyLong(), any(), any(InputStream.class))).thenAnswer(
+        invocation -> {
+          // Only succeeds if all the uploads of the put are in flight at once.
+          allUploadsStarted.countDown();
+          if (!allUploadsStarted.await(10, TimeUnit.SECONDS)) {
+            throw new CloudStorageException("Uploads were not concurrent");
+          }
+          return true;
+        });
+    Properties props = new Properties();
+    setBasicProperties(props);
+    props.setProperty(CloudConfig.VCR_REQUIRE_ENCRYPTION, "false");
+    props.setProperty(CloudConfig.CLOUD_BLOB_CRYPTO_AGENT_FACTORY_CLASS,
+        TestCloudBlobCryptoAgentFactory.class.getName());
+    props.setProperty(CloudConfig.CLOUD_BLOB_STORE_UPLOAD_CONCURRENCY, Integer.toString(uploadConcurrency));
+    vcrMetrics = new VcrMetrics(new MetricRegistry());
+    ExecutorService uploadExecutor = Executors.newFixedThreadPool(uploadConcurrency);
+    try {
+      CloudBlobStore concurrentStore =
+          new CloudBlobStore(new VerifiableProperties(props), partitionId, concurrentDest, clusterMap, vcrMetrics,
+              uploadExecutor, null);
+      concurrentStore.start();
+      MockMessageWriteSet messageWriteSet = new MockMessageWriteSet();
+      for (int i = 0; i < uploadConcurrency; i++) {
+        CloudTestUtil.addBlobToMessageSet(messageWriteSet, 100, Utils.Infinite_Time, refAccountId, refContainerId,
+            true, false, partitionId, operationTime, isVcr);
+      }
+      concurrentStore.put(messageWriteSet);
+      verify(concurrentDest, times(uploadConcurrency)).uploadBlob(any(BlobId.class), anyLong(), any(),
+          any(InputStream.class));
+
+      // A failed upload fails the put once all of its uploads are done.
+      when(concurrentDest.uploadBlob(any(BlobId.class), anyLong(), any(), any(InputStream.class))).thenThrow(
+          new CloudStorageException("ouch"));
+      messageWriteSet = new MockMessageWriteSet();
+      CloudTestUtil.addBlobToMessageSet(messageWriteSet, 100, Utils.Infinite_Time, refAccountId, refContainerId, true,
+          false, partitionId, operationTime, isVcr);
+      try {
+        concurrentStore.put(messageWriteSet);
+        fail("Store put should have failed.");
+      } catch (StoreException e) {
+        assertEquals(StoreErrorCodes.IOError, e.getErrorCode());
+      }
+    } finally {
+      uploadExecutor.shutdownNow();
+    }
+  }
+
   /** Test verifying exception handling behavior. */
   @Test
   public void testExceptionalDest() throws Exception {
@@ -0,0 +1,103 @@
+/**
+ * Copyright 2021 LinkedIn Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ */
+package com.github.ambry.cloud;
+
+import com.github.ambry.cloud.CloudBlobStore.BlobLifeState;
+import com.github.ambry.cloud.CloudBlobStore.BlobState;
+import com.github.ambry.clustermap.MockClusterMap;
+import com.github.ambry.clustermap.MockPartitionId;
+import com.github.ambry.clustermap.PartitionId;
+import com.github.ambry.commons.BlobId;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+import static com.github.ambry.commons.BlobId.*;
+import static org.junit.Assert.*;
+
+
+/**
+ * Tests for {@link RecentBlobCache}.
+ */
+public class RecentBlobCacheTest {
+  private final PartitionId partitionId = new MockPartitionId(0, MockClusterMap.DEFAULT_PARTITION_CLASS);
+
+  /**
+   * Tests that merging a new state keeps the life version and the TTL update status of the cached state as needed.
+   */
+  @Test
+  public void mergeTest() {
+    RecentBlobCache cache = new RecentBlobCache(10);
+    String blobKey = newBlobKey();
+    assertNull("Blob should not be cached", cache.get(blobKey));
+    assertFalse("Blob should not be cached", cache.contains(blobKey));
+
+    cache.merge(blobKey, (short) 2, BlobState.CREATED);
+    BlobLifeState state = cache.get(blobKey);
+    assertEquals(BlobState.CREATED, state.getBlobState());
+    assertEquals(2, state.getLifeVersion());
+    assertFalse(state.isTtlUpdated());
+
+    // a ttl update doesn't lower the life version
+    cache.merge(blobKey, (short) 0, BlobState.TTL_UPDATED);
+    state = cache.get(blobKey);
+    assertEquals(BlobState.TTL_UPDATED, state.getBlobState());
+    assertEquals(2, state.getLifeVersion());
+    assertTrue(state.isTtlUpdated());
+
+    // the blob stays ttl updated after a delete
+    cache.merge(blobKey, (short) 3, BlobState.DELETED);
+    state = cache.get(blobKey);
+    assertEquals(BlobState.DELETED, state.getBlobState());
+    assertEquals(3, state.getLifeVersion());
+    assertTrue(state.isTtlUpdated());
+
+    cache.remove(blobKey);
+    assertFalse("Blob should have been removed", cache.contains(blobKey));
+
+    // keys that are not blob ids are supported too
+    cache.merge("not a blob id", (short) 0, BlobState.CREATED);
+    assertTrue("Key should be cached", cache.contains("not a blob id"));
+    cache.clear();
+    assertEquals("Cache should be empty", 0, cache.size());
+  }
+
+  /**
+   * Tests that the cache is bounded and evicts the least recently accessed blobs.
+   */
+  @Test
+  public void evictionTest() {
+    int maxEntries = 4096;
+    RecentBlobCache cache = new RecentBlobCache(maxEntries);
+    List<String> blobKeys = new ArrayList<>();
+    for (int i = 0; i < maxEntries * 3; i++) {
+      String blobKey = newBlobKey();
+      blobKeys.add(blobKey);
+      cache.merge(blobKey, (short) 0, BlobState.CREATED);
+      // keep accessing the first blob so that it is never the least recently accessed one
+      assertNotNull("First blob should not be evicted", cache.get(blobKeys.get(0)));
+    }
+    assertEquals("Unexpected cache size", maxEntries, cache.size());
+    assertTrue("Most recent blob should be cached", cache.contains(blobKeys.get(blobKeys.size() - 1)));
+    assertFalse("Old blob should have been evicted", cache.contains(blobKeys.get(1)));
+  }
+
+  /**
+   * @return the id of a new random blob.
+   */
+  private String newBlobKey() {
+    return new BlobId(BLOB_ID_V6, BlobIdType.NATIVE, (byte) 0, (short) 1, (short) 1, partitionId, false,
+        BlobDataType.DATACHUNK).getID();
+  }
+}
@@ -14,6 +14,7 @@
 package com.github.ambry.commons;
 
 import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
 import com.codahale.metrics.Histogram;
 import com.codahale.metrics.Meter;
 import com.codahale.metrics.MetricRegistry;
@@ -229,6 +230,10 @@ public class ServerMetrics {
 
   public final Map<String, Meter> crossColoFetchBytesRate = new ConcurrentHashMap<>();
   public final Map<String, Meter> crossColoMetadataExchangeBytesRate = new ConcurrentHashMap<>();
+  // Metrics of the request queues, keyed by the name of the queue and traffic class.
+  public final Map<String, Histogram> requestQueueWaitTimeInMs = new ConcurrentHashMap<>();
+  public final Map<String, Counter> requestQueueTimeoutDropCount = new ConcurrentHashMap<>();
+  public final Map<String, Counter> requestQueueStealCount = new ConcurrentHashMap<>();
 
   private final MetricRegistry registry;
   private final Class<?> requestClass;
@@ -530,6 +535,31 @@ public class ServerMetrics {
         .mark(bytes);
   }
 
+  /**
+   * Registers the depth gauge of a request queue.
+   * @param queueName the name of the queue and the traffic class it holds.
+   * @param depth the {@link Gauge} of the number of requests in the queue.
+   */
+  public void registerRequestQueueDepth(String queueName, Gauge<Integer> depth) {
+    registry.gauge(MetricRegistry.name(requestClass, queueName + "-RequestQueueDepth"), () -> depth);
+  }
+
+  public void updateRequestQueueWaitTime(String queueName, long waitTimeInMs) {
+    requestQueueWaitTimeInMs.computeIfAbsent(queueName,
+        name -> registry.histogram(MetricRegistry.name(requestClass, queueName + "-RequestQueueWaitTime")))
+        .update(waitTimeInMs);
+  }
+
+  public void markRequestQueueTimeoutDrop(String queueName) {
+    requestQueueTimeoutDropCount.computeIfAbsent(queueName,
+        name -> registry.counter(MetricRegistry.name(requestClass, queueName + "-RequestQueueTimeoutDropCount"))).inc();
+  }
+
+  public void markRequestQueueSteal(String queueName) {
+    requestQueueStealCount.computeIfAbsent(queueName,
+        name -> registry.counter(MetricRegistry.name(requestClass, queueName + "-RequestQueueStealCount"))).inc();
+  }
+
   /**
    * Update put blob request rate based on blob size.
    */
@@ -202,6 +202,7 @@ class AmbrySecurityService implements SecurityService {
             responseChannel.setStatus(options.getRange() == null ? ResponseStatus.Ok : ResponseStatus.PartialContent);
             responseChannel.setHeader(RestUtils.Headers.LAST_MODIFIED,
                 new Date(blobInfo.getBlobProperties().getCreationTimeInMs()));
+            responseChannel.setHeader(RestUtils.Headers.ETAG, FrontendUtils.getEntityTag(blobInfo.getBlobProperties()));
             setHeadResponseHeaders(blobInfo, options, restRequest, responseChannel);
             break;
           case GET:
@@ -213,10 +214,9 @@ class AmbrySecurityService implements SecurityService {
               responseChannel.setHeader(RestUtils.Headers.LAST_MODIFIED,
                   new Date(blobInfo.getBlobProperties().getCreationTimeInMs()));
               if (subResource == null) {
-                Long ifModifiedSinceMs = getIfModifiedSinceMs(restRequest);
-                if (ifModifiedSinceMs != null
-                    && RestUtils.toSecondsPrecisionInMs(blobInfo.getBlobProperties().getCreationTimeInMs())
-                    <= ifModifiedSinceMs) {
+                responseChannel.setHeader(RestUtils.Headers.ETAG,
+                    FrontendUtils.getEntityTag(blobInfo.getBlobProperties()));
+                if (FrontendUtils.isNotModified(restRequest, blobInfo.getBlobProperties())) {
                   responseChannel.setStatus(ResponseStatus.NotModified);
                 } else {
                   if (options.getRange() != null) {
@@ -279,18 +279,6 @@ class AmbrySecurityService implements SecurityService {
     isOpen = false;
   }
 
-  /**
-   * Fetches the {@link RestUtils.Headers#IF_MODIFIED_SINCE} value in epoch time if present
-   * @param restRequest the {@link RestRequest} that needs to be parsed
-   * @return the {@link RestUtils.Headers#IF_MODIFIED_SINCE} value in epoch time if present
-   */
-  private Long getIfModifiedSinceMs(RestRequest restRequest) {
-    if (restRequest.getArgs().get(RestUtils.Headers.IF_MODIFIED_SINCE) != null) {
-      return RestUtils.getTimeFromDateString((String) restRequest.getArgs().get(RestUtils.Headers.IF_MODIFIED_SINCE));
-    }
-    return null;
-  }
-
   /**
    * Sets the required headers in the HEAD response.
    * @param blobInfo the {@link BlobInfo} to refer to while setting headers.
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2022 LinkedIn Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ */
+package com.github.ambry.frontend;
+
+import com.github.ambry.messageformat.BlobInfo;
+import com.github.ambry.messageformat.BlobProperties;
+import com.github.ambry.utils.Time;
+import com.github.ambry.utils.Utils;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+
+/**
+ * A bounded LRU cache of the {@link BlobInfo} of blobs, keyed by blob ID, that lets the frontend answer HEAD, blob info
+ * and conditional GET requests without going to the storage nodes.
+ *
+ * Deletes, TTL updates and undeletes that go through this frontend invalidate the entry of their blob. The ones that go
+ * through other frontends are not seen, so an entry is only served for a bounded time after it was cached. An entry is
+ * also never served once the blob it describes has expired.
+ */
+class BlobInfoCache {
+  private final Map<String, Entry> cache;
+  private final long entryTtlMs;
+  private final Time time;
+  private final FrontendMetrics metrics;
+
+  /**
+   * @param maxEntries the maximum number of entries in the cache.
+   * @param entryTtlMs the time for which an entry can be served after it was cached.
+   * @param time the {@link Time} instance to use.
+   * @param metrics the {@link FrontendMetrics} to use.
+   */
+  BlobInfoCache(int maxEntries, long entryTtlMs, Time time, FrontendMetrics metrics) {
+    cache = Collections.synchronizedMap(new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+        return size() > maxEntries;
+      }
+    });
+    this.entryTtlMs = entryTtlMs;
+    this.time = time;
+    this.metrics = metrics;
+  }
+
+  /**
+   * @param blobId the ID of the blob.
+   * @return the cached {@link BlobInfo} of the blob, or {@code null} if there is none that can be served.
+   */
+  BlobInfo get(String blobId) {
+    Entry entry = cache.get(blobId);
+    long nowMs = time.milliseconds();
+    if (entry != null && (nowMs >= entry.expiresAtMs || isBlobExpired(entry.blobInfo.getBlobProperties(), nowMs))) {
+      cache.remove(blobId, entry);
+      entry = null;
+    }
+    if (entry == null) {
+      metrics.blobInfoCacheMissCount.inc();
+      return null;
+    }
+    metrics.blobInfoCacheHitCount.inc();
+    return entry.blobInfo;
+  }
+
+  /**
+   * Caches the {@link BlobInfo} of a blob that was just read from the storage nodes.
+   * @param blobId the ID of the blob.
+   * @param blobInfo the {@link BlobInfo} of the blob.
+   */
+  void put(String blobId, BlobInfo blobInfo) {
+    cache.put(blobId, new Entry(blobInfo, time.milliseconds() + entryTtlMs));
+  }
+
+  /**
+   * Drops the cached {@link BlobInfo} of a blob whose state changed.
+   * @param blobId the ID of the blob.
+   */
+  void invalidate(String blobId) {
+    cache.remove(blobId);
+  }
+
+  /**
+   * @param blobProperties the {@link BlobProperties} of the blob.
+   * @param nowMs the current time in ms.
+   * @return {@code true} if the blob has expired at {@code nowMs}.
+   */
+  private static boolean isBlobExpired(BlobProperties blobProperties, long nowMs) {
+    long expiresAtMs = Utils.addSecondsToEpochTime(blobProperties.getCreationTimeInMs(),
+        blobProperties.getTimeToLiveInSeconds());
+    return expiresAtMs != Utils.Infinite_Time && nowMs >= expiresAtMs;
+  }
+
+  /**
+   * A cached {@link BlobInfo} and the time until which it can be served.
+   */
+  private static class Entry {
+    final BlobInfo blobInfo;
+    final long expiresAtMs;
+
+    Entry(BlobInfo blobInfo, long expiresAtMs) {
+      this.blobInfo = blobInfo;
+      this.expiresAtMs = expiresAtMs;
+    }
+  }
+}
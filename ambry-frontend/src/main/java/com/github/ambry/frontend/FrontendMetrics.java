@@ -213,6 +213,11 @@ public class FrontendMetrics {
   public final Meter putWithAccountAndContainerHeaderRate;
   public final Meter putWithAccountAndContainerUriRate;
 
+  // BlobInfoCache
+  public final Counter blobInfoCacheHitCount;
+  public final Counter blobInfoCacheMissCount;
+  public final Counter notModifiedFromBlobInfoCacheCount;
+
   /**
    * Creates an instance of FrontendMetrics using the given {@code metricRegistry}.
    * @param metricRegistry the {@link MetricRegistry} to use for the metrics.
@@ -529,5 +534,10 @@ public class FrontendMetrics {
         MetricRegistry.name(FrontendRestRequestService.class, "PutWithAccountAndContainerHeaderRate"));
     putWithAccountAndContainerUriRate = metricRegistry.meter(
         MetricRegistry.name(FrontendRestRequestService.class, "PutWithAccountAndContainerUriRate"));
+
+    blobInfoCacheHitCount = metricRegistry.counter(MetricRegistry.name(BlobInfoCache.class, "HitCount"));
+    blobInfoCacheMissCount = metricRegistry.counter(MetricRegistry.name(BlobInfoCache.class, "MissCount"));
+    notModifiedFromBlobInfoCacheCount =
+        metricRegistry.counter(MetricRegistry.name(BlobInfoCache.class, "NotModifiedResponseCount"));
   }
 }
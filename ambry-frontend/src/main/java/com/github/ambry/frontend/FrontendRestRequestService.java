@@ -51,6 +51,7 @@ import com.github.ambry.utils.Utils;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.GregorianCalendar;
+import java.util.concurrent.TimeUnit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -86,6 +87,7 @@ class FrontendRestRequestService implements RestRequestService {
   private final AccountService accountService;
   private final AccountAndContainerInjector accountAndContainerInjector;
   private final AccountStatsStore accountStatsStore;
+  private final BlobInfoCache blobInfoCache;
   private static final Logger logger = LoggerFactory.getLogger(FrontendRestRequestService.class);
   private final String datacenterName;
   private final String hostname;
@@ -148,6 +150,9 @@ class FrontendRestRequestService implements RestRequestService {
     this.quotaManager = quotaManager;
     this.clusterName = clusterName.toLowerCase();
     getReplicasHandler = new GetReplicasHandler(frontendMetrics, clusterMap);
+    blobInfoCache = frontendConfig.blobInfoCacheMaxEntries > 0 ? new BlobInfoCache(
+        frontendConfig.blobInfoCacheMaxEntries, TimeUnit.SECONDS.toMillis(frontendConfig.blobInfoCacheEntryTtlSecs),
+        SystemTime.getInstance(), frontendMetrics) : null;
     logger.trace("Instantiated FrontendRestRequestService");
   }
 
@@ -182,10 +187,10 @@ class FrontendRestRequestService implements RestRequestService {
             frontendConfig, frontendMetrics, clusterName, quotaManager);
     ttlUpdateHandler =
         new TtlUpdateHandler(router, securityService, idConverter, accountAndContainerInjector, frontendMetrics,
-            clusterMap, quotaManager);
+            clusterMap, quotaManager, blobInfoCache);
     undeleteHandler =
         new UndeleteHandler(router, securityService, idConverter, accountAndContainerInjector, frontendMetrics,
-            clusterMap, quotaManager);
+            clusterMap, quotaManager, blobInfoCache);
     getClusterMapSnapshotHandler = new GetClusterMapSnapshotHandler(securityService, frontendMetrics, clusterMap);
     getAccountsHandler = new GetAccountsHandler(securityService, accountService, frontendMetrics);
     getStatsReportHandler = new GetStatsReportHandler(securityService, frontendMetrics, accountStatsStore);
@@ -753,12 +758,33 @@ class FrontendRestRequestService implements RestRequestService {
           }
           if (subResource == null) {
             getCallback.markStartTime();
-            router.getBlob(convertedId, getCallback.options, getCallback,
-                QuotaUtils.buildQuotaChargeCallback(restRequest, quotaManager, true));
+            BlobInfo cachedBlobInfo =
+                FrontendUtils.isConditionalRequest(restRequest) ? getCachedBlobInfo(convertedId, getCallback.options)
+                    : null;
+            if (cachedBlobInfo != null && FrontendUtils.isNotModified(restRequest,
+                cachedBlobInfo.getBlobProperties())) {
+              frontendMetrics.notModifiedFromBlobInfoCacheCount.inc();
+              getCallback.onCompletion(new GetBlobResult(cachedBlobInfo, null), null);
+            } else {
+              boolean cacheable = !getCallback.options.isRawMode() && !getCallback.options.hasBlobSegmentIdx();
+              router.getBlob(convertedId, getCallback.options,
+                  cacheable ? cacheBlobInfoCallback(convertedId, getCallback.options, getCallback) : getCallback,
+                  QuotaUtils.buildQuotaChargeCallback(restRequest, quotaManager, true));
+            }
           } else {
             switch (subResource) {
               case BlobInfo:
               case UserMetadata:
+                getCallback.markStartTime();
+                BlobInfo blobInfo = getCachedBlobInfo(convertedId, getCallback.options);
+                if (blobInfo != null) {
+                  getCallback.onCompletion(new GetBlobResult(blobInfo, null), null);
+                } else {
+                  router.getBlob(convertedId, getCallback.options,
+                      cacheBlobInfoCallback(convertedId, getCallback.options, getCallback),
+                      QuotaUtils.buildQuotaChargeCallback(restRequest, quotaManager, true));
+                }
+                break;
               case Segment:
                 getCallback.markStartTime();
                 router.getBlob(convertedId, getCallback.options, getCallback,
@@ -779,15 +805,32 @@ class FrontendRestRequestService implements RestRequestService {
             restRequest.getMetricsTracker().injectMetrics(requestMetrics);
           }
           headCallback.markStartTime();
-          router.getBlob(convertedId, new GetBlobOptionsBuilder().operationType(GetBlobOptions.OperationType.BlobInfo)
-              .getOption(getOption)
-              .restRequest(restRequest)
-              .build(), headCallback, QuotaUtils.buildQuotaChargeCallback(restRequest, quotaManager, false));
+          GetBlobOptions headOptions =
+              new GetBlobOptionsBuilder().operationType(GetBlobOptions.OperationType.BlobInfo)
+                  .getOption(getOption)
+                  .restRequest(restRequest)
+                  .build();
+          BlobInfo cachedBlobInfo = getCachedBlobInfo(convertedId, headOptions);
+          if (cachedBlobInfo != null) {
+            headCallback.onCompletion(new GetBlobResult(cachedBlobInfo, null), null);
+          } else {
+            router.getBlob(convertedId, headOptions, cacheBlobInfoCallback(convertedId, headOptions, headCallback),
+                QuotaUtils.buildQuotaChargeCallback(restRequest, quotaManager, false));
+          }
           break;
         case DELETE:
           deleteCallback.markStartTime();
-          router.deleteBlob(convertedId, getHeader(restRequest.getArgs(), Headers.SERVICE_ID, false), deleteCallback,
-              QuotaUtils.buildQuotaChargeCallback(restRequest, quotaManager, false));
+          Callback<Void> routerDeleteCallback = deleteCallback;
+          if (blobInfoCache != null) {
+            // invalidate again once the delete is done, in case a concurrent read cached the blob in the meantime.
+            blobInfoCache.invalidate(convertedId);
+            routerDeleteCallback = (deleteResult, deleteException) -> {
+              blobInfoCache.invalidate(convertedId);
+              deleteCallback.onCompletion(deleteResult, deleteException);
+            };
+          }
+          router.deleteBlob(convertedId, getHeader(restRequest.getArgs(), Headers.SERVICE_ID, false),
+              routerDeleteCallback, QuotaUtils.buildQuotaChargeCallback(restRequest, quotaManager, false));
           break;
         default:
           throw new IllegalStateException("Unrecognized RestMethod: " + restMethod);
@@ -798,6 +841,39 @@ class FrontendRestRequestService implements RestRequestService {
     }, restRequest.getUri(), logger, completionCallback);
   }
 
+  /**
+   * @param blobId the ID of the blob.
+   * @param options the {@link GetBlobOptions} of the request.
+   * @return the {@link BlobInfo} of the blob from the {@link BlobInfoCache}, or {@code null} if the cache is disabled,
+   *         does not have it, or the request asks for deleted or expired blobs.
+   */
+  private BlobInfo getCachedBlobInfo(String blobId, GetBlobOptions options) {
+    if (blobInfoCache == null || options.getGetOption() != GetOption.None) {
+      return null;
+    }
+    return blobInfoCache.get(blobId);
+  }
+
+  /**
+   * @param blobId the ID of the blob.
+   * @param options the {@link GetBlobOptions} of the request.
+   * @param callback the {@link Callback} to call with the result of the router.
+   * @return a {@link Callback} that adds the {@link BlobInfo} returned by the router to the {@link BlobInfoCache}
+   *         before calling {@code callback}, or {@code callback} if there is nothing to cache.
+   */
+  private Callback<GetBlobResult> cacheBlobInfoCallback(String blobId, GetBlobOptions options,
+      Callback<GetBlobResult> callback) {
+    if (blobInfoCache == null || options.getGetOption() != GetOption.None) {
+      return callback;
+    }
+    return (result, exception) -> {
+      if (exception == null && result != null && result.getBlobInfo() != null) {
+        blobInfoCache.put(blobId, result.getBlobInfo());
+      }
+      callback.onCompletion(result, exception);
+    };
+  }
+
   /**
    * Tracks metrics and logs progress of operations that accept callbacks.
    */
@@ -921,11 +997,16 @@ class FrontendRestRequestService implements RestRequestService {
                         restResponseChannel.setHeader(Headers.CONTENT_LENGTH, 0);
                         response = new ByteBufferReadableStreamChannel(EMPTY_BUFFER);
                       }
-                    } else if (restResponseChannel.getStatus() == ResponseStatus.NotModified) {
-                      response = null;
+                    } else if (restResponseChannel.getStatus() == ResponseStatus.NotModified || response == null) {
+                      // there is no data channel if the frontend found from its blob info cache that the blob was not
+                      // modified.
+                      restResponseChannel.setStatus(ResponseStatus.NotModified);
                       // If the blob was not modified, we need to close the channel, as it will not be submitted to
                       // the RestResponseHandler
-                      routerResult.getBlobDataChannel().close();
+                      if (response != null) {
+                        response.close();
+                      }
+                      response = null;
                     }
                   }
                 } catch (Exception e) {
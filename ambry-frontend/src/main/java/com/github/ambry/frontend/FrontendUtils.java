@@ -21,6 +21,9 @@ import com.github.ambry.rest.RestServiceErrorCode;
 import com.github.ambry.rest.RestServiceException;
 import com.github.ambry.commons.Callback;
 import com.github.ambry.commons.CallbackUtils;
+import com.github.ambry.messageformat.BlobProperties;
+import com.github.ambry.rest.RestRequest;
+import com.github.ambry.rest.RestUtils;
 import com.github.ambry.router.ReadableStreamChannel;
 import com.github.ambry.utils.AsyncOperationTracker;
 import com.github.ambry.utils.ThrowingConsumer;
@@ -102,4 +105,56 @@ class FrontendUtils {
       throw new RestServiceException("Could not serialize response json.", e, RestServiceErrorCode.InternalServerError);
     }
   }
+
+  /**
+   * Builds the entity tag of a blob. Blobs are immutable, so the tag only needs to tell apart blobs that could be served
+   * from the same URI, like successive versions of a named blob.
+   * @param blobProperties the {@link BlobProperties} of the blob.
+   * @return the entity tag, quoted as required in the {@link RestUtils.Headers#ETAG} header.
+   */
+  static String getEntityTag(BlobProperties blobProperties) {
+    return "\"" + Long.toHexString(blobProperties.getCreationTimeInMs()) + "-" + Long.toHexString(
+        blobProperties.getBlobSize()) + "\"";
+  }
+
+  /**
+   * @param restRequest the {@link RestRequest}.
+   * @return {@code true} if the request has a {@link RestUtils.Headers#IF_NONE_MATCH} or
+   *         {@link RestUtils.Headers#IF_MODIFIED_SINCE} header.
+   */
+  static boolean isConditionalRequest(RestRequest restRequest) {
+    return restRequest.getArgs().get(RestUtils.Headers.IF_NONE_MATCH) != null
+        || restRequest.getArgs().get(RestUtils.Headers.IF_MODIFIED_SINCE) != null;
+  }
+
+  /**
+   * Evaluates the conditional headers of a GET request against the blob. As in RFC 7232,
+   * {@link RestUtils.Headers#IF_MODIFIED_SINCE} is ignored if {@link RestUtils.Headers#IF_NONE_MATCH} is present.
+   * @param restRequest the {@link RestRequest}.
+   * @param blobProperties the {@link BlobProperties} of the blob.
+   * @return {@code true} if the blob has not been modified according to the conditional headers of the request.
+   */
+  static boolean isNotModified(RestRequest restRequest, BlobProperties blobProperties) {
+    Object ifNoneMatch = restRequest.getArgs().get(RestUtils.Headers.IF_NONE_MATCH);
+    if (ifNoneMatch != null) {
+      String entityTag = getEntityTag(blobProperties);
+      for (String tag : ((String) ifNoneMatch).split(",")) {
+        tag = tag.trim();
+        if (tag.startsWith("W/")) {
+          tag = tag.substring(2);
+        }
+        if (tag.equals("*") || tag.equals(entityTag)) {
+          return true;
+        }
+      }
+      return false;
+    }
+    Object ifModifiedSince = restRequest.getArgs().get(RestUtils.Headers.IF_MODIFIED_SINCE);
+    if (ifModifiedSince != null) {
+      Long ifModifiedSinceMs = RestUtils.getTimeFromDateString((String) ifModifiedSince);
+      return ifModifiedSinceMs != null
+          && RestUtils.toSecondsPrecisionInMs(blobProperties.getCreationTimeInMs()) <= ifModifiedSinceMs;
+    }
+    return false;
+  }
 }
@@ -44,6 +44,7 @@ class TtlUpdateHandler {
   private final FrontendMetrics metrics;
   private final ClusterMap clusterMap;
   private final QuotaManager quotaManager;
+  private final BlobInfoCache blobInfoCache;
 
   /**
    * Constructs a handler for handling requests for updating TTLs of blobs
@@ -54,10 +55,11 @@ class TtlUpdateHandler {
    * @param metrics {@link FrontendMetrics} instance where metrics should be recorded.
    * @param clusterMap the {@link ClusterMap} in use.
    * @param quotaManager {@link QuotaManager} object.
+   * @param blobInfoCache the {@link BlobInfoCache} in which to invalidate the blob. Can be {@code null}.
    */
   TtlUpdateHandler(Router router, SecurityService securityService, IdConverter idConverter,
       AccountAndContainerInjector accountAndContainerInjector, FrontendMetrics metrics, ClusterMap clusterMap,
-      QuotaManager quotaManager) {
+      QuotaManager quotaManager, BlobInfoCache blobInfoCache) {
     this.router = router;
     this.securityService = securityService;
     this.idConverter = idConverter;
@@ -65,6 +67,7 @@ class TtlUpdateHandler {
     this.metrics = metrics;
     this.clusterMap = clusterMap;
     this.quotaManager = quotaManager;
+    this.blobInfoCache = blobInfoCache;
   }
 
   /**
@@ -143,17 +146,20 @@ class TtlUpdateHandler {
     private Callback<Void> securityPostProcessRequestCallback(BlobId blobId) {
       return buildCallback(metrics.updateBlobTtlSecurityPostProcessRequestMetrics, result -> {
         String serviceId = RestUtils.getHeader(restRequest.getArgs(), RestUtils.Headers.SERVICE_ID, true);
-        router.updateBlobTtl(blobId.getID(), serviceId, Utils.Infinite_Time, routerCallback(),
+        invalidateBlobInfo(blobId);
+        router.updateBlobTtl(blobId.getID(), serviceId, Utils.Infinite_Time, routerCallback(blobId),
             QuotaUtils.buildQuotaChargeCallback(restRequest, quotaManager, false));
       }, restRequest.getUri(), LOGGER, finalCallback);
     }
 
     /**
      * After {@link Router#updateBlobTtl} finishes, call {@link SecurityService#processResponse}.
+     * @param blobId the {@link BlobId} whose TTL was updated.
      * @return a {@link Callback} to be used with {@link Router#updateBlobTtl}.
      */
-    private Callback<Void> routerCallback() {
+    private Callback<Void> routerCallback(BlobId blobId) {
       return buildCallback(metrics.updateBlobTtlRouterMetrics, result -> {
+        invalidateBlobInfo(blobId);
         LOGGER.debug("Updated TTL of {}", RestUtils.getHeader(restRequest.getArgs(), RestUtils.Headers.BLOB_ID, true));
         restResponseChannel.setHeader(RestUtils.Headers.DATE, new GregorianCalendar().getTime());
         restResponseChannel.setHeader(RestUtils.Headers.CONTENT_LENGTH, 0);
@@ -169,5 +175,16 @@ class TtlUpdateHandler {
       return buildCallback(metrics.updateBlobTtlSecurityProcessResponseMetrics,
           securityCheckResult -> finalCallback.onCompletion(null, null), restRequest.getUri(), LOGGER, finalCallback);
     }
+
+    /**
+     * Drops the cached {@link com.github.ambry.messageformat.BlobInfo} of the blob, if there is one, as it no longer
+     * reflects the state of the blob.
+     * @param blobId the {@link BlobId} of the blob.
+     */
+    private void invalidateBlobInfo(BlobId blobId) {
+      if (blobInfoCache != null) {
+        blobInfoCache.invalidate(blobId.getID());
+      }
+    }
   }
 }
@@ -43,6 +43,7 @@ public class UndeleteHandler {
   private final FrontendMetrics metrics;
   private final ClusterMap clusterMap;
   private final QuotaManager quotaManager;
+  private final BlobInfoCache blobInfoCache;
 
   /**
    * Constructs a handler for handling requests for undelete the blobs
@@ -53,10 +54,11 @@ public class UndeleteHandler {
    * @param metrics {@link FrontendMetrics} instance where metrics should be recorded.
    * @param clusterMap the {@link ClusterMap} in use.
    * @param quotaManager the {@link QuotaManager} object.
+   * @param blobInfoCache the {@link BlobInfoCache} in which to invalidate the blob. Can be {@code null}.
    */
   UndeleteHandler(Router router, SecurityService securityService, IdConverter idConverter,
       AccountAndContainerInjector accountAndContainerInjector, FrontendMetrics metrics, ClusterMap clusterMap,
-      QuotaManager quotaManager) {
+      QuotaManager quotaManager, BlobInfoCache blobInfoCache) {
     this.router = router;
     this.securityService = securityService;
     this.idConverter = idConverter;
@@ -64,6 +66,7 @@ public class UndeleteHandler {
     this.metrics = metrics;
     this.clusterMap = clusterMap;
     this.quotaManager = quotaManager;
+    this.blobInfoCache = blobInfoCache;
   }
 
   /**
@@ -142,17 +145,20 @@ public class UndeleteHandler {
     private Callback<Void> securityPostProcessRequestCallback(BlobId blobId) {
       return buildCallback(metrics.undeleteBlobSecurityPostProcessRequestMetrics, result -> {
         String serviceId = RestUtils.getHeader(restRequest.getArgs(), RestUtils.Headers.SERVICE_ID, true);
-        router.undeleteBlob(blobId.getID(), serviceId, routerCallback(),
+        invalidateBlobInfo(blobId);
+        router.undeleteBlob(blobId.getID(), serviceId, routerCallback(blobId),
             QuotaUtils.buildQuotaChargeCallback(restRequest, quotaManager, false));
       }, restRequest.getUri(), LOGGER, finalCallback);
     }
 
     /**
      * After {@link Router#undeleteBlob} finishes, call {@link SecurityService#processResponse}.
+     * @param blobId the {@link BlobId} that was undeleted.
      * @return a {@link Callback} to be used with {@link Router#undeleteBlob}.
      */
-    private Callback<Void> routerCallback() {
+    private Callback<Void> routerCallback(BlobId blobId) {
       return buildCallback(metrics.undeleteBlobRouterMetrics, result -> {
+        invalidateBlobInfo(blobId);
         LOGGER.debug("Undeleted {}", RestUtils.getHeader(restRequest.getArgs(), RestUtils.Headers.BLOB_ID, true));
         restResponseChannel.setHeader(RestUtils.Headers.DATE, new GregorianCalendar().getTime());
         restResponseChannel.setHeader(RestUtils.Headers.CONTENT_LENGTH, 0);
@@ -168,5 +174,16 @@ public class UndeleteHandler {
       return buildCallback(metrics.undeleteBlobSecurityProcessResponseMetrics,
           securityCheckResult -> finalCallback.onCompletion(null, null), restRequest.getUri(), LOGGER, finalCallback);
     }
+
+    /**
+     * Drops the cached {@link com.github.ambry.messageformat.BlobInfo} of the blob, if there is one, as it no longer
+     * reflects the state of the blob.
+     * @param blobId the {@link BlobId} of the blob.
+     */
+    private void invalidateBlobInfo(BlobId blobId) {
+      if (blobInfoCache != null) {
+        blobInfoCache.invalidate(blobId.getID());
+      }
+    }
   }
 }
@@ -377,6 +377,18 @@ public class AmbrySecurityServiceTest {
     testGetNotModifiedBlob(blobInfo, blobInfo.getBlobProperties().getCreationTimeInMs());
     // < creation time (in secs)
     testGetNotModifiedBlob(blobInfo, blobInfo.getBlobProperties().getCreationTimeInMs() - 1000);
+    // If-None-Match
+    String entityTag = FrontendUtils.getEntityTag(blobInfo.getBlobProperties());
+    testGetBlobWithIfNoneMatch(blobInfo, entityTag, null, true);
+    testGetBlobWithIfNoneMatch(blobInfo, "W/" + entityTag, null, true);
+    testGetBlobWithIfNoneMatch(blobInfo, "*", null, true);
+    testGetBlobWithIfNoneMatch(blobInfo, "\"other\", " + entityTag, null, true);
+    testGetBlobWithIfNoneMatch(blobInfo, "\"other\"", null, false);
+    testGetBlobWithIfNoneMatch(blobInfo, entityTag.substring(1, entityTag.length() - 1), null, false);
+    // If-None-Match takes precedence over If-Modified-Since
+    testGetBlobWithIfNoneMatch(blobInfo, "\"other\"", blobInfo.getBlobProperties().getCreationTimeInMs() + 1000,
+        false);
+    testGetBlobWithIfNoneMatch(blobInfo, entityTag, blobInfo.getBlobProperties().getCreationTimeInMs() - 1000, true);
 
     // Get blob for a public blob with content type as "text/html"
     blobInfo = new BlobInfo(
@@ -586,6 +598,43 @@ public class AmbrySecurityServiceTest {
     }
   }
 
+  /**
+   * Tests {@link SecurityService#processResponse(RestRequest, RestResponseChannel, BlobInfo, Callback)} for a Get blob
+   * with the passed in {@link BlobInfo} and a {@link RestUtils.Headers#IF_NONE_MATCH} header.
+   * @param blobInfo the {@link BlobInfo} to be used for the {@link RestRequest}
+   * @param ifNoneMatch the value of the {@link RestUtils.Headers#IF_NONE_MATCH} header.
+   * @param ifModifiedSinceMs the value (as a date string) of the {@link RestUtils.Headers#IF_MODIFIED_SINCE} header, or
+   *                          {@code null} if the header should not be set.
+   * @param notModifiedExpected {@code true} if a not modified response is expected.
+   * @throws Exception
+   */
+  private void testGetBlobWithIfNoneMatch(BlobInfo blobInfo, String ifNoneMatch, Long ifModifiedSinceMs,
+      boolean notModifiedExpected) throws Exception {
+    MockRestResponseChannel restResponseChannel = new MockRestResponseChannel();
+    JSONObject headers = new JSONObject();
+    headers.put(RestUtils.Headers.IF_NONE_MATCH, ifNoneMatch);
+    if (ifModifiedSinceMs != null) {
+      SimpleDateFormat dateFormat = new SimpleDateFormat(RestUtils.HTTP_DATE_FORMAT, Locale.ENGLISH);
+      dateFormat.setTimeZone(TimeZone.getTimeZone("GMT"));
+      headers.put(RestUtils.Headers.IF_MODIFIED_SINCE, dateFormat.format(new Date(ifModifiedSinceMs)));
+    }
+    RestRequest restRequest = createRestRequest(RestMethod.GET, "/abc", headers);
+    Pair<Account, Container> accountAndContainer = getAccountAndContainer(blobInfo.getBlobProperties());
+    insertAccountAndContainer(restRequest, accountAndContainer.getFirst(), accountAndContainer.getSecond());
+    securityService.processResponse(restRequest, restResponseChannel, blobInfo).get();
+    Assert.assertEquals("ETag mismatch", FrontendUtils.getEntityTag(blobInfo.getBlobProperties()),
+        restResponseChannel.getHeader(RestUtils.Headers.ETAG));
+    if (notModifiedExpected) {
+      Assert.assertEquals("Not modified response expected for " + ifNoneMatch, ResponseStatus.NotModified,
+          restResponseChannel.getStatus());
+      verifyHeadersForGetBlobNotModified(restResponseChannel, accountAndContainer.getSecond().isCacheable());
+    } else {
+      Assert.assertEquals("Not modified response should not be returned for " + ifNoneMatch, ResponseStatus.Ok,
+          restResponseChannel.getStatus());
+      verifyHeadersForGetBlob(restRequest, blobInfo, accountAndContainer, null, restResponseChannel);
+    }
+  }
+
   /**
    * Tests {@link SecurityService#processResponse(RestRequest, RestResponseChannel, BlobInfo, Callback)} for a Head
    * request with the passed in {@link BlobInfo} and various range settings, including no set range (entire blob).
@@ -733,6 +782,8 @@ public class AmbrySecurityServiceTest {
         RestUtils.getTimeFromDateString(restResponseChannel.getHeader(RestUtils.Headers.LAST_MODIFIED)).longValue());
     Assert.assertEquals("Accept ranges header not set correctly", "bytes",
         restResponseChannel.getHeader(RestUtils.Headers.ACCEPT_RANGES));
+    Assert.assertEquals("ETag mismatch", FrontendUtils.getEntityTag(blobProperties),
+        restResponseChannel.getHeader(RestUtils.Headers.ETAG));
     long contentLength = blobProperties.getBlobSize();
     if (range != null) {
       Pair<String, Long> rangeAndLength = RestUtils.buildContentRangeAndLength(range, contentLength, false);
@@ -781,6 +832,8 @@ public class AmbrySecurityServiceTest {
 
     Assert.assertEquals("Accept ranges header not set correctly", "bytes",
         restResponseChannel.getHeader(RestUtils.Headers.ACCEPT_RANGES));
+    Assert.assertEquals("ETag mismatch", FrontendUtils.getEntityTag(blobProperties),
+        restResponseChannel.getHeader(RestUtils.Headers.ETAG));
     long contentLength = blobProperties.getBlobSize();
     if (range != null) {
       Pair<String, Long> rangeAndLength = RestUtils.buildContentRangeAndLength(range, contentLength, false);
@@ -826,6 +879,7 @@ public class AmbrySecurityServiceTest {
     Assert.assertNotNull("Date has not been set", restResponseChannel.getHeader(RestUtils.Headers.DATE));
     Assert.assertNotNull("Last-Modified has not been set",
         restResponseChannel.getHeader(RestUtils.Headers.LAST_MODIFIED));
+    Assert.assertNotNull("ETag has not been set", restResponseChannel.getHeader(RestUtils.Headers.ETAG));
     Assert.assertNull("Content length should not be set",
         restResponseChannel.getHeader(RestUtils.Headers.CONTENT_LENGTH));
     Assert.assertNull("Accept-Ranges should not be set",
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2022 LinkedIn Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ */
+package com.github.ambry.frontend;
+
+import com.codahale.metrics.MetricRegistry;
+import com.github.ambry.messageformat.BlobInfo;
+import com.github.ambry.messageformat.BlobProperties;
+import com.github.ambry.utils.MockTime;
+import com.github.ambry.utils.Utils;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+
+/**
+ * Tests for {@link BlobInfoCache}.
+ */
+public class BlobInfoCacheTest {
+  private static final long ENTRY_TTL_MS = TimeUnit.SECONDS.toMillis(60);
+  private final MockTime time = new MockTime(TimeUnit.DAYS.toMillis(1));
+  private final FrontendMetrics metrics = new FrontendMetrics(new MetricRegistry());
+  private final BlobInfoCache cache = new BlobInfoCache(2, ENTRY_TTL_MS, time, metrics);
+
+  /**
+   * Tests that cached entries are served until they are invalidated, evicted or too old.
+   */
+  @Test
+  public void getPutInvalidateTest() {
+    BlobInfo blobInfo = createBlobInfo(Utils.Infinite_Time);
+    assertNull("Nothing should be cached", cache.get("a"));
+    cache.put("a", blobInfo);
+    assertSame("Cached BlobInfo should be served", blobInfo, cache.get("a"));
+    assertEquals("Unexpected hit count", 1, metrics.blobInfoCacheHitCount.getCount());
+    assertEquals("Unexpected miss count", 1, metrics.blobInfoCacheMissCount.getCount());
+
+    cache.invalidate("a");
+    assertNull("Invalidated BlobInfo should not be served", cache.get("a"));
+
+    // the least recently used entry is evicted once the cache is full.
+    cache.put("a", blobInfo);
+    cache.put("b", blobInfo);
+    assertSame("Cached BlobInfo should be served", blobInfo, cache.get("a"));
+    cache.put("c", blobInfo);
+    assertNull("Least recently used BlobInfo should have been evicted", cache.get("b"));
+    assertSame("Cached BlobInfo should be served", blobInfo, cache.get("a"));
+
+    time.sleep(ENTRY_TTL_MS);
+    assertNull("BlobInfo cached for longer than the entry TTL should not be served", cache.get("a"));
+    assertNull("BlobInfo cached for longer than the entry TTL should not be served", cache.get("c"));
+  }
+
+  /**
+   * Tests that the cached {@link BlobInfo} of an expired blob is not served.
+   */
+  @Test
+  public void expiredBlobTest() {
+    cache.put("a", createBlobInfo(10));
+    assertNotNull("Cached BlobInfo should be served", cache.get("a"));
+    time.sleep(TimeUnit.SECONDS.toMillis(10));
+    assertNull("BlobInfo of an expired blob should not be served", cache.get("a"));
+  }
+
+  /**
+   * @param ttlSecs the TTL of the blob.
+   * @return a {@link BlobInfo} of a blob created now with the given TTL.
+   */
+  private BlobInfo createBlobInfo(long ttlSecs) {
+    BlobProperties blobProperties =
+        new BlobProperties(100, "serviceId", "ownerId", "image/gif", false, ttlSecs, time.milliseconds(),
+            (short) 1, (short) 1, false, null, null, null);
+    return new BlobInfo(blobProperties, new byte[0]);
+  }
+}
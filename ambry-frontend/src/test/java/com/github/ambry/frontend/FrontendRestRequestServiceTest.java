@@ -504,6 +504,95 @@ public class FrontendRestRequestServiceTest {
         Container.DEFAULT_PRIVATE_CONTAINER);
   }
 
+  /**
+   * Tests the ETag header of GET and HEAD responses and the blob info cache. Conditional GETs that hit the cache get a
+   * not modified response without going to the router, and a DELETE, TTL update or undelete through the frontend
+   * invalidates the cached blob info.
+   * @throws Exception
+   */
+  @Test
+  public void blobInfoCacheAndEntityTagTest() throws Exception {
+    configProps.setProperty("frontend.blob.info.cache.max.entries", "10");
+    verifiableProperties = new VerifiableProperties(configProps);
+    frontendConfig = new FrontendConfig(verifiableProperties);
+    Router spyRouter = spy(router);
+    frontendRestRequestService.shutdown();
+    frontendRestRequestService =
+        new FrontendRestRequestService(frontendConfig, frontendMetrics, spyRouter, clusterMap, idConverterFactory,
+            securityServiceFactory, urlSigningService, idSigningService, namedBlobDb, accountService,
+            accountAndContainerInjector, datacenterName, hostname, clusterName, accountStatsStore, QUOTA_MANAGER);
+    frontendRestRequestService.setupResponseHandler(responseHandler);
+    frontendRestRequestService.start();
+    PostResults postResults =
+        prepareAndPostBlob(CONTENT_LENGTH, refAccount.getName(), TTL_SECS, "application/octet-stream",
+            "blobInfoCacheAndEntityTagTest", refAccount, refContainer, null);
+    String blobId = postResults.blobId;
+    String routerBlobId = blobId.startsWith("/") ? blobId.substring(1) : blobId;
+    String entityTag =
+        FrontendUtils.getEntityTag(router.getActiveBlobs().get(routerBlobId).getBlobProperties());
+
+    // the GET caches the blob info, so the HEAD is answered without going to the router
+    MockRestResponseChannel restResponseChannel = new MockRestResponseChannel();
+    doOperation(createRestRequest(RestMethod.GET, blobId, null, null), restResponseChannel);
+    assertEquals("Unexpected response status", ResponseStatus.Ok, restResponseChannel.getStatus());
+    assertEquals("Unexpected ETag", entityTag, restResponseChannel.getHeader(RestUtils.Headers.ETAG));
+    clearInvocations(spyRouter);
+    restResponseChannel = headBlob(blobId);
+    assertEquals("Unexpected response status", ResponseStatus.Ok, restResponseChannel.getStatus());
+    assertEquals("Unexpected ETag", entityTag, restResponseChannel.getHeader(RestUtils.Headers.ETAG));
+    verify(spyRouter, never()).getBlob(anyString(), any(), any(), any());
+
+    // matching conditional GETs are answered from the cache, with no data channel
+    for (String ifNoneMatch : new String[]{entityTag, "W/" + entityTag, "*", "\"other\", W/" + entityTag}) {
+      long notModifiedCount = frontendMetrics.notModifiedFromBlobInfoCacheCount.getCount();
+      restResponseChannel = conditionalGetBlob(blobId, ifNoneMatch, null);
+      assertEquals("Unexpected response status for " + ifNoneMatch, ResponseStatus.NotModified,
+          restResponseChannel.getStatus());
+      assertEquals("Unexpected ETag", entityTag, restResponseChannel.getHeader(RestUtils.Headers.ETAG));
+      assertEquals("No content expected as blob is not modified", 0, restResponseChannel.getResponseBody().length);
+      assertEquals("Not modified response should have come from the cache", notModifiedCount + 1,
+          frontendMetrics.notModifiedFromBlobInfoCacheCount.getCount());
+    }
+    verify(spyRouter, never()).getBlob(anyString(), any(), any(), any());
+
+    // If-None-Match takes precedence over If-Modified-Since
+    restResponseChannel = conditionalGetBlob(blobId, "\"other\"", System.currentTimeMillis());
+    assertEquals("Unexpected response status", ResponseStatus.Ok, restResponseChannel.getStatus());
+    assertArrayEquals("GET content does not match original content", postResults.content.array(),
+        restResponseChannel.getResponseBody());
+    restResponseChannel = conditionalGetBlob(blobId, entityTag, 0L);
+    assertEquals("Unexpected response status", ResponseStatus.NotModified, restResponseChannel.getStatus());
+
+    // a TTL update invalidates the cached blob info
+    JSONObject headers = new JSONObject();
+    setUpdateTtlHeaders(headers, blobId, "blobInfoCacheAndEntityTagTest");
+    verifyUpdateBlobTtlResponse(createRestRequest(RestMethod.PUT, Operations.UPDATE_TTL, headers, null));
+    clearInvocations(spyRouter);
+    restResponseChannel = headBlob(blobId);
+    assertNull("TTL should have been updated", restResponseChannel.getHeader(RestUtils.Headers.TTL));
+    verify(spyRouter).getBlob(anyString(), any(), any(), any());
+
+    // a delete through another frontend is not seen until an undelete through this one invalidates the blob info
+    router.deleteBlob(routerBlobId, "blobInfoCacheAndEntityTagTest").get(1, TimeUnit.SECONDS);
+    clearInvocations(spyRouter);
+    assertEquals("Blob info should have been served from the cache", ResponseStatus.Ok,
+        headBlob(blobId).getStatus());
+    verify(spyRouter, never()).getBlob(anyString(), any(), any(), any());
+    headers = new JSONObject();
+    headers.put(RestUtils.Headers.BLOB_ID, blobId);
+    headers.put(RestUtils.Headers.SERVICE_ID, "blobInfoCacheAndEntityTagTest");
+    verifyUndeleteOK(createRestRequest(RestMethod.PUT, "/" + Operations.UNDELETE, headers, null));
+    clearInvocations(spyRouter);
+    assertEquals("Unexpected response status", ResponseStatus.Ok, headBlob(blobId).getStatus());
+    verify(spyRouter).getBlob(anyString(), any(), any(), any());
+
+    // a DELETE invalidates the cached blob info
+    verifyDeleteAccepted(createRestRequest(RestMethod.DELETE, blobId, null, null));
+    clearInvocations(spyRouter);
+    verifyOperationFailure(createRestRequest(RestMethod.HEAD, blobId, null, null), RestServiceErrorCode.Deleted);
+    verify(spyRouter).getBlob(anyString(), any(), any(), any());
+  }
+
   /**
    * Tests injecting target {@link Account} and {@link Container} for PUT requests. The {@link AccountService} is
    * prepopulated with a reference account and {@link InMemAccountService#UNKNOWN_ACCOUNT}. The expected behavior should be:
@@ -1846,6 +1935,7 @@ public class FrontendRestRequestServiceTest {
         restResponseChannel.getHeader(RestUtils.Headers.CONTENT_TYPE));
     assertEquals("Accept-Ranges not set correctly", "bytes",
         restResponseChannel.getHeader(RestUtils.Headers.ACCEPT_RANGES));
+    assertNotNull("ETag header expected", restResponseChannel.getHeader(RestUtils.Headers.ETAG));
     assertEquals("Wrong account object in RestRequest's args", expectedAccount,
         restRequest.getArgs().get(RestUtils.InternalKeys.TARGET_ACCOUNT_KEY));
     assertEquals("Wrong container object in RestRequest's args", expectedContainer,
@@ -1902,6 +1992,41 @@ public class FrontendRestRequestServiceTest {
         restResponseChannel.getHeader(RestUtils.Headers.CONTENT_RANGE));
   }
 
+  /**
+   * Sends a HEAD request for the blob with blob ID {@code blobId}.
+   * @param blobId the blob ID of the blob to HEAD.
+   * @return the {@link MockRestResponseChannel} over which the response was received.
+   * @throws Exception
+   */
+  private MockRestResponseChannel headBlob(String blobId) throws Exception {
+    MockRestResponseChannel restResponseChannel = new MockRestResponseChannel();
+    doOperation(createRestRequest(RestMethod.HEAD, blobId, null, null), restResponseChannel);
+    return restResponseChannel;
+  }
+
+  /**
+   * Sends a conditional GET request for the blob with blob ID {@code blobId}.
+   * @param blobId the blob ID of the blob to GET.
+   * @param ifNoneMatch the value of the {@link RestUtils.Headers#IF_NONE_MATCH} header.
+   * @param ifModifiedSinceMs the value of the {@link RestUtils.Headers#IF_MODIFIED_SINCE} header, or {@code null} if
+   *                          the header should not be set.
+   * @return the {@link MockRestResponseChannel} over which the response was received.
+   * @throws Exception
+   */
+  private MockRestResponseChannel conditionalGetBlob(String blobId, String ifNoneMatch, Long ifModifiedSinceMs)
+      throws Exception {
+    JSONObject headers = new JSONObject();
+    headers.put(RestUtils.Headers.IF_NONE_MATCH, ifNoneMatch);
+    if (ifModifiedSinceMs != null) {
+      SimpleDateFormat dateFormat = new SimpleDateFormat(RestUtils.HTTP_DATE_FORMAT, Locale.ENGLISH);
+      dateFormat.setTimeZone(TimeZone.getTimeZone("GMT"));
+      headers.put(RestUtils.Headers.IF_MODIFIED_SINCE, dateFormat.format(new Date(ifModifiedSinceMs)));
+    }
+    MockRestResponseChannel restResponseChannel = new MockRestResponseChannel();
+    doOperation(createRestRequest(RestMethod.GET, blobId, headers, null), restResponseChannel);
+    return restResponseChannel;
+  }
+
   /**
    * Gets the user metadata of the blob with blob ID {@code blobId} and verifies them against what is expected.
    * @param blobId the blob ID of the blob to HEAD.
@@ -1981,6 +2106,7 @@ public class FrontendRestRequestServiceTest {
         restResponseChannel.getHeader(RestUtils.Headers.CONTENT_TYPE));
     assertEquals("Accept-Ranges not set correctly", "bytes",
         restResponseChannel.getHeader(RestUtils.Headers.ACCEPT_RANGES));
+    assertNotNull("ETag header expected", restResponseChannel.getHeader(RestUtils.Headers.ETAG));
     long contentLength = expectedHeaders.getLong(RestUtils.Headers.BLOB_SIZE);
     if (range != null) {
       Pair<String, Long> rangeAndLength = RestUtils.buildContentRangeAndLength(range, contentLength, false);
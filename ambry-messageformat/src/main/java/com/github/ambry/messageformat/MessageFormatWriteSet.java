@@ -18,6 +18,7 @@ import com.github.ambry.store.MessageWriteSet;
 import com.github.ambry.store.StoreException;
 import com.github.ambry.store.Write;
 import com.github.ambry.utils.ByteBufferInputStream;
+import io.netty.buffer.ByteBuf;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.channels.Channels;
@@ -31,6 +32,7 @@ import java.util.List;
 public class MessageFormatWriteSet implements MessageWriteSet {
 
   private final InputStream streamToWrite;
+  private final List<ByteBuf> messageBuffers;
   private List<MessageInfo> streamInfo;
 
   public MessageFormatWriteSet(InputStream streamToWrite, List<MessageInfo> streamInfo, boolean materializeStream)
@@ -45,10 +47,44 @@ public class MessageFormatWriteSet implements MessageWriteSet {
     } else {
       this.streamToWrite = streamToWrite;
     }
+    this.messageBuffers = null;
+  }
+
+  /**
+   * Creates a write set whose messages are already in memory, one {@link ByteBuf} per message. The buffers are written
+   * with {@link Write#appendFrom(java.nio.ByteBuffer[])} without being copied. The caller keeps the ownership of the
+   * buffers and must not release them before {@link #writeTo(Write)} returns.
+   * @param messageBuffers the content of the messages, in the same order as {@code streamInfo}.
+   * @param streamInfo the {@link MessageInfo}s of the messages.
+   */
+  public MessageFormatWriteSet(List<ByteBuf> messageBuffers, List<MessageInfo> streamInfo) {
+    if (messageBuffers.size() != streamInfo.size()) {
+      throw new IllegalArgumentException(
+          "Number of message buffers " + messageBuffers.size() + " doesn't match number of messages "
+              + streamInfo.size());
+    }
+    this.streamToWrite = null;
+    this.messageBuffers = messageBuffers;
+    this.streamInfo = streamInfo;
   }
 
   @Override
   public long writeTo(Write writeChannel) throws StoreException {
+    if (messageBuffers != null) {
+      long sizeWritten = 0;
+      for (int i = 0; i < streamInfo.size(); i++) {
+        ByteBuf messageBuffer = messageBuffers.get(i);
+        MessageInfo info = streamInfo.get(i);
+        if (messageBuffer.readableBytes() != info.getSize()) {
+          throw new IllegalStateException(
+              "Buffer size " + messageBuffer.readableBytes() + " doesn't match message size " + info.getSize()
+                  + " for " + info.getStoreKey());
+        }
+        writeChannel.appendFrom(messageBuffer.nioBuffers());
+        sizeWritten += info.getSize();
+      }
+      return sizeWritten;
+    }
     ReadableByteChannel readableByteChannel = Channels.newChannel(streamToWrite);
     long sizeWritten = 0;
     for (MessageInfo info : streamInfo) {
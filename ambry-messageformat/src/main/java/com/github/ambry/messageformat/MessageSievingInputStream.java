@@ -20,8 +20,11 @@ import com.github.ambry.store.Message;
 import com.github.ambry.store.MessageInfo;
 import com.github.ambry.store.TransformationOutput;
 import com.github.ambry.store.Transformer;
+import com.github.ambry.utils.NettyByteBufDataInputStream;
 import com.github.ambry.utils.SystemTime;
 import com.github.ambry.utils.Utils;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -44,6 +47,7 @@ public class MessageSievingInputStream extends InputStream {
   private boolean hasInvalidMessages;
   private boolean hasDeprecatedMessages;
   private final List<MessageInfo> sievedMessageInfoList;
+  private final List<ByteBuf> sievedMessageBuffers;
   private final List<Transformer> transformers;
 
   //metrics
@@ -56,7 +60,8 @@ public class MessageSievingInputStream extends InputStream {
 
   /**
    * @param inStream The stream from which bytes need to be read. If the underlying stream is SocketInputStream, it needs
-   *               to be blocking
+   *               to be blocking. If it is a {@link NettyByteBufDataInputStream}, messages are sliced out of its
+   *               buffer instead of being copied, and the buffer must stay valid as long as this stream is used.
    * @param messageInfoList List of MessageInfo which contains details about the messages in the stream
    * @param metricRegistry Metric register to register metrics
    * @throws java.io.IOException
@@ -80,12 +85,16 @@ public class MessageSievingInputStream extends InputStream {
     hasInvalidMessages = false;
     hasDeprecatedMessages = false;
     sievedMessageInfoList = new ArrayList<>();
+    List<ByteBuf> messageBuffers = new ArrayList<>();
 
     // check for empty list
     if (messageInfoList.size() == 0) {
       sievedStream = new ByteArrayInputStream(new byte[0]);
+      sievedMessageBuffers = messageBuffers;
       return;
     }
+    ByteBuf inBuffer =
+        inStream instanceof NettyByteBufDataInputStream ? ((NettyByteBufDataInputStream) inStream).getBuffer() : null;
 
     int totalMessageListSize = 0;
     for (MessageInfo info : messageInfoList) {
@@ -103,18 +112,27 @@ public class MessageSievingInputStream extends InputStream {
       if (msgInfo.isDeleted()) {
         messageSievingDeletedMessagesDiscardedCount.inc();
         logger.trace("Skipping message with key {}, because it is deleted.", msgInfo.getStoreKey());
-        Utils.readBytesFromStream(inStream, msgSize);
+        skipMessage(inStream, inBuffer, msgSize);
       } else if (msgInfo.isExpired()) {
         messageSievingExpiredMessagesDiscardedCount.inc();
         logger.trace("Skipping message with key {}, because it has expired.", msgInfo.getStoreKey());
-        Utils.readBytesFromStream(inStream, msgSize);
+        skipMessage(inStream, inBuffer, msgSize);
+      } else if (inBuffer != null) {
+        // The message is already in memory, validate and transform it in place instead of copying it out. The message
+        // is wrapped from the nio views of the buffer so that transformers retaining parts of it don't hold on to the
+        // (pooled) input buffer, whose lifecycle is managed by the owner of the input stream.
+        checkReadableBytes(inBuffer, msgSize);
+        ByteBuf msgBuffer = Unpooled.wrappedBuffer(inBuffer.nioBuffers(inBuffer.readerIndex(), msgSize));
+        inBuffer.skipBytes(msgSize);
+        Message msg = new Message(msgInfo, new NettyByteBufDataInputStream(msgBuffer));
+        validateAndTransform(msg, msgStreamList, messageBuffers, bytesRead);
       } else {
         // Read the entire message to create an InputStream for just this message. This is to isolate the message
         // from the batched stream, as well as to ensure that subsequent messages can be correctly processed even if there
         // was an error during the sieving for this message.
         Message msg = new Message(msgInfo, new ByteArrayInputStream(Utils.readBytesFromStream(inStream, msgSize)));
         logger.trace("Read stream for message info {}  into memory", msgInfo);
-        validateAndTransform(msg, msgStreamList, bytesRead);
+        validateAndTransform(msg, msgStreamList, messageBuffers, bytesRead);
       }
       bytesRead += msgSize;
     }
@@ -141,6 +159,7 @@ public class MessageSievingInputStream extends InputStream {
       }
     };
     sievedStream = new SequenceInputStream(inputStreamEnumeration);
+    sievedMessageBuffers = messageBuffers.size() == sievedMessageInfoList.size() ? messageBuffers : null;
     this.sievedStreamSize = (int) sievedMessageInfoList.stream().mapToLong(MessageInfo::getSize).sum();
     logger.trace("Completed validation of message stream ");
   }
@@ -182,20 +201,68 @@ public class MessageSievingInputStream extends InputStream {
     return sievedMessageInfoList;
   }
 
+  /**
+   * Returns the content of the valid messages as {@link ByteBuf}s, one per entry in {@link #getValidMessageInfoList()},
+   * if every valid message is still backed by the buffer of the input stream. This is the case when the input stream
+   * is a {@link NettyByteBufDataInputStream} and the transformers passed the messages through. The buffers are only
+   * valid as long as the buffer of the input stream is, and should not be read through this stream as well.
+   * @return the buffers of the valid messages, or {@code null} if some valid message is not backed by a buffer.
+   */
+  public List<ByteBuf> getValidMessageBuffers() {
+    return sievedMessageBuffers;
+  }
+
+  @Override
+  public void close() throws IOException {
+    sievedStream.close();
+  }
+
+  /**
+   * Skips a message in the input stream.
+   * @param inStream the input stream.
+   * @param inBuffer the buffer of the input stream, if it is backed by one. {@code null} otherwise.
+   * @param msgSize the size of the message to skip.
+   * @throws IOException if the input doesn't have {@code msgSize} bytes left.
+   */
+  private static void skipMessage(InputStream inStream, ByteBuf inBuffer, int msgSize) throws IOException {
+    if (inBuffer != null) {
+      checkReadableBytes(inBuffer, msgSize);
+      inBuffer.skipBytes(msgSize);
+    } else {
+      Utils.readBytesFromStream(inStream, msgSize);
+    }
+  }
+
+  /**
+   * @param inBuffer the buffer of the input stream.
+   * @param msgSize the size of the next message.
+   * @throws IOException if {@code inBuffer} doesn't have {@code msgSize} readable bytes.
+   */
+  private static void checkReadableBytes(ByteBuf inBuffer, int msgSize) throws IOException {
+    if (inBuffer.readableBytes() < msgSize) {
+      throw new IOException(
+          "Total size read " + inBuffer.readableBytes() + " is less than the size to be read " + msgSize);
+    }
+  }
+
   /**
    * Validates and potentially transforms the given input stream consisting of message data. It does so using the list
    * of {@link Transformer}s associated with this instance.
    * message corruption and acceptable formats.
    * @param inMsg the original {@link Message} that needs to be validated and possibly transformed.
    * @param msgStreamList the output list to which the sieved stream output are to be added to.
+   * @param msgBufferList the output list to which the buffers of sieved messages that are backed by a
+   *                      {@link NettyByteBufDataInputStream} are to be added to.
    * @param msgOffset the offset of the message in the stream.
    * @throws IOException if an exception was encountered reading or writing bytes to/from streams.
    */
-  private void validateAndTransform(Message inMsg, List<InputStream> msgStreamList, int msgOffset) throws IOException {
+  private void validateAndTransform(Message inMsg, List<InputStream> msgStreamList, List<ByteBuf> msgBufferList,
+      int msgOffset) throws IOException {
     if (transformers == null || transformers.isEmpty()) {
       // Write the message without any transformations.
       sievedMessageInfoList.add(inMsg.getMessageInfo());
       msgStreamList.add(inMsg.getStream());
+      addMessageBuffer(inMsg, msgBufferList);
     } else {
       long sieveStartTime = SystemTime.getInstance().milliseconds();
       Message msg = inMsg;
@@ -227,11 +294,26 @@ public class MessageSievingInputStream extends InputStream {
         MessageInfo tfmMsgInfo = output.getMsg().getMessageInfo();
         sievedMessageInfoList.add(tfmMsgInfo);
         msgStreamList.add(output.getMsg().getStream());
+        addMessageBuffer(output.getMsg(), msgBufferList);
         logger.trace("Original message length {}, transformed bytes read {}", inMsg.getMessageInfo().getSize(),
             tfmMsgInfo.getSize());
       }
       singleMessageSieveTime.update(SystemTime.getInstance().milliseconds() - sieveStartTime);
     }
   }
-}
 
+  /**
+   * Adds the buffer of {@code msg} to {@code msgBufferList} if its stream is backed by a buffer that holds exactly the
+   * unread content of the message.
+   * @param msg a sieved message.
+   * @param msgBufferList the list of buffers of sieved messages.
+   */
+  private static void addMessageBuffer(Message msg, List<ByteBuf> msgBufferList) {
+    if (msg.getStream() instanceof NettyByteBufDataInputStream) {
+      ByteBuf buffer = ((NettyByteBufDataInputStream) msg.getStream()).getBuffer();
+      if (buffer.readableBytes() == msg.getMessageInfo().getSize()) {
+        msgBufferList.add(buffer);
+      }
+    }
+  }
+}
@@ -20,6 +20,8 @@ import com.github.ambry.store.StoreKeyConverter;
 import com.github.ambry.store.StoreKeyFactory;
 import com.github.ambry.store.TransformationOutput;
 import com.github.ambry.store.Transformer;
+import com.github.ambry.utils.NettyByteBufDataInputStream;
+import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufInputStream;
 import java.io.DataInputStream;
 import java.io.InputStream;
@@ -51,6 +53,9 @@ public class ValidatingTransformer implements Transformer {
     MessageInfo msgInfo = message.getMessageInfo();
     InputStream msgStream = message.getStream();
     TransformationOutput transformationOutput = null;
+    ByteBuf msgBuffer =
+        msgStream instanceof NettyByteBufDataInputStream ? ((NettyByteBufDataInputStream) msgStream).getBuffer() : null;
+    int msgStartIndex = msgBuffer == null ? 0 : msgBuffer.readerIndex();
     try {
       // Read header
       ByteBuffer headerVersion = ByteBuffer.allocate(Version_Field_Size_In_Bytes);
@@ -80,7 +85,15 @@ public class ValidatingTransformer implements Transformer {
       } else {
         throw new IllegalStateException("Message cannot be anything rather than put record ");
       }
-      if (msgInfo.getStoreKey().equals(keyInStream)) {
+      if (msgInfo.getStoreKey().equals(keyInStream) && msgBuffer != null && canPassThrough(header, msgInfo,
+          msgBuffer.readerIndex() - msgStartIndex)) {
+        // The message was validated in place and re-serializing it would produce an equivalent message, so hand out
+        // the validated bytes as they are instead of copying them into a new message.
+        blobData.content().release();
+        MessageInfo validatedMsgInfo = new MessageInfo.Builder(msgInfo).isDeleted(false).isUndeleted(false).build();
+        transformationOutput = new TransformationOutput(new Message(validatedMsgInfo,
+            new NettyByteBufDataInputStream(msgBuffer.slice(msgStartIndex, (int) msgInfo.getSize()))));
+      } else if (msgInfo.getStoreKey().equals(keyInStream)) {
         // BlobIDTransformer only exists on ambry-server and replication between servers is relying on blocking channel
         // which is still using java ByteBuffer. So, no need to consider releasing stuff.
         // @todo, when netty Bytebuf is adopted for blocking channel on ambry-server, remember to release this ByteBuf.
@@ -103,6 +116,24 @@ public class ValidatingTransformer implements Transformer {
     return transformationOutput;
   }
 
+  /**
+   * Note that a message that is passed through keeps the record versions it was written with on the remote node,
+   * including header versions without a life version when the life version is 0, whereas a re-serialized message is
+   * written with the current versions. Both are readable by the store.
+   * @param header the header of a validated put message.
+   * @param msgInfo the {@link MessageInfo} of the message.
+   * @param bytesValidated the number of bytes that were read from the message while validating it.
+   * @return {@code true} if the validated message can be written as it is, i.e. it doesn't carry trailing bytes and
+   *         its header agrees with the life version in {@code msgInfo}.
+   */
+  private static boolean canPassThrough(MessageHeader_Format header, MessageInfo msgInfo, long bytesValidated) {
+    if (bytesValidated != msgInfo.getSize()) {
+      return false;
+    }
+    return header.hasLifeVersion() ? header.getLifeVersion() == msgInfo.getLifeVersion()
+        : msgInfo.getLifeVersion() == 0;
+  }
+
   @Override
   public void warmup(List<MessageInfo> messageInfos) throws Exception {
     //no-op
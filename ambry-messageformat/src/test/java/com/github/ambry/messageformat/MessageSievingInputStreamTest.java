@@ -24,6 +24,7 @@ import com.github.ambry.store.StoreKeyFactory;
 import com.github.ambry.store.TransformationOutput;
 import com.github.ambry.store.Transformer;
 import com.github.ambry.utils.ByteBufferInputStream;
+import com.github.ambry.utils.NettyByteBufDataInputStream;
 import com.github.ambry.utils.NettyByteBufLeakHelper;
 import com.github.ambry.utils.SystemTime;
 import com.github.ambry.utils.Utils;
@@ -993,6 +994,75 @@ public class MessageSievingInputStreamTest {
     Assert.assertEquals(-1, sievedStream.read());
   }
 
+  /**
+   * Test that the valid messages are exposed as buffers only when the input stream is backed by a buffer and every
+   * valid message is passed through as it is.
+   * @throws Exception
+   */
+  @Test
+  public void testValidMessageBuffers() throws Exception {
+    List<byte[]> messages = new ArrayList<>();
+    List<MessageInfo> msgInfoList = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      StoreKey key = new MockId("id" + i);
+      short accountId = Utils.getRandomShort(RANDOM);
+      short containerId = Utils.getRandomShort(RANDOM);
+      BlobProperties prop = new BlobProperties(10, "servid" + i, accountId, containerId, false);
+      byte[] usermetadata = new byte[1000];
+      RANDOM.nextBytes(usermetadata);
+      byte[] data = new byte[2000];
+      RANDOM.nextBytes(data);
+      MessageFormatInputStream messageFormatStream =
+          new PutMessageFormatInputStream(key, null, prop, ByteBuffer.wrap(usermetadata),
+              new ByteBufferInputStream(ByteBuffer.wrap(data)), data.length, BlobType.DataBlob);
+      messages.add(Utils.readBytesFromStream(messageFormatStream, (int) messageFormatStream.getSize()));
+      msgInfoList.add(
+          new MessageInfo(key, messageFormatStream.getSize(), accountId, containerId, prop.getCreationTimeInMs()));
+    }
+    ByteBuf content = Unpooled.wrappedBuffer(messages.toArray(new byte[0][]));
+
+    MessageSievingInputStream sievedStream =
+        new MessageSievingInputStream(new NettyByteBufDataInputStream(content.duplicate()), msgInfoList, transformers,
+            new MetricRegistry());
+    Assert.assertFalse(sievedStream.hasInvalidMessages());
+    List<ByteBuf> messageBuffers = sievedStream.getValidMessageBuffers();
+    if (options.contains(TransformerOptions.KeyConvert)) {
+      // messages with converted keys are re-serialized, so they are not backed by the input buffer anymore.
+      Assert.assertNull(messageBuffers);
+    } else {
+      Assert.assertEquals(messages.size(), messageBuffers.size());
+      for (int i = 0; i < messages.size(); i++) {
+        Assert.assertEquals(Unpooled.wrappedBuffer(messages.get(i)), messageBuffers.get(i));
+      }
+    }
+
+    // a message with trailing bytes is re-serialized by the validating transformers.
+    byte[] messageWithTrailingBytes = Arrays.copyOf(messages.get(0), messages.get(0).length + 10);
+    MessageInfo msgInfo = msgInfoList.get(0);
+    MessageInfo msgInfoWithTrailingBytes =
+        new MessageInfo(msgInfo.getStoreKey(), messageWithTrailingBytes.length, msgInfo.getAccountId(),
+            msgInfo.getContainerId(), msgInfo.getOperationTimeMs());
+    sievedStream = new MessageSievingInputStream(
+        new NettyByteBufDataInputStream(Unpooled.wrappedBuffer(messageWithTrailingBytes)),
+        Collections.singletonList(msgInfoWithTrailingBytes), transformers, new MetricRegistry());
+    Assert.assertFalse(sievedStream.hasInvalidMessages());
+    if (options.isEmpty()) {
+      Assert.assertEquals(Collections.singletonList(Unpooled.wrappedBuffer(messageWithTrailingBytes)),
+          sievedStream.getValidMessageBuffers());
+    } else {
+      Assert.assertNull(sievedStream.getValidMessageBuffers());
+      if (!options.contains(TransformerOptions.KeyConvert)) {
+        Assert.assertEquals(messages.get(0).length, sievedStream.getSize());
+      }
+    }
+
+    // messages that are not backed by a buffer are never exposed as buffers.
+    sievedStream = new MessageSievingInputStream(new ByteBufferInputStream(content.nioBuffer()), msgInfoList,
+        transformers, new MetricRegistry());
+    Assert.assertFalse(sievedStream.hasInvalidMessages());
+    Assert.assertNull(sievedStream.getValidMessageBuffers());
+  }
+
   private void verifySievedTransformedMessage(MessageSievingInputStream sievedStream, StoreKey key, String serviceId,
       short accountId, short containerId, byte[] encryptionKey, byte[] usermetadata, byte[] data, short blobVersion,
       BlobType blobType) throws Exception {
@@ -0,0 +1,233 @@
+/**
+ * Copyright 2021 LinkedIn Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ */
+package com.github.ambry.messageformat;
+
+import com.github.ambry.store.Message;
+import com.github.ambry.store.MessageInfo;
+import com.github.ambry.store.MockId;
+import com.github.ambry.store.MockIdFactory;
+import com.github.ambry.store.StoreKey;
+import com.github.ambry.store.TransformationOutput;
+import com.github.ambry.utils.ByteBufferInputStream;
+import com.github.ambry.utils.NettyByteBufDataInputStream;
+import com.github.ambry.utils.NettyByteBufLeakHelper;
+import com.github.ambry.utils.Utils;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static com.github.ambry.messageformat.MessageFormatRecord.*;
+import static com.github.ambry.utils.TestUtils.*;
+import static org.junit.Assert.*;
+
+
+/**
+ * Tests for {@link ValidatingTransformer}, in particular when a validated message is passed through as it is and when
+ * it is re-serialized.
+ */
+public class ValidatingTransformerTest {
+  private static final int TRAILING_BYTES_COUNT = 10;
+  private final short headerVersionSaved = MessageFormatRecord.headerVersionToUse;
+  private final ValidatingTransformer transformer = new ValidatingTransformer(new MockIdFactory(), null);
+  private final NettyByteBufLeakHelper nettyByteBufLeakHelper = new NettyByteBufLeakHelper();
+  private final StoreKey key = new MockId("id1");
+  private final short accountId = Utils.getRandomShort(RANDOM);
+  private final short containerId = Utils.getRandomShort(RANDOM);
+
+  @Before
+  public void before() {
+    nettyByteBufLeakHelper.beforeTest();
+  }
+
+  @After
+  public void after() {
+    MessageFormatRecord.headerVersionToUse = headerVersionSaved;
+    nettyByteBufLeakHelper.afterTest();
+  }
+
+  /**
+   * Tests that a message at the current header version whose life version matches its {@link MessageInfo} is passed
+   * through as a slice of the input buffer.
+   * @throws Exception
+   */
+  @Test
+  public void passThroughTest() throws Exception {
+    for (short lifeVersion : new short[]{0, 3}) {
+      byte[] message = createPutMessage(headerVersionSaved, lifeVersion);
+      ByteBuf inBuffer = Unpooled.wrappedBuffer(message);
+      TransformationOutput output = transform(new NettyByteBufDataInputStream(inBuffer), message.length, lifeVersion);
+      assertPassedThrough(output, message);
+      assertEquals("Pass through should not read the input buffer", 0, inBuffer.readerIndex());
+    }
+  }
+
+  /**
+   * Tests that a message followed by trailing bytes is re-serialized without them.
+   * @throws Exception
+   */
+  @Test
+  public void trailingBytesTest() throws Exception {
+    byte[] message = createPutMessage(headerVersionSaved, (short) 0);
+    byte[] messageWithTrailingBytes = Arrays.copyOf(message, message.length + TRAILING_BYTES_COUNT);
+    TransformationOutput output =
+        transform(new NettyByteBufDataInputStream(Unpooled.wrappedBuffer(messageWithTrailingBytes)),
+            messageWithTrailingBytes.length, (short) 0);
+    byte[] transformed = assertReserialized(output, headerVersionSaved, (short) 0);
+    assertArrayEquals("Re-serialized message should not have the trailing bytes", message, transformed);
+  }
+
+  /**
+   * Tests that a message whose header disagrees with the life version in its {@link MessageInfo} is re-serialized with
+   * the life version of the {@link MessageInfo}.
+   * @throws Exception
+   */
+  @Test
+  public void lifeVersionMismatchTest() throws Exception {
+    byte[] message = createPutMessage(Message_Header_Version_V3, (short) 1);
+    TransformationOutput output =
+        transform(new NettyByteBufDataInputStream(Unpooled.wrappedBuffer(message)), message.length, (short) 2);
+    assertReserialized(output, Message_Header_Version_V3, (short) 2);
+  }
+
+  /**
+   * Tests messages with header versions that don't have a life version. With life version 0 in the {@link MessageInfo}
+   * they are passed through and so keep their original header version. Otherwise they are re-serialized at the current
+   * header version.
+   * @throws Exception
+   */
+  @Test
+  public void oldHeaderVersionTest() throws Exception {
+    for (short headerVersion : new short[]{Message_Header_Version_V1, Message_Header_Version_V2}) {
+      byte[] message = createPutMessage(headerVersion, (short) 0);
+      TransformationOutput output =
+          transform(new NettyByteBufDataInputStream(Unpooled.wrappedBuffer(message)), message.length, (short) 0);
+      assertPassedThrough(output, message);
+      assertEquals("Passed through message should keep its header version", headerVersion,
+          readHeader(new NettyByteBufDataInputStream(Unpooled.wrappedBuffer(message))).getVersion());
+
+      output = transform(new NettyByteBufDataInputStream(Unpooled.wrappedBuffer(message)), message.length, (short) 1);
+      assertReserialized(output, headerVersionSaved, (short) 1);
+    }
+  }
+
+  /**
+   * Tests that a message that isn't backed by a buffer is always re-serialized.
+   * @throws Exception
+   */
+  @Test
+  public void notBackedByBufferTest() throws Exception {
+    byte[] message = createPutMessage(headerVersionSaved, (short) 0);
+    TransformationOutput output = transform(new ByteArrayInputStream(message), message.length, (short) 0);
+    byte[] transformed = assertReserialized(output, headerVersionSaved, (short) 0);
+    assertArrayEquals("Re-serialized message should be identical", message, transformed);
+  }
+
+  /**
+   * Creates a serialized put message.
+   * @param headerVersion the header version to serialize the message with.
+   * @param lifeVersion the life version of the message. Ignored by header versions without a life version.
+   * @return the serialized message.
+   * @throws Exception
+   */
+  private byte[] createPutMessage(short headerVersion, short lifeVersion) throws Exception {
+    MessageFormatRecord.headerVersionToUse = headerVersion;
+    try {
+      BlobProperties props = new BlobProperties(1000, "serviceId", accountId, containerId, false);
+      byte[] userMetadata = new byte[100];
+      RANDOM.nextBytes(userMetadata);
+      byte[] blob = new byte[1000];
+      RANDOM.nextBytes(blob);
+      MessageFormatInputStream stream =
+          new PutMessageFormatInputStream(key, null, props, ByteBuffer.wrap(userMetadata),
+              new ByteBufferInputStream(ByteBuffer.wrap(blob)), blob.length, BlobType.DataBlob, lifeVersion);
+      return Utils.readBytesFromStream(stream, (int) stream.getSize());
+    } finally {
+      MessageFormatRecord.headerVersionToUse = headerVersionSaved;
+    }
+  }
+
+  /**
+   * Transforms a message with the {@link ValidatingTransformer}.
+   * @param stream the stream of the message.
+   * @param size the size of the message in its {@link MessageInfo}.
+   * @param lifeVersion the life version of the message in its {@link MessageInfo}.
+   * @return the {@link TransformationOutput}.
+   */
+  private TransformationOutput transform(InputStream stream, long size, short lifeVersion) {
+    MessageInfo msgInfo =
+        new MessageInfo(key, size, false, false, false, Utils.Infinite_Time, null, accountId, containerId,
+            System.currentTimeMillis(), lifeVersion);
+    TransformationOutput output = transformer.transform(new Message(msgInfo, stream));
+    assertNull("Transformation should succeed", output.getException());
+    return output;
+  }
+
+  /**
+   * Verifies that {@code output} holds the original message, as a buffer that doesn't copy it.
+   * @param output the {@link TransformationOutput} to verify.
+   * @param message the original message.
+   */
+  private void assertPassedThrough(TransformationOutput output, byte[] message) {
+    assertTrue("Message should have been passed through",
+        output.getMsg().getStream() instanceof NettyByteBufDataInputStream);
+    assertEquals("Size should not change", message.length, output.getMsg().getMessageInfo().getSize());
+    ByteBuf buffer = ((NettyByteBufDataInputStream) output.getMsg().getStream()).getBuffer();
+    byte[] transformed = new byte[buffer.readableBytes()];
+    buffer.getBytes(buffer.readerIndex(), transformed);
+    assertArrayEquals("Passed through message should be identical", message, transformed);
+  }
+
+  /**
+   * Verifies that {@code output} holds a re-serialized message with the given header version and life version.
+   * @param output the {@link TransformationOutput} to verify.
+   * @param headerVersion the expected header version.
+   * @param lifeVersion the expected life version.
+   * @return the bytes of the re-serialized message.
+   * @throws Exception
+   */
+  private byte[] assertReserialized(TransformationOutput output, short headerVersion, short lifeVersion)
+      throws Exception {
+    assertTrue("Message should have been re-serialized",
+        output.getMsg().getStream() instanceof PutMessageFormatInputStream);
+    byte[] transformed;
+    try (InputStream stream = output.getMsg().getStream()) {
+      transformed = Utils.readBytesFromStream(stream, (int) output.getMsg().getMessageInfo().getSize());
+    }
+    MessageHeader_Format header = readHeader(new ByteArrayInputStream(transformed));
+    assertEquals("Unexpected header version", headerVersion, header.getVersion());
+    assertEquals("Unexpected life version", lifeVersion, header.getLifeVersion());
+    return transformed;
+  }
+
+  /**
+   * @param stream the stream of a message.
+   * @return the {@link MessageHeader_Format} of the message.
+   * @throws Exception
+   */
+  private static MessageHeader_Format readHeader(InputStream stream) throws Exception {
+    byte[] version = Utils.readBytesFromStream(stream, Version_Field_Size_In_Bytes);
+    short headerVersion = ByteBuffer.wrap(version).getShort();
+    ByteBuffer headerBuffer = ByteBuffer.allocate(getHeaderSizeForVersion(headerVersion));
+    headerBuffer.put(version);
+    headerBuffer.put(Utils.readBytesFromStream(stream, headerBuffer.remaining()));
+    headerBuffer.flip();
+    return getMessageHeader(headerVersion, headerBuffer);
+  }
+}
@@ -27,6 +27,7 @@ import com.github.ambry.mysql.MySqlUtils;
 import com.github.ambry.mysql.MySqlUtils.DbEndpoint;
 import com.github.ambry.rest.RestServiceErrorCode;
 import com.github.ambry.rest.RestServiceException;
+import com.github.ambry.utils.Pair;
 import com.github.ambry.utils.Utils;
 import java.io.Closeable;
 import java.sql.Connection;
@@ -35,11 +36,20 @@ import java.sql.ResultSet;
 import java.sql.SQLIntegrityConstraintViolationException;
 import java.sql.Timestamp;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
 import java.util.stream.Collectors;
 import javax.sql.DataSource;
 import org.apache.commons.codec.binary.Base64;
@@ -53,6 +63,10 @@ import org.slf4j.LoggerFactory;
  *
  * It uses the Hikari library for connection pooling, which is a widely used and performant JDBC connection pool
  * implementation.
+ *
+ * Concurrent gets of the same name share a single lookup. Resolved names can be cached for a short time (see
+ * {@link MySqlNamedBlobDbConfig#getCacheMaxEntries}), and gets that queue up behind busy database threads can be looked
+ * up together in a single query (see {@link MySqlNamedBlobDbConfig#getBatchMaxSize}).
  */
 class MySqlNamedBlobDb implements NamedBlobDb {
   private static final Logger logger = LoggerFactory.getLogger(MySqlNamedBlobDb.class);
@@ -72,12 +86,27 @@ class MySqlNamedBlobDb implements NamedBlobDb {
   private static final String IS_EXPIRED = String.format(CURRENT_TIME_COMPARISON, EXPIRES_TS);
   private static final String IS_DELETED_OR_EXPIRED = "(" + IS_DELETED + " OR " + IS_EXPIRED + ")";
   private static final String PK_MATCH = String.format("(%s, %s, %s) = (?, ?, ?)", ACCOUNT_ID, CONTAINER_ID, BLOB_NAME);
+  /**
+   * A blob name parameter that is compared byte for byte instead of with the collation of the column, so that the
+   * names of the rows returned by a batched get match the names that were looked up, and single and batched gets
+   * resolve the same records. The cast is applied to the parameter so that the primary key can still be used.
+   */
+  private static final String BINARY_BLOB_NAME = "CAST(? AS BINARY)";
 
   /**
    * Select a record that matches a blob name (lookup by primary key).
    */
   private static final String GET_QUERY =
-      String.format("SELECT %s, %s, %s FROM %s WHERE %s", BLOB_ID, EXPIRES_TS, DELETED_TS, NAMED_BLOBS, PK_MATCH);
+      String.format("SELECT %s, %s, %s FROM %s WHERE (%s, %s) = (?, ?) AND %s = %s", BLOB_ID, EXPIRES_TS, DELETED_TS,
+          NAMED_BLOBS, ACCOUNT_ID, CONTAINER_ID, BLOB_NAME, BINARY_BLOB_NAME);
+
+  /**
+   * Select the records that match any of a list of blob names in a container. The IN list placeholders are appended
+   * for the number of names in the batch.
+   */
+  private static final String BATCH_GET_QUERY_PREFIX =
+      String.format("SELECT %s, %s, %s, %s FROM %s WHERE (%s, %s) = (?, ?) AND %s IN (", BLOB_NAME, BLOB_ID, EXPIRES_TS,
+          DELETED_TS, NAMED_BLOBS, ACCOUNT_ID, CONTAINER_ID, BLOB_NAME);
 
   /**
    * Select records up to a specific limit where the blob name starts with a string prefix. The fourth parameter can
@@ -122,6 +151,13 @@ class MySqlNamedBlobDb implements NamedBlobDb {
   private final RetryExecutor retryExecutor;
   private final Map<String, TransactionExecutor> transactionExecutors;
   private final MySqlNamedBlobDbConfig config;
+  // recently resolved records, null if caching is disabled.
+  private final Map<NamedBlobKey, CachedRecord> recordCache;
+  private final ConcurrentMap<NamedBlobKey, CompletableFuture<NamedBlobRecord>> inFlightGets =
+      new ConcurrentHashMap<>();
+  private final ConcurrentMap<Pair<String, String>, GetBatcher> getBatchers = new ConcurrentHashMap<>();
+  // one permit per database thread of the local datacenter, shared by the batched gets of all containers.
+  private final Semaphore getBatchPermits;
 
   MySqlNamedBlobDb(AccountService accountService, MySqlNamedBlobDbConfig config, DataSourceFactory dataSourceFactory,
       String localDatacenter) {
@@ -139,38 +175,41 @@ class MySqlNamedBlobDb implements NamedBlobDb {
                 dataSourceFactory.getDataSource(dbEndpoint),
                 localDatacenter.equals(dbEndpoint.getDatacenter()) ? config.localPoolSize : config.remotePoolSize)));
     this.remoteDatacenters = MySqlUtils.getRemoteDcFromDbInfo(config.dbInfo, localDatacenter);
+    this.getBatchPermits = new Semaphore(config.localPoolSize);
+    this.recordCache = config.getCacheMaxEntries > 0 ? Collections.synchronizedMap(
+        new LinkedHashMap<NamedBlobKey, CachedRecord>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<NamedBlobKey, CachedRecord> eldest) {
+            return size() > config.getCacheMaxEntries;
+          }
+        }) : null;
   }
 
   @Override
   public CompletableFuture<NamedBlobRecord> get(String accountName, String containerName, String blobName) {
-    TransactionStateTracker transactionStateTracker =
-        new GetTransactionStateTracker(remoteDatacenters, localDatacenter);
-    return executeTransactionAsync(accountName, containerName, true, (accountId, containerId, connection) -> {
-      try (PreparedStatement statement = connection.prepareStatement(GET_QUERY)) {
-        statement.setInt(1, accountId);
-        statement.setInt(2, containerId);
-        statement.setString(3, blobName);
-        try (ResultSet resultSet = statement.executeQuery()) {
-          if (!resultSet.next()) {
-            throw buildException("GET: Blob not found", RestServiceErrorCode.NotFound, accountName, containerName,
-                blobName);
-          }
-          String blobId = Base64.encodeBase64URLSafeString(resultSet.getBytes(1));
-          Timestamp expirationTime = resultSet.getTimestamp(2);
-          Timestamp deletionTime = resultSet.getTimestamp(3);
-          long currentTime = System.currentTimeMillis();
-          if (compareTimestamp(expirationTime, currentTime) <= 0) {
-            throw buildException("GET: Blob expired", RestServiceErrorCode.Deleted, accountName, containerName,
-                blobName);
-          } else if (compareTimestamp(deletionTime, currentTime) <= 0) {
-            throw buildException("GET: Blob deleted", RestServiceErrorCode.Deleted, accountName, containerName,
-                blobName);
-          } else {
-            return new NamedBlobRecord(accountName, containerName, blobName, blobId, timestampToMs(expirationTime));
-          }
-        }
+    NamedBlobKey key = new NamedBlobKey(accountName, containerName, blobName);
+    NamedBlobRecord cachedRecord = getCachedRecord(key);
+    if (cachedRecord != null) {
+      return CompletableFuture.completedFuture(cachedRecord);
+    }
+    CompletableFuture<NamedBlobRecord> future = new CompletableFuture<>();
+    CompletableFuture<NamedBlobRecord> inFlightGet = inFlightGets.putIfAbsent(key, future);
+    if (inFlightGet != null) {
+      return inFlightGet;
+    }
+    future.whenComplete((record, exception) -> {
+      // a lookup that was invalidated by a put or delete while in flight may have read the old record.
+      if (inFlightGets.remove(key, future) && record != null && recordCache != null) {
+        recordCache.put(key, new CachedRecord(record, System.currentTimeMillis() + config.getCacheTtlMs));
       }
-    }, transactionStateTracker);
+    });
+    if (config.getBatchMaxSize > 1) {
+      getBatchers.computeIfAbsent(new Pair<>(accountName, containerName),
+          k -> new GetBatcher(accountName, containerName)).add(blobName, future);
+    } else {
+      getFromDb(accountName, containerName, blobName).whenComplete(completeWith(future));
+    }
+    return future;
   }
 
   @Override
@@ -217,7 +256,9 @@ class MySqlNamedBlobDb implements NamedBlobDb {
 
   @Override
   public CompletableFuture<PutResult> put(NamedBlobRecord record) {
-    return executeTransactionAsync(record.getAccountName(), record.getContainerName(), true,
+    invalidate(record.getAccountName(), record.getContainerName(), record.getBlobName());
+    CompletableFuture<PutResult> future = new CompletableFuture<>();
+    executeTransactionAsync(record.getAccountName(), record.getContainerName(), true,
         (accountId, containerId, connection) -> {
           boolean rowAlreadyExists = false;
           // 1. Attempt to insert into the table. This is attempted first since it is the most common case.
@@ -261,12 +302,18 @@ class MySqlNamedBlobDb implements NamedBlobDb {
             }
           }
           return new PutResult(record);
-        }, null);
+        }, null).whenComplete((result, exception) -> {
+      invalidate(record.getAccountName(), record.getContainerName(), record.getBlobName());
+      completeWith(future).accept(result, exception);
+    });
+    return future;
   }
 
   @Override
   public CompletableFuture<DeleteResult> delete(String accountName, String containerName, String blobName) {
-    return executeTransactionAsync(accountName, containerName, false, (accountId, containerId, connection) -> {
+    invalidate(accountName, containerName, blobName);
+    CompletableFuture<DeleteResult> future = new CompletableFuture<>();
+    executeTransactionAsync(accountName, containerName, false, (accountId, containerId, connection) -> {
       String blobId;
       Timestamp currentTime;
       boolean alreadyDeleted;
@@ -297,7 +344,151 @@ class MySqlNamedBlobDb implements NamedBlobDb {
         }
       }
       return new DeleteResult(blobId, alreadyDeleted);
-    }, null);
+    }, null).whenComplete((result, exception) -> {
+      invalidate(accountName, containerName, blobName);
+      completeWith(future).accept(result, exception);
+    });
+    return future;
+  }
+
+  /**
+   * Look up a single blob name, retrying in the remote datacenters if it is not found in the local one.
+   * @param accountName the name of the account.
+   * @param containerName the name of the container.
+   * @param blobName the name of the blob.
+   * @return a {@link CompletableFuture} that will eventually contain the {@link NamedBlobRecord} or an exception.
+   */
+  private CompletableFuture<NamedBlobRecord> getFromDb(String accountName, String containerName, String blobName) {
+    TransactionStateTracker transactionStateTracker =
+        new GetTransactionStateTracker(remoteDatacenters, localDatacenter);
+    return executeTransactionAsync(accountName, containerName, true, (accountId, containerId, connection) -> {
+      try (PreparedStatement statement = connection.prepareStatement(GET_QUERY)) {
+        statement.setInt(1, accountId);
+        statement.setInt(2, containerId);
+        statement.setString(3, blobName);
+        try (ResultSet resultSet = statement.executeQuery()) {
+          if (!resultSet.next()) {
+            throw buildException("GET: Blob not found", RestServiceErrorCode.NotFound, accountName, containerName,
+                blobName);
+          }
+          return buildRecord(accountName, containerName, blobName, resultSet.getBytes(1), resultSet.getTimestamp(2),
+              resultSet.getTimestamp(3), System.currentTimeMillis());
+        }
+      }
+    }, transactionStateTracker);
+  }
+
+  /**
+   * Look up a batch of blob names of a container in a single query. The names that are not found in the local
+   * datacenter are looked up again in the remote datacenters, like for a single get.
+   * @param accountName the name of the account.
+   * @param containerName the name of the container.
+   * @param batch the futures to complete for each blob name. Entries are removed as their futures are completed.
+   * @return a {@link CompletableFuture} that completes once the futures of all the names in the batch are completed.
+   */
+  private CompletableFuture<Void> getBatchFromDb(String accountName, String containerName,
+      Map<String, CompletableFuture<NamedBlobRecord>> batch) {
+    TransactionStateTracker transactionStateTracker =
+        new GetTransactionStateTracker(remoteDatacenters, localDatacenter);
+    CompletableFuture<Void> future = new CompletableFuture<>();
+    executeTransactionAsync(accountName, containerName, true, (accountId, containerId, connection) -> {
+      List<String> blobNames = new ArrayList<>(batch.keySet());
+      String query =
+          BATCH_GET_QUERY_PREFIX + String.join(", ", Collections.nCopies(blobNames.size(), BINARY_BLOB_NAME)) + ")";
+      try (PreparedStatement statement = connection.prepareStatement(query)) {
+        statement.setInt(1, accountId);
+        statement.setInt(2, containerId);
+        for (int i = 0; i < blobNames.size(); i++) {
+          statement.setString(i + 3, blobNames.get(i));
+        }
+        try (ResultSet resultSet = statement.executeQuery()) {
+          long currentTime = System.currentTimeMillis();
+          while (resultSet.next()) {
+            String blobName = resultSet.getString(1);
+            CompletableFuture<NamedBlobRecord> blobFuture = batch.remove(blobName);
+            if (blobFuture == null) {
+              continue;
+            }
+            try {
+              blobFuture.complete(
+                  buildRecord(accountName, containerName, blobName, resultSet.getBytes(2), resultSet.getTimestamp(3),
+                      resultSet.getTimestamp(4), currentTime));
+            } catch (RestServiceException e) {
+              blobFuture.completeExceptionally(e);
+            }
+          }
+        }
+      }
+      if (!batch.isEmpty()) {
+        // let the retry look up the names that were not found in the next datacenter.
+        throw new RestServiceException(
+            "GET: Blobs not found; account='" + accountName + "', container='" + containerName + "', names="
+                + batch.keySet(), RestServiceErrorCode.NotFound);
+      }
+      return null;
+    }, transactionStateTracker).whenComplete((result, exception) -> {
+      if (exception != null) {
+        boolean notFound = exception instanceof RestServiceException && RestServiceErrorCode.NotFound.equals(
+            ((RestServiceException) exception).getErrorCode());
+        batch.forEach((blobName, blobFuture) -> blobFuture.completeExceptionally(
+            notFound ? buildException("GET: Blob not found", RestServiceErrorCode.NotFound, accountName,
+                containerName, blobName) : exception));
+      }
+      future.complete(null);
+    });
+    return future;
+  }
+
+  /**
+   * @param key the {@link NamedBlobKey} to look up.
+   * @return the cached {@link NamedBlobRecord} for {@code key}, or {@code null} if caching is disabled or there is no
+   *         record that can still be served.
+   */
+  private NamedBlobRecord getCachedRecord(NamedBlobKey key) {
+    if (recordCache == null) {
+      return null;
+    }
+    CachedRecord cachedRecord = recordCache.get(key);
+    if (cachedRecord == null) {
+      return null;
+    }
+    long currentTime = System.currentTimeMillis();
+    if (currentTime >= cachedRecord.servedUntilMs
+        || Utils.compareTimes(cachedRecord.record.getExpirationTimeMs(), currentTime) <= 0) {
+      recordCache.remove(key, cachedRecord);
+      return null;
+    }
+    return cachedRecord.record;
+  }
+
+  /**
+   * Drop the cached record and any in flight lookup of a blob name whose mapping is being changed.
+   * @param accountName the name of the account.
+   * @param containerName the name of the container.
+   * @param blobName the name of the blob.
+   */
+  private void invalidate(String accountName, String containerName, String blobName) {
+    NamedBlobKey key = new NamedBlobKey(accountName, containerName, blobName);
+    inFlightGets.remove(key);
+    if (recordCache != null) {
+      recordCache.remove(key);
+    }
+  }
+
+  /**
+   * @param future the {@link CompletableFuture} to complete.
+   * @param <T> the result type.
+   * @return a {@link BiConsumer} that completes {@code future} with the outcome of another future, without wrapping
+   *         its exception.
+   */
+  private static <T> BiConsumer<T, Throwable> completeWith(CompletableFuture<T> future) {
+    return (result, exception) -> {
+      if (exception != null) {
+        future.completeExceptionally(exception);
+      } else {
+        future.complete(result);
+      }
+    };
   }
 
   /**
@@ -426,6 +617,28 @@ class MySqlNamedBlobDb implements NamedBlobDb {
     return timestamp == null ? Utils.Infinite_Time : timestamp.getTime();
   }
 
+  /**
+   * @param accountName the name of the account.
+   * @param containerName the name of the container.
+   * @param blobName the name of the blob.
+   * @param blobId the blob ID bytes stored in the record.
+   * @param expirationTime the nullable expiration time stored in the record.
+   * @param deletionTime the nullable deletion time stored in the record.
+   * @param currentTime the current time in ms.
+   * @return the {@link NamedBlobRecord} of the blob.
+   * @throws RestServiceException if the blob is expired or deleted.
+   */
+  private static NamedBlobRecord buildRecord(String accountName, String containerName, String blobName, byte[] blobId,
+      Timestamp expirationTime, Timestamp deletionTime, long currentTime) throws RestServiceException {
+    if (compareTimestamp(expirationTime, currentTime) <= 0) {
+      throw buildException("GET: Blob expired", RestServiceErrorCode.Deleted, accountName, containerName, blobName);
+    } else if (compareTimestamp(deletionTime, currentTime) <= 0) {
+      throw buildException("GET: Blob deleted", RestServiceErrorCode.Deleted, accountName, containerName, blobName);
+    }
+    return new NamedBlobRecord(accountName, containerName, blobName, Base64.encodeBase64URLSafeString(blobId),
+        timestampToMs(expirationTime));
+  }
+
   private static RestServiceException buildException(String message, RestServiceErrorCode errorCode, String accountName,
       String containerName, String blobName) {
     return new RestServiceException(
@@ -448,6 +661,114 @@ class MySqlNamedBlobDb implements NamedBlobDb {
     T run(short accountId, short containerId, Connection connection) throws Exception;
   }
 
+  /**
+   * Batches the gets of a container that queue up while all the database threads of the local datacenter are busy.
+   */
+  private class GetBatcher {
+    private final String accountName;
+    private final String containerName;
+    private final Map<String, CompletableFuture<NamedBlobRecord>> pendingGets = new LinkedHashMap<>();
+
+    GetBatcher(String accountName, String containerName) {
+      this.accountName = accountName;
+      this.containerName = containerName;
+    }
+
+    /**
+     * Queue a get and send it, along with any other queued gets, if a database thread is available.
+     * @param blobName the name of the blob.
+     * @param future the {@link CompletableFuture} to complete with the {@link NamedBlobRecord}.
+     */
+    void add(String blobName, CompletableFuture<NamedBlobRecord> future) {
+      synchronized (this) {
+        CompletableFuture<NamedBlobRecord> pendingGet = pendingGets.putIfAbsent(blobName, future);
+        if (pendingGet != null) {
+          // the queued get of this name was invalidated, but it has not been sent to the database yet.
+          pendingGet.whenComplete(completeWith(future));
+        }
+      }
+      sendBatches();
+    }
+
+    /**
+     * Send batches of queued gets until there are none left or no database thread is available.
+     */
+    private void sendBatches() {
+      Map<String, CompletableFuture<NamedBlobRecord>> batch;
+      while ((batch = nextBatch()) != null) {
+        getBatchFromDb(accountName, containerName, batch).whenComplete((result, exception) -> {
+          getBatchPermits.release();
+          // the freed database thread may be used by the queued gets of any container.
+          getBatchers.values().forEach(GetBatcher::sendBatches);
+        });
+      }
+    }
+
+    /**
+     * @return up to {@link MySqlNamedBlobDbConfig#getBatchMaxSize} queued gets to send, or {@code null} if there are
+     *         none or no database thread is available.
+     */
+    private synchronized Map<String, CompletableFuture<NamedBlobRecord>> nextBatch() {
+      if (pendingGets.isEmpty() || !getBatchPermits.tryAcquire()) {
+        return null;
+      }
+      Map<String, CompletableFuture<NamedBlobRecord>> batch = new HashMap<>();
+      Iterator<Map.Entry<String, CompletableFuture<NamedBlobRecord>>> iterator = pendingGets.entrySet().iterator();
+      while (iterator.hasNext() && batch.size() < config.getBatchMaxSize) {
+        Map.Entry<String, CompletableFuture<NamedBlobRecord>> entry = iterator.next();
+        batch.put(entry.getKey(), entry.getValue());
+        iterator.remove();
+      }
+      return batch;
+    }
+  }
+
+  /**
+   * The account, container and blob name that identify a named blob.
+   */
+  private static class NamedBlobKey {
+    private final String accountName;
+    private final String containerName;
+    private final String blobName;
+
+    NamedBlobKey(String accountName, String containerName, String blobName) {
+      this.accountName = accountName;
+      this.containerName = containerName;
+      this.blobName = blobName;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      NamedBlobKey that = (NamedBlobKey) o;
+      return accountName.equals(that.accountName) && containerName.equals(that.containerName) && blobName.equals(
+          that.blobName);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(accountName, containerName, blobName);
+    }
+  }
+
+  /**
+   * A cached {@link NamedBlobRecord} and the time until which it can be served.
+   */
+  private static class CachedRecord {
+    private final NamedBlobRecord record;
+    private final long servedUntilMs;
+
+    CachedRecord(NamedBlobRecord record, long servedUntilMs) {
+      this.record = record;
+      this.servedUntilMs = servedUntilMs;
+    }
+  }
+
   /**
    * A factory that produces a configured {@link DataSource} based on supplied configs.
    */
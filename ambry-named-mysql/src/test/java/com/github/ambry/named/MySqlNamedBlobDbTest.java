@@ -27,12 +27,15 @@ import com.github.ambry.mysql.MySqlUtils;
 import com.github.ambry.rest.RestServiceErrorCode;
 import com.github.ambry.rest.RestServiceException;
 import com.github.ambry.utils.TestUtils;
+import com.github.ambry.utils.Utils;
 import java.io.IOException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -40,8 +43,12 @@ import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 import javax.sql.DataSource;
 import org.apache.commons.codec.binary.Base64;
 import org.json.JSONArray;
@@ -69,18 +76,7 @@ public class MySqlNamedBlobDbTest {
   private static String id;
 
   public MySqlNamedBlobDbTest() throws IOException {
-    Properties properties = new Properties();
-    JSONArray dbInfo = new JSONArray();
-    for (String datacenter : datacenters) {
-      dbInfo.put(new JSONObject().put("url", "jdbc:mysql://" + datacenter)
-          .put("datacenter", datacenter)
-          .put("isWriteable", true)
-          .put("username", "test")
-          .put("password", "password"));
-    }
-    properties.setProperty(MySqlNamedBlobDbConfig.DB_INFO, dbInfo.toString());
-    namedBlobDb = new MySqlNamedBlobDb(accountService, new MySqlNamedBlobDbConfig(new VerifiableProperties(properties)),
-        dataSourceFactory, localDatacenter);
+    namedBlobDb = createNamedBlobDb(new Properties());
     account = accountService.createAndAddRandomAccount();
     container = account.getAllContainers().iterator().next();
     MockClusterMap clusterMap = new MockClusterMap();
@@ -108,6 +104,105 @@ public class MySqlNamedBlobDbTest {
     checkErrorCode(() -> namedBlobDb.delete(account.getName(), container.getName(), "blobName"), RestServiceErrorCode.NotFound);
   }
 
+  /**
+   * Test that resolved names are cached and that puts and deletes invalidate them.
+   */
+  @Test
+  public void testGetCache() throws Exception {
+    Properties properties = new Properties();
+    properties.setProperty(MySqlNamedBlobDbConfig.GET_CACHE_MAX_ENTRIES, "10");
+    properties.setProperty(MySqlNamedBlobDbConfig.GET_CACHE_TTL_MS, "60000");
+    MySqlNamedBlobDb cachingNamedBlobDb = createNamedBlobDb(properties);
+    List<String> queries = Collections.synchronizedList(new ArrayList<>());
+    dataSourceFactory.triggerFoundResultSet(localDatacenter, new CountDownLatch(0), queries);
+
+    assertEquals("Blob Id is not matched with the record", id,
+        cachingNamedBlobDb.get(account.getName(), container.getName(), "blobName").get().getBlobId());
+    assertEquals("Blob Id is not matched with the record", id,
+        cachingNamedBlobDb.get(account.getName(), container.getName(), "blobName").get().getBlobId());
+    assertEquals("Second get should have been answered from the cache", 1, queries.size());
+
+    cachingNamedBlobDb.put(
+        new NamedBlobRecord(account.getName(), container.getName(), "blobName", id, Utils.Infinite_Time)).get();
+    int queryCount = queries.size();
+    cachingNamedBlobDb.get(account.getName(), container.getName(), "blobName").get();
+    assertEquals("Get after put should query the database", queryCount + 1, queries.size());
+
+    cachingNamedBlobDb.delete(account.getName(), container.getName(), "blobName").get();
+    queryCount = queries.size();
+    cachingNamedBlobDb.get(account.getName(), container.getName(), "blobName").get();
+    assertEquals("Get after delete should query the database", queryCount + 1, queries.size());
+  }
+
+  /**
+   * Test that gets that queue up behind a busy database thread are looked up in a single query, and that concurrent
+   * gets of the same name share a lookup.
+   */
+  @Test
+  public void testGetBatching() throws Exception {
+    Properties properties = new Properties();
+    properties.setProperty(MySqlNamedBlobDbConfig.LOCAL_POOL_SIZE, "1");
+    properties.setProperty(MySqlNamedBlobDbConfig.GET_BATCH_MAX_SIZE, "10");
+    MySqlNamedBlobDb batchingNamedBlobDb = createNamedBlobDb(properties);
+    List<String> queries = Collections.synchronizedList(new ArrayList<>());
+    CountDownLatch latch = new CountDownLatch(1);
+    dataSourceFactory.triggerFoundResultSet(localDatacenter, latch, queries);
+
+    // the first get holds the only database thread until the latch is released, so the others queue up.
+    CompletableFuture<NamedBlobRecord> first = batchingNamedBlobDb.get(account.getName(), container.getName(), "a");
+    CompletableFuture<NamedBlobRecord> second = batchingNamedBlobDb.get(account.getName(), container.getName(), "b");
+    CompletableFuture<NamedBlobRecord> third = batchingNamedBlobDb.get(account.getName(), container.getName(), "c");
+    assertSame("Concurrent gets of the same name should share a lookup", second,
+        batchingNamedBlobDb.get(account.getName(), container.getName(), "b"));
+    latch.countDown();
+    for (CompletableFuture<NamedBlobRecord> future : Arrays.asList(first, second, third)) {
+      assertEquals("Blob Id is not matched with the record", id, future.get().getBlobId());
+    }
+    assertEquals("Queued gets should have been looked up in a single query", 2, queries.size());
+    assertEquals("Unexpected batch query: " + queries.get(1), 2, getBlobNameCount(queries.get(1)));
+  }
+
+  /**
+   * Test that the names of a batch that are not found in the local datacenter, and only those, are looked up again in
+   * the remote datacenters.
+   */
+  @Test
+  public void testGetBatchRetryInRemoteDcs() throws Exception {
+    Properties properties = new Properties();
+    properties.setProperty(MySqlNamedBlobDbConfig.LOCAL_POOL_SIZE, "1");
+    properties.setProperty(MySqlNamedBlobDbConfig.GET_BATCH_MAX_SIZE, "10");
+    MySqlNamedBlobDb batchingNamedBlobDb = createNamedBlobDb(properties);
+    List<String> localQueries = Collections.synchronizedList(new ArrayList<>());
+    List<String> dc2Queries = Collections.synchronizedList(new ArrayList<>());
+    List<String> dc3Queries = Collections.synchronizedList(new ArrayList<>());
+    CountDownLatch latch = new CountDownLatch(1);
+    dataSourceFactory.triggerFoundResultSet(localDatacenter, latch, localQueries,
+        new HashSet<>(Arrays.asList("first", "a")));
+    dataSourceFactory.triggerFoundResultSet("dc2", new CountDownLatch(0), dc2Queries, Collections.singleton("b"));
+    dataSourceFactory.triggerFoundResultSet("dc3", new CountDownLatch(0), dc3Queries, Collections.emptySet());
+
+    // the first get holds the only database thread until the latch is released, so the others queue up.
+    CompletableFuture<NamedBlobRecord> first = batchingNamedBlobDb.get(account.getName(), container.getName(), "first");
+    CompletableFuture<NamedBlobRecord> foundLocally =
+        batchingNamedBlobDb.get(account.getName(), container.getName(), "a");
+    CompletableFuture<NamedBlobRecord> foundRemotely =
+        batchingNamedBlobDb.get(account.getName(), container.getName(), "b");
+    CompletableFuture<NamedBlobRecord> notFound = batchingNamedBlobDb.get(account.getName(), container.getName(), "c");
+    latch.countDown();
+    for (CompletableFuture<NamedBlobRecord> future : Arrays.asList(first, foundLocally, foundRemotely)) {
+      assertEquals("Blob Id is not matched with the record", id, future.get().getBlobId());
+    }
+    assertEquals("Unexpected blob name", "b", foundRemotely.get().getBlobName());
+    checkErrorCode(() -> notFound, RestServiceErrorCode.NotFound);
+
+    assertEquals("Queued gets should have been looked up in a single query", 2, localQueries.size());
+    assertEquals("Unexpected local batch query: " + localQueries.get(1), 3, getBlobNameCount(localQueries.get(1)));
+    assertEquals("Only the names not found locally should be looked up in dc2", Collections.singletonList(2),
+        dc2Queries.stream().map(MySqlNamedBlobDbTest::getBlobNameCount).collect(Collectors.toList()));
+    assertEquals("Only the names not found in dc2 should be looked up in dc3", Collections.singletonList(1),
+        dc3Queries.stream().map(MySqlNamedBlobDbTest::getBlobNameCount).collect(Collectors.toList()));
+  }
+
   /**
    * Test connection failure.
    */
@@ -143,6 +238,35 @@ public class MySqlNamedBlobDbTest {
     });
   }
 
+  /**
+   * @param query a get query.
+   * @return the number of blob names that {@code query} looks up.
+   */
+  private static int getBlobNameCount(String query) {
+    // the account and container IDs are bound before the blob names.
+    return query.split("\\?", -1).length - 3;
+  }
+
+  /**
+   * @param overrides the properties to set in addition to the DB info.
+   * @return a {@link MySqlNamedBlobDb} that uses the mock data sources.
+   */
+  private MySqlNamedBlobDb createNamedBlobDb(Properties overrides) {
+    Properties properties = new Properties();
+    JSONArray dbInfo = new JSONArray();
+    for (String datacenter : datacenters) {
+      dbInfo.put(new JSONObject().put("url", "jdbc:mysql://" + datacenter)
+          .put("datacenter", datacenter)
+          .put("isWriteable", true)
+          .put("username", "test")
+          .put("password", "password"));
+    }
+    properties.setProperty(MySqlNamedBlobDbConfig.DB_INFO, dbInfo.toString());
+    properties.putAll(overrides);
+    return new MySqlNamedBlobDb(accountService, new MySqlNamedBlobDbConfig(new VerifiableProperties(properties)),
+        dataSourceFactory, localDatacenter);
+  }
+
   private static class MockDataSourceFactory implements MySqlNamedBlobDb.DataSourceFactory {
     private final Map<String, DataSource> dataSources = new HashMap<>();
     private String localDatacenter;
@@ -209,6 +333,57 @@ public class MySqlNamedBlobDbTest {
       }
     }
 
+    /**
+     * Make every query return a row, mapped to the test blob ID, for each blob name bound to it.
+     * @param datacenter the datacenter of the data source.
+     * @param latch the latch to wait on before handing out a connection.
+     * @param queries the list to add the prepared queries to.
+     */
+    private void triggerFoundResultSet(String datacenter, CountDownLatch latch, List<String> queries) {
+      triggerFoundResultSet(datacenter, latch, queries, null);
+    }
+
+    /**
+     * Make every query return a row, mapped to the test blob ID, for each blob name bound to it that is found.
+     * @param datacenter the datacenter of the data source.
+     * @param latch the latch to wait on before handing out a connection.
+     * @param queries the list to add the prepared queries to.
+     * @param foundBlobNames the blob names that are found, or {@code null} if all of them are.
+     */
+    private void triggerFoundResultSet(String datacenter, CountDownLatch latch, List<String> queries,
+        Set<String> foundBlobNames) {
+      try {
+        DataSource dataSource = dataSources.get(datacenter);
+        reset(dataSource);
+        Connection connection = mock(Connection.class);
+        when(connection.prepareStatement(any())).thenAnswer(invocation -> {
+          queries.add(invocation.getArgument(0));
+          List<String> blobNames = new ArrayList<>();
+          PreparedStatement statement = mock(PreparedStatement.class);
+          doAnswer(i -> {
+            String blobName = i.getArgument(1);
+            if (foundBlobNames == null || foundBlobNames.contains(blobName)) {
+              blobNames.add(blobName);
+            }
+            return null;
+          }).when(statement).setString(anyInt(), any());
+          AtomicInteger row = new AtomicInteger(-1);
+          ResultSet resultSet = mock(ResultSet.class);
+          when(resultSet.next()).thenAnswer(i -> row.incrementAndGet() < blobNames.size());
+          when(resultSet.getString(1)).thenAnswer(i -> blobNames.get(row.get()));
+          when(resultSet.getBytes(anyInt())).thenReturn(Base64.decodeBase64(id));
+          when(statement.executeQuery()).thenReturn(resultSet);
+          return statement;
+        });
+        when(dataSource.getConnection()).thenAnswer(invocation -> {
+          latch.await();
+          return connection;
+        });
+      } catch (SQLException e) {
+        throw new RuntimeException(e);
+      }
+    }
+
     private void triggerEmptyResultSetForAllDataCenters(List<String> datacenters) {
       for (String datacenter : datacenters) {
         try {
@@ -0,0 +1,52 @@
+/**
+ * Copyright 2021 LinkedIn Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ */
+package com.github.ambry.network;
+
+import java.util.concurrent.ArrayBlockingQueue;
+
+
+/**
+ * A {@link NetworkRequestQueue} that serves requests in the order they arrived.
+ */
+public class FifoNetworkRequestQueue implements NetworkRequestQueue {
+  private final ArrayBlockingQueue<NetworkRequest> queue;
+
+  /**
+   * @param capacity the max number of requests in the queue.
+   */
+  public FifoNetworkRequestQueue(int capacity) {
+    queue = new ArrayBlockingQueue<>(capacity);
+  }
+
+  @Override
+  public void put(NetworkRequest request) throws InterruptedException {
+    queue.put(request);
+  }
+
+  @Override
+  public NetworkRequest take() throws InterruptedException {
+    return queue.take();
+  }
+
+  @Override
+  public int size() {
+    return queue.size();
+  }
+
+  @Override
+  public void clear() {
+    queue.forEach(NetworkRequest::release);
+    queue.clear();
+  }
+}
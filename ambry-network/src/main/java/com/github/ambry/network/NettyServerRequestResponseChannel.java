@@ -13,6 +13,8 @@
  */
 package com.github.ambry.network;
 
+import com.github.ambry.commons.ServerMetrics;
+import com.github.ambry.config.NetworkConfig;
 import com.github.ambry.network.http2.Http2ServerMetrics;
 import com.github.ambry.server.EmptyRequest;
 import io.netty.channel.ChannelFuture;
@@ -20,7 +22,6 @@ import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelHandlerContext;
 import java.io.DataInputStream;
 import java.io.IOException;
-import java.util.concurrent.ArrayBlockingQueue;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -30,17 +31,39 @@ import org.slf4j.LoggerFactory;
  */
 public class NettyServerRequestResponseChannel implements RequestResponseChannel {
   private static final Logger logger = LoggerFactory.getLogger(NettyServerRequestResponseChannel.class);
-  private final ArrayBlockingQueue<NetworkRequest> requestQueue;
+  private final NetworkRequestQueue requestQueue;
   private final Http2ServerMetrics http2ServerMetrics;
 
   public NettyServerRequestResponseChannel(int queueSize, Http2ServerMetrics http2ServerMetrics) {
-    requestQueue = new ArrayBlockingQueue<>(queueSize);
+    requestQueue = new FifoNetworkRequestQueue(queueSize);
+    this.http2ServerMetrics = http2ServerMetrics;
+  }
+
+  /**
+   * @param config the {@link NetworkConfig} that configures the request queue.
+   * @param http2ServerMetrics the {@link Http2ServerMetrics} to use.
+   * @param serverMetrics the {@link ServerMetrics} to report request queue metrics to.
+   * @param classifier the {@link NetworkRequestClassifier} of the requests.
+   */
+  public NettyServerRequestResponseChannel(NetworkConfig config, Http2ServerMetrics http2ServerMetrics,
+      ServerMetrics serverMetrics, NetworkRequestClassifier classifier) {
+    requestQueue = NetworkRequestQueue.create(config, "Http2", serverMetrics, classifier, this::dropRequest);
     this.http2ServerMetrics = http2ServerMetrics;
   }
 
   /** Send a request to be handled, potentially blocking until there is room in the queue for the request */
   @Override
   public void sendRequest(NetworkRequest request) throws InterruptedException {
+    if (!request.equals(EmptyRequest.getInstance())) {
+      DataInputStream stream = new DataInputStream(request.getInputStream());
+      try {
+        // The first 8 bytes is size of the request. TCP implementation uses this size to allocate buffer. See {@link BoundedReceive}
+        // Here we just need to consume it, before queueing, so that the request queue sees the request header.
+        stream.readLong();
+      } catch (IOException e) {
+        throw new IllegalStateException("stream read error." + e);
+      }
+    }
     requestQueue.put(request);
     http2ServerMetrics.requestEnqueueTime.update(System.currentTimeMillis() - request.getStartTimeInMs());
   }
@@ -84,19 +107,20 @@ public class NettyServerRequestResponseChannel implements RequestResponseChannel
     http2ServerMetrics.requestQueuingTime.update(System.currentTimeMillis() - request.getStartTimeInMs());
     if (request.equals(EmptyRequest.getInstance())) {
       logger.debug("Request handler {} received shut down command ", request);
-    } else {
-      DataInputStream stream = new DataInputStream(request.getInputStream());
-      try {
-        // The first 8 bytes is size of the request. TCP implementation uses this size to allocate buffer. See {@link BoundedReceive}
-        // Here we just need to consume it.
-        stream.readLong();
-      } catch (IOException e) {
-        throw new IllegalStateException("stream read error." + e);
-      }
     }
     return request;
   }
 
+  /**
+   * Drops a request that waited in the request queue for too long. The client has most likely timed out the request
+   * already, so no response is sent.
+   * @param request the request to drop.
+   */
+  private void dropRequest(NetworkRequest request) {
+    logger.trace("Dropping request {} that timed out in the request queue", request);
+    request.release();
+  }
+
   /**
    * Shuts down the request response channel
    */
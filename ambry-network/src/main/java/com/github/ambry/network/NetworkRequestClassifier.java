@@ -0,0 +1,35 @@
+/**
+ * Copyright 2021 LinkedIn Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ */
+package com.github.ambry.network;
+
+/**
+ * Classifies the requests received by a server, for request queues that don't serve requests in arrival order.
+ */
+@FunctionalInterface
+public interface NetworkRequestClassifier {
+
+  /**
+   * @param request the {@link NetworkRequest} to classify.
+   * @return the {@link TrafficClass} of the request.
+   */
+  TrafficClass getTrafficClass(NetworkRequest request);
+
+  /**
+   * @param request the {@link NetworkRequest} to get the shard key of.
+   * @return the {@link RequestShardKey} of the request. By default, requests have no shard affinity.
+   */
+  default RequestShardKey getShardKey(NetworkRequest request) {
+    return RequestShardKey.NONE;
+  }
+}
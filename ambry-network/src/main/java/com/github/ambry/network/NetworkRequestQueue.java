@@ -0,0 +1,78 @@
+/**
+ * Copyright 2021 LinkedIn Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ */
+package com.github.ambry.network;
+
+import com.github.ambry.commons.ServerMetrics;
+import com.github.ambry.config.NetworkConfig;
+import java.util.function.Consumer;
+
+
+/**
+ * The queue that requests received by a server wait in until a request handler picks them up.
+ */
+public interface NetworkRequestQueue {
+
+  /**
+   * Adds a request to the queue, blocking until there is room for it.
+   * @param request the {@link NetworkRequest} to add.
+   * @throws InterruptedException if interrupted while waiting for room.
+   */
+  void put(NetworkRequest request) throws InterruptedException;
+
+  /**
+   * Removes the next request to be handled from the queue, blocking until there is one.
+   * @return the next {@link NetworkRequest} to handle.
+   * @throws InterruptedException if interrupted while waiting for a request.
+   */
+  NetworkRequest take() throws InterruptedException;
+
+  /**
+   * @return the number of requests in the queue.
+   */
+  int size();
+
+  /**
+   * Removes and releases all the requests in the queue.
+   */
+  void clear();
+
+  /**
+   * Creates the {@link NetworkRequestQueue} configured by {@link NetworkConfig#requestQueueType}.
+   * @param config the {@link NetworkConfig} to use.
+   * @param queueName the name of the queue, used in metric names.
+   * @param serverMetrics the {@link ServerMetrics} to use. If {@code null}, a {@link FifoNetworkRequestQueue} is created.
+   * @param classifier the {@link NetworkRequestClassifier} of the requests. If {@code null}, a
+   *                   {@link FifoNetworkRequestQueue} is created.
+   * @param droppedRequestHandler called with the requests that are dropped because they waited too long. The handler
+   *                              is responsible for releasing them.
+   * @return the {@link NetworkRequestQueue}.
+   */
+  static NetworkRequestQueue create(NetworkConfig config, String queueName, ServerMetrics serverMetrics,
+      NetworkRequestClassifier classifier, Consumer<NetworkRequest> droppedRequestHandler) {
+    String type = config.requestQueueType;
+    if (!type.equals(FifoNetworkRequestQueue.class.getSimpleName()) && !type.equals(
+        WeightedFairNetworkRequestQueue.class.getSimpleName()) && !type.equals(
+        PartitionShardedNetworkRequestQueue.class.getSimpleName())) {
+      throw new IllegalArgumentException("Unrecognized request queue type: " + type);
+    }
+    if (serverMetrics == null || classifier == null) {
+      return new FifoNetworkRequestQueue(config.queuedMaxRequests);
+    } else if (type.equals(WeightedFairNetworkRequestQueue.class.getSimpleName())) {
+      return new WeightedFairNetworkRequestQueue(config, queueName, serverMetrics, classifier, droppedRequestHandler);
+    } else if (type.equals(PartitionShardedNetworkRequestQueue.class.getSimpleName())) {
+      return new PartitionShardedNetworkRequestQueue(config, queueName, serverMetrics, classifier);
+    }
+    return new FifoNetworkRequestQueue(config.queuedMaxRequests);
+  }
+}
@@ -0,0 +1,275 @@
+/**
+ * Copyright 2021 LinkedIn Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ */
+package com.github.ambry.network;
+
+import com.github.ambry.commons.ServerMetrics;
+import com.github.ambry.config.NetworkConfig;
+import com.github.ambry.server.EmptyRequest;
+import com.github.ambry.utils.SystemTime;
+import com.github.ambry.utils.Time;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+
+/**
+ * A {@link NetworkRequestQueue} that routes requests to request handler lanes by their {@link RequestShardKey}, e.g.
+ * by partition for writes and by disk for reads, so that requests on the same store are handled by the same request
+ * handler. This keeps the store structures of a partition hot in the cache of one handler and bounds the share of
+ * request handlers that a single hot partition can occupy.
+ * <p/>
+ * The number of lanes is fixed when the queue is created ({@link NetworkConfig#requestQueueNumLanes}), so a shard key
+ * always maps to the same lane. Every request handler thread is bound to a lane the first time it takes a request, in
+ * the order they register. A request handler serves its own lane first, then the requests without lane affinity, and
+ * when both are empty it steals read only requests from the other lanes. Writes are only stolen from lanes that no
+ * request handler is bound to, so once every lane has a request handler, writes of a partition are always handled by
+ * a single request handler. Request handlers that register after every lane is bound serve the requests without
+ * lane affinity and steal from the lanes.
+ */
+public class PartitionShardedNetworkRequestQueue implements NetworkRequestQueue {
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition notFull = lock.newCondition();
+  private final List<Lane> lanes = new ArrayList<>();
+  private final ThreadLocal<Lane> currentLane = new ThreadLocal<>();
+  // requests without lane affinity.
+  private final ArrayDeque<QueuedRequest> sharedRequests = new ArrayDeque<>();
+  // the lanes whose request handler is waiting for a request.
+  private final ArrayDeque<Lane> idleLanes = new ArrayDeque<>();
+  private final int capacity;
+  private final String queueName;
+  private final ServerMetrics serverMetrics;
+  private final NetworkRequestClassifier classifier;
+  private final Time time;
+  private int size = 0;
+  private int numHandlers = 0;
+
+  /**
+   * @param config the {@link NetworkConfig} with the capacity of the queue.
+   * @param queueName the name of the queue, used in metric names.
+   * @param serverMetrics the {@link ServerMetrics} to report queue depth, wait time and steals to.
+   * @param classifier the {@link NetworkRequestClassifier} that returns the {@link RequestShardKey} of a request.
+   */
+  public PartitionShardedNetworkRequestQueue(NetworkConfig config, String queueName, ServerMetrics serverMetrics,
+      NetworkRequestClassifier classifier) {
+    this(config, queueName, serverMetrics, classifier, SystemTime.getInstance());
+  }
+
+  PartitionShardedNetworkRequestQueue(NetworkConfig config, String queueName, ServerMetrics serverMetrics,
+      NetworkRequestClassifier classifier, Time time) {
+    this.capacity = config.queuedMaxRequests;
+    this.queueName = queueName;
+    this.serverMetrics = serverMetrics;
+    this.classifier = classifier;
+    this.time = time;
+    for (int i = 0; i < config.requestQueueNumLanes; i++) {
+      lanes.add(new Lane(i));
+    }
+    serverMetrics.registerRequestQueueDepth(queueName, this::size);
+  }
+
+  @Override
+  public void put(NetworkRequest request) throws InterruptedException {
+    RequestShardKey shardKey = request instanceof EmptyRequest ? RequestShardKey.NONE : classifier.getShardKey(request);
+    QueuedRequest queuedRequest = new QueuedRequest(request, shardKey.isReadOnly(), time.milliseconds());
+    lock.lockInterruptibly();
+    try {
+      while (size >= capacity) {
+        notFull.await();
+      }
+      size++;
+      Lane lane =
+          shardKey.getKey() == null ? null : lanes.get(Math.floorMod(shardKey.getKey().hashCode(), lanes.size()));
+      if (lane == null) {
+        sharedRequests.add(queuedRequest);
+        wakeUp(idleLanes.peek());
+      } else {
+        lane.requests.add(queuedRequest);
+        if (lane.idle) {
+          wakeUp(lane);
+        } else if (queuedRequest.readOnly || !lane.hasHandler) {
+          // the handler of the lane is busy or there is none, so let an idle handler steal the request.
+          wakeUp(idleLanes.peek());
+        }
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public NetworkRequest take() throws InterruptedException {
+    Lane lane = currentLane.get();
+    if (lane == null) {
+      lock.lock();
+      try {
+        if (numHandlers < lanes.size()) {
+          lane = lanes.get(numHandlers);
+          lane.hasHandler = true;
+        } else {
+          // every lane is bound already, so this handler gets a lane that no request is routed to.
+          lane = new Lane(numHandlers);
+        }
+        numHandlers++;
+      } finally {
+        lock.unlock();
+      }
+      currentLane.set(lane);
+    }
+    QueuedRequest queuedRequest = null;
+    boolean stolen = false;
+    lock.lockInterruptibly();
+    try {
+      while (queuedRequest == null) {
+        queuedRequest = lane.requests.poll();
+        if (queuedRequest == null) {
+          queuedRequest = sharedRequests.poll();
+        }
+        if (queuedRequest == null) {
+          queuedRequest = steal(lane);
+          stolen = queuedRequest != null;
+        }
+        if (queuedRequest == null) {
+          if (!lane.idle) {
+            lane.idle = true;
+            idleLanes.add(lane);
+          }
+          lane.notEmpty.await();
+        }
+      }
+      size--;
+      notFull.signal();
+    } finally {
+      if (lane.idle) {
+        lane.idle = false;
+        idleLanes.remove(lane);
+      }
+      lock.unlock();
+    }
+    serverMetrics.updateRequestQueueWaitTime(queueName, time.milliseconds() - queuedRequest.enqueueTimeMs);
+    if (stolen) {
+      serverMetrics.markRequestQueueSteal(queueName);
+    }
+    return queuedRequest.request;
+  }
+
+  @Override
+  public int size() {
+    lock.lock();
+    try {
+      return size;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void clear() {
+    lock.lock();
+    try {
+      sharedRequests.forEach(queuedRequest -> queuedRequest.request.release());
+      sharedRequests.clear();
+      for (Lane lane : lanes) {
+        lane.requests.forEach(queuedRequest -> queuedRequest.request.release());
+        lane.requests.clear();
+      }
+      size = 0;
+      notFull.signalAll();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * @return the number of request handlers that took a request so far.
+   */
+  int getNumHandlers() {
+    lock.lock();
+    try {
+      return numHandlers;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Wakes up the request handler of an idle lane. Must be called with the lock held.
+   * @param lane the idle lane to wake up. May be {@code null}, in which case this is a no-op.
+   */
+  private void wakeUp(Lane lane) {
+    if (lane != null) {
+      lane.idle = false;
+      idleLanes.remove(lane);
+      lane.notEmpty.signal();
+    }
+  }
+
+  /**
+   * Takes the oldest request that can be stolen from the other lanes, starting from the lane after {@code thief}. Read
+   * only requests can always be stolen, writes only from lanes without a request handler. Must be called with the
+   * lock held.
+   * @param thief the lane of the request handler that is looking for a request.
+   * @return the stolen {@link QueuedRequest}, or {@code null} if there are no requests to steal in the other lanes.
+   */
+  private QueuedRequest steal(Lane thief) {
+    for (int i = 1; i <= lanes.size(); i++) {
+      Lane victim = lanes.get((thief.index + i) % lanes.size());
+      if (victim == thief) {
+        continue;
+      }
+      Iterator<QueuedRequest> iterator = victim.requests.iterator();
+      while (iterator.hasNext()) {
+        QueuedRequest queuedRequest = iterator.next();
+        if (queuedRequest.readOnly || !victim.hasHandler) {
+          iterator.remove();
+          return queuedRequest;
+        }
+      }
+    }
+    return null;
+  }
+
+  /**
+   * The requests routed to a single request handler.
+   */
+  private class Lane {
+    final int index;
+    final ArrayDeque<QueuedRequest> requests = new ArrayDeque<>();
+    final Condition notEmpty = lock.newCondition();
+    boolean idle = false;
+    // whether a request handler is bound to this lane.
+    boolean hasHandler = false;
+
+    Lane(int index) {
+      this.index = index;
+    }
+  }
+
+  /**
+   * A request along with the time it was queued at and whether it can be stolen.
+   */
+  private static class QueuedRequest {
+    final NetworkRequest request;
+    final boolean readOnly;
+    final long enqueueTimeMs;
+
+    QueuedRequest(NetworkRequest request, boolean readOnly, long enqueueTimeMs) {
+      this.request = request;
+      this.readOnly = readOnly;
+      this.enqueueTimeMs = enqueueTimeMs;
+    }
+  }
+}
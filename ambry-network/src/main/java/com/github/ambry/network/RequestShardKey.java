@@ -0,0 +1,77 @@
+/**
+ * Copyright 2021 LinkedIn Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ */
+package com.github.ambry.network;
+
+import java.util.Objects;
+
+
+/**
+ * The key that a {@link PartitionShardedNetworkRequestQueue} uses to route a request to a request handler lane, e.g.
+ * the partition that a write is for. Requests with the same key are handled by the same lane.
+ */
+public class RequestShardKey {
+  /**
+   * The key of requests that have no lane affinity and can be handled by any request handler.
+   */
+  public static final RequestShardKey NONE = new RequestShardKey(null, true);
+
+  private final Object key;
+  private final boolean readOnly;
+
+  /**
+   * @param key the key to route on. Requests with keys that are equal are routed to the same lane.
+   * @param readOnly {@code true} if the request doesn't modify the store, in which case an idle request handler of
+   *                 another lane may steal it.
+   */
+  public RequestShardKey(Object key, boolean readOnly) {
+    this.key = key;
+    this.readOnly = readOnly;
+  }
+
+  /**
+   * @return the key to route on, or {@code null} if the request has no lane affinity.
+   */
+  public Object getKey() {
+    return key;
+  }
+
+  /**
+   * @return {@code true} if the request may be handled by a request handler of another lane.
+   */
+  public boolean isReadOnly() {
+    return readOnly;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    RequestShardKey that = (RequestShardKey) o;
+    return readOnly == that.readOnly && Objects.equals(key, that.key);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(key, readOnly);
+  }
+
+  @Override
+  public String toString() {
+    return "RequestShardKey{key=" + key + ", readOnly=" + readOnly + "}";
+  }
+}
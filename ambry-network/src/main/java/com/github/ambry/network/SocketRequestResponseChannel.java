@@ -13,13 +13,14 @@
  */
 package com.github.ambry.network;
 
+import com.github.ambry.commons.ServerMetrics;
+import com.github.ambry.config.NetworkConfig;
 import com.github.ambry.utils.AbstractByteBufHolder;
 import com.github.ambry.utils.NettyByteBufDataInputStream;
 import com.github.ambry.utils.SystemTime;
 import io.netty.buffer.ByteBuf;
 import java.io.InputStream;
 import java.util.ArrayList;
-import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
 import org.slf4j.Logger;
@@ -124,16 +125,38 @@ interface ResponseListener {
  * RequestResponse channel for socket server
  */
 public class SocketRequestResponseChannel implements RequestResponseChannel {
+  private static final Logger logger = LoggerFactory.getLogger(SocketRequestResponseChannel.class);
   private final int numProcessors;
-  private final int queueSize;
-  private final ArrayBlockingQueue<NetworkRequest> requestQueue;
+  private final NetworkRequestQueue requestQueue;
   private final ArrayList<BlockingQueue<NetworkResponse>> responseQueues;
   private final ArrayList<ResponseListener> responseListeners;
 
   public SocketRequestResponseChannel(int numProcessors, int queueSize) {
+    this(numProcessors, new FifoNetworkRequestQueue(queueSize));
+  }
+
+  /**
+   * @param numProcessors the number of processors of the socket server.
+   * @param config the {@link NetworkConfig} that configures the request queue.
+   * @param serverMetrics the {@link ServerMetrics} to report request queue metrics to.
+   * @param classifier the {@link NetworkRequestClassifier} of the requests.
+   */
+  public SocketRequestResponseChannel(int numProcessors, NetworkConfig config, ServerMetrics serverMetrics,
+      NetworkRequestClassifier classifier) {
+    this.numProcessors = numProcessors;
+    this.requestQueue =
+        NetworkRequestQueue.create(config, "Socket", serverMetrics, classifier, this::dropRequest);
+    responseQueues = new ArrayList<>(this.numProcessors);
+    responseListeners = new ArrayList<ResponseListener>();
+
+    for (int i = 0; i < this.numProcessors; i++) {
+      responseQueues.add(i, new LinkedBlockingQueue<>());
+    }
+  }
+
+  private SocketRequestResponseChannel(int numProcessors, NetworkRequestQueue requestQueue) {
     this.numProcessors = numProcessors;
-    this.queueSize = queueSize;
-    this.requestQueue = new ArrayBlockingQueue<>(this.queueSize);
+    this.requestQueue = requestQueue;
     responseQueues = new ArrayList<>(this.numProcessors);
     responseListeners = new ArrayList<ResponseListener>();
 
@@ -178,6 +201,21 @@ public class SocketRequestResponseChannel implements RequestResponseChannel {
     return requestQueue.take();
   }
 
+  /**
+   * Drops a request that waited in the request queue for too long, by closing its connection.
+   * @param request the request to drop.
+   */
+  private void dropRequest(NetworkRequest request) {
+    try {
+      logger.trace("Dropping request {} that timed out in the request queue", request);
+      closeConnection(request);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      request.release();
+    }
+  }
+
   /** Get a response for the given processor if there is one */
   public NetworkResponse receiveResponse(int processor) throws InterruptedException {
     return responseQueues.get(processor).poll();
@@ -200,7 +238,6 @@ public class SocketRequestResponseChannel implements RequestResponseChannel {
   }
 
   public void shutdown() {
-    requestQueue.forEach(NetworkRequest::release);
     requestQueue.clear();
   }
 }
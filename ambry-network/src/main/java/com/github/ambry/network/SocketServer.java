@@ -15,6 +15,7 @@ package com.github.ambry.network;
 
 import com.codahale.metrics.MetricRegistry;
 import com.github.ambry.commons.SSLFactory;
+import com.github.ambry.commons.ServerMetrics;
 import com.github.ambry.config.NetworkConfig;
 import com.github.ambry.config.SSLConfig;
 import com.github.ambry.utils.SystemTime;
@@ -65,6 +66,21 @@ public class SocketServer implements NetworkServer {
   private SSLFactory sslFactory;
 
   public SocketServer(NetworkConfig config, SSLConfig sslConfig, MetricRegistry registry, ArrayList<Port> portList) {
+    this(config, sslConfig, registry, portList, null, null);
+  }
+
+  /**
+   * @param config the {@link NetworkConfig} to use.
+   * @param sslConfig the {@link SSLConfig} to use.
+   * @param registry the {@link MetricRegistry} to use.
+   * @param portList the ports to listen on.
+   * @param serverMetrics the {@link ServerMetrics} to report request queue metrics to. If {@code null}, requests are
+   *                      queued in arrival order.
+   * @param classifier the {@link NetworkRequestClassifier} of the requests. If {@code null}, requests are queued in
+   *                   arrival order.
+   */
+  public SocketServer(NetworkConfig config, SSLConfig sslConfig, MetricRegistry registry, ArrayList<Port> portList,
+      ServerMetrics serverMetrics, NetworkRequestClassifier classifier) {
     this.networkConfig = config;
     this.host = config.hostName;
     this.port = config.port;
@@ -73,7 +89,8 @@ public class SocketServer implements NetworkServer {
     this.sendBufferSize = config.socketSendBufferBytes;
     this.recvBufferSize = config.socketReceiveBufferBytes;
     processors = new ArrayList<>(numProcessorThreads);
-    requestResponseChannel = new SocketRequestResponseChannel(numProcessorThreads, maxQueuedRequests);
+    requestResponseChannel =
+        new SocketRequestResponseChannel(numProcessorThreads, config, serverMetrics, classifier);
     metrics = new ServerNetworkMetrics(requestResponseChannel, registry, processors);
     this.acceptors = new ArrayList<>();
     this.ports = new HashMap<>();
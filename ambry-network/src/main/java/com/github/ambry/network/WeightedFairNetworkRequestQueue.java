@@ -0,0 +1,220 @@
+/**
+ * Copyright 2021 LinkedIn Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ */
+package com.github.ambry.network;
+
+import com.github.ambry.commons.ServerMetrics;
+import com.github.ambry.config.NetworkConfig;
+import com.github.ambry.server.EmptyRequest;
+import com.github.ambry.utils.SystemTime;
+import com.github.ambry.utils.Time;
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+
+/**
+ * A {@link NetworkRequestQueue} that queues the requests of each {@link TrafficClass} separately and serves the classes
+ * with smooth weighted round robin, so that a backlog of one class (e.g. replication catching up) only takes its share
+ * of the request handlers. Each class can hold up to {@link NetworkConfig#queuedMaxRequests} requests, so a full
+ * class does not block the network threads from queueing requests of the other classes.
+ * <p/>
+ * Requests that have waited longer than {@link NetworkConfig#requestQueueTimeoutMs} are dropped when they reach the
+ * head of the queue, since their clients have most likely given up on them.
+ */
+public class WeightedFairNetworkRequestQueue implements NetworkRequestQueue {
+  private final Map<TrafficClass, ClassQueue> classQueues = new EnumMap<>(TrafficClass.class);
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition notEmpty = lock.newCondition();
+  private final int capacityPerClass;
+  private final long timeoutMs;
+  private final ServerMetrics serverMetrics;
+  private final NetworkRequestClassifier classifier;
+  private final Consumer<NetworkRequest> droppedRequestHandler;
+  private final Time time;
+  private int size = 0;
+
+  /**
+   * @param config the {@link NetworkConfig} with the weights, capacity and timeout of the queue.
+   * @param queueName the name of the queue, used in metric names.
+   * @param serverMetrics the {@link ServerMetrics} to report queue depth, wait time and drops to.
+   * @param classifier the {@link NetworkRequestClassifier} that returns the {@link TrafficClass} of a request.
+   * @param droppedRequestHandler called, outside of any lock, with the requests that are dropped because they waited
+   *                              too long. The handler is responsible for releasing them.
+   */
+  public WeightedFairNetworkRequestQueue(NetworkConfig config, String queueName, ServerMetrics serverMetrics,
+      NetworkRequestClassifier classifier, Consumer<NetworkRequest> droppedRequestHandler) {
+    this(config, queueName, serverMetrics, classifier, droppedRequestHandler, SystemTime.getInstance());
+  }
+
+  WeightedFairNetworkRequestQueue(NetworkConfig config, String queueName, ServerMetrics serverMetrics,
+      NetworkRequestClassifier classifier, Consumer<NetworkRequest> droppedRequestHandler, Time time) {
+    this.capacityPerClass = config.queuedMaxRequests;
+    this.timeoutMs = config.requestQueueTimeoutMs;
+    this.serverMetrics = serverMetrics;
+    this.classifier = classifier;
+    this.droppedRequestHandler = droppedRequestHandler;
+    this.time = time;
+    for (TrafficClass trafficClass : TrafficClass.values()) {
+      int weight;
+      switch (trafficClass) {
+        case REPLICATION:
+          weight = config.requestQueueReplicationWeight;
+          break;
+        case ADMIN:
+          weight = config.requestQueueAdminWeight;
+          break;
+        default:
+          weight = config.requestQueueClientWeight;
+          break;
+      }
+      ClassQueue classQueue = new ClassQueue(queueName + "-" + trafficClass, weight);
+      classQueues.put(trafficClass, classQueue);
+      serverMetrics.registerRequestQueueDepth(classQueue.name, classQueue::size);
+    }
+  }
+
+  @Override
+  public void put(NetworkRequest request) throws InterruptedException {
+    TrafficClass trafficClass = request instanceof EmptyRequest ? TrafficClass.ADMIN : classifier.getTrafficClass(request);
+    ClassQueue classQueue = classQueues.get(trafficClass);
+    lock.lockInterruptibly();
+    try {
+      while (classQueue.requests.size() >= capacityPerClass) {
+        classQueue.notFull.await();
+      }
+      classQueue.requests.add(new QueuedRequest(request, time.milliseconds()));
+      size++;
+      notEmpty.signal();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public NetworkRequest take() throws InterruptedException {
+    while (true) {
+      ClassQueue classQueue;
+      QueuedRequest queuedRequest;
+      lock.lockInterruptibly();
+      try {
+        while (size == 0) {
+          notEmpty.await();
+        }
+        classQueue = pickClassQueue();
+        queuedRequest = classQueue.requests.poll();
+        size--;
+        classQueue.notFull.signal();
+      } finally {
+        lock.unlock();
+      }
+      long now = time.milliseconds();
+      serverMetrics.updateRequestQueueWaitTime(classQueue.name, now - queuedRequest.enqueueTimeMs);
+      NetworkRequest request = queuedRequest.request;
+      if (timeoutMs > 0 && !(request instanceof EmptyRequest) && now - request.getStartTimeInMs() > timeoutMs) {
+        serverMetrics.markRequestQueueTimeoutDrop(classQueue.name);
+        droppedRequestHandler.accept(request);
+        continue;
+      }
+      return request;
+    }
+  }
+
+  @Override
+  public int size() {
+    lock.lock();
+    try {
+      return size;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void clear() {
+    lock.lock();
+    try {
+      for (ClassQueue classQueue : classQueues.values()) {
+        classQueue.requests.forEach(queuedRequest -> queuedRequest.request.release());
+        classQueue.requests.clear();
+        classQueue.notFull.signalAll();
+      }
+      size = 0;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Picks the class to serve next with smooth weighted round robin: every non empty class earns its weight, the class
+   * with the most credit is served and pays back the total weight earned in this round. Must be called with the lock
+   * held and at least one request queued.
+   * @return the {@link ClassQueue} to take the next request from.
+   */
+  private ClassQueue pickClassQueue() {
+    ClassQueue picked = null;
+    int totalWeight = 0;
+    for (ClassQueue classQueue : classQueues.values()) {
+      if (!classQueue.requests.isEmpty()) {
+        classQueue.credit += classQueue.weight;
+        totalWeight += classQueue.weight;
+        if (picked == null || classQueue.credit > picked.credit) {
+          picked = classQueue;
+        }
+      }
+    }
+    picked.credit -= totalWeight;
+    return picked;
+  }
+
+  /**
+   * The queue of a single {@link TrafficClass}.
+   */
+  private class ClassQueue {
+    final String name;
+    final int weight;
+    final ArrayDeque<QueuedRequest> requests = new ArrayDeque<>();
+    final Condition notFull = lock.newCondition();
+    int credit = 0;
+
+    ClassQueue(String name, int weight) {
+      this.name = name;
+      this.weight = weight;
+    }
+
+    int size() {
+      lock.lock();
+      try {
+        return requests.size();
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+
+  /**
+   * A request along with the time it was queued at.
+   */
+  private static class QueuedRequest {
+    final NetworkRequest request;
+    final long enqueueTimeMs;
+
+    QueuedRequest(NetworkRequest request, long enqueueTimeMs) {
+      this.request = request;
+      this.enqueueTimeMs = enqueueTimeMs;
+    }
+  }
+}
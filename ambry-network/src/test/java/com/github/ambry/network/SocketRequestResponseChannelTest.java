@@ -13,14 +13,25 @@
  */
 package com.github.ambry.network;
 
+import com.codahale.metrics.MetricRegistry;
+import com.github.ambry.commons.ServerMetrics;
+import com.github.ambry.config.NetworkConfig;
+import com.github.ambry.config.VerifiableProperties;
 import com.github.ambry.utils.AbstractByteBufHolder;
+import com.github.ambry.utils.MockTime;
 import com.github.ambry.utils.NettyByteBufLeakHelper;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.PooledByteBufAllocator;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
 import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
@@ -111,4 +122,134 @@ public class SocketRequestResponseChannelTest {
       Assert.assertEquals(true, false);
     }
   }
+
+  /**
+   * Test that {@link WeightedFairNetworkRequestQueue} serves traffic classes in proportion to their weights and drops
+   * requests that waited too long.
+   */
+  @Test
+  public void testWeightedFairNetworkRequestQueue() throws Exception {
+    Properties properties = new Properties();
+    properties.setProperty(NetworkConfig.REQUEST_QUEUE_CLIENT_WEIGHT, "3");
+    properties.setProperty(NetworkConfig.REQUEST_QUEUE_REPLICATION_WEIGHT, "1");
+    properties.setProperty(NetworkConfig.REQUEST_QUEUE_TIMEOUT_MS, "100");
+    NetworkConfig config = new NetworkConfig(new VerifiableProperties(properties));
+    MockTime time = new MockTime(1000);
+    List<NetworkRequest> droppedRequests = new ArrayList<>();
+    WeightedFairNetworkRequestQueue queue = new WeightedFairNetworkRequestQueue(config, "Test",
+        new ServerMetrics(new MetricRegistry(), SocketRequestResponseChannelTest.class),
+        request -> ((MockRequest) request).trafficClass, droppedRequests::add, time);
+
+    for (int i = 0; i < 8; i++) {
+      queue.put(new MockRequest(TrafficClass.REPLICATION, time.milliseconds()));
+    }
+    for (int i = 0; i < 8; i++) {
+      queue.put(new MockRequest(TrafficClass.CLIENT, time.milliseconds()));
+    }
+    Assert.assertEquals("Unexpected queue size", 16, queue.size());
+    int numClientRequests = 0;
+    for (int i = 0; i < 8; i++) {
+      if (((MockRequest) queue.take()).trafficClass == TrafficClass.CLIENT) {
+        numClientRequests++;
+      }
+    }
+    Assert.assertEquals("Client requests should get 3/4 of the requests served", 6, numClientRequests);
+
+    // the remaining requests have waited longer than the timeout, only the new one should be served.
+    time.sleep(101);
+    MockRequest freshRequest = new MockRequest(TrafficClass.ADMIN, time.milliseconds());
+    queue.put(freshRequest);
+    Assert.assertSame("Only the fresh request should be served", freshRequest, queue.take());
+    Assert.assertFalse("Timed out requests should have been dropped", droppedRequests.isEmpty());
+    Assert.assertEquals("Unexpected number of dropped and queued requests", 8,
+        droppedRequests.size() + queue.size());
+  }
+
+  /**
+   * Test that {@link PartitionShardedNetworkRequestQueue} routes requests to the lane of their key and that only read
+   * only requests are stolen by other lanes, unless the lane has no request handler.
+   */
+  @Test
+  public void testPartitionShardedNetworkRequestQueue() throws Exception {
+    Properties properties = new Properties();
+    properties.setProperty(NetworkConfig.REQUEST_QUEUE_NUM_LANES, "3");
+    NetworkConfig config = new NetworkConfig(new VerifiableProperties(properties));
+    PartitionShardedNetworkRequestQueue queue = new PartitionShardedNetworkRequestQueue(config, "Test",
+        new ServerMetrics(new MetricRegistry(), SocketRequestResponseChannelTest.class),
+        new NetworkRequestClassifier() {
+          @Override
+          public TrafficClass getTrafficClass(NetworkRequest request) {
+            return TrafficClass.CLIENT;
+          }
+
+          @Override
+          public RequestShardKey getShardKey(NetworkRequest request) {
+            return ((MockRequest) request).shardKey;
+          }
+        }, new MockTime());
+    ExecutorService otherHandler = Executors.newSingleThreadExecutor();
+    try {
+      // register a lane for this thread and one for the other handler, with requests that have no lane affinity.
+      MockRequest request = new MockRequest(RequestShardKey.NONE);
+      queue.put(request);
+      Assert.assertSame("Unexpected request", request, queue.take());
+      request = new MockRequest(RequestShardKey.NONE);
+      queue.put(request);
+      Assert.assertSame("Unexpected request", request, otherHandler.submit(queue::take).get(1, TimeUnit.SECONDS));
+      Assert.assertEquals("Unexpected number of request handlers", 2, queue.getNumHandlers());
+
+      // key 1 maps to the lane of the other handler. Its read is stolen by this thread, its write is not.
+      MockRequest write = new MockRequest(new RequestShardKey(1, false));
+      MockRequest read = new MockRequest(new RequestShardKey(1, true));
+      queue.put(write);
+      queue.put(read);
+      Assert.assertSame("Read only request should have been stolen", read, queue.take());
+      Assert.assertSame("Write should be handled by its lane", write,
+          otherHandler.submit(queue::take).get(1, TimeUnit.SECONDS));
+
+      // key 0 maps to the lane of this thread.
+      MockRequest ownWrite = new MockRequest(new RequestShardKey(0, false));
+      queue.put(ownWrite);
+      Assert.assertSame("Write should be handled by its lane", ownWrite, queue.take());
+
+      // key 2 maps to a lane without a request handler, so even its writes are stolen.
+      MockRequest orphanWrite = new MockRequest(new RequestShardKey(2, false));
+      queue.put(orphanWrite);
+      Assert.assertSame("Write of a lane without handler should have been stolen", orphanWrite, queue.take());
+      Assert.assertEquals("Queue should be empty", 0, queue.size());
+    } finally {
+      otherHandler.shutdownNow();
+    }
+  }
+
+  /**
+   * A {@link NetworkRequest} of a given {@link TrafficClass} or {@link RequestShardKey}.
+   */
+  private static class MockRequest implements NetworkRequest {
+    final TrafficClass trafficClass;
+    final RequestShardKey shardKey;
+    final long startTimeInMs;
+
+    MockRequest(TrafficClass trafficClass, long startTimeInMs) {
+      this.trafficClass = trafficClass;
+      this.shardKey = RequestShardKey.NONE;
+      this.startTimeInMs = startTimeInMs;
+    }
+
+    MockRequest(RequestShardKey shardKey) {
+      this.trafficClass = TrafficClass.CLIENT;
+      this.shardKey = shardKey;
+      this.startTimeInMs = 0;
+    }
+
+    @Override
+    public InputStream getInputStream() {
+      return null;
+    }
+
+    @Override
+    public long getStartTimeInMs() {
+      return startTimeInMs;
+    }
+  }
 }
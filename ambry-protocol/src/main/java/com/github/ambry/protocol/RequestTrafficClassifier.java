@@ -0,0 +1,189 @@
+/**
+ * Copyright 2021 LinkedIn Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ */
+package com.github.ambry.protocol;
+
+import com.github.ambry.clustermap.ClusterMap;
+import com.github.ambry.clustermap.DiskId;
+import com.github.ambry.clustermap.PartitionId;
+import com.github.ambry.commons.BlobId;
+import com.github.ambry.network.NetworkRequest;
+import com.github.ambry.network.NetworkRequestClassifier;
+import com.github.ambry.network.RequestShardKey;
+import com.github.ambry.network.TrafficClass;
+import com.github.ambry.utils.NettyByteBufDataInputStream;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufHolder;
+import java.io.DataInputStream;
+import java.nio.charset.Charset;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Classifies the requests received by a server into {@link TrafficClass}es and {@link RequestShardKey}s by peeking at
+ * the request header, without consuming it.
+ */
+public class RequestTrafficClassifier implements NetworkRequestClassifier {
+  private static final Logger logger = LoggerFactory.getLogger(RequestTrafficClassifier.class);
+  // type (short) + version (short) + correlation id (int), after which the client id is serialized.
+  private static final int CLIENT_ID_OFFSET = 8;
+  private static final byte[] REPLICATION_FETCH_CLIENT_ID_PREFIX =
+      GetRequest.Replication_Client_Id_Prefix.getBytes(Charset.defaultCharset());
+
+  private final ClusterMap clusterMap;
+  private final Function<PartitionId, DiskId> localDiskLookup;
+
+  /**
+   * @param clusterMap the {@link ClusterMap} to deserialize blob ids with.
+   * @param localDiskLookup returns the disk of the local replica of a partition, or {@code null} if there is none.
+   */
+  public RequestTrafficClassifier(ClusterMap clusterMap, Function<PartitionId, DiskId> localDiskLookup) {
+    this.clusterMap = clusterMap;
+    this.localDiskLookup = localDiskLookup;
+  }
+
+  @Override
+  public TrafficClass getTrafficClass(NetworkRequest request) {
+    return classify(request);
+  }
+
+  /**
+   * Writes are keyed by the partition they are on. Single partition GETs are keyed by the disk of the local replica
+   * of the partition and can be stolen. All other requests, including replication fetches which span many
+   * partitions, have no lane affinity.
+   * @param request the {@link NetworkRequest} to get the shard key of. Its content must start at the request type.
+   * @return the {@link RequestShardKey} of the request.
+   */
+  @Override
+  public RequestShardKey getShardKey(NetworkRequest request) {
+    ByteBuf content = getContent(request);
+    RequestOrResponseType type = getType(content);
+    if (type == null) {
+      return RequestShardKey.NONE;
+    }
+    try {
+      switch (type) {
+        case PutRequest:
+        case DeleteRequest:
+        case TtlUpdateRequest:
+        case UndeleteRequest:
+          return new RequestShardKey(readFirstBlobId(content, 0).getPartition(), false);
+        case GetRequest:
+          if (isReplicationFetch(content, content.readerIndex())) {
+            return RequestShardKey.NONE;
+          }
+          // message format flags (short), then the number of partition request infos (int) and the number of blob
+          // ids in the first of them (int).
+          int partitionCountIndex = getClientIdEnd(content) + Short.BYTES;
+          if (content.getInt(partitionCountIndex) != 1) {
+            return RequestShardKey.NONE;
+          }
+          PartitionId partitionId = readFirstBlobId(content, Short.BYTES + Integer.BYTES + Integer.BYTES).getPartition();
+          DiskId diskId = localDiskLookup.apply(partitionId);
+          return new RequestShardKey(diskId != null ? diskId : partitionId, true);
+        default:
+          return RequestShardKey.NONE;
+      }
+    } catch (Exception e) {
+      // malformed requests are reported when the request is handled.
+      logger.trace("Could not get the shard key of request {}", request, e);
+      return RequestShardKey.NONE;
+    }
+  }
+
+  /**
+   * @param request the {@link NetworkRequest} to classify. Its content must start at the request type.
+   * @return the {@link TrafficClass} of the request. {@link TrafficClass#CLIENT} if the request can't be classified.
+   */
+  public static TrafficClass classify(NetworkRequest request) {
+    ByteBuf content = getContent(request);
+    RequestOrResponseType type = getType(content);
+    if (type == null) {
+      return TrafficClass.CLIENT;
+    }
+    switch (type) {
+      case ReplicaMetadataRequest:
+        return TrafficClass.REPLICATION;
+      case AdminRequest:
+        return TrafficClass.ADMIN;
+      case GetRequest:
+        return isReplicationFetch(content, content.readerIndex()) ? TrafficClass.REPLICATION : TrafficClass.CLIENT;
+      default:
+        return TrafficClass.CLIENT;
+    }
+  }
+
+  /**
+   * @param request the {@link NetworkRequest}.
+   * @return the content of the request, or {@code null} if it doesn't have any.
+   */
+  private static ByteBuf getContent(NetworkRequest request) {
+    return request instanceof ByteBufHolder ? ((ByteBufHolder) request).content() : null;
+  }
+
+  /**
+   * @param content the content of a request.
+   * @return the {@link RequestOrResponseType} of the request, or {@code null} if it can't be determined.
+   */
+  private static RequestOrResponseType getType(ByteBuf content) {
+    if (content == null || content.readableBytes() < Short.BYTES) {
+      return null;
+    }
+    short typeOrdinal = content.getShort(content.readerIndex());
+    return typeOrdinal >= 0 && typeOrdinal < RequestOrResponseType.values().length
+        ? RequestOrResponseType.values()[typeOrdinal] : null;
+  }
+
+  /**
+   * @param content the content of a request.
+   * @return the index in {@code content} right after the client id of the request.
+   */
+  private static int getClientIdEnd(ByteBuf content) {
+    int clientIdIndex = content.readerIndex() + CLIENT_ID_OFFSET;
+    return clientIdIndex + Integer.BYTES + content.getInt(clientIdIndex);
+  }
+
+  /**
+   * Deserializes a blob id from the content of a request, without consuming the content.
+   * @param content the content of a request.
+   * @param offset the offset of the blob id from the end of the client id.
+   * @return the {@link BlobId}.
+   * @throws Exception if the blob id can't be deserialized.
+   */
+  private BlobId readFirstBlobId(ByteBuf content, int offset) throws Exception {
+    ByteBuf duplicate = content.duplicate();
+    duplicate.readerIndex(getClientIdEnd(content) + offset);
+    return new BlobId(new DataInputStream(new NettyByteBufDataInputStream(duplicate)), clusterMap);
+  }
+
+  /**
+   * @param content the content of a {@link GetRequest}.
+   * @param start the index of the request type in {@code content}.
+   * @return {@code true} if the client id of the request marks it as a fetch of a replication thread.
+   */
+  private static boolean isReplicationFetch(ByteBuf content, int start) {
+    int clientIdStart = start + CLIENT_ID_OFFSET + Integer.BYTES;
+    if (content.writerIndex() < clientIdStart + REPLICATION_FETCH_CLIENT_ID_PREFIX.length
+        || content.getInt(start + CLIENT_ID_OFFSET) < REPLICATION_FETCH_CLIENT_ID_PREFIX.length) {
+      return false;
+    }
+    for (int i = 0; i < REPLICATION_FETCH_CLIENT_ID_PREFIX.length; i++) {
+      if (content.getByte(clientIdStart + i) != REPLICATION_FETCH_CLIENT_ID_PREFIX[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
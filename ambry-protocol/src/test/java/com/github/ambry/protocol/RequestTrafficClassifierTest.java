@@ -0,0 +1,261 @@
+/**
+ * Copyright 2021 LinkedIn Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ */
+package com.github.ambry.protocol;
+
+import com.github.ambry.clustermap.ClusterMap;
+import com.github.ambry.clustermap.DiskId;
+import com.github.ambry.clustermap.MockClusterMap;
+import com.github.ambry.clustermap.PartitionId;
+import com.github.ambry.clustermap.ReplicaType;
+import com.github.ambry.commons.BlobId;
+import com.github.ambry.commons.CommonTestUtils;
+import com.github.ambry.messageformat.BlobProperties;
+import com.github.ambry.messageformat.BlobType;
+import com.github.ambry.messageformat.MessageFormatFlags;
+import com.github.ambry.network.NetworkRequest;
+import com.github.ambry.network.RequestShardKey;
+import com.github.ambry.network.TrafficClass;
+import com.github.ambry.utils.AbstractByteBufHolder;
+import com.github.ambry.utils.ByteBufferChannel;
+import com.github.ambry.utils.NettyByteBufDataInputStream;
+import com.github.ambry.utils.TestUtils;
+import com.github.ambry.utils.Utils;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+
+/**
+ * Tests for {@link RequestTrafficClassifier} on requests serialized the way they are received by a server.
+ */
+public class RequestTrafficClassifierTest {
+  private final MockClusterMap clusterMap;
+  private final PartitionId partitionId;
+  private final BlobId blobId;
+
+  public RequestTrafficClassifierTest() throws IOException {
+    clusterMap = new MockClusterMap();
+    partitionId = clusterMap.getWritablePartitionIds(MockClusterMap.DEFAULT_PARTITION_CLASS).get(0);
+    blobId = new BlobId(CommonTestUtils.getCurrentBlobIdVersion(), BlobId.BlobIdType.NATIVE,
+        ClusterMap.UNKNOWN_DATACENTER_ID, Utils.getRandomShort(TestUtils.RANDOM),
+        Utils.getRandomShort(TestUtils.RANDOM), partitionId, false, BlobId.BlobDataType.DATACHUNK);
+  }
+
+  /**
+   * Tests the {@link TrafficClass} of every kind of request that is classified.
+   * @throws IOException
+   */
+  @Test
+  public void classifyTest() throws IOException {
+    assertTrafficClass(TrafficClass.CLIENT, createGetRequest("clientId"));
+    assertTrafficClass(TrafficClass.REPLICATION,
+        createGetRequest(GetRequest.Replication_Client_Id_Prefix + "localhost[DC1]"));
+    assertTrafficClass(TrafficClass.CLIENT, createPutRequest());
+    assertTrafficClass(TrafficClass.CLIENT, new DeleteRequest(1, "clientId", blobId, System.currentTimeMillis()));
+    assertTrafficClass(TrafficClass.REPLICATION, createReplicaMetadataRequest());
+    assertTrafficClass(TrafficClass.ADMIN,
+        new AdminRequest(AdminRequestOrResponseType.TriggerCompaction, partitionId, 1, "clientId"));
+    assertTrafficClass(TrafficClass.ADMIN, new AdminRequest(AdminRequestOrResponseType.CatchupStatus, null, 1, "id"));
+  }
+
+  /**
+   * Tests that requests that can't be classified are client traffic.
+   */
+  @Test
+  public void unclassifiableRequestTest() {
+    assertEquals("Request without content should be client traffic", TrafficClass.CLIENT,
+        RequestTrafficClassifier.classify(mock(NetworkRequest.class)));
+    assertEquals("Empty request should be client traffic", TrafficClass.CLIENT,
+        RequestTrafficClassifier.classify(new TestNetworkRequest(Unpooled.EMPTY_BUFFER)));
+    assertEquals("Request with an unknown type should be client traffic", TrafficClass.CLIENT,
+        RequestTrafficClassifier.classify(new TestNetworkRequest(Unpooled.wrappedBuffer(new byte[]{-1, -1}))));
+    // a GET that is cut off in the client id.
+    ByteBuf content = serialize(createGetRequest(GetRequest.Replication_Client_Id_Prefix + "localhost"));
+    assertEquals("Truncated request should be client traffic", TrafficClass.CLIENT,
+        RequestTrafficClassifier.classify(new TestNetworkRequest(content.slice(0, 16))));
+  }
+
+  /**
+   * Tests the {@link RequestShardKey} of every kind of request: writes are keyed by partition, single partition GETs by
+   * the disk of the local replica and all other requests have no key.
+   * @throws IOException
+   */
+  @Test
+  public void shardKeyTest() throws IOException {
+    DiskId diskId = mock(DiskId.class);
+    RequestTrafficClassifier classifier =
+        new RequestTrafficClassifier(clusterMap, partition -> partition.equals(partitionId) ? diskId : null);
+    long nowMs = System.currentTimeMillis();
+    RequestShardKey writeKey = new RequestShardKey(partitionId, false);
+    assertShardKey(writeKey, classifier, createPutRequest());
+    assertShardKey(writeKey, classifier, new DeleteRequest(1, "clientId", blobId, nowMs));
+    assertShardKey(writeKey, classifier, new TtlUpdateRequest(1, "clientId", blobId, Utils.Infinite_Time, nowMs));
+    assertShardKey(writeKey, classifier, new UndeleteRequest(1, "clientId", blobId, nowMs));
+    assertShardKey(new RequestShardKey(diskId, true), classifier, createGetRequest("clientId"));
+    // without a local replica, a GET is keyed by its partition.
+    assertShardKey(new RequestShardKey(partitionId, true), new RequestTrafficClassifier(clusterMap, partition -> null),
+        createGetRequest("clientId"));
+
+    assertShardKey(RequestShardKey.NONE, classifier,
+        createGetRequest(GetRequest.Replication_Client_Id_Prefix + "localhost[DC1]"));
+    PartitionId otherPartitionId = clusterMap.getWritablePartitionIds(MockClusterMap.DEFAULT_PARTITION_CLASS).get(1);
+    BlobId otherBlobId = new BlobId(CommonTestUtils.getCurrentBlobIdVersion(), BlobId.BlobIdType.NATIVE,
+        ClusterMap.UNKNOWN_DATACENTER_ID, blobId.getAccountId(), blobId.getContainerId(), otherPartitionId, false,
+        BlobId.BlobDataType.DATACHUNK);
+    GetRequest multiPartitionGetRequest = new GetRequest(1, "clientId", MessageFormatFlags.All,
+        Arrays.asList(new PartitionRequestInfo(partitionId, Collections.singletonList(blobId)),
+            new PartitionRequestInfo(otherPartitionId, Collections.singletonList(otherBlobId))), GetOption.None);
+    assertShardKey(RequestShardKey.NONE, classifier, multiPartitionGetRequest);
+    assertShardKey(RequestShardKey.NONE, classifier, createReplicaMetadataRequest());
+    assertShardKey(RequestShardKey.NONE, classifier,
+        new AdminRequest(AdminRequestOrResponseType.TriggerCompaction, partitionId, 1, "clientId"));
+  }
+
+  /**
+   * Tests that requests whose shard key can't be read have no key.
+   */
+  @Test
+  public void malformedRequestShardKeyTest() {
+    RequestTrafficClassifier classifier = new RequestTrafficClassifier(clusterMap, partition -> null);
+    assertEquals("Request without content should have no key", RequestShardKey.NONE,
+        classifier.getShardKey(mock(NetworkRequest.class)));
+    // a PUT and a GET that are cut off in the blob id.
+    ByteBuf content = serialize(createPutRequest());
+    assertEquals("Truncated PUT should have no key", RequestShardKey.NONE,
+        classifier.getShardKey(new TestNetworkRequest(content.slice(0, 30))));
+    content = serialize(createGetRequest("clientId"));
+    assertEquals("Truncated GET should have no key", RequestShardKey.NONE,
+        classifier.getShardKey(new TestNetworkRequest(content.slice(0, content.readableBytes() - 20))));
+  }
+
+  /**
+   * @param clientId the client id of the request.
+   * @return a {@link GetRequest} for {@link #blobId}.
+   */
+  GetRequest createGetRequest(String clientId) {
+    PartitionRequestInfo partitionRequestInfo =
+        new PartitionRequestInfo(partitionId, Collections.singletonList(blobId));
+    return new GetRequest(1, clientId, MessageFormatFlags.All, Collections.singletonList(partitionRequestInfo),
+        GetOption.None);
+  }
+
+  /**
+   * @return a {@link PutRequest} for {@link #blobId}.
+   */
+  PutRequest createPutRequest() {
+    byte[] blob = TestUtils.getRandomBytes(100);
+    BlobProperties blobProperties =
+        new BlobProperties(blob.length, "serviceId", blobId.getAccountId(), blobId.getContainerId(), false);
+    return new PutRequest(1, "clientId", blobId, blobProperties, ByteBuffer.wrap(TestUtils.getRandomBytes(10)),
+        Unpooled.wrappedBuffer(blob), blob.length, BlobType.DataBlob, null);
+  }
+
+  /**
+   * @return a {@link ReplicaMetadataRequest} for {@link #partitionId}.
+   */
+  ReplicaMetadataRequest createReplicaMetadataRequest() {
+    ReplicaMetadataRequestInfo replicaMetadataRequestInfo =
+        new ReplicaMetadataRequestInfo(partitionId, new MockFindToken(0, 1000), "localhost", "path",
+            ReplicaType.DISK_BACKED, ReplicaMetadataRequest.Replica_Metadata_Request_Version_V2);
+    return new ReplicaMetadataRequest(1, "replication", Collections.singletonList(replicaMetadataRequestInfo), 1000,
+        ReplicaMetadataRequest.Replica_Metadata_Request_Version_V2);
+  }
+
+  /**
+   * Asserts the {@link TrafficClass} of a request, and that classifying it doesn't consume it.
+   * @param expected the expected {@link TrafficClass}.
+   * @param request the request to classify.
+   */
+  private void assertTrafficClass(TrafficClass expected, RequestOrResponse request) {
+    TestNetworkRequest networkRequest = new TestNetworkRequest(serialize(request));
+    assertEquals("Unexpected traffic class of " + request.getRequestType(), expected,
+        RequestTrafficClassifier.classify(networkRequest));
+    assertEquals("Classifying should not consume the request", 0, networkRequest.content().readerIndex());
+  }
+
+  /**
+   * Asserts the {@link RequestShardKey} of a request, and that getting it doesn't consume the request.
+   * @param expected the expected {@link RequestShardKey}.
+   * @param classifier the {@link RequestTrafficClassifier} to use.
+   * @param request the request to get the shard key of.
+   */
+  private void assertShardKey(RequestShardKey expected, RequestTrafficClassifier classifier,
+      RequestOrResponse request) {
+    TestNetworkRequest networkRequest = new TestNetworkRequest(serialize(request));
+    assertEquals("Unexpected shard key of " + request.getRequestType(), expected,
+        classifier.getShardKey(networkRequest));
+    assertEquals("Getting the shard key should not consume the request", 0, networkRequest.content().readerIndex());
+  }
+
+  /**
+   * Serializes a request and releases it.
+   * @param request the request to serialize.
+   * @return the serialized request, without the size that precedes it on the wire, the way a server receives it.
+   */
+  static ByteBuf serialize(RequestOrResponse request) {
+    try {
+      ByteBuffer buffer = ByteBuffer.allocate((int) request.sizeInBytes());
+      ByteBufferChannel channel = new ByteBufferChannel(buffer);
+      while (!request.isSendComplete()) {
+        request.writeTo(channel);
+      }
+      buffer.flip();
+      buffer.getLong();
+      return Unpooled.wrappedBuffer(buffer.slice());
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    } finally {
+      request.release();
+    }
+  }
+
+  /**
+   * A {@link NetworkRequest} with the content of a serialized request.
+   */
+  static class TestNetworkRequest extends AbstractByteBufHolder<TestNetworkRequest> implements NetworkRequest {
+    private final ByteBuf content;
+
+    TestNetworkRequest(ByteBuf content) {
+      this.content = content;
+    }
+
+    @Override
+    public InputStream getInputStream() {
+      return new NettyByteBufDataInputStream(content);
+    }
+
+    @Override
+    public long getStartTimeInMs() {
+      return 0;
+    }
+
+    @Override
+    public ByteBuf content() {
+      return content;
+    }
+
+    @Override
+    public TestNetworkRequest replace(ByteBuf content) {
+      return new TestNetworkRequest(content);
+    }
+  }
+}
@@ -119,6 +119,12 @@ public class AmbryQuotaManager implements QuotaManager {
       throttlingRecommendation = quotaRecommendationMergePolicy.mergeEnforcementRecommendations(quotaRecommendations);
       if (throttlingRecommendation.shouldThrottle()) {
         quotaMetrics.quotaExceededCount.inc();
+        try {
+          quotaMetrics.getQuotaExceededCount(QuotaResource.fromRestRequest(restRequest).getResourceId()).inc();
+        } catch (QuotaException quotaException) {
+          logger.debug("Could not get quota resource of throttled request due to exception: {}",
+              quotaException.getMessage());
+        }
       }
     } finally {
       timer.stop();
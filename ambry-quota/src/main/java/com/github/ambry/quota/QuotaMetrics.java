@@ -16,6 +16,8 @@ package com.github.ambry.quota;
 import com.codahale.metrics.Counter;
 import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.Timer;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 
 /**
@@ -27,16 +29,28 @@ public class QuotaMetrics {
   public final Counter quotaNotEnforcedCount;
   public final Timer quotaManagerInitTime;
   public final Timer quotaChargeTime;
+  private final MetricRegistry metricRegistry;
+  private final ConcurrentMap<String, Counter> perResourceQuotaExceededCount = new ConcurrentHashMap<>();
 
   /**
    * {@link QuotaMetrics} constructor.
    * @param metricRegistry {@link MetricRegistry} object.
    */
   public QuotaMetrics(MetricRegistry metricRegistry) {
+    this.metricRegistry = metricRegistry;
     quotaExceededCount = metricRegistry.counter(MetricRegistry.name(QuotaMetrics.class, "QuotaExceededCount"));
     quotaEnforcementTime = metricRegistry.timer(MetricRegistry.name(QuotaMetrics.class, "QuotaEnforcementTime"));
     quotaNotEnforcedCount = metricRegistry.counter(MetricRegistry.name(QuotaMetrics.class, "QuotaNotEnforcedCount"));
     quotaManagerInitTime = metricRegistry.timer(MetricRegistry.name(QuotaMetrics.class, "QuotaManagerInitTime"));
     quotaChargeTime = metricRegistry.timer(MetricRegistry.name(QuotaMetrics.class, "QuotaChargeTime"));
   }
+
+  /**
+   * @param resourceId the id of the {@link QuotaResource}.
+   * @return the {@link Counter} of the requests of the resource that were recommended to be throttled.
+   */
+  public Counter getQuotaExceededCount(String resourceId) {
+    return perResourceQuotaExceededCount.computeIfAbsent(resourceId,
+        id -> metricRegistry.counter(MetricRegistry.name(QuotaMetrics.class, id, "QuotaExceededCount")));
+  }
 }
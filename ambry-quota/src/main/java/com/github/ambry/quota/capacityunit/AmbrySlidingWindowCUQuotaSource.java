@@ -0,0 +1,246 @@
+/*
+ * Copyright 2022 LinkedIn Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ */
+package com.github.ambry.quota.capacityunit;
+
+import com.github.ambry.account.Account;
+import com.github.ambry.account.AccountService;
+import com.github.ambry.config.QuotaConfig;
+import com.github.ambry.quota.Quota;
+import com.github.ambry.quota.QuotaException;
+import com.github.ambry.quota.QuotaName;
+import com.github.ambry.quota.QuotaResource;
+import com.github.ambry.quota.QuotaResourceType;
+import com.github.ambry.quota.QuotaSource;
+import com.github.ambry.quota.QuotaUtils;
+import com.github.ambry.utils.SystemTime;
+import com.github.ambry.utils.Time;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * A {@link QuotaSource} implementation that, like {@link AmbryCUQuotaSource}, keeps the quota and usage values in memory
+ * and treats Ambry frontend's read and write bandwidth capacity as system resources. Instead of resetting all the
+ * usage at the end of each aggregation window, the usage is the one of the last
+ * {@link QuotaConfig#cuQuotaAggregationWindowInSecs}, counted in {@link QuotaConfig#cuQuotaAggregationWindowNumBuckets}
+ * sub-windows. So usage doesn't drop to zero at a window boundary, and charges don't contend on a single counter.
+ */
+public class AmbrySlidingWindowCUQuotaSource implements QuotaSource {
+  private static final EnumSet<QuotaName> SUPPORTED_QUOTA_NAMES =
+      EnumSet.of(QuotaName.READ_CAPACITY_UNIT, QuotaName.WRITE_CAPACITY_UNIT);
+  private static final EnumSet<QuotaResourceType> SUPPORTED_QUOTA_RESOURCE_TYPES =
+      EnumSet.of(QuotaResourceType.ACCOUNT, QuotaResourceType.CONTAINER);
+  private static final Logger LOGGER = LoggerFactory.getLogger(AmbrySlidingWindowCUQuotaSource.class);
+  private static final long DEFAULT_RCU_FOR_NEW_RESOURCE = 0;
+  private static final long DEFAULT_WCU_FOR_NEW_RESOURCE = 0;
+  private final CapacityUnit feQuota; // Ambry frontend's CU capacity.
+  private final CapacityUnitUsage feUsage; // Ambry frontend's CU usage.
+  private final ConcurrentMap<String, CapacityUnit> cuQuota; // in memory quota for all resources.
+  private final ConcurrentMap<String, CapacityUnitUsage> cuUsage; // in memory quota usage for all resources.
+  private final long windowSizeMs;
+  private final int numBuckets;
+  private final Time time;
+  private final AtomicBoolean isReady;
+
+  /**
+   * Constructor for {@link AmbrySlidingWindowCUQuotaSource}.
+   * @param quotaConfig {@link QuotaConfig} object.
+   * @param accountService {@link AccountService} object.
+   * @throws IOException in case of any exception.
+   */
+  public AmbrySlidingWindowCUQuotaSource(QuotaConfig quotaConfig, AccountService accountService) throws IOException {
+    this(quotaConfig, accountService, SystemTime.getInstance());
+  }
+
+  /**
+   * Constructor for {@link AmbrySlidingWindowCUQuotaSource}.
+   * @param quotaConfig {@link QuotaConfig} object.
+   * @param accountService {@link AccountService} object.
+   * @param time the {@link Time} instance to use.
+   * @throws IOException in case of any exception.
+   */
+  AmbrySlidingWindowCUQuotaSource(QuotaConfig quotaConfig, AccountService accountService, Time time)
+      throws IOException {
+    feQuota = JsonCUQuotaDataProviderUtil.getFeCUCapacityFromJson(quotaConfig.frontendCUCapacityInJson);
+    cuQuota = new ConcurrentHashMap<>(
+        JsonCUQuotaDataProviderUtil.getCUQuotasFromJson(quotaConfig.resourceCUQuotaInJson, accountService));
+    cuUsage = new ConcurrentHashMap<>();
+    windowSizeMs = quotaConfig.cuQuotaAggregationWindowInSecs * Time.MsPerSec;
+    numBuckets = quotaConfig.cuQuotaAggregationWindowNumBuckets;
+    this.time = time;
+    feUsage = newUsage();
+    isReady = new AtomicBoolean(false);
+  }
+
+  @Override
+  public synchronized void init() {
+    if (isReady.get()) {
+      LOGGER.warn("AmbrySlidingWindowCUQuotaSource is already initialized.");
+      return;
+    }
+    cuQuota.keySet().forEach(key -> cuUsage.putIfAbsent(key, newUsage()));
+    isReady.set(true);
+  }
+
+  @Override
+  public boolean isReady() {
+    return isReady.get();
+  }
+
+  @Override
+  public Quota getQuota(QuotaResource quotaResource, QuotaName quotaName) throws QuotaException {
+    checkSupported(quotaName, quotaResource);
+    final String resourceId = quotaResource.getResourceId();
+    assertResourceId(resourceId, false);
+    return new Quota<>(quotaName, cuQuota.get(resourceId).getQuotaValue(quotaName), quotaResource);
+  }
+
+  @Override
+  public float getUsage(QuotaResource quotaResource, QuotaName quotaName) throws QuotaException {
+    checkSupported(quotaName, quotaResource);
+    final String resourceId = quotaResource.getResourceId();
+    assertResourceId(resourceId, true);
+    return QuotaUtils.getUsagePercentage(cuQuota.get(resourceId).getQuotaValue(quotaName),
+        cuUsage.get(resourceId).getQuotaValue(quotaName));
+  }
+
+  @Override
+  public void chargeUsage(QuotaResource quotaResource, QuotaName quotaName, double usageCost) throws QuotaException {
+    checkSupported(quotaName, quotaResource);
+    final String resourceId = quotaResource.getResourceId();
+    assertResourceId(resourceId, true);
+    chargeSystemResourceUsage(quotaName, usageCost);
+    cuUsage.get(resourceId).charge(quotaName, (long) Math.ceil(usageCost));
+  }
+
+  @Override
+  public float getSystemResourceUsage(QuotaName quotaName) {
+    return QuotaUtils.getUsagePercentage(feQuota.getQuotaValue(quotaName), feUsage.getQuotaValue(quotaName));
+  }
+
+  @Override
+  public void chargeSystemResourceUsage(QuotaName quotaName, double usageCost) {
+    feUsage.charge(quotaName, (long) Math.ceil(usageCost));
+  }
+
+  @Override
+  public void updateNewQuotaResources(Collection<Account> accounts) {
+    Collection<QuotaResource> quotaResources = QuotaUtils.getQuotaResourcesFromAccounts(accounts);
+    synchronized (this) {
+      quotaResources.forEach(quotaResource -> {
+        cuQuota.putIfAbsent(quotaResource.getResourceId(),
+            new CapacityUnit(DEFAULT_RCU_FOR_NEW_RESOURCE, DEFAULT_WCU_FOR_NEW_RESOURCE));
+        cuUsage.putIfAbsent(quotaResource.getResourceId(), newUsage());
+      });
+    }
+  }
+
+  @Override
+  public void shutdown() {
+    isReady.compareAndSet(true, false);
+  }
+
+  /**
+   * @return A {@link Map} of quota resource id to {@link CapacityUnit} representing quota for all the resources that
+   * this quota source knows about.
+   */
+  public Map<String, CapacityUnit> getAllQuota() {
+    return Collections.unmodifiableMap(cuQuota);
+  }
+
+  /**
+   * @return A {@link Map} of quota resource id to {@link CapacityUnit} representing the usage during the last window
+   * for all the resources that this quota source knows about.
+   */
+  public Map<String, CapacityUnit> getAllQuotaUsage() {
+    Map<String, CapacityUnit> usage = new HashMap<>();
+    cuUsage.forEach((resourceId, resourceUsage) -> usage.put(resourceId,
+        new CapacityUnit(resourceUsage.getQuotaValue(QuotaName.READ_CAPACITY_UNIT),
+            resourceUsage.getQuotaValue(QuotaName.WRITE_CAPACITY_UNIT))));
+    return usage;
+  }
+
+  /**
+   * @return a new {@link CapacityUnitUsage} with no usage.
+   */
+  private CapacityUnitUsage newUsage() {
+    return new CapacityUnitUsage(new SlidingWindowCounter(windowSizeMs, numBuckets, time),
+        new SlidingWindowCounter(windowSizeMs, numBuckets, time));
+  }
+
+  /**
+   * Checks if the specified {@link QuotaName} and {@link QuotaResourceType} are handled by this quota source.
+   * @param quotaName {@link QuotaName} object.
+   * @param quotaResource {@link QuotaResource} object.
+   * @throws QuotaException in case of any exception.
+   */
+  private void checkSupported(QuotaName quotaName, QuotaResource quotaResource) throws QuotaException {
+    if (!SUPPORTED_QUOTA_NAMES.contains(quotaName)) {
+      throw new QuotaException("Unsupported quota name: " + quotaName.name(), false);
+    }
+    if (!SUPPORTED_QUOTA_RESOURCE_TYPES.contains(quotaResource.getQuotaResourceType())) {
+      throw new QuotaException("Unsupported quota resource type: " + quotaResource.getQuotaResourceType(), false);
+    }
+  }
+
+  /**
+   * Asserts that the quota for the specified resourceId is present in this quota source. If assertForUsage is set to
+   * true this method also asserts for the presence of usage information of the specified resourceId.
+   * @param resourceId resource id to check.
+   * @param assertForUsage if {@code true} then also assert for presence of usage information.
+   * @throws QuotaException in case quota for the resource is not present in this quota source.
+   */
+  private void assertResourceId(String resourceId, boolean assertForUsage) throws QuotaException {
+    if (!cuQuota.containsKey(resourceId)) {
+      throw new QuotaException(String.format("Couldn't find quota for resource: %s", resourceId), true);
+    }
+    if (assertForUsage && !cuUsage.containsKey(resourceId)) {
+      throw new QuotaException(String.format("Couldn't find usage information for resource: %s", resourceId), true);
+    }
+  }
+
+  /**
+   * The read and write capacity units used by a resource during the last window.
+   */
+  private static class CapacityUnitUsage {
+    private final SlidingWindowCounter rcu;
+    private final SlidingWindowCounter wcu;
+
+    CapacityUnitUsage(SlidingWindowCounter rcu, SlidingWindowCounter wcu) {
+      this.rcu = rcu;
+      this.wcu = wcu;
+    }
+
+    void charge(QuotaName quotaName, long cost) {
+      if (quotaName == QuotaName.READ_CAPACITY_UNIT) {
+        rcu.add(cost);
+      } else {
+        wcu.add(cost);
+      }
+    }
+
+    long getQuotaValue(QuotaName quotaName) {
+      return quotaName == QuotaName.READ_CAPACITY_UNIT ? rcu.sum() : wcu.sum();
+    }
+  }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2022 LinkedIn Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ */
+package com.github.ambry.quota.capacityunit;
+
+import com.github.ambry.utils.Time;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * A counter of the values added during the last window of time. The window is split into a ring of sub-window buckets,
+ * and a bucket is reused once the sub-window it counted falls out of the window. So the count slides forward one
+ * bucket at a time instead of dropping to zero at the end of each window.
+ *
+ * Adding and summing are lock free. Each bucket is a {@link LongAdder}, so concurrent adds for the same counter don't
+ * contend on a single value. A bucket being recycled may lose adds that race with its reset, so the count is an
+ * approximation that errs on the low side by at most the adds of that instant.
+ */
+class SlidingWindowCounter {
+  private final Time time;
+  private final long bucketSizeMs;
+  private final LongAdder[] buckets;
+  // the index of the sub-window, since the epoch, that each bucket counts.
+  private final AtomicLong[] bucketSubWindows;
+
+  /**
+   * Constructor for {@link SlidingWindowCounter}.
+   * @param windowSizeMs the size of the window in ms.
+   * @param numBuckets the number of sub-window buckets the window is split into.
+   * @param time the {@link Time} instance to use.
+   */
+  SlidingWindowCounter(long windowSizeMs, int numBuckets, Time time) {
+    if (numBuckets <= 0 || windowSizeMs < numBuckets) {
+      throw new IllegalArgumentException(
+          "Invalid window size " + windowSizeMs + " ms for " + numBuckets + " sub-window buckets");
+    }
+    this.time = time;
+    bucketSizeMs = windowSizeMs / numBuckets;
+    buckets = new LongAdder[numBuckets];
+    bucketSubWindows = new AtomicLong[numBuckets];
+    for (int i = 0; i < numBuckets; i++) {
+      buckets[i] = new LongAdder();
+      bucketSubWindows[i] = new AtomicLong(-1);
+    }
+  }
+
+  /**
+   * Adds {@code delta} to the count of the current sub-window.
+   * @param delta the value to add.
+   */
+  void add(long delta) {
+    long subWindow = time.milliseconds() / bucketSizeMs;
+    int index = (int) (subWindow % buckets.length);
+    long bucketSubWindow = bucketSubWindows[index].get();
+    if (bucketSubWindow < subWindow && bucketSubWindows[index].compareAndSet(bucketSubWindow, subWindow)) {
+      // only the thread that moved the bucket to the current sub-window clears what it counted before.
+      buckets[index].reset();
+    }
+    buckets[index].add(delta);
+  }
+
+  /**
+   * @return the sum of the values added during the last window.
+   */
+  long sum() {
+    long subWindow = time.milliseconds() / bucketSizeMs;
+    long sum = 0;
+    for (int i = 0; i < buckets.length; i++) {
+      if (subWindow - bucketSubWindows[i].get() < buckets.length) {
+        sum += buckets[i].sum();
+      }
+    }
+    return sum;
+  }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2022 LinkedIn Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ */
+package com.github.ambry.quota.capacityunit;
+
+import com.github.ambry.account.Account;
+import com.github.ambry.account.AccountBuilder;
+import com.github.ambry.account.InMemAccountService;
+import com.github.ambry.config.QuotaConfig;
+import com.github.ambry.config.VerifiableProperties;
+import com.github.ambry.quota.QuotaException;
+import com.github.ambry.quota.QuotaName;
+import com.github.ambry.quota.QuotaResource;
+import com.github.ambry.quota.QuotaResourceType;
+import com.github.ambry.utils.MockTime;
+import java.util.Collections;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+
+/**
+ * Test for {@link AmbrySlidingWindowCUQuotaSource}.
+ */
+public class AmbrySlidingWindowCUQuotaSourceTest {
+  private static final String CU_QUOTA_IN_JSON = "{\"103\": {\"rcu\": 100, \"wcu\": 200}}";
+  private static final String FRONTEND_CAPACITY_JSON = "{\"rcu\": 1000, \"wcu\": 1000}";
+  private static final QuotaResource RESOURCE = new QuotaResource("103", QuotaResourceType.ACCOUNT);
+  private final MockTime time = new MockTime(TimeUnit.DAYS.toMillis(1));
+  private InMemAccountService accountService;
+  private AmbrySlidingWindowCUQuotaSource quotaSource;
+
+  @Before
+  public void setup() throws Exception {
+    Properties properties = new Properties();
+    properties.setProperty(QuotaConfig.RESOURCE_CU_QUOTA_IN_JSON, CU_QUOTA_IN_JSON);
+    properties.setProperty(QuotaConfig.FRONTEND_CU_CAPACITY_IN_JSON, FRONTEND_CAPACITY_JSON);
+    properties.setProperty(QuotaConfig.CU_QUOTA_AGGREGATION_WINDOW_IN_SECS, "10");
+    properties.setProperty(QuotaConfig.CU_QUOTA_AGGREGATION_WINDOW_NUM_BUCKETS, "10");
+    QuotaConfig quotaConfig = new QuotaConfig(new VerifiableProperties(properties));
+    accountService = new InMemAccountService(false, true);
+    Account account = new AccountBuilder().id((short) 103)
+        .name("103")
+        .status(Account.AccountStatus.ACTIVE)
+        .quotaResourceType(QuotaResourceType.ACCOUNT)
+        .build();
+    accountService.updateAccounts(Collections.singletonList(account));
+    quotaSource = new AmbrySlidingWindowCUQuotaSource(quotaConfig, accountService, time);
+    quotaSource.init();
+  }
+
+  @After
+  public void cleanup() {
+    quotaSource.shutdown();
+    accountService.close();
+  }
+
+  /**
+   * Test that usage is counted over the last window and slides forward instead of being reset at window boundaries.
+   * @throws QuotaException
+   */
+  @Test
+  public void testSlidingWindowUsage() throws QuotaException {
+    Assert.assertTrue(quotaSource.isReady());
+    Assert.assertEquals(100, (long) quotaSource.getQuota(RESOURCE, QuotaName.READ_CAPACITY_UNIT).getQuotaValue());
+    Assert.assertEquals(0, quotaSource.getUsage(RESOURCE, QuotaName.READ_CAPACITY_UNIT), 0.01);
+
+    quotaSource.chargeUsage(RESOURCE, QuotaName.READ_CAPACITY_UNIT, 50);
+    quotaSource.chargeUsage(RESOURCE, QuotaName.WRITE_CAPACITY_UNIT, 50);
+    Assert.assertEquals(50, quotaSource.getUsage(RESOURCE, QuotaName.READ_CAPACITY_UNIT), 0.01);
+    Assert.assertEquals(25, quotaSource.getUsage(RESOURCE, QuotaName.WRITE_CAPACITY_UNIT), 0.01);
+    Assert.assertEquals(5, quotaSource.getSystemResourceUsage(QuotaName.READ_CAPACITY_UNIT), 0.01);
+
+    time.sleep(TimeUnit.SECONDS.toMillis(5));
+    quotaSource.chargeUsage(RESOURCE, QuotaName.READ_CAPACITY_UNIT, 50);
+    Assert.assertEquals(100, quotaSource.getUsage(RESOURCE, QuotaName.READ_CAPACITY_UNIT), 0.01);
+    Assert.assertEquals(100, quotaSource.getAllQuotaUsage().get(RESOURCE.getResourceId()).getRcu());
+
+    // the first charge falls out of the window while the second one is still counted.
+    time.sleep(TimeUnit.SECONDS.toMillis(5));
+    Assert.assertEquals(50, quotaSource.getUsage(RESOURCE, QuotaName.READ_CAPACITY_UNIT), 0.01);
+    Assert.assertEquals(0, quotaSource.getUsage(RESOURCE, QuotaName.WRITE_CAPACITY_UNIT), 0.01);
+    Assert.assertEquals(5, quotaSource.getSystemResourceUsage(QuotaName.READ_CAPACITY_UNIT), 0.01);
+
+    // a bucket reused for a later sub-window doesn't count what it counted before.
+    quotaSource.chargeUsage(RESOURCE, QuotaName.READ_CAPACITY_UNIT, 10);
+    Assert.assertEquals(60, quotaSource.getUsage(RESOURCE, QuotaName.READ_CAPACITY_UNIT), 0.01);
+    time.sleep(TimeUnit.SECONDS.toMillis(5));
+    Assert.assertEquals(10, quotaSource.getUsage(RESOURCE, QuotaName.READ_CAPACITY_UNIT), 0.01);
+    time.sleep(TimeUnit.SECONDS.toMillis(10));
+    Assert.assertEquals(0, quotaSource.getUsage(RESOURCE, QuotaName.READ_CAPACITY_UNIT), 0.01);
+
+    try {
+      quotaSource.chargeUsage(new QuotaResource("104", QuotaResourceType.ACCOUNT), QuotaName.READ_CAPACITY_UNIT, 1);
+      Assert.fail("Charging a resource without quota should fail");
+    } catch (QuotaException quotaException) {
+    }
+  }
+}
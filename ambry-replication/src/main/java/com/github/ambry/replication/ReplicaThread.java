@@ -32,6 +32,11 @@ import com.github.ambry.messageformat.MessageSievingInputStream;
 import com.github.ambry.network.ChannelOutput;
 import com.github.ambry.network.ConnectedChannel;
 import com.github.ambry.network.ConnectionPool;
+import com.github.ambry.network.NetworkClient;
+import com.github.ambry.network.NetworkClientErrorCode;
+import com.github.ambry.network.RequestInfo;
+import com.github.ambry.network.ResponseInfo;
+import com.github.ambry.network.SendWithCorrelationId;
 import com.github.ambry.notification.BlobReplicaSourceType;
 import com.github.ambry.notification.NotificationSystem;
 import com.github.ambry.notification.UpdateType;
@@ -55,12 +60,18 @@ import com.github.ambry.store.Transformer;
 import com.github.ambry.utils.NettyByteBufDataInputStream;
 import com.github.ambry.utils.Time;
 import com.github.ambry.utils.Utils;
+import io.netty.buffer.ByteBuf;
+import java.io.DataInputStream;
 import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -115,6 +126,8 @@ public class ReplicaThread implements Runnable {
   private final Predicate<MessageInfo> skipPredicate;
   private volatile boolean allDisabled = false;
   private final ReplicationManager.LeaderBasedReplicationAdmin leaderBasedReplicationAdmin;
+  private final NetworkClient networkClient;
+  static final int NETWORK_CLIENT_POLL_TIMEOUT_MS = 10;
 
   public ReplicaThread(String threadName, FindTokenHelper findTokenHelper, ClusterMap clusterMap,
       AtomicInteger correlationIdGenerator, DataNodeId dataNodeId, ConnectionPool connectionPool,
@@ -134,6 +147,22 @@ public class ReplicaThread implements Runnable {
       boolean replicatingOverSsl, String datacenterName, ResponseHandler responseHandler, Time time,
       ReplicaSyncUpManager replicaSyncUpManager, Predicate<MessageInfo> skipPredicate,
       ReplicationManager.LeaderBasedReplicationAdmin leaderBasedReplicationAdmin) {
+    this(threadName, findTokenHelper, clusterMap, correlationIdGenerator, dataNodeId, connectionPool, replicationConfig,
+        replicationMetrics, notification, storeKeyConverter, transformer, metricRegistry, replicatingOverSsl,
+        datacenterName, responseHandler, time, replicaSyncUpManager, skipPredicate, leaderBasedReplicationAdmin, null);
+  }
+
+  /**
+   * @param networkClient the {@link NetworkClient} to replicate with. If non-null, requests to remote nodes are sent
+   *                      through it without blocking and the {@code connectionPool} is not used.
+   */
+  public ReplicaThread(String threadName, FindTokenHelper findTokenHelper, ClusterMap clusterMap,
+      AtomicInteger correlationIdGenerator, DataNodeId dataNodeId, ConnectionPool connectionPool,
+      ReplicationConfig replicationConfig, ReplicationMetrics replicationMetrics, NotificationSystem notification,
+      StoreKeyConverter storeKeyConverter, Transformer transformer, MetricRegistry metricRegistry,
+      boolean replicatingOverSsl, String datacenterName, ResponseHandler responseHandler, Time time,
+      ReplicaSyncUpManager replicaSyncUpManager, Predicate<MessageInfo> skipPredicate,
+      ReplicationManager.LeaderBasedReplicationAdmin leaderBasedReplicationAdmin, NetworkClient networkClient) {
     this.threadName = threadName;
     this.running = true;
     this.findTokenHelper = findTokenHelper;
@@ -167,6 +196,7 @@ public class ReplicaThread implements Runnable {
     }
     this.maxReplicaCountPerRequest = replicationConfig.replicationMaxPartitionCountPerRequest;
     this.leaderBasedReplicationAdmin = leaderBasedReplicationAdmin;
+    this.networkClient = networkClient;
   }
 
   /**
@@ -232,6 +262,9 @@ public class ReplicaThread implements Runnable {
       }
     } finally {
       running = false;
+      if (networkClient != null) {
+        networkClient.close();
+      }
       shutdownLatch.countDown();
     }
   }
@@ -324,6 +357,10 @@ public class ReplicaThread implements Runnable {
    *
    */
   public void replicate() {
+    if (networkClient != null) {
+      sleepAfterReplicationCycle(replicateWithNetworkClient());
+      return;
+    }
     boolean allCaughtUp = true;
     Map<DataNodeId, List<RemoteReplicaInfo>> dataNodeToRemoteReplicaInfo = getRemoteReplicaInfos();
 
@@ -361,35 +398,9 @@ public class ReplicaThread implements Runnable {
       long startTimeInMs = replicationStartTimeInMs;
 
       // Get a list of active replicas that needs be included for this replication cycle
-      List<RemoteReplicaInfo> activeReplicasPerNode = new ArrayList<>();
       List<RemoteReplicaInfo> standbyReplicasWithNoProgress = new ArrayList<>();
-      for (RemoteReplicaInfo remoteReplicaInfo : replicasToReplicatePerNode) {
-        ReplicaId replicaId = remoteReplicaInfo.getReplicaId();
-        boolean inBackoff = time.milliseconds() < remoteReplicaInfo.getReEnableReplicationTime();
-        if (replicaId.isDown() || inBackoff
-            || remoteReplicaInfo.getLocalStore().getCurrentState() == ReplicaState.OFFLINE
-            || replicationDisabledPartitions.contains(replicaId.getPartitionId())) {
-          logger.debug(
-              "Skipping replication on replica {} because one of following conditions is true: remote replica is down "
-                  + "= {}; in backoff = {}; local store is offline = {}; replication is disabled = {}.",
-              replicaId.getPartitionId().toPathString(), replicaId.isDown(), inBackoff,
-              remoteReplicaInfo.getLocalStore().getCurrentState() == ReplicaState.OFFLINE,
-              replicationDisabledPartitions.contains(replicaId.getPartitionId()));
-          continue;
-        }
-
-        if (replicatingFromRemoteColo && leaderBasedReplicationAdmin != null) {
-          // check if all missing keys for standby replicas from previous replication cycle are now obtained
-          // via leader replica. If we still have missing keys, don't include them in current replication cycle
-          // to avoid sending duplicate metadata requests since their token wouldn't have advanced.
-          processMissingKeysFromPreviousMetadataResponse(remoteReplicaInfo);
-          if (containsMissingKeysFromPreviousMetadataExchange(remoteReplicaInfo)) {
-            standbyReplicasWithNoProgress.add(remoteReplicaInfo);
-            continue;
-          }
-        }
-        activeReplicasPerNode.add(remoteReplicaInfo);
-      }
+      List<RemoteReplicaInfo> activeReplicasPerNode =
+          getActiveReplicas(replicasToReplicatePerNode, standbyReplicasWithNoProgress);
       logger.trace("Replicating from {} RemoteReplicaInfos.", activeReplicasPerNode.size());
 
       // use a variable to track current replica list to replicate (for logging purpose)
@@ -523,6 +534,54 @@ public class ReplicaThread implements Runnable {
       }
     }
 
+    sleepAfterReplicationCycle(allCaughtUp);
+  }
+
+  /**
+   * Gets the remote replicas on a node that need to be included in the current replication cycle.
+   * @param replicasToReplicatePerNode all the remote replicas on the node that are assigned to this thread.
+   * @param standbyReplicasWithNoProgress the list to collect the standby replicas that are skipped because the missing
+   *                                      keys found in their previous metadata exchange haven't arrived yet.
+   * @return the list of remote replicas to replicate from in this cycle.
+   */
+  private List<RemoteReplicaInfo> getActiveReplicas(List<RemoteReplicaInfo> replicasToReplicatePerNode,
+      List<RemoteReplicaInfo> standbyReplicasWithNoProgress) {
+    List<RemoteReplicaInfo> activeReplicasPerNode = new ArrayList<>();
+    for (RemoteReplicaInfo remoteReplicaInfo : replicasToReplicatePerNode) {
+      ReplicaId replicaId = remoteReplicaInfo.getReplicaId();
+      boolean inBackoff = time.milliseconds() < remoteReplicaInfo.getReEnableReplicationTime();
+      if (replicaId.isDown() || inBackoff
+          || remoteReplicaInfo.getLocalStore().getCurrentState() == ReplicaState.OFFLINE
+          || replicationDisabledPartitions.contains(replicaId.getPartitionId())) {
+        logger.debug(
+            "Skipping replication on replica {} because one of following conditions is true: remote replica is down "
+                + "= {}; in backoff = {}; local store is offline = {}; replication is disabled = {}.",
+            replicaId.getPartitionId().toPathString(), replicaId.isDown(), inBackoff,
+            remoteReplicaInfo.getLocalStore().getCurrentState() == ReplicaState.OFFLINE,
+            replicationDisabledPartitions.contains(replicaId.getPartitionId()));
+        continue;
+      }
+
+      if (replicatingFromRemoteColo && leaderBasedReplicationAdmin != null) {
+        // check if all missing keys for standby replicas from previous replication cycle are now obtained
+        // via leader replica. If we still have missing keys, don't include them in current replication cycle
+        // to avoid sending duplicate metadata requests since their token wouldn't have advanced.
+        processMissingKeysFromPreviousMetadataResponse(remoteReplicaInfo);
+        if (containsMissingKeysFromPreviousMetadataExchange(remoteReplicaInfo)) {
+          standbyReplicasWithNoProgress.add(remoteReplicaInfo);
+          continue;
+        }
+      }
+      activeReplicasPerNode.add(remoteReplicaInfo);
+    }
+    return activeReplicasPerNode;
+  }
+
+  /**
+   * Sleeps at the end of a replication cycle if this thread is idle or throttled.
+   * @param allCaughtUp {@code true} if there was nothing to replicate in the cycle.
+   */
+  private void sleepAfterReplicationCycle(boolean allCaughtUp) {
     long sleepDurationMs = 0;
     if (allCaughtUp && replicationConfig.replicationReplicaThreadIdleSleepDurationMs > 0) {
       sleepDurationMs = replicationConfig.replicationReplicaThreadIdleSleepDurationMs;
@@ -543,6 +602,289 @@ public class ReplicaThread implements Runnable {
     }
   }
 
+  /**
+   * Does one replication cycle for all the remote replicas of this thread with the {@link NetworkClient}. The remote
+   * replicas on each node are split into batches of at most {@link #maxReplicaCountPerRequest} replicas and the
+   * metadata and GET requests of the batches on all nodes are kept in flight at the same time, bounded by the per node
+   * and per thread limits in {@link ReplicationConfig}. A slow remote node therefore only holds back its own batches.
+   * @return {@code true} if there was nothing to replicate from any remote node.
+   */
+  boolean replicateWithNetworkClient() {
+    Map<DataNodeId, Deque<ReplicaBatch>> pendingBatchesByNode = new LinkedHashMap<>();
+    for (Map.Entry<DataNodeId, List<RemoteReplicaInfo>> entry : getRemoteReplicaInfos().entrySet()) {
+      Deque<ReplicaBatch> pendingBatches = createReplicaBatches(entry.getKey(), entry.getValue());
+      if (!pendingBatches.isEmpty()) {
+        pendingBatchesByNode.put(entry.getKey(), pendingBatches);
+      }
+    }
+    logger.trace("Replicating from {} DataNodes with network client.", pendingBatchesByNode.size());
+    boolean allCaughtUp = pendingBatchesByNode.isEmpty();
+    int maxInFlightPerThread = replicationConfig.replicationNetworkClientMaxInFlightRequestsPerThread;
+    int maxInFlightPerNode = replicationConfig.replicationNetworkClientMaxInFlightRequestsPerNode;
+    Map<Integer, ReplicaBatch> inFlightBatches = new HashMap<>();
+    Map<DataNodeId, Integer> inFlightCountByNode = new HashMap<>();
+    Set<Integer> requestsToDrop = new HashSet<>();
+    while (running && (!pendingBatchesByNode.isEmpty() || !inFlightBatches.isEmpty())) {
+      List<RequestInfo> requestsToSend = new ArrayList<>();
+      // go through the nodes round robin so that every node gets a slot before any node gets another one.
+      boolean batchPolled = true;
+      while (batchPolled && inFlightBatches.size() < maxInFlightPerThread) {
+        batchPolled = false;
+        Iterator<Map.Entry<DataNodeId, Deque<ReplicaBatch>>> iterator = pendingBatchesByNode.entrySet().iterator();
+        while (iterator.hasNext() && inFlightBatches.size() < maxInFlightPerThread) {
+          Map.Entry<DataNodeId, Deque<ReplicaBatch>> entry = iterator.next();
+          if (inFlightCountByNode.getOrDefault(entry.getKey(), 0) >= maxInFlightPerNode) {
+            continue;
+          }
+          ReplicaBatch batch = entry.getValue().poll();
+          if (entry.getValue().isEmpty()) {
+            iterator.remove();
+          }
+          batchPolled = true;
+          RequestInfo requestInfo = createRequest(batch);
+          if (requestInfo != null) {
+            inFlightBatches.put(requestInfo.getRequest().getCorrelationId(), batch);
+            inFlightCountByNode.merge(batch.remoteNode, 1, Integer::sum);
+            requestsToSend.add(requestInfo);
+          }
+        }
+      }
+
+      long currentTimeMs = time.milliseconds();
+      Iterator<Map.Entry<Integer, ReplicaBatch>> inFlightIterator = inFlightBatches.entrySet().iterator();
+      while (inFlightIterator.hasNext()) {
+        Map.Entry<Integer, ReplicaBatch> entry = inFlightIterator.next();
+        ReplicaBatch batch = entry.getValue();
+        if (currentTimeMs - batch.requestSendTimeMs > replicationConfig.replicationNetworkClientRequestTimeoutMs) {
+          inFlightIterator.remove();
+          inFlightCountByNode.merge(batch.remoteNode, -1, Integer::sum);
+          requestsToDrop.add(entry.getKey());
+          responseHandler.onEvent(batch.replicas.get(0).getReplicaId(), NetworkClientErrorCode.TimeoutError);
+          onReplicaBatchDone(batch, new ReplicationException("Request to " + batch.remoteNode + " timed out"));
+        }
+      }
+
+      List<ResponseInfo> responseInfoList =
+          networkClient.sendAndPoll(requestsToSend, requestsToDrop, NETWORK_CLIENT_POLL_TIMEOUT_MS);
+      requestsToDrop.clear();
+      for (ResponseInfo responseInfo : responseInfoList) {
+        try {
+          if (responseInfo.getRequestInfo() == null) {
+            continue;
+          }
+          ReplicaBatch batch = inFlightBatches.remove(responseInfo.getRequestInfo().getRequest().getCorrelationId());
+          if (batch != null) {
+            inFlightCountByNode.merge(batch.remoteNode, -1, Integer::sum);
+            if (handleResponse(batch, responseInfo)) {
+              // the batch still has to fetch its missing keys, so it goes to the head of its node's queue.
+              pendingBatchesByNode.computeIfAbsent(batch.remoteNode, node -> new ArrayDeque<>()).addFirst(batch);
+            }
+          }
+        } finally {
+          responseInfo.release();
+        }
+      }
+    }
+    if (!inFlightBatches.isEmpty()) {
+      // thread is shutting down, drop the requests that are still in flight.
+      networkClient.sendAndPoll(Collections.emptyList(), inFlightBatches.keySet(), 0).forEach(ResponseInfo::release);
+    }
+    return allCaughtUp;
+  }
+
+  /**
+   * Creates the {@link ReplicaBatch}es to replicate from a remote node in the current cycle.
+   * @param remoteNode the remote node.
+   * @param replicasToReplicatePerNode all the remote replicas on the node that are assigned to this thread.
+   * @return the batches to replicate in the current cycle. This is empty if there is nothing to replicate.
+   */
+  private Deque<ReplicaBatch> createReplicaBatches(DataNodeId remoteNode,
+      List<RemoteReplicaInfo> replicasToReplicatePerNode) {
+    Deque<ReplicaBatch> replicaBatches = new ArrayDeque<>();
+    List<RemoteReplicaInfo> standbyReplicasWithNoProgress = new ArrayList<>();
+    List<RemoteReplicaInfo> activeReplicasPerNode =
+        getActiveReplicas(replicasToReplicatePerNode, standbyReplicasWithNoProgress);
+    if (activeReplicasPerNode.size() > 0) {
+      List<List<RemoteReplicaInfo>> activeReplicaSubLists =
+          maxReplicaCountPerRequest > 0 ? Utils.partitionList(activeReplicasPerNode, maxReplicaCountPerRequest)
+              : Collections.singletonList(activeReplicasPerNode);
+      for (List<RemoteReplicaInfo> replicaSubList : activeReplicaSubLists) {
+        replicaBatches.add(new ReplicaBatch(remoteNode, replicaSubList, null, false));
+      }
+    }
+    if (replicatingFromRemoteColo && leaderBasedReplicationAdmin != null) {
+      // standby replicas whose missing keys haven't arrived via leader replication for long fetch them themselves.
+      List<RemoteReplicaInfo> standbyReplicasTimedOutOnNoProgress =
+          getRemoteStandbyReplicasTimedOutOnNoProgress(standbyReplicasWithNoProgress);
+      if (standbyReplicasTimedOutOnNoProgress.size() > 0) {
+        List<ExchangeMetadataResponse> exchangeMetadataResponseListForBlockedReplicas =
+            standbyReplicasTimedOutOnNoProgress.stream()
+                .map(remoteReplicaInfo -> new ExchangeMetadataResponse(remoteReplicaInfo.getExchangeMetadataResponse()))
+                .collect(Collectors.toList());
+        replicaBatches.add(new ReplicaBatch(remoteNode, standbyReplicasTimedOutOnNoProgress,
+            exchangeMetadataResponseListForBlockedReplicas, true));
+      }
+    }
+    return replicaBatches;
+  }
+
+  /**
+   * Creates the next request of a {@link ReplicaBatch}. This is a {@link ReplicaMetadataRequest} if the batch hasn't
+   * exchanged metadata yet and a {@link GetRequest} for its missing keys otherwise. If no keys are missing, the tokens
+   * are advanced right away and no request is created.
+   * @param batch the {@link ReplicaBatch}.
+   * @return the {@link RequestInfo} to send; or null if the batch is done.
+   */
+  private RequestInfo createRequest(ReplicaBatch batch) {
+    try {
+      SendWithCorrelationId request;
+      if (batch.exchangeMetadataResponseList == null) {
+        request = createReplicaMetadataRequest(batch.replicas, batch.remoteNode);
+      } else {
+        removeUnassignedReplicas(batch);
+        if (batch.replicas.isEmpty()) {
+          onReplicaBatchDone(batch, null);
+          return null;
+        }
+        request = createGetRequest(batch.exchangeMetadataResponseList, batch.replicas, batch.remoteNode);
+        if (request == null) {
+          writeMessagesToLocalStoreAndAdvanceTokens(batch.exchangeMetadataResponseList, null, batch.replicas,
+              batch.remoteNode, batch.remoteColoGetRequestForStandby);
+          onReplicaBatchDone(batch, null);
+          return null;
+        }
+      }
+      batch.requestSendTimeMs = time.milliseconds();
+      RemoteReplicaInfo firstReplica = batch.replicas.get(0);
+      return new RequestInfo(batch.remoteNode.getHostname(), firstReplica.getPort(), request,
+          firstReplica.getReplicaId(), null);
+    } catch (Throwable e) {
+      onReplicaBatchDone(batch, e);
+      return null;
+    }
+  }
+
+  /**
+   * Removes the replicas that were removed from this thread while the metadata request of a {@link ReplicaBatch} was in
+   * flight, so that their missing keys are not fetched and written to a local store that may be going away.
+   * @param batch the {@link ReplicaBatch} whose metadata has been exchanged.
+   */
+  private void removeUnassignedReplicas(ReplicaBatch batch) {
+    List<RemoteReplicaInfo> replicas = new ArrayList<>();
+    List<ExchangeMetadataResponse> exchangeMetadataResponseList = new ArrayList<>();
+    lock.lock();
+    try {
+      Set<RemoteReplicaInfo> assignedReplicas = replicasToReplicateGroupedByNode.get(batch.remoteNode);
+      for (int i = 0; i < batch.replicas.size(); i++) {
+        RemoteReplicaInfo remoteReplicaInfo = batch.replicas.get(i);
+        if (assignedReplicas != null && assignedReplicas.contains(remoteReplicaInfo)) {
+          replicas.add(remoteReplicaInfo);
+          exchangeMetadataResponseList.add(batch.exchangeMetadataResponseList.get(i));
+        } else {
+          logger.info("Remote replica {} was removed from thread {} during its metadata exchange",
+              remoteReplicaInfo.getReplicaId(), threadName);
+        }
+      }
+    } finally {
+      lock.unlock();
+    }
+    batch.replicas = replicas;
+    batch.exchangeMetadataResponseList = exchangeMetadataResponseList;
+  }
+
+  /**
+   * Handles the response to the request of a {@link ReplicaBatch}.
+   * @param batch the {@link ReplicaBatch} the request was sent for.
+   * @param responseInfo the {@link ResponseInfo} received for the request.
+   * @return {@code true} if the batch has missing keys to fetch with another request.
+   */
+  private boolean handleResponse(ReplicaBatch batch, ResponseInfo responseInfo) {
+    ReplicaId replicaId = batch.replicas.get(0).getReplicaId();
+    if (responseInfo.getError() != null) {
+      responseHandler.onEvent(replicaId, responseInfo.getError());
+      onReplicaBatchDone(batch, new ReplicationException("Network client error " + responseInfo.getError()));
+      return false;
+    }
+    long requestTimeMs = time.milliseconds() - batch.requestSendTimeMs;
+    try {
+      DataInputStream stream = new NettyByteBufDataInputStream(responseInfo.content());
+      if (batch.exchangeMetadataResponseList == null) {
+        ReplicaMetadataResponse response;
+        try {
+          response = ReplicaMetadataResponse.readFrom(stream, findTokenHelper, clusterMap);
+        } catch (IOException e) {
+          responseHandler.onEvent(replicaId, e);
+          throw e;
+        }
+        replicationMetrics.updateMetadataRequestTime(requestTimeMs, replicatingFromRemoteColo, replicatingOverSsl,
+            datacenterName);
+        validateReplicaMetadataResponse(response, batch.replicas, batch.remoteNode);
+        List<ExchangeMetadataResponse> exchangeMetadataResponseList =
+            handleReplicaMetadataResponse(response, batch.replicas, batch.remoteNode);
+        replicationMetrics.updateExchangeMetadataTime(time.milliseconds() - batch.requestSendTimeMs,
+            replicatingFromRemoteColo, replicatingOverSsl, datacenterName);
+        List<RemoteReplicaInfo> replicas = batch.replicas;
+        if (replicatingFromRemoteColo && leaderBasedReplicationAdmin != null) {
+          // only local leader replicas fetch the missing blobs from their remote leader peers.
+          List<RemoteReplicaInfo> leaderReplicaList = new ArrayList<>();
+          List<ExchangeMetadataResponse> exchangeMetadataResponseListForLeaderReplicas = new ArrayList<>();
+          getLeaderReplicaList(replicas, exchangeMetadataResponseList, leaderReplicaList,
+              exchangeMetadataResponseListForLeaderReplicas);
+          replicas = leaderReplicaList;
+          exchangeMetadataResponseList = exchangeMetadataResponseListForLeaderReplicas;
+        }
+        if (replicas.isEmpty()) {
+          onReplicaBatchDone(batch, null);
+          return false;
+        }
+        batch.replicas = replicas;
+        batch.exchangeMetadataResponseList = exchangeMetadataResponseList;
+        return true;
+      } else {
+        GetResponse getResponse;
+        try {
+          getResponse = GetResponse.readFrom(stream, clusterMap);
+        } catch (IOException e) {
+          responseHandler.onEvent(replicaId, e);
+          throw e;
+        }
+        replicationMetrics.updateGetRequestTime(requestTimeMs, replicatingFromRemoteColo, replicatingOverSsl,
+            datacenterName, batch.remoteColoGetRequestForStandby);
+        validateGetResponse(getResponse, batch.replicas, batch.remoteNode);
+        // the cache of the key converter may have been dropped by other batches handled since this batch exchanged
+        // metadata, so the missing keys are converted again before they are written.
+        convertStoreKeys(batch.exchangeMetadataResponseList.stream()
+            .map(ExchangeMetadataResponse::getMissingStoreKeys)
+            .flatMap(Collection::stream)
+            .collect(Collectors.toList()));
+        writeMessagesToLocalStoreAndAdvanceTokens(batch.exchangeMetadataResponseList, getResponse, batch.replicas,
+            batch.remoteNode, batch.remoteColoGetRequestForStandby);
+        replicationMetrics.updateFixMissingStoreKeysTime(time.milliseconds() - batch.requestSendTimeMs,
+            replicatingFromRemoteColo, replicatingOverSsl, datacenterName);
+        onReplicaBatchDone(batch, null);
+        return false;
+      }
+    } catch (Throwable e) {
+      onReplicaBatchDone(batch, e);
+      return false;
+    }
+  }
+
+  /**
+   * Records the end of the replication of a {@link ReplicaBatch}.
+   * @param batch the {@link ReplicaBatch} that is done.
+   * @param e the error that ended the replication of the batch; or null if it succeeded.
+   */
+  private void onReplicaBatchDone(ReplicaBatch batch, Throwable e) {
+    if (e != null) {
+      logger.error("Error while talking to peer: Remote node: {}, Thread name: {}, Remote replicas: {}",
+          batch.remoteNode, threadName, batch.replicas, e);
+      replicationMetrics.incrementReplicationErrors(replicatingOverSsl);
+    }
+    replicationMetrics.updateTotalReplicationTime(time.milliseconds() - batch.startTimeMs, replicatingFromRemoteColo,
+        replicatingOverSsl, datacenterName);
+  }
+
   /**
    * Gets all the metadata about messages from the remote replicas since last token. Checks the messages with the local
    * store and finds all the messages that are missing. For the messages that are not missing, updates the delete
@@ -563,136 +905,154 @@ public class ReplicaThread implements Runnable {
         DataNodeId remoteNode = replicasToReplicatePerNode.get(0).getReplicaId().getDataNodeId();
         ReplicaMetadataResponse response =
             getReplicaMetadataResponse(replicasToReplicatePerNode, connectedChannel, remoteNode);
-        long startTimeInMs = time.milliseconds();
-
-        Map<StoreKey, StoreKey> remoteKeyToLocalKeyMap = batchConvertReplicaMetadataResponseKeys(response);
-
-        for (int i = 0; i < response.getReplicaMetadataResponseInfoList().size(); i++) {
-          RemoteReplicaInfo remoteReplicaInfo = replicasToReplicatePerNode.get(i);
-          ReplicaMetadataResponseInfo replicaMetadataResponseInfo =
-              response.getReplicaMetadataResponseInfoList().get(i);
-          responseHandler.onEvent(remoteReplicaInfo.getReplicaId(), replicaMetadataResponseInfo.getError());
-          if (replicaMetadataResponseInfo.getError() == ServerErrorCode.No_Error) {
-            // Skip stores that were stopped during call to getReplicaMetadataResponse
-            if (!remoteReplicaInfo.getLocalStore().isStarted()) {
-              exchangeMetadataResponseList.add(new ExchangeMetadataResponse(ServerErrorCode.Temporarily_Disabled));
-            } else {
-              try {
-                logger.trace(
-                    "Remote node: {} Thread name: {} Remote replica: {} Token from remote: {} Replica lag: {} ",
-                    remoteNode, threadName, remoteReplicaInfo.getReplicaId(),
-                    replicaMetadataResponseInfo.getFindToken(),
-                    replicaMetadataResponseInfo.getRemoteReplicaLagInBytes());
-                Set<MessageInfo> remoteMissingStoreMessages =
-                    getMissingStoreMessages(replicaMetadataResponseInfo, remoteNode, remoteReplicaInfo);
-                processReplicaMetadataResponse(remoteMissingStoreMessages, replicaMetadataResponseInfo,
-                    remoteReplicaInfo, remoteNode, remoteKeyToLocalKeyMap);
-
-                // Get the converted keys for the missing keys of this replica (to store them along with missing keys in
-                // the exchange metadata response). For leader based replication, these are used during processing
-                // of missing keys for non-leader replica pairs which will come later via leader<->leader replication.
-                Map<StoreKey, StoreKey> remoteKeyToLocalKeySubMap = new HashMap<>();
-                remoteMissingStoreMessages.forEach(remoteMissingStoreMessage -> {
-                  StoreKey remoteKey = remoteMissingStoreMessage.getStoreKey();
-                  remoteKeyToLocalKeySubMap.put(remoteKey, remoteKeyToLocalKeyMap.get(remoteKey));
-                });
-
-                ExchangeMetadataResponse exchangeMetadataResponse =
-                    new ExchangeMetadataResponse(remoteMissingStoreMessages, replicaMetadataResponseInfo.getFindToken(),
-                        replicaMetadataResponseInfo.getRemoteReplicaLagInBytes(), remoteKeyToLocalKeySubMap, time);
-
-                // update replication lag in ReplicaSyncUpManager
-                if (replicaSyncUpManager != null
-                    && remoteReplicaInfo.getLocalStore().getCurrentState() == ReplicaState.BOOTSTRAP) {
-                  ReplicaId localReplica = remoteReplicaInfo.getLocalReplicaId();
-                  ReplicaId remoteReplica = remoteReplicaInfo.getReplicaId();
-                  boolean isSyncCompleted =
-                      replicaSyncUpManager.updateReplicaLagAndCheckSyncStatus(localReplica, remoteReplica,
-                          exchangeMetadataResponse.localLagFromRemoteInBytes, ReplicaState.STANDBY);
-                  // if catchup is completed by this update call, we can complete bootstrap in local store
-                  if (isSyncCompleted) {
-                    // complete BOOTSTRAP -> STANDBY transition
-                    remoteReplicaInfo.getLocalStore().setCurrentState(ReplicaState.STANDBY);
-                    remoteReplicaInfo.getLocalStore().completeBootstrap();
-                  }
-                }
-
-                // If remote token has not moved forward, wait for back off time before resending next metadata request
-                if (remoteReplicaInfo.getToken().equals(exchangeMetadataResponse.remoteToken)) {
-                  remoteReplicaInfo.setReEnableReplicationTime(
-                      time.milliseconds() + replicationConfig.replicationSyncedReplicaBackoffDurationMs);
-                  syncedBackOffCount.inc();
-                }
+        exchangeMetadataResponseList = handleReplicaMetadataResponse(response, replicasToReplicatePerNode, remoteNode);
+      } finally {
+        long exchangeMetadataTime = time.milliseconds() - exchangeMetadataStartTimeInMs;
+        replicationMetrics.updateExchangeMetadataTime(exchangeMetadataTime, replicatingFromRemoteColo,
+            replicatingOverSsl, datacenterName);
+      }
+    }
+    return exchangeMetadataResponseList;
+  }
 
-                // There are no missing keys. We just advance the token
-                if (exchangeMetadataResponse.missingStoreMessages.size() == 0) {
-                  remoteReplicaInfo.setToken(exchangeMetadataResponse.remoteToken);
-                  remoteReplicaInfo.setLocalLagFromRemoteInBytes(exchangeMetadataResponse.localLagFromRemoteInBytes);
-                  logger.trace(
-                      "Remote node: {} Thread name: {} Remote replica: {} Token after speaking to remote node: {}",
-                      remoteNode, threadName, remoteReplicaInfo.getReplicaId(), exchangeMetadataResponse.remoteToken);
-                }
+  /**
+   * Processes the {@link ReplicaMetadataResponse} received from a remote node. Checks the messages with the local store
+   * and finds all the messages that are missing. For the messages that are not missing, updates the delete and ttl
+   * state.
+   * @param response the {@link ReplicaMetadataResponse} from the remote node.
+   * @param replicasToReplicatePerNode The information about the replicas that is being replicated
+   * @param remoteNode The remote node from which replication needs to happen
+   * @return - List of ExchangeMetadataResponse that contains the set of store keys that are missing from the local
+   *           store and are present in the remote replicas and also the new token from the remote replicas
+   * @throws IOException
+   */
+  private List<ExchangeMetadataResponse> handleReplicaMetadataResponse(ReplicaMetadataResponse response,
+      List<RemoteReplicaInfo> replicasToReplicatePerNode, DataNodeId remoteNode) throws IOException {
+    List<ExchangeMetadataResponse> exchangeMetadataResponseList = new ArrayList<>();
+    long startTimeInMs = time.milliseconds();
 
-                replicationMetrics.updateLagMetricForRemoteReplica(remoteReplicaInfo,
-                    exchangeMetadataResponse.localLagFromRemoteInBytes);
-                if (replicaMetadataResponseInfo.getMessageInfoList().size() > 0) {
-                  replicationMetrics.updateCatchupPointMetricForCloudReplica(remoteReplicaInfo,
-                      replicaMetadataResponseInfo.getMessageInfoList()
-                          .get(replicaMetadataResponseInfo.getMessageInfoList().size() - 1)
-                          .getOperationTimeMs());
-                }
+    Map<StoreKey, StoreKey> remoteKeyToLocalKeyMap = batchConvertReplicaMetadataResponseKeys(response);
 
-                // Add exchangeMetadataResponse to list at the end after operations such as replicaSyncUpManager(if not null)
-                // has completed update, etc. The reason is we may get exceptions in between (for ex: replicaSyncUpManager may
-                // throw exception) and end up adding one more exchangeMetadataResponse associated with same RemoteReplicaInfo.
-                exchangeMetadataResponseList.add(exchangeMetadataResponse);
-              } catch (Exception e) {
-                if (e instanceof StoreException
-                    && ((StoreException) e).getErrorCode() == StoreErrorCodes.Store_Not_Started) {
-                  // Must have just been stopped, just skip it and move on.
-                  logger.info("Local store not started for remote replica: {}", remoteReplicaInfo.getReplicaId());
-                  exchangeMetadataResponseList.add(new ExchangeMetadataResponse(ServerErrorCode.Temporarily_Disabled));
-                } else {
-                  logger.error("Remote node: {} Thread name: {} Remote replica: {}", remoteNode, threadName,
-                      remoteReplicaInfo.getReplicaId(), e);
-                  replicationMetrics.updateLocalStoreError(remoteReplicaInfo.getReplicaId());
-                  responseHandler.onEvent(remoteReplicaInfo.getReplicaId(), e);
-                  exchangeMetadataResponseList.add(new ExchangeMetadataResponse(ServerErrorCode.Unknown_Error));
-                }
+    for (int i = 0; i < response.getReplicaMetadataResponseInfoList().size(); i++) {
+      RemoteReplicaInfo remoteReplicaInfo = replicasToReplicatePerNode.get(i);
+      ReplicaMetadataResponseInfo replicaMetadataResponseInfo = response.getReplicaMetadataResponseInfoList().get(i);
+      responseHandler.onEvent(remoteReplicaInfo.getReplicaId(), replicaMetadataResponseInfo.getError());
+      if (replicaMetadataResponseInfo.getError() == ServerErrorCode.No_Error) {
+        // Skip stores that were stopped during call to getReplicaMetadataResponse
+        if (!remoteReplicaInfo.getLocalStore().isStarted()) {
+          exchangeMetadataResponseList.add(new ExchangeMetadataResponse(ServerErrorCode.Temporarily_Disabled));
+        } else {
+          try {
+            logger.trace(
+                "Remote node: {} Thread name: {} Remote replica: {} Token from remote: {} Replica lag: {} ",
+                remoteNode, threadName, remoteReplicaInfo.getReplicaId(),
+                replicaMetadataResponseInfo.getFindToken(),
+                replicaMetadataResponseInfo.getRemoteReplicaLagInBytes());
+            Set<MessageInfo> remoteMissingStoreMessages =
+                getMissingStoreMessages(replicaMetadataResponseInfo, remoteNode, remoteReplicaInfo);
+            processReplicaMetadataResponse(remoteMissingStoreMessages, replicaMetadataResponseInfo,
+                remoteReplicaInfo, remoteNode, remoteKeyToLocalKeyMap);
+
+            // Get the converted keys for the missing keys of this replica (to store them along with missing keys in
+            // the exchange metadata response). For leader based replication, these are used during processing
+            // of missing keys for non-leader replica pairs which will come later via leader<->leader replication.
+            Map<StoreKey, StoreKey> remoteKeyToLocalKeySubMap = new HashMap<>();
+            remoteMissingStoreMessages.forEach(remoteMissingStoreMessage -> {
+              StoreKey remoteKey = remoteMissingStoreMessage.getStoreKey();
+              remoteKeyToLocalKeySubMap.put(remoteKey, remoteKeyToLocalKeyMap.get(remoteKey));
+            });
+
+            ExchangeMetadataResponse exchangeMetadataResponse =
+                new ExchangeMetadataResponse(remoteMissingStoreMessages, replicaMetadataResponseInfo.getFindToken(),
+                    replicaMetadataResponseInfo.getRemoteReplicaLagInBytes(), remoteKeyToLocalKeySubMap, time);
+
+            // update replication lag in ReplicaSyncUpManager
+            if (replicaSyncUpManager != null
+                && remoteReplicaInfo.getLocalStore().getCurrentState() == ReplicaState.BOOTSTRAP) {
+              ReplicaId localReplica = remoteReplicaInfo.getLocalReplicaId();
+              ReplicaId remoteReplica = remoteReplicaInfo.getReplicaId();
+              boolean isSyncCompleted =
+                  replicaSyncUpManager.updateReplicaLagAndCheckSyncStatus(localReplica, remoteReplica,
+                      exchangeMetadataResponse.localLagFromRemoteInBytes, ReplicaState.STANDBY);
+              // if catchup is completed by this update call, we can complete bootstrap in local store
+              if (isSyncCompleted) {
+                // complete BOOTSTRAP -> STANDBY transition
+                remoteReplicaInfo.getLocalStore().setCurrentState(ReplicaState.STANDBY);
+                remoteReplicaInfo.getLocalStore().completeBootstrap();
               }
             }
-          } else {
-            replicationMetrics.updateMetadataRequestError(remoteReplicaInfo.getReplicaId());
-            logger.error("Remote node: {} Thread name: {} Remote replica: {} Server error: {}", remoteNode, threadName,
-                remoteReplicaInfo.getReplicaId(), replicaMetadataResponseInfo.getError());
-            exchangeMetadataResponseList.add(new ExchangeMetadataResponse(replicaMetadataResponseInfo.getError()));
-          }
 
-          if (replicatingFromRemoteColo && leaderBasedReplicationAdmin != null) {
-            ExchangeMetadataResponse exchangeMetadataResponse = exchangeMetadataResponseList.get(i);
-            if (exchangeMetadataResponse.serverErrorCode.equals(ServerErrorCode.No_Error)) {
+            // If remote token has not moved forward, wait for back off time before resending next metadata request
+            if (remoteReplicaInfo.getToken().equals(exchangeMetadataResponse.remoteToken)) {
+              remoteReplicaInfo.setReEnableReplicationTime(
+                  time.milliseconds() + replicationConfig.replicationSyncedReplicaBackoffDurationMs);
+              syncedBackOffCount.inc();
+            }
+
+            // There are no missing keys. We just advance the token
+            if (exchangeMetadataResponse.missingStoreMessages.size() == 0) {
+              remoteReplicaInfo.setToken(exchangeMetadataResponse.remoteToken);
+              remoteReplicaInfo.setLocalLagFromRemoteInBytes(exchangeMetadataResponse.localLagFromRemoteInBytes);
+              logger.trace(
+                  "Remote node: {} Thread name: {} Remote replica: {} Token after speaking to remote node: {}",
+                  remoteNode, threadName, remoteReplicaInfo.getReplicaId(), exchangeMetadataResponse.remoteToken);
+            }
 
-              // If leader-based replication is enabled, store the meta data exchange received for the remote replica as
-              // standby replicas will not send GET request for the missing store keys and track them from leader <->
-              // leader exchanges and intra-dc replication.
-              remoteReplicaInfo.setExchangeMetadataResponse(new ExchangeMetadataResponse(exchangeMetadataResponse));
+            replicationMetrics.updateLagMetricForRemoteReplica(remoteReplicaInfo,
+                exchangeMetadataResponse.localLagFromRemoteInBytes);
+            if (replicaMetadataResponseInfo.getMessageInfoList().size() > 0) {
+              replicationMetrics.updateCatchupPointMetricForCloudReplica(remoteReplicaInfo,
+                  replicaMetadataResponseInfo.getMessageInfoList()
+                      .get(replicaMetadataResponseInfo.getMessageInfoList().size() - 1)
+                      .getOperationTimeMs());
+            }
 
-              // It is possible that some of the missing keys found in exchange metadata response are written in parallel
-              // by other replica threads since the time we calculated it. Go through the local store once more and
-              // update missing keys set stored in the exchangeMetadataResponse for the remote replica.
-              refreshMissingStoreMessagesForStandbyReplica(remoteReplicaInfo);
+            // Add exchangeMetadataResponse to list at the end after operations such as replicaSyncUpManager(if not
+            // null) has completed update, etc. The reason is we may get exceptions in between (for ex:
+            // replicaSyncUpManager may throw exception) and end up adding one more exchangeMetadataResponse associated
+            // with same RemoteReplicaInfo.
+            exchangeMetadataResponseList.add(exchangeMetadataResponse);
+          } catch (Exception e) {
+            if (e instanceof StoreException
+                && ((StoreException) e).getErrorCode() == StoreErrorCodes.Store_Not_Started) {
+              // Must have just been stopped, just skip it and move on.
+              logger.info("Local store not started for remote replica: {}", remoteReplicaInfo.getReplicaId());
+              exchangeMetadataResponseList.add(new ExchangeMetadataResponse(ServerErrorCode.Temporarily_Disabled));
+            } else {
+              logger.error("Remote node: {} Thread name: {} Remote replica: {}", remoteNode, threadName,
+                  remoteReplicaInfo.getReplicaId(), e);
+              replicationMetrics.updateLocalStoreError(remoteReplicaInfo.getReplicaId());
+              responseHandler.onEvent(remoteReplicaInfo.getReplicaId(), e);
+              exchangeMetadataResponseList.add(new ExchangeMetadataResponse(ServerErrorCode.Unknown_Error));
             }
           }
         }
-        long processMetadataResponseTimeInMs = time.milliseconds() - startTimeInMs;
-        logger.trace("Remote node: {} Thread name: {} processMetadataResponseTime: {}", remoteNode, threadName,
-            processMetadataResponseTimeInMs);
-      } finally {
-        long exchangeMetadataTime = time.milliseconds() - exchangeMetadataStartTimeInMs;
-        replicationMetrics.updateExchangeMetadataTime(exchangeMetadataTime, replicatingFromRemoteColo,
-            replicatingOverSsl, datacenterName);
+      } else {
+        replicationMetrics.updateMetadataRequestError(remoteReplicaInfo.getReplicaId());
+        logger.error("Remote node: {} Thread name: {} Remote replica: {} Server error: {}", remoteNode, threadName,
+            remoteReplicaInfo.getReplicaId(), replicaMetadataResponseInfo.getError());
+        exchangeMetadataResponseList.add(new ExchangeMetadataResponse(replicaMetadataResponseInfo.getError()));
+      }
+
+      if (replicatingFromRemoteColo && leaderBasedReplicationAdmin != null) {
+        ExchangeMetadataResponse exchangeMetadataResponse = exchangeMetadataResponseList.get(i);
+        if (exchangeMetadataResponse.serverErrorCode.equals(ServerErrorCode.No_Error)) {
+
+          // If leader-based replication is enabled, store the meta data exchange received for the remote replica as
+          // standby replicas will not send GET request for the missing store keys and track them from leader <->
+          // leader exchanges and intra-dc replication.
+          remoteReplicaInfo.setExchangeMetadataResponse(new ExchangeMetadataResponse(exchangeMetadataResponse));
+
+          // It is possible that some of the missing keys found in exchange metadata response are written in parallel
+          // by other replica threads since the time we calculated it. Go through the local store once more and
+          // update missing keys set stored in the exchangeMetadataResponse for the remote replica.
+          refreshMissingStoreMessagesForStandbyReplica(remoteReplicaInfo);
+        }
       }
     }
+    long processMetadataResponseTimeInMs = time.milliseconds() - startTimeInMs;
+    logger.trace("Remote node: {} Thread name: {} processMetadataResponseTime: {}", remoteNode, threadName,
+        processMetadataResponseTimeInMs);
     return exchangeMetadataResponseList;
   }
 
@@ -748,24 +1108,9 @@ public class ReplicaThread implements Runnable {
   ReplicaMetadataResponse getReplicaMetadataResponse(List<RemoteReplicaInfo> replicasToReplicatePerNode,
       ConnectedChannel connectedChannel, DataNodeId remoteNode) throws ReplicationException, IOException {
     long replicaMetadataRequestStartTime = time.milliseconds();
-    List<ReplicaMetadataRequestInfo> replicaMetadataRequestInfoList = new ArrayList<ReplicaMetadataRequestInfo>();
-    for (RemoteReplicaInfo remoteReplicaInfo : replicasToReplicatePerNode) {
-      ReplicaMetadataRequestInfo replicaMetadataRequestInfo =
-          new ReplicaMetadataRequestInfo(remoteReplicaInfo.getReplicaId().getPartitionId(),
-              remoteReplicaInfo.getToken(), dataNodeId.getHostname(),
-              remoteReplicaInfo.getLocalReplicaId().getReplicaPath(), remoteReplicaInfo.getReplicaId().getReplicaType(),
-              replicationConfig.replicaMetadataRequestVersion);
-      replicaMetadataRequestInfoList.add(replicaMetadataRequestInfo);
-      logger.trace("Remote node: {} Thread name: {} Remote replica: {} Token going to be sent to remote: {} ",
-          remoteNode, threadName, remoteReplicaInfo.getReplicaId(), remoteReplicaInfo.getToken());
-    }
-
     ChannelOutput channelOutput = null;
     try {
-      ReplicaMetadataRequest request = new ReplicaMetadataRequest(correlationIdGenerator.incrementAndGet(),
-          "replication-metadata-" + dataNodeId.getHostname() + "[" + dataNodeId.getDatacenterName() + "]",
-          replicaMetadataRequestInfoList, replicationConfig.replicationFetchSizeInBytes,
-          replicationConfig.replicaMetadataRequestVersion);
+      ReplicaMetadataRequest request = createReplicaMetadataRequest(replicasToReplicatePerNode, remoteNode);
       channelOutput = connectedChannel.sendAndReceive(request);
       logger.trace("Remote node: {} Thread name: {} Remote replicas: {} Stream size after deserialization: {} ",
           remoteNode, threadName, replicasToReplicatePerNode, channelOutput.getInputStream().available());
@@ -776,16 +1121,7 @@ public class ReplicaThread implements Runnable {
       replicationMetrics.updateMetadataRequestTime(metadataRequestTime, replicatingFromRemoteColo, replicatingOverSsl,
           datacenterName);
 
-      if (response.getError() != ServerErrorCode.No_Error
-          || response.getReplicaMetadataResponseInfoList().size() != replicasToReplicatePerNode.size()) {
-        int replicaMetadataResponseInfoListSize = response.getReplicaMetadataResponseInfoList() == null ? 0
-            : response.getReplicaMetadataResponseInfoList().size();
-        logger.error(
-            "Remote node: {} Thread name: {} Remote replicas: {} Replica metadata response error: {} ReplicaMetadataResponseInfoListSize: {} ReplicasToReplicatePerNodeSize: {}",
-            remoteNode, threadName, replicasToReplicatePerNode, response.getError(),
-            replicaMetadataResponseInfoListSize, replicasToReplicatePerNode.size());
-        throw new ReplicationException("Replica Metadata Response Error " + response.getError());
-      }
+      validateReplicaMetadataResponse(response, replicasToReplicatePerNode, remoteNode);
       return response;
     } catch (Exception e) {
       responseHandler.onEvent(replicasToReplicatePerNode.get(0).getReplicaId(), e);
@@ -798,6 +1134,53 @@ public class ReplicaThread implements Runnable {
     }
   }
 
+  /**
+   * Creates the {@link ReplicaMetadataRequest} for a list of remote replicas on a given remote data node.
+   * @param replicasToReplicatePerNode The list of remote replicas for a node
+   * @param remoteNode The remote node from which replication needs to happen
+   * @return the {@link ReplicaMetadataRequest} to send to the remote node.
+   */
+  private ReplicaMetadataRequest createReplicaMetadataRequest(List<RemoteReplicaInfo> replicasToReplicatePerNode,
+      DataNodeId remoteNode) {
+    List<ReplicaMetadataRequestInfo> replicaMetadataRequestInfoList = new ArrayList<ReplicaMetadataRequestInfo>();
+    for (RemoteReplicaInfo remoteReplicaInfo : replicasToReplicatePerNode) {
+      ReplicaMetadataRequestInfo replicaMetadataRequestInfo =
+          new ReplicaMetadataRequestInfo(remoteReplicaInfo.getReplicaId().getPartitionId(),
+              remoteReplicaInfo.getToken(), dataNodeId.getHostname(),
+              remoteReplicaInfo.getLocalReplicaId().getReplicaPath(), remoteReplicaInfo.getReplicaId().getReplicaType(),
+              replicationConfig.replicaMetadataRequestVersion);
+      replicaMetadataRequestInfoList.add(replicaMetadataRequestInfo);
+      logger.trace("Remote node: {} Thread name: {} Remote replica: {} Token going to be sent to remote: {} ",
+          remoteNode, threadName, remoteReplicaInfo.getReplicaId(), remoteReplicaInfo.getToken());
+    }
+
+    return new ReplicaMetadataRequest(correlationIdGenerator.incrementAndGet(),
+        "replication-metadata-" + dataNodeId.getHostname() + "[" + dataNodeId.getDatacenterName() + "]",
+        replicaMetadataRequestInfoList, replicationConfig.replicationFetchSizeInBytes,
+        replicationConfig.replicaMetadataRequestVersion);
+  }
+
+  /**
+   * Verifies that a {@link ReplicaMetadataResponse} has no error and contains a response for every remote replica.
+   * @param response the {@link ReplicaMetadataResponse} to verify.
+   * @param replicasToReplicatePerNode The list of remote replicas for a node
+   * @param remoteNode The remote node from which replication needs to happen
+   * @throws ReplicationException if the response has an error or doesn't match the replicas.
+   */
+  private void validateReplicaMetadataResponse(ReplicaMetadataResponse response,
+      List<RemoteReplicaInfo> replicasToReplicatePerNode, DataNodeId remoteNode) throws ReplicationException {
+    if (response.getError() != ServerErrorCode.No_Error
+        || response.getReplicaMetadataResponseInfoList().size() != replicasToReplicatePerNode.size()) {
+      int replicaMetadataResponseInfoListSize = response.getReplicaMetadataResponseInfoList() == null ? 0
+          : response.getReplicaMetadataResponseInfoList().size();
+      logger.error(
+          "Remote node: {} Thread name: {} Remote replicas: {} Replica metadata response error: {} ReplicaMetadataResponseInfoListSize: {} ReplicasToReplicatePerNodeSize: {}",
+          remoteNode, threadName, replicasToReplicatePerNode, response.getError(),
+          replicaMetadataResponseInfoListSize, replicasToReplicatePerNode.size());
+      throw new ReplicationException("Replica Metadata Response Error " + response.getError());
+    }
+  }
+
   /**
    * Gets the missing store messages by comparing the messages from the remote node
    * @param replicaMetadataResponseInfo The response that contains the messages from the remote node
@@ -1042,6 +1425,34 @@ public class ReplicaThread implements Runnable {
   private GetResponse getMessagesForMissingKeys(ConnectedChannel connectedChannel,
       List<ExchangeMetadataResponse> exchangeMetadataResponseList, List<RemoteReplicaInfo> replicasToReplicatePerNode,
       DataNodeId remoteNode, boolean remoteColoGetRequestForStandby) throws ReplicationException, IOException {
+    GetResponse getResponse = null;
+    GetRequest getRequest = createGetRequest(exchangeMetadataResponseList, replicasToReplicatePerNode, remoteNode);
+    if (getRequest != null) {
+      long startTime = time.milliseconds();
+      try {
+        ChannelOutput channelOutput = connectedChannel.sendAndReceive(getRequest);
+        getResponse = GetResponse.readFrom(channelOutput.getInputStream(), clusterMap);
+        long getRequestTime = time.milliseconds() - startTime;
+        replicationMetrics.updateGetRequestTime(getRequestTime, replicatingFromRemoteColo, replicatingOverSsl,
+            datacenterName, remoteColoGetRequestForStandby);
+        validateGetResponse(getResponse, replicasToReplicatePerNode, remoteNode);
+      } catch (IOException e) {
+        responseHandler.onEvent(replicasToReplicatePerNode.get(0).getReplicaId(), e);
+        throw e;
+      }
+    }
+    return getResponse;
+  }
+
+  /**
+   * Creates the {@link GetRequest} for the keys that are missing from the local store.
+   * @param exchangeMetadataResponseList The list of metadata response from the remote node
+   * @param replicasToReplicatePerNode The list of remote replicas for the remote node
+   * @param remoteNode The remote node from which replication needs to happen
+   * @return the {@link GetRequest} to send to the remote node; or null if there are no missing keys to fetch.
+   */
+  private GetRequest createGetRequest(List<ExchangeMetadataResponse> exchangeMetadataResponseList,
+      List<RemoteReplicaInfo> replicasToReplicatePerNode, DataNodeId remoteNode) {
     List<PartitionRequestInfo> partitionRequestInfoList = new ArrayList<PartitionRequestInfo>();
     for (int i = 0; i < exchangeMetadataResponseList.size(); i++) {
       ExchangeMetadataResponse exchangeMetadataResponse = exchangeMetadataResponseList.get(i);
@@ -1062,31 +1473,30 @@ public class ReplicaThread implements Runnable {
         }
       }
     }
-    GetResponse getResponse = null;
-    if (!partitionRequestInfoList.isEmpty()) {
-      GetRequest getRequest = new GetRequest(correlationIdGenerator.incrementAndGet(),
-          GetRequest.Replication_Client_Id_Prefix + dataNodeId.getHostname() + "[" + dataNodeId.getDatacenterName()
-              + "]", MessageFormatFlags.All, partitionRequestInfoList,
-          replicationConfig.replicationIncludeAll ? GetOption.Include_All : GetOption.None);
-      long startTime = time.milliseconds();
-      try {
-        ChannelOutput channelOutput = connectedChannel.sendAndReceive(getRequest);
-        getResponse = GetResponse.readFrom(channelOutput.getInputStream(), clusterMap);
-        long getRequestTime = time.milliseconds() - startTime;
-        replicationMetrics.updateGetRequestTime(getRequestTime, replicatingFromRemoteColo, replicatingOverSsl,
-            datacenterName, remoteColoGetRequestForStandby);
-        if (getResponse.getError() != ServerErrorCode.No_Error) {
-          logger.error("Remote node: {} Thread name: {} Remote replicas: {} GetResponse from replication: {}",
-              remoteNode, threadName, replicasToReplicatePerNode, getResponse.getError());
-          throw new ReplicationException(
-              " Get Request returned error when trying to get missing keys " + getResponse.getError());
-        }
-      } catch (IOException e) {
-        responseHandler.onEvent(replicasToReplicatePerNode.get(0).getReplicaId(), e);
-        throw e;
-      }
+    if (partitionRequestInfoList.isEmpty()) {
+      return null;
+    }
+    return new GetRequest(correlationIdGenerator.incrementAndGet(),
+        GetRequest.Replication_Client_Id_Prefix + dataNodeId.getHostname() + "[" + dataNodeId.getDatacenterName() + "]",
+        MessageFormatFlags.All, partitionRequestInfoList,
+        replicationConfig.replicationIncludeAll ? GetOption.Include_All : GetOption.None);
+  }
+
+  /**
+   * Verifies that a {@link GetResponse} for the missing keys has no error.
+   * @param getResponse the {@link GetResponse} to verify.
+   * @param replicasToReplicatePerNode The list of remote replicas for the remote node
+   * @param remoteNode The remote node from which replication needs to happen
+   * @throws ReplicationException if the response has an error.
+   */
+  private void validateGetResponse(GetResponse getResponse, List<RemoteReplicaInfo> replicasToReplicatePerNode,
+      DataNodeId remoteNode) throws ReplicationException {
+    if (getResponse.getError() != ServerErrorCode.No_Error) {
+      logger.error("Remote node: {} Thread name: {} Remote replicas: {} GetResponse from replication: {}",
+          remoteNode, threadName, replicasToReplicatePerNode, getResponse.getError());
+      throw new ReplicationException(
+          " Get Request returned error when trying to get missing keys " + getResponse.getError());
     }
-    return getResponse;
   }
 
   /**
@@ -1150,7 +1560,10 @@ public class ReplicaThread implements Runnable {
                 logger.debug(
                     "MessageInfoList is of size 0 as all messages are invalidated, deprecated, deleted or expired.");
               } else {
-                writeset = new MessageFormatWriteSet(validMessageDetectionInputStream, messageInfoList, false);
+                List<ByteBuf> validMessageBuffers = validMessageDetectionInputStream.getValidMessageBuffers();
+                // Messages that were validated in place on the response buffer are written straight from it.
+                writeset = validMessageBuffers != null ? new MessageFormatWriteSet(validMessageBuffers, messageInfoList)
+                    : new MessageFormatWriteSet(validMessageDetectionInputStream, messageInfoList, false);
                 remoteReplicaInfo.getLocalStore().put(writeset);
               }
 
@@ -1509,6 +1922,36 @@ public class ReplicaThread implements Runnable {
     return replicationMetrics;
   }
 
+  /**
+   * The state of a batch of remote replicas on the same node that is replicated with the {@link NetworkClient}.
+   */
+  private class ReplicaBatch {
+    final DataNodeId remoteNode;
+    final boolean remoteColoGetRequestForStandby;
+    final long startTimeMs;
+    List<RemoteReplicaInfo> replicas;
+    // null until the metadata of the batch has been exchanged.
+    List<ExchangeMetadataResponse> exchangeMetadataResponseList;
+    long requestSendTimeMs;
+
+    /**
+     * @param remoteNode the remote node of the replicas.
+     * @param replicas the remote replicas in the batch.
+     * @param exchangeMetadataResponseList the metadata exchanged for the replicas if it is already known; or null.
+     * @param remoteColoGetRequestForStandby {@code true} if the batch fetches the missing keys of standby replicas
+     *                                       during leader-based replication.
+     */
+    ReplicaBatch(DataNodeId remoteNode, List<RemoteReplicaInfo> replicas,
+        List<ExchangeMetadataResponse> exchangeMetadataResponseList, boolean remoteColoGetRequestForStandby) {
+      this.remoteNode = remoteNode;
+      this.replicas = replicas;
+      this.exchangeMetadataResponseList = exchangeMetadataResponseList;
+      this.remoteColoGetRequestForStandby = remoteColoGetRequestForStandby;
+      startTimeMs = time.milliseconds();
+      requestSendTimeMs = startTimeMs;
+    }
+  }
+
   static class ExchangeMetadataResponse {
     // Set of messages from remote replica missing in the local store.
     final Set<MessageInfo> missingStoreMessages;
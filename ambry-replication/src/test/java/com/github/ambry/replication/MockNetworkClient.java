@@ -0,0 +1,206 @@
+/**
+ * Copyright 2021 LinkedIn Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ */
+package com.github.ambry.replication;
+
+import com.github.ambry.clustermap.DataNodeId;
+import com.github.ambry.network.ChannelOutput;
+import com.github.ambry.network.NetworkClient;
+import com.github.ambry.network.NetworkClientErrorCode;
+import com.github.ambry.network.RequestInfo;
+import com.github.ambry.network.ResponseInfo;
+import com.github.ambry.protocol.ReplicaMetadataRequest;
+import com.github.ambry.protocol.ReplicaMetadataResponse;
+import com.github.ambry.protocol.Response;
+import com.github.ambry.server.ServerErrorCode;
+import com.github.ambry.utils.ByteBufferOutputStream;
+import com.github.ambry.utils.MockTime;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+
+/**
+ * A {@link NetworkClient} that answers replication requests from {@link MockHost}s the way a
+ * {@link MockConnectionPool.MockConnection} does. A request is never answered in the same {@link #sendAndPoll} call it
+ * was sent in, so a replica thread always has several requests in flight. Every poll advances the {@link MockTime} by
+ * the poll timeout, and the order of the responses, the nodes that don't respond and the errors returned by a node can
+ * be controlled by tests.
+ */
+class MockNetworkClient implements NetworkClient {
+  private final Map<DataNodeId, MockHost> hosts;
+  private final int maxEntriesToReturn;
+  private final MockTime time;
+  private final LinkedList<RequestInfo> pendingRequests = new LinkedList<>();
+
+  // all the requests sent through this client, in the order they were sent.
+  final List<RequestInfo> sentRequests = new ArrayList<>();
+  // the correlation ids of the requests dropped by the caller.
+  final Set<Integer> droppedRequests = new HashSet<>();
+  // requests to these nodes are never answered.
+  final Set<DataNodeId> unresponsiveNodes = new HashSet<>();
+  // requests to these nodes fail with the given network client error.
+  final Map<DataNodeId, NetworkClientErrorCode> networkErrorsByNode = new HashMap<>();
+  // metadata requests to these nodes are answered with the given server error.
+  final Map<DataNodeId, ServerErrorCode> serverErrorsByNode = new HashMap<>();
+  // the maximum number of requests answered in one poll.
+  int maxResponsesPerPoll = Integer.MAX_VALUE;
+  // answer the most recently sent requests first.
+  boolean respondNewestFirst = false;
+  // called with every request when it is sent.
+  Consumer<RequestInfo> onSend = null;
+  private boolean closed = false;
+
+  /**
+   * @param hosts the {@link MockHost}s by {@link DataNodeId} that answer the requests.
+   * @param maxEntriesToReturn the maximum number of entries returned for a replica in a metadata response.
+   * @param time the {@link MockTime} to advance on every poll.
+   */
+  MockNetworkClient(Map<DataNodeId, MockHost> hosts, int maxEntriesToReturn, MockTime time) {
+    this.hosts = hosts;
+    this.maxEntriesToReturn = maxEntriesToReturn;
+    this.time = time;
+  }
+
+  @Override
+  public List<ResponseInfo> sendAndPoll(List<RequestInfo> requestsToSend, Set<Integer> requestsToDrop,
+      int pollTimeoutMs) {
+    List<ResponseInfo> responseInfos = new ArrayList<>();
+    Iterator<RequestInfo> iterator = pendingRequests.iterator();
+    while (iterator.hasNext()) {
+      RequestInfo requestInfo = iterator.next();
+      int correlationId = requestInfo.getRequest().getCorrelationId();
+      if (requestsToDrop.contains(correlationId)) {
+        iterator.remove();
+        droppedRequests.add(correlationId);
+        responseInfos.add(new ResponseInfo(requestInfo, NetworkClientErrorCode.NetworkError, null));
+      }
+    }
+
+    List<RequestInfo> candidates = new ArrayList<>(pendingRequests);
+    if (respondNewestFirst) {
+      Collections.reverse(candidates);
+    }
+    int responseCount = 0;
+    for (RequestInfo requestInfo : candidates) {
+      if (responseCount == maxResponsesPerPoll) {
+        break;
+      }
+      DataNodeId dataNodeId = requestInfo.getReplicaId().getDataNodeId();
+      if (unresponsiveNodes.contains(dataNodeId)) {
+        continue;
+      }
+      pendingRequests.remove(requestInfo);
+      responseCount++;
+      NetworkClientErrorCode networkError = networkErrorsByNode.get(dataNodeId);
+      if (networkError != null) {
+        responseInfos.add(new ResponseInfo(requestInfo, networkError, null));
+      } else {
+        responseInfos.add(new ResponseInfo(requestInfo, null, getResponseContent(requestInfo)));
+      }
+    }
+
+    for (RequestInfo requestInfo : requestsToSend) {
+      sentRequests.add(requestInfo);
+      pendingRequests.add(requestInfo);
+      if (onSend != null) {
+        onSend.accept(requestInfo);
+      }
+    }
+    time.sleep(pollTimeoutMs);
+    return responseInfos;
+  }
+
+  @Override
+  public int warmUpConnections(List<DataNodeId> dataNodeIds, int connectionWarmUpPercentagePerDataNode,
+      long timeForWarmUp, List<ResponseInfo> responseInfoList) {
+    return 0;
+  }
+
+  @Override
+  public void wakeup() {
+  }
+
+  @Override
+  public void close() {
+    closed = true;
+  }
+
+  /**
+   * @return {@code true} if {@link #close()} was called.
+   */
+  boolean isClosed() {
+    return closed;
+  }
+
+  /**
+   * @return the number of requests that were sent but are neither answered nor dropped yet.
+   */
+  int getPendingRequestCount() {
+    return pendingRequests.size();
+  }
+
+  /**
+   * @param requestInfo the {@link RequestInfo} to answer.
+   * @return the serialized response to {@code requestInfo}, without the size header.
+   */
+  private ByteBuf getResponseContent(RequestInfo requestInfo) {
+    DataNodeId dataNodeId = requestInfo.getReplicaId().getDataNodeId();
+    try {
+      ServerErrorCode serverError = serverErrorsByNode.get(dataNodeId);
+      if (serverError != null && requestInfo.getRequest() instanceof ReplicaMetadataRequest) {
+        ReplicaMetadataRequest request = (ReplicaMetadataRequest) requestInfo.getRequest();
+        return serialize(new ReplicaMetadataResponse(request.getCorrelationId(), "replicametadata", serverError,
+            Collections.emptyList(), ReplicaMetadataResponse.getCompatibleResponseVersion(request.getVersionId())));
+      }
+      MockConnectionPool.MockConnection connection =
+          new MockConnectionPool.MockConnection(hosts.get(dataNodeId), maxEntriesToReturn);
+      connection.send(requestInfo.getRequest());
+      ChannelOutput channelOutput = connection.receive();
+      byte[] content = new byte[(int) channelOutput.getStreamSize()];
+      channelOutput.getInputStream().readFully(content);
+      return Unpooled.wrappedBuffer(content);
+    } catch (IOException e) {
+      throw new IllegalStateException("Could not create response to " + requestInfo, e);
+    }
+  }
+
+  /**
+   * @param response the {@link Response} to serialize.
+   * @return the serialized {@code response}, without the size header.
+   * @throws IOException
+   */
+  private static ByteBuf serialize(Response response) throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate((int) response.sizeInBytes());
+    WritableByteChannel channel = Channels.newChannel(new ByteBufferOutputStream(buffer));
+    while (!response.isSendComplete()) {
+      response.writeTo(channel);
+    }
+    buffer.flip();
+    buffer.getLong();
+    return Unpooled.wrappedBuffer(buffer);
+  }
+}
@@ -0,0 +1,343 @@
+/**
+ * Copyright 2021 LinkedIn Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ */
+package com.github.ambry.replication;
+
+import com.codahale.metrics.MetricRegistry;
+import com.github.ambry.clustermap.MockClusterMap;
+import com.github.ambry.clustermap.PartitionId;
+import com.github.ambry.commons.BlobIdFactory;
+import com.github.ambry.commons.ResponseHandler;
+import com.github.ambry.config.ReplicationConfig;
+import com.github.ambry.config.VerifiableProperties;
+import com.github.ambry.network.NetworkClientErrorCode;
+import com.github.ambry.network.RequestInfo;
+import com.github.ambry.protocol.GetRequest;
+import com.github.ambry.protocol.PartitionRequestInfo;
+import com.github.ambry.protocol.ReplicaMetadataRequest;
+import com.github.ambry.protocol.ReplicaMetadataRequestInfo;
+import com.github.ambry.server.ServerErrorCode;
+import com.github.ambry.store.MessageInfo;
+import com.github.ambry.store.StoreKey;
+import com.github.ambry.store.StoreKeyConverter;
+import com.github.ambry.utils.Pair;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import static org.junit.Assert.*;
+
+
+/**
+ * Tests for {@link ReplicaThread} replicating with a {@link com.github.ambry.network.NetworkClient}.
+ */
+@RunWith(Parameterized.class)
+public class ReplicaThreadTest extends ReplicationTestHelper {
+  private static final int MESSAGE_COUNT = 10;
+  private static final int REQUEST_TIMEOUT_MS = 50;
+  private final MockClusterMap clusterMap;
+  private final MockHost localHost;
+  private final MockHost remoteHost;
+  private final Set<StoreKey> remoteKeys = new HashSet<>();
+  private List<RemoteReplicaInfo> remoteReplicaInfos;
+
+  public ReplicaThreadTest(short requestVersion, short responseVersion) throws Exception {
+    super(requestVersion, responseVersion);
+    properties.setProperty("replication.use.network.client", "true");
+    replicationConfig = new ReplicationConfig(new VerifiableProperties(properties));
+    clusterMap = new MockClusterMap();
+    Pair<MockHost, MockHost> localAndRemoteHosts = getLocalAndRemoteHosts(clusterMap);
+    localHost = localAndRemoteHosts.getFirst();
+    remoteHost = localAndRemoteHosts.getSecond();
+    for (PartitionId partitionId : clusterMap.getAllPartitionIds(null)) {
+      remoteKeys.addAll(
+          addPutMessagesToReplicasOfPartition(partitionId, Collections.singletonList(remoteHost), MESSAGE_COUNT));
+    }
+  }
+
+  /**
+   * Tests that a replication cycle exchanges metadata with the remote node, fetches the missing keys and advances the
+   * tokens, and that the following cycles pick up from the advanced tokens until the local node has caught up.
+   * @throws Exception
+   */
+  @Test
+  public void replicationCycleTest() throws Exception {
+    int batchSize = 4;
+    MockNetworkClient networkClient = createNetworkClient(batchSize);
+    ReplicaThread replicaThread = createReplicaThread(networkClient);
+
+    replicaThread.replicateWithNetworkClient();
+    assertEquals("There should be one metadata request and one GET request", 2, networkClient.sentRequests.size());
+    assertTrue("First request should be a metadata request",
+        networkClient.sentRequests.get(0).getRequest() instanceof ReplicaMetadataRequest);
+    assertTrue("Second request should be a GET request",
+        networkClient.sentRequests.get(1).getRequest() instanceof GetRequest);
+    assertEquals("No request should be in flight after the cycle", 0, networkClient.getPendingRequestCount());
+    Map<PartitionId, List<MessageInfo>> missingInfos = remoteHost.getMissingInfos(localHost.infosByPartition);
+    for (RemoteReplicaInfo remoteReplicaInfo : remoteReplicaInfos) {
+      PartitionId partitionId = remoteReplicaInfo.getReplicaId().getPartitionId();
+      assertEquals("Token should have advanced past the first batch", batchSize - 1,
+          ((MockFindToken) remoteReplicaInfo.getToken()).getIndex());
+      assertEquals("Unexpected number of missing messages", MESSAGE_COUNT - batchSize,
+          missingInfos.get(partitionId).size());
+    }
+
+    replicateUntilCaughtUp(replicaThread);
+    for (RemoteReplicaInfo remoteReplicaInfo : remoteReplicaInfos) {
+      assertEquals("Token should be at the last message", MESSAGE_COUNT - 1,
+          ((MockFindToken) remoteReplicaInfo.getToken()).getIndex());
+    }
+    assertFalse("Network client should not be closed", networkClient.isClosed());
+  }
+
+  /**
+   * Tests that when the metadata and GET requests of several batches are in flight at the same time and answered out
+   * of order, every batch fetches exactly its own missing keys and the per node limit is respected.
+   * @throws Exception
+   */
+  @Test
+  public void interleavedBatchesTest() throws Exception {
+    int maxInFlightPerNode = 3;
+    properties.setProperty("replication.max.partition.count.per.request", Integer.toString(2));
+    properties.setProperty("replication.network.client.max.in.flight.requests.per.node",
+        Integer.toString(maxInFlightPerNode));
+    replicationConfig = new ReplicationConfig(new VerifiableProperties(properties));
+    MockNetworkClient networkClient = createNetworkClient(MESSAGE_COUNT);
+    networkClient.respondNewestFirst = true;
+    networkClient.maxResponsesPerPoll = 1;
+    AtomicInteger maxPendingRequestCount = new AtomicInteger();
+    networkClient.onSend =
+        requestInfo -> maxPendingRequestCount.accumulateAndGet(networkClient.getPendingRequestCount(), Math::max);
+    ReplicaThread replicaThread = createReplicaThread(networkClient);
+
+    replicaThread.replicateWithNetworkClient();
+    assertTrue("There should never be more than " + maxInFlightPerNode + " requests in flight",
+        maxPendingRequestCount.get() <= maxInFlightPerNode);
+    int firstGetRequestIndex = -1;
+    int lastMetadataRequestIndex = -1;
+    List<StoreKey> fetchedKeys = new ArrayList<>();
+    for (int i = 0; i < networkClient.sentRequests.size(); i++) {
+      RequestInfo requestInfo = networkClient.sentRequests.get(i);
+      if (requestInfo.getRequest() instanceof GetRequest) {
+        firstGetRequestIndex = firstGetRequestIndex == -1 ? i : firstGetRequestIndex;
+        GetRequest getRequest = (GetRequest) requestInfo.getRequest();
+        for (PartitionRequestInfo partitionRequestInfo : getRequest.getPartitionInfoList()) {
+          fetchedKeys.addAll(partitionRequestInfo.getBlobIds());
+        }
+      } else {
+        lastMetadataRequestIndex = i;
+      }
+    }
+    assertTrue("GET requests should be interleaved with metadata requests",
+        firstGetRequestIndex < lastMetadataRequestIndex);
+    assertEquals("Every key should be fetched exactly once", remoteKeys.size(), fetchedKeys.size());
+    assertEquals("Every missing key should be fetched", remoteKeys, new HashSet<>(fetchedKeys));
+    assertEquals("No message should be missing", Collections.emptyMap(),
+        remoteHost.getMissingInfos(localHost.infosByPartition));
+    for (RemoteReplicaInfo remoteReplicaInfo : remoteReplicaInfos) {
+      assertEquals("Token should be at the last message", MESSAGE_COUNT - 1,
+          ((MockFindToken) remoteReplicaInfo.getToken()).getIndex());
+    }
+  }
+
+  /**
+   * Tests that requests that are not answered within the timeout are dropped without advancing the tokens and that
+   * replication resumes once the remote node responds again.
+   * @throws Exception
+   */
+  @Test
+  public void requestTimeoutTest() throws Exception {
+    properties.setProperty("replication.network.client.request.timeout.ms", Integer.toString(REQUEST_TIMEOUT_MS));
+    replicationConfig = new ReplicationConfig(new VerifiableProperties(properties));
+    MockNetworkClient networkClient = createNetworkClient(MESSAGE_COUNT);
+    ReplicaThread replicaThread = createReplicaThread(networkClient);
+    networkClient.unresponsiveNodes.add(remoteHost.dataNodeId);
+
+    long startTimeMs = time.milliseconds();
+    replicaThread.replicateWithNetworkClient();
+    assertTrue("Cycle should have waited for the timeout", time.milliseconds() - startTimeMs > REQUEST_TIMEOUT_MS);
+    assertEquals("Only the metadata request should have been sent", 1, networkClient.sentRequests.size());
+    assertEquals("Timed out request should have been dropped",
+        Collections.singleton(networkClient.sentRequests.get(0).getRequest().getCorrelationId()),
+        networkClient.droppedRequests);
+    assertEquals("No request should be in flight after the cycle", 0, networkClient.getPendingRequestCount());
+    assertTokensNotAdvanced();
+
+    networkClient.unresponsiveNodes.clear();
+    replicateUntilCaughtUp(replicaThread);
+  }
+
+  /**
+   * Tests that network errors and server errors on metadata and GET requests fail the batch without advancing the
+   * tokens and that replication resumes once the errors stop.
+   * @throws Exception
+   */
+  @Test
+  public void errorResponseTest() throws Exception {
+    MockNetworkClient networkClient = createNetworkClient(MESSAGE_COUNT);
+    ReplicaThread replicaThread = createReplicaThread(networkClient);
+
+    // network error on the metadata request
+    networkClient.networkErrorsByNode.put(remoteHost.dataNodeId, NetworkClientErrorCode.NetworkError);
+    replicaThread.replicateWithNetworkClient();
+    assertEquals("Only the metadata request should have been sent", 1, networkClient.sentRequests.size());
+    assertTokensNotAdvanced();
+    networkClient.networkErrorsByNode.clear();
+
+    // server error on the metadata request
+    networkClient.serverErrorsByNode.put(remoteHost.dataNodeId, ServerErrorCode.Replica_Unavailable);
+    replicaThread.replicateWithNetworkClient();
+    assertEquals("Only the metadata request should have been sent", 2, networkClient.sentRequests.size());
+    assertTokensNotAdvanced();
+    networkClient.serverErrorsByNode.clear();
+
+    // network error on the GET request
+    networkClient.onSend = requestInfo -> {
+      if (requestInfo.getRequest() instanceof GetRequest) {
+        networkClient.networkErrorsByNode.put(remoteHost.dataNodeId, NetworkClientErrorCode.NetworkError);
+      }
+    };
+    replicaThread.replicateWithNetworkClient();
+    assertTrue("GET request should have been sent",
+        networkClient.sentRequests.get(networkClient.sentRequests.size() - 1).getRequest() instanceof GetRequest);
+    assertTokensNotAdvanced();
+    assertEquals("No request should be in flight after the cycle", 0, networkClient.getPendingRequestCount());
+
+    networkClient.onSend = null;
+    networkClient.networkErrorsByNode.clear();
+    replicateUntilCaughtUp(replicaThread);
+  }
+
+  /**
+   * Tests that a replica removed from the thread while its metadata request is in flight doesn't fetch its missing
+   * keys, while the other replicas in the same batch do, and that it isn't replicated in later cycles.
+   * @throws Exception
+   */
+  @Test
+  public void replicaRemovedWhileRequestInFlightTest() throws Exception {
+    MockNetworkClient networkClient = createNetworkClient(MESSAGE_COUNT);
+    ReplicaThread replicaThread = createReplicaThread(networkClient);
+    RemoteReplicaInfo removedReplicaInfo = remoteReplicaInfos.get(0);
+    PartitionId removedPartitionId = removedReplicaInfo.getReplicaId().getPartitionId();
+    networkClient.onSend = requestInfo -> {
+      if (requestInfo.getRequest() instanceof ReplicaMetadataRequest) {
+        replicaThread.removeRemoteReplicaInfo(removedReplicaInfo);
+      }
+    };
+
+    replicaThread.replicateWithNetworkClient();
+    assertEquals("There should be one metadata request and one GET request", 2, networkClient.sentRequests.size());
+    GetRequest getRequest = (GetRequest) networkClient.sentRequests.get(1).getRequest();
+    for (PartitionRequestInfo partitionRequestInfo : getRequest.getPartitionInfoList()) {
+      assertFalse("Removed replica should not fetch its missing keys",
+          partitionRequestInfo.getPartition().equals(removedPartitionId));
+    }
+    assertEquals("Token of removed replica should not have advanced", 0,
+        ((MockFindToken) removedReplicaInfo.getToken()).getIndex());
+    Map<PartitionId, List<MessageInfo>> missingInfos = remoteHost.getMissingInfos(localHost.infosByPartition);
+    assertEquals("Only the messages of the removed replica should be missing",
+        Collections.singleton(removedPartitionId), missingInfos.keySet());
+    assertEquals("No message of the removed replica should be written", MESSAGE_COUNT,
+        missingInfos.get(removedPartitionId).size());
+
+    networkClient.onSend = null;
+    networkClient.sentRequests.clear();
+    time.sleep(replicationConfig.replicationSyncedReplicaBackoffDurationMs);
+    replicaThread.replicateWithNetworkClient();
+    assertFalse("Other replicas should still be replicated", networkClient.sentRequests.isEmpty());
+    for (RequestInfo requestInfo : networkClient.sentRequests) {
+      if (requestInfo.getRequest() instanceof ReplicaMetadataRequest) {
+        ReplicaMetadataRequest request = (ReplicaMetadataRequest) requestInfo.getRequest();
+        for (ReplicaMetadataRequestInfo replicaMetadataRequestInfo : request.getReplicaMetadataRequestInfoList()) {
+          assertFalse("Removed replica should not be replicated",
+              replicaMetadataRequestInfo.getPartitionId().equals(removedPartitionId));
+        }
+      }
+    }
+  }
+
+  /**
+   * @param maxEntriesToReturn the maximum number of entries returned for a replica in a metadata response.
+   * @return a {@link MockNetworkClient} that answers requests from the remote host.
+   */
+  private MockNetworkClient createNetworkClient(int maxEntriesToReturn) {
+    return new MockNetworkClient(Collections.singletonMap(remoteHost.dataNodeId, remoteHost), maxEntriesToReturn,
+        time);
+  }
+
+  /**
+   * Creates a {@link ReplicaThread} that replicates all the replicas of the local host from the remote host with the
+   * given {@code networkClient}.
+   * @param networkClient the {@link MockNetworkClient} to replicate with.
+   * @return the {@link ReplicaThread}.
+   * @throws Exception
+   */
+  private ReplicaThread createReplicaThread(MockNetworkClient networkClient) throws Exception {
+    ReplicationMetrics replicationMetrics =
+        new ReplicationMetrics(new MetricRegistry(), clusterMap.getReplicaIds(localHost.dataNodeId));
+    replicationMetrics.populateSingleColoMetrics(remoteHost.dataNodeId.getDatacenterName());
+    StoreKeyConverter storeKeyConverter = getStoreKeyConverter();
+    BlobIdFactory storeKeyFactory = new BlobIdFactory(clusterMap);
+    ReplicaThread replicaThread =
+        new ReplicaThread("threadtest", new MockFindTokenHelper(storeKeyFactory, replicationConfig), clusterMap,
+            new AtomicInteger(0), localHost.dataNodeId, null, replicationConfig, replicationMetrics, null,
+            storeKeyConverter, new ValidatingTransformer(storeKeyFactory, storeKeyConverter),
+            clusterMap.getMetricRegistry(), false, localHost.dataNodeId.getDatacenterName(),
+            new ResponseHandler(clusterMap), time, null, null, null, networkClient);
+    remoteReplicaInfos = localHost.getRemoteReplicaInfos(remoteHost, null);
+    for (RemoteReplicaInfo remoteReplicaInfo : remoteReplicaInfos) {
+      replicaThread.addRemoteReplicaInfo(remoteReplicaInfo);
+    }
+    for (PartitionId partitionId : clusterMap.getAllPartitionIds(null)) {
+      replicationMetrics.addLagMetricForPartition(partitionId, true);
+    }
+    return replicaThread;
+  }
+
+  /**
+   * Runs replication cycles until no message of the remote host is missing on the local host.
+   * @param replicaThread the {@link ReplicaThread} to replicate with.
+   * @throws Exception
+   */
+  private void replicateUntilCaughtUp(ReplicaThread replicaThread) throws Exception {
+    for (int i = 0; i < MESSAGE_COUNT && !remoteHost.getMissingInfos(localHost.infosByPartition).isEmpty(); i++) {
+      replicaThread.replicateWithNetworkClient();
+    }
+    assertEquals("No message should be missing", Collections.emptyMap(),
+        remoteHost.getMissingInfos(localHost.infosByPartition));
+  }
+
+  /**
+   * Verifies that no token has advanced and no message has been written to the local host.
+   * @throws Exception
+   */
+  private void assertTokensNotAdvanced() throws Exception {
+    for (RemoteReplicaInfo remoteReplicaInfo : remoteReplicaInfos) {
+      assertEquals("Token should not have advanced", 0, ((MockFindToken) remoteReplicaInfo.getToken()).getIndex());
+    }
+    Set<PartitionId> partitionIds =
+        remoteReplicaInfos.stream().map(info -> info.getReplicaId().getPartitionId()).collect(Collectors.toSet());
+    Map<PartitionId, List<MessageInfo>> missingInfos = remoteHost.getMissingInfos(localHost.infosByPartition);
+    for (PartitionId partitionId : partitionIds) {
+      assertEquals("No message should have been written", MESSAGE_COUNT, missingInfos.get(partitionId).size());
+    }
+  }
+}
@@ -24,9 +24,13 @@ import com.github.ambry.config.RouterConfig;
 import com.github.ambry.utils.CachedHistogram;
 import com.github.ambry.utils.Pair;
 import com.github.ambry.utils.Time;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.ListIterator;
 import java.util.Map;
 import java.util.NoSuchElementException;
 
@@ -41,6 +45,10 @@ import static com.github.ambry.router.NonBlockingRouterMetrics.*;
  * towards parallelism if it has been outstanding for more than a configurable cutoff latency (via quantiles) that is
  * obtained from a {@link Histogram} with latencies of all requests of the same class. In this way it "adapts" to
  * perceived latencies.
+ *
+ * If {@link RouterConfig#routerOperationTrackerLoadAwareSelectionEnabled} is set, GET operations also rank the local
+ * replicas by the load the router currently sees on their data nodes (see {@link HostLoadTracker}), and GETs with a
+ * small enough response are hedged by sending them to the best two replicas right away, within a router wide budget.
  */
 class AdaptiveOperationTracker extends SimpleOperationTracker {
   private final RouterConfig routerConfig;
@@ -59,6 +67,16 @@ class AdaptiveOperationTracker extends SimpleOperationTracker {
   private final LinkedHashMap<ReplicaId, Pair<Boolean, Long>> unexpiredRequestSendTimes = new LinkedHashMap<>();
   private final Map<ReplicaId, Long> expiredRequestSendTimes = new HashMap<>();
 
+  // Null unless load aware selection is enabled for this operation.
+  private final HostLoadTracker hostLoadTracker;
+  private final boolean hedgingEnabled;
+  // Send times of the requests that are counted as outstanding in hostLoadTracker.
+  private final Map<ReplicaId, Long> loadTrackedRequestSendTimes = new HashMap<>();
+  private boolean hedgeTokenAcquired = false;
+  private boolean hedgeBudgetExhausted = false;
+  private boolean hedgeSent = false;
+  private boolean sendingHedge = false;
+
   /**
    * Constructs an {@link AdaptiveOperationTracker}
    * @param routerConfig The {@link RouterConfig} containing the configs for operation tracker.
@@ -70,6 +88,23 @@ class AdaptiveOperationTracker extends SimpleOperationTracker {
    */
   AdaptiveOperationTracker(RouterConfig routerConfig, NonBlockingRouterMetrics routerMetrics,
       RouterOperation routerOperation, PartitionId partitionId, String originatingDcName, Time time) {
+    this(routerConfig, routerMetrics, routerOperation, partitionId, originatingDcName, time, -1);
+  }
+
+  /**
+   * Constructs an {@link AdaptiveOperationTracker}
+   * @param routerConfig The {@link RouterConfig} containing the configs for operation tracker.
+   * @param routerMetrics The {@link NonBlockingRouterMetrics} that contains histograms used by this operation tracker.
+   * @param routerOperation The {@link RouterOperation} which {@link AdaptiveOperationTracker} is associated with.
+   * @param partitionId The partition on which the operation is performed.
+   * @param originatingDcName name of originating DC whose replicas should be tried first.
+   * @param time the {@link Time} instance to use.
+   * @param responseSizeHint the maximum size in bytes of the blob content a response of this operation can carry, or
+   *                         a negative value if it is unknown. Used to decide whether the operation may be hedged.
+   */
+  AdaptiveOperationTracker(RouterConfig routerConfig, NonBlockingRouterMetrics routerMetrics,
+      RouterOperation routerOperation, PartitionId partitionId, String originatingDcName, Time time,
+      long responseSizeHint) {
     super(routerConfig, routerOperation, partitionId, originatingDcName, true, routerMetrics);
     this.routerConfig = routerConfig;
     this.time = time;
@@ -91,6 +126,14 @@ class AdaptiveOperationTracker extends SimpleOperationTracker {
           "Operation tracker cloud replica parallelism (%s) is larger than adaptive tracker max inflight number (%s)",
           diskReplicaParallelism, routerConfig.routerOperationTrackerMaxInflightRequests));
     }
+    boolean isGetOperation = routerOperation == RouterOperation.GetBlobOperation
+        || routerOperation == RouterOperation.GetBlobInfoOperation;
+    hostLoadTracker = isGetOperation ? routerMetrics.hostLoadTracker : null;
+    hedgingEnabled = hostLoadTracker != null && responseSizeHint >= 0
+        && responseSizeHint <= routerConfig.routerOperationTrackerHedgeMaxBlobSizeBytes;
+    if (hostLoadTracker != null) {
+      hostLoadTracker.depositHedgeBudget();
+    }
   }
 
   @Override
@@ -102,8 +145,12 @@ class AdaptiveOperationTracker extends SimpleOperationTracker {
     } else {
       elapsedTime = time.milliseconds() - expiredRequestSendTimes.remove(replicaId);
     }
-    if (trackedRequestFinalState != TrackedRequestFinalState.TIMED_OUT
-        || !routerConfig.routerOperationTrackerExcludeTimeoutEnabled) {
+    boolean recordLatency = trackedRequestFinalState != TrackedRequestFinalState.TIMED_OUT
+        || !routerConfig.routerOperationTrackerExcludeTimeoutEnabled;
+    if (loadTrackedRequestSendTimes.remove(replicaId) != null) {
+      hostLoadTracker.onRequestDone(replicaId.getDataNodeId(), elapsedTime, recordLatency);
+    }
+    if (recordLatency) {
       getLatencyHistogram(replicaId).update(elapsedTime);
       if (routerConfig.routerOperationTrackerMetricScope != OperationTrackerScope.Datacenter) {
         // This is only used to report whole datacenter histogram for monitoring purpose
@@ -114,12 +161,59 @@ class AdaptiveOperationTracker extends SimpleOperationTracker {
     }
   }
 
+  @Override
+  public void releaseOutstandingRequests() {
+    if (!loadTrackedRequestSendTimes.isEmpty()) {
+      // The responses of the requests still in flight won't be tracked anymore. Stop counting them as outstanding, and
+      // use the time they have been outstanding for as a lower bound of their latency so that slow nodes that lost to
+      // a hedged request are still penalized.
+      long now = time.milliseconds();
+      loadTrackedRequestSendTimes.forEach(
+          (replicaId, sendTime) -> hostLoadTracker.onRequestDone(replicaId.getDataNodeId(), now - sendTime, true));
+      loadTrackedRequestSendTimes.clear();
+    }
+  }
+
   @Override
   public Iterator<ReplicaId> getReplicaIterator() {
+    if (hostLoadTracker != null) {
+      rankReplicasByLoad();
+    }
     replicaIterator = replicaPool.iterator();
     return otIterator;
   }
 
+  /**
+   * Orders the replicas at the head of the pool that are in the same datacenter as the first one and are not down by
+   * the load score of their data nodes, best first. The order of the rest of the pool (remote, originating and down
+   * replicas) is kept as it is. The sort is stable, so replicas with equal scores stay in their shuffled order.
+   */
+  private void rankReplicasByLoad() {
+    if (replicaPool.size() < 2) {
+      return;
+    }
+    String headDatacenter = replicaPool.getFirst().getDataNodeId().getDatacenterName();
+    List<ReplicaId> head = new ArrayList<>();
+    Map<ReplicaId, Double> scores = new HashMap<>();
+    for (ReplicaId replicaId : replicaPool) {
+      if (replicaId.isDown() || !replicaId.getDataNodeId().getDatacenterName().equals(headDatacenter)) {
+        break;
+      }
+      head.add(replicaId);
+      // take a snapshot of the scores since they may be changed by other threads while sorting.
+      scores.put(replicaId, hostLoadTracker.getScore(replicaId.getDataNodeId()));
+    }
+    if (head.size() < 2) {
+      return;
+    }
+    head.sort(Comparator.comparingDouble(scores::get));
+    ListIterator<ReplicaId> poolIterator = replicaPool.listIterator();
+    for (ReplicaId replicaId : head) {
+      poolIterator.next();
+      poolIterator.set(replicaId);
+    }
+  }
+
   /**
    * Gets the {@link Histogram} that tracks request latencies to the class of replicas (intra or inter DC) that
    * {@code replicaId} belongs to.
@@ -259,6 +353,7 @@ class AdaptiveOperationTracker extends SimpleOperationTracker {
      */
     @Override
     public boolean hasNext() {
+      sendingHedge = false;
       if (replicaIterator.hasNext()) {
         if (shouldSendRequestWithoutConsideringMetrics()) {
           return true;
@@ -266,6 +361,10 @@ class AdaptiveOperationTracker extends SimpleOperationTracker {
         if (inflightCount < routerConfig.routerOperationTrackerMaxInflightRequests && isOldestRequestPastDue()) {
           return true;
         }
+        if (shouldHedge()) {
+          sendingHedge = true;
+          return true;
+        }
       }
       return false;
     }
@@ -285,6 +384,15 @@ class AdaptiveOperationTracker extends SimpleOperationTracker {
       unexpiredRequestSendTimes.put(lastReturnedByIterator, new Pair<>(false, time.milliseconds()));
       inFlightReplicaType = lastReturnedByIterator.getReplicaType();
       inflightCount++;
+      if (hostLoadTracker != null) {
+        hostLoadTracker.onRequestSent(lastReturnedByIterator.getDataNodeId());
+        loadTrackedRequestSendTimes.put(lastReturnedByIterator, time.milliseconds());
+      }
+      if (sendingHedge) {
+        sendingHedge = false;
+        hedgeSent = true;
+        routerMetrics.hedgedRequestCount.inc();
+      }
     }
 
     @Override
@@ -310,6 +418,26 @@ class AdaptiveOperationTracker extends SimpleOperationTracker {
       }
     }
 
+    /**
+     * @return {@code true} if a hedged request should be sent, i.e. hedging is enabled for this operation, exactly one
+     *         request is in flight and nothing has succeeded yet, and the router wide hedge budget allows it. The
+     *         budget is taken at most once per operation, even if the hedged request can't be sent right away.
+     */
+    private boolean shouldHedge() {
+      if (!hedgingEnabled || hedgeSent || inflightCount != 1 || getSuccessCount() > 0
+          || inflightCount >= routerConfig.routerOperationTrackerMaxInflightRequests) {
+        return false;
+      }
+      if (!hedgeTokenAcquired && !hedgeBudgetExhausted) {
+        hedgeTokenAcquired = hostLoadTracker.tryAcquireHedge();
+        if (!hedgeTokenAcquired) {
+          hedgeBudgetExhausted = true;
+          routerMetrics.hedgeBudgetExhaustedCount.inc();
+        }
+      }
+      return hedgeTokenAcquired;
+    }
+
     /**
      * @return {@code true} if the oldest request that was sent has been outstanding for more than the cutoff latency.
      */
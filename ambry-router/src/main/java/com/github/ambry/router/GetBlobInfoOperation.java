@@ -98,8 +98,9 @@ class GetBlobInfoOperation extends GetOperation {
         cryptoJobHandler, time, isEncrypted);
     this.routerCallback = routerCallback;
     this.quotaChargeCallback = quotaChargeCallback;
+    // a blob info response doesn't carry any blob content.
     operationTracker =
-        getOperationTracker(blobId.getPartition(), blobId.getDatacenterId(), RouterOperation.GetBlobInfoOperation);
+        getOperationTracker(blobId.getPartition(), blobId.getDatacenterId(), RouterOperation.GetBlobInfoOperation, 0);
     progressTracker = new ProgressTracker(operationTracker);
     operationQuotaCharger = new OperationQuotaCharger(quotaChargeCallback, blobId, this.getClass().getSimpleName());
   }
@@ -110,6 +111,7 @@ class GetBlobInfoOperation extends GetOperation {
       NonBlockingRouter.completeOperation(null, getOperationCallback, null, abortCause);
       operationCompleted = true;
     }
+    operationTracker.releaseOutstandingRequests();
   }
 
   /**
@@ -446,6 +448,10 @@ class GetBlobInfoOperation extends GetOperation {
       operationCompleted = true;
     }
 
+    if (operationCompleted) {
+      // the responses of the requests still in flight will be ignored.
+      operationTracker.releaseOutstandingRequests();
+    }
     if (operationCompleted && operationCallbackInvoked.compareAndSet(false, true)) {
       if (quotaChargeCallback != null) {
         try {
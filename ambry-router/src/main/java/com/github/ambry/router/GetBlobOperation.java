@@ -125,6 +125,15 @@ class GetBlobOperation extends GetOperation {
   private BlobDataReadableStreamChannel blobDataChannel;
   // the CompositeBlobInfo that will be set if (and when) this blob turns out to be a composite blob.
   private CompositeBlobInfo compositeBlobInfo;
+  // the number of data chunks that may be fetched ahead of the chunk being written out. This is fixed at
+  // routerMaxInMemGetChunks unless read ahead is enabled, in which case it adapts to how fast the caller drains chunks.
+  private volatile int readAheadWindow;
+  // the max value of readAheadWindow.
+  private final int maxReadAheadWindow;
+  // the bytes of the router wide read ahead memory budget reserved by this operation.
+  private long readAheadReservedBytes = 0;
+  // whether the reserved read ahead memory budget has been given back, after which the window no longer grows.
+  private boolean readAheadBudgetReleased = false;
 
   /**
    * Construct a GetBlobOperation
@@ -153,6 +162,9 @@ class GetBlobOperation extends GetOperation {
     this.routerCallback = routerCallback;
     this.blobIdFactory = blobIdFactory;
     this.quotaChargeCallback = quotaChargeCallback;
+    readAheadWindow = routerConfig.routerMaxInMemGetChunks;
+    maxReadAheadWindow = routerConfig.routerGetReadAheadEnabled ? Math.max(routerConfig.routerMaxInMemGetChunks,
+        routerConfig.routerGetReadAheadMaxChunks) : routerConfig.routerMaxInMemGetChunks;
     firstChunk = new FirstGetChunk();
   }
 
@@ -176,6 +188,57 @@ class GetBlobOperation extends GetOperation {
         getChunk.maybeReleaseDecryptionResultBuffer();
       }
     }
+    releaseReadAheadBudget();
+  }
+
+  /**
+   * Give back the read ahead memory budget reserved by this operation to the router.
+   */
+  private synchronized void releaseReadAheadBudget() {
+    readAheadBudgetReleased = true;
+    routerMetrics.getBlobReadAheadReservedBytes.addAndGet(-readAheadReservedBytes);
+    readAheadReservedBytes = 0;
+  }
+
+  /**
+   * Adapts the read ahead window to how fast the caller drains the chunks, after a chunk has been written out. If the
+   * caller has written out every chunk retrieved so far, it is waiting on this operation, so the window grows, as long
+   * as the router wide memory budget allows. If a full window of chunks is still waiting to be written out, the caller
+   * is applying backpressure, so the window shrinks.
+   * @param numChunksWaiting the number of chunks that have been retrieved but not yet written out.
+   */
+  private synchronized void adjustReadAheadWindow(int numChunksWaiting) {
+    if (maxReadAheadWindow <= routerConfig.routerMaxInMemGetChunks || readAheadBudgetReleased) {
+      return;
+    }
+    int window = readAheadWindow;
+    if (numChunksWaiting == 0 && window < maxReadAheadWindow && numChunksRetrieved.get() < numChunksTotal) {
+      // chunks up to routerMaxInMemGetChunks are always allowed, only the ones above that are charged to the budget.
+      if (window >= routerConfig.routerMaxInMemGetChunks) {
+        // reserve with a compare and set so that the router wide reservation never exceeds the budget, not even
+        // transiently.
+        long chunkSize = routerConfig.routerMaxPutChunkSizeBytes;
+        long reservedBytes;
+        do {
+          reservedBytes = routerMetrics.getBlobReadAheadReservedBytes.get();
+          if (reservedBytes + chunkSize > routerConfig.routerGetReadAheadMemoryBudgetBytes) {
+            routerMetrics.getBlobReadAheadBudgetExhaustedCount.inc();
+            return;
+          }
+        } while (!routerMetrics.getBlobReadAheadReservedBytes.compareAndSet(reservedBytes, reservedBytes + chunkSize));
+        readAheadReservedBytes += chunkSize;
+      }
+      readAheadWindow = window + 1;
+      routerMetrics.getBlobReadAheadWindowGrowCount.inc();
+    } else if (numChunksWaiting >= window && window > 1) {
+      if (window > routerConfig.routerMaxInMemGetChunks) {
+        long chunkSize = routerConfig.routerMaxPutChunkSizeBytes;
+        readAheadReservedBytes -= chunkSize;
+        routerMetrics.getBlobReadAheadReservedBytes.addAndGet(-chunkSize);
+      }
+      readAheadWindow = window - 1;
+      routerMetrics.getBlobReadAheadWindowShrinkCount.inc();
+    }
   }
 
   /**
@@ -184,6 +247,13 @@ class GetBlobOperation extends GetOperation {
   private void setOperationCompleted() {
     operationCompleted = true;
     releaseResource();
+    // the responses of the requests that chunks still have in flight will be ignored.
+    firstChunk.releaseOutstandingRequests();
+    if (dataChunks != null) {
+      for (GetChunk getChunk : dataChunks) {
+        getChunk.releaseOutstandingRequests();
+      }
+    }
   }
 
   /**
@@ -332,15 +402,30 @@ class GetBlobOperation extends GetOperation {
         }
         // If this is a composite blob, poll for requests for subsequent chunks.
         if (dataChunks != null) {
+          int window = readAheadWindow;
+          int numChunksInProgress = 0;
+          for (GetChunk dataChunk : dataChunks) {
+            if (dataChunk.isInProgress()) {
+              numChunksInProgress++;
+            }
+          }
           for (GetChunk dataChunk : dataChunks) {
             if (dataChunk.isFree() && chunkIdIterator.hasNext()) {
               dataChunk.initialize(chunkIdIterator.nextIndex(), chunkIdIterator.next());
             }
-            if (dataChunk.isInProgress() || (dataChunk.isReady()
-                && numChunksRetrieved.get() - blobDataChannel.getNumChunksWrittenOut()
-                < routerConfig.routerMaxInMemGetChunks)) {
+            // with read ahead, there are more data chunks than the current window, so the chunks in flight are bounded
+            // by the window as well.
+            boolean wasInProgress = dataChunk.isInProgress();
+            if (wasInProgress || (dataChunk.isReady() && numChunksInProgress < window
+                && numChunksRetrieved.get() - blobDataChannel.getNumChunksWrittenOut() < window)) {
               dataChunk.poll(requestRegistrationCallback);
+              if (!wasInProgress && dataChunk.isInProgress()) {
+                numChunksInProgress++;
+              }
               if (dataChunk.isComplete()) {
+                if (wasInProgress) {
+                  numChunksInProgress--;
+                }
                 onChunkOperationComplete(dataChunk);
                 if (isOperationComplete()) {
                   break;
@@ -356,6 +441,13 @@ class GetBlobOperation extends GetOperation {
     }
   }
 
+  /**
+   * @return the number of data chunks that may currently be fetched ahead of the chunk being written out.
+   */
+  int getReadAheadWindow() {
+    return readAheadWindow;
+  }
+
   /**
    * @return the {@link OperationTracker} being used by first chunk.
    */
@@ -427,7 +519,7 @@ class GetBlobOperation extends GetOperation {
           ReferenceCountUtil.safeRelease(byteBuf);
         }
         lastChunkWrittenDoneTime.set(SystemTime.getInstance().milliseconds());
-        numChunksWrittenOut.incrementAndGet();
+        adjustReadAheadWindow(numChunksRetrieved.get() - numChunksWrittenOut.incrementAndGet());
         routerCallback.onPollReady();
       }
     };
@@ -686,8 +778,11 @@ class GetBlobOperation extends GetOperation {
       chunkBlobId = (BlobId) chunkMetadata.getStoreKey();
       offset = chunkMetadata.getOffset();
       chunkSize = chunkMetadata.getSize();
+      // The size of the first chunk isn't known yet, but it's either a simple blob or a metadata blob, both of which
+      // are at most a chunk.
+      long responseSizeHint = chunkSize >= 0 ? chunkSize : routerConfig.routerMaxPutChunkSizeBytes;
       chunkOperationTracker = getOperationTracker(chunkBlobId.getPartition(), chunkBlobId.getDatacenterId(),
-          RouterOperation.GetBlobOperation);
+          RouterOperation.GetBlobOperation, responseSizeHint);
       progressTracker = new ProgressTracker(chunkOperationTracker);
       state = ChunkState.Ready;
     }
@@ -822,6 +917,15 @@ class GetBlobOperation extends GetOperation {
       }
     }
 
+    /**
+     * Stop accounting for the requests of this chunk that are still in flight, if it was assigned a chunk.
+     */
+    void releaseOutstandingRequests() {
+      if (chunkOperationTracker != null) {
+        chunkOperationTracker.releaseOutstandingRequests();
+      }
+    }
+
     /**
      * Maybe release the bytebuf in the decryption result. This is used in {@link #releaseResource()} when releasing
      * the resource, if we have just finished a decryption task, and not yet called poll method to add the decryption
@@ -909,6 +1013,8 @@ class GetBlobOperation extends GetOperation {
         chunkCompleted = true;
       }
       if (chunkCompleted) {
+        // the responses of the requests still in flight will be ignored.
+        releaseOutstandingRequests();
         if (state != ChunkState.Complete && quotaChargeCallback != null && chunkException == null) {
           try {
             if (chunkSize != -1) {
@@ -1570,7 +1676,7 @@ class GetBlobOperation extends GetOperation {
       } else {
         chunkIdIterator = chunkMetadataList.listIterator();
         numChunksTotal = chunkMetadataList.size();
-        dataChunks = new GetChunk[Math.min(chunkMetadataList.size(), routerConfig.routerMaxInMemGetChunks)];
+        dataChunks = new GetChunk[Math.min(chunkMetadataList.size(), maxReadAheadWindow)];
         for (int i = 0; i < dataChunks.length; i++) {
           int idx = chunkIdIterator.nextIndex();
           CompositeBlobInfo.ChunkMetadata keyAndOffset = chunkIdIterator.next();
@@ -228,10 +228,12 @@ abstract class GetOperation {
    * @param partitionId the {@link PartitionId} for which a tracker is required.
    * @param datacenterId the id of datacenter in which the blob originated.
    * @param routerOperation The type of router operation used by tracker.
+   * @param responseSizeHint the maximum size in bytes of the blob content a response can carry, or a negative value if
+   *                         it is unknown.
    * @return an {@link OperationTracker} based on the config and {@code partitionId}.
    */
   protected OperationTracker getOperationTracker(PartitionId partitionId, byte datacenterId,
-      RouterOperation routerOperation) {
+      RouterOperation routerOperation, long responseSizeHint) {
     OperationTracker operationTracker;
     String trackerType = routerConfig.routerGetOperationTrackerType;
     String originatingDcName = clusterMap.getDatacenterName(datacenterId);
@@ -241,7 +243,7 @@ abstract class GetOperation {
     } else if (trackerType.equals(AdaptiveOperationTracker.class.getSimpleName())) {
       operationTracker =
           new AdaptiveOperationTracker(routerConfig, routerMetrics, routerOperation, partitionId, originatingDcName,
-              time);
+              time, responseSizeHint);
     } else {
       throw new IllegalArgumentException("Unrecognized tracker type: " + trackerType);
     }
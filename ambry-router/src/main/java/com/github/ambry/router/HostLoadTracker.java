@@ -0,0 +1,135 @@
+/*
+ * Copyright 2021 LinkedIn Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ */
+package com.github.ambry.router;
+
+import com.github.ambry.clustermap.DataNodeId;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+
+/**
+ * Tracks the load that this router sees on each data node: an exponentially weighted moving average (EWMA) of the
+ * request latency to the node and the number of requests currently outstanding to it. It also holds the router wide
+ * budget for hedged requests. A single instance is shared by the operation trackers of all the operation controllers
+ * of a router, so it is thread safe.
+ */
+class HostLoadTracker {
+  // Upper bound of the hedge budget, so that a long quiet period doesn't allow a burst of hedged requests.
+  static final double MAX_HEDGE_TOKENS = 100;
+
+  private final double latencyEwmaAlpha;
+  private final double hedgeBudgetRatio;
+  private final ConcurrentMap<DataNodeId, HostLoad> hostLoads = new ConcurrentHashMap<>();
+  private double hedgeTokens = 0;
+
+  /**
+   * @param latencyEwmaAlpha the weight of the most recent latency sample in the latency EWMA.
+   * @param hedgeBudgetRatio the number of hedge tokens added by each operation.
+   */
+  HostLoadTracker(double latencyEwmaAlpha, double hedgeBudgetRatio) {
+    this.latencyEwmaAlpha = latencyEwmaAlpha;
+    this.hedgeBudgetRatio = hedgeBudgetRatio;
+  }
+
+  /**
+   * Records that a request was sent to {@code dataNodeId}.
+   * @param dataNodeId the {@link DataNodeId} the request was sent to.
+   */
+  void onRequestSent(DataNodeId dataNodeId) {
+    hostLoads.computeIfAbsent(dataNodeId, k -> new HostLoad()).onRequestSent();
+  }
+
+  /**
+   * Records that a request to {@code dataNodeId} is no longer outstanding.
+   * @param dataNodeId the {@link DataNodeId} the request was sent to.
+   * @param latencyMs the time in ms the request has been outstanding for. If the request was abandoned before it
+   *                  completed, this is a lower bound of its latency, which still penalizes slow nodes.
+   * @param recordLatency {@code true} if {@code latencyMs} should be added to the latency EWMA of the node.
+   */
+  void onRequestDone(DataNodeId dataNodeId, long latencyMs, boolean recordLatency) {
+    hostLoads.computeIfAbsent(dataNodeId, k -> new HostLoad())
+        .onRequestDone(recordLatency ? latencyMs : -1, latencyEwmaAlpha);
+  }
+
+  /**
+   * @param dataNodeId the {@link DataNodeId} to get the score of.
+   * @return the estimated time in ms a new request to {@code dataNodeId} would take, the lower the better. Nodes that
+   *         this router hasn't received any response from yet have a score of 0, so that they get explored.
+   */
+  double getScore(DataNodeId dataNodeId) {
+    HostLoad hostLoad = hostLoads.get(dataNodeId);
+    return hostLoad == null ? 0 : hostLoad.getScore();
+  }
+
+  /**
+   * @param dataNodeId the {@link DataNodeId} to get the outstanding request count of.
+   * @return the number of requests outstanding to {@code dataNodeId}.
+   */
+  int getOutstandingRequestCount(DataNodeId dataNodeId) {
+    HostLoad hostLoad = hostLoads.get(dataNodeId);
+    return hostLoad == null ? 0 : hostLoad.getOutstanding();
+  }
+
+  /**
+   * Adds the budget for hedged requests that a single operation earns.
+   */
+  synchronized void depositHedgeBudget() {
+    hedgeTokens = Math.min(MAX_HEDGE_TOKENS, hedgeTokens + hedgeBudgetRatio);
+  }
+
+  /**
+   * Takes the budget for a single hedged request, if there is enough.
+   * @return {@code true} if a hedged request can be sent.
+   */
+  synchronized boolean tryAcquireHedge() {
+    if (hedgeTokens >= 1) {
+      hedgeTokens -= 1;
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * The load of a single data node.
+   */
+  private static class HostLoad {
+    private int outstanding = 0;
+    private double ewmaLatencyMs = 0;
+    private boolean hasLatency = false;
+
+    synchronized void onRequestSent() {
+      outstanding++;
+    }
+
+    /**
+     * @param latencyMs the latency sample to add to the EWMA. Negative if there is no sample to add.
+     * @param alpha the weight of the sample.
+     */
+    synchronized void onRequestDone(long latencyMs, double alpha) {
+      outstanding = Math.max(0, outstanding - 1);
+      if (latencyMs >= 0) {
+        ewmaLatencyMs = hasLatency ? alpha * latencyMs + (1 - alpha) * ewmaLatencyMs : latencyMs;
+        hasLatency = true;
+      }
+    }
+
+    synchronized double getScore() {
+      return ewmaLatencyMs * (outstanding + 1);
+    }
+
+    synchronized int getOutstanding() {
+      return outstanding;
+    }
+  }
+}
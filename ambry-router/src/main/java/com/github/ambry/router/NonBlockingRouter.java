@@ -15,6 +15,7 @@ package com.github.ambry.router;
 
 import com.github.ambry.account.AccountService;
 import com.github.ambry.clustermap.ClusterMap;
+import com.github.ambry.clustermap.PartitionId;
 import com.github.ambry.commons.BlobId;
 import com.github.ambry.commons.Callback;
 import com.github.ambry.commons.ResponseHandler;
@@ -37,6 +38,7 @@ import java.util.concurrent.Future;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -53,6 +55,10 @@ class NonBlockingRouter implements Router {
   private final ArrayList<OperationController> ocList;
   private final BackgroundDeleter backgroundDeleter;
   private final int ocCount;
+  // Number of operations dispatched to each of the first ocCount operation controllers.
+  private final AtomicLong[] ocDispatchCounts;
+  private final boolean partitionAffinityEnabled;
+  private final ClusterMap clusterMap;
   // Shared with the operation managers.
   private final NonBlockingRouterMetrics routerMetrics;
   private final KeyManagementService kms;
@@ -89,13 +95,17 @@ class NonBlockingRouter implements Router {
     ResponseHandler responseHandler = new ResponseHandler(clusterMap);
     this.kms = kms;
     this.cryptoJobHandler = cryptoJobHandler;
+    this.clusterMap = clusterMap;
     ocCount = routerConfig.routerScalingUnitCount;
+    partitionAffinityEnabled = routerConfig.routerOperationControllerPartitionAffinityEnabled;
+    ocDispatchCounts = new AtomicLong[ocCount];
     ocList = new ArrayList<>();
     for (int i = 0; i < ocCount; i++) {
       ocList.add(
           Utils.getObj(routerConfig.operationController, Integer.toString(i), defaultPartitionClass, accountService,
               networkClientFactory, clusterMap, routerConfig, responseHandler, notificationSystem, routerMetrics, kms,
               cryptoService, cryptoJobHandler, time, this));
+      ocDispatchCounts[i] = new AtomicLong(0);
     }
     backgroundDeleter =
         new BackgroundDeleter(accountService, networkClientFactory, clusterMap, routerConfig, responseHandler,
@@ -104,6 +114,7 @@ class NonBlockingRouter implements Router {
     ocList.forEach(OperationController::start);
     routerMetrics.initializeNumActiveOperationsMetrics(currentOperationsCount, currentBackgroundOperationsCount,
         backgroundDeleter.getConcurrentBackgroundDeleteOperationCount());
+    routerMetrics.initializeOperationControllerDispatchMetrics(ocDispatchCounts);
     resourcesToClose = new ArrayList<>();
   }
 
@@ -177,7 +188,67 @@ class NonBlockingRouter implements Router {
    * @return a randomly picked {@link OperationController} from the list of OperationControllers.
    */
   private OperationController getOperationController() {
-    return ocList.get(ThreadLocalRandom.current().nextInt(ocCount));
+    return getOperationController(ThreadLocalRandom.current().nextInt(ocCount));
+  }
+
+  /**
+   * Returns the {@link OperationController} to use for an operation on the given blob. If partition affinity is
+   * enabled, this is the controller that the partition of the blob consistently hashes to, otherwise a random one.
+   * @param blobIdStr the ID of the blob the operation is on.
+   * @return the {@link OperationController} to use.
+   */
+  private OperationController getOperationController(String blobIdStr) {
+    if (partitionAffinityEnabled && ocCount > 1) {
+      try {
+        PartitionId partitionId = new BlobId(blobIdStr, clusterMap).getPartition();
+        return getOperationController(getOperationControllerIndex(partitionId.toPathString(), ocCount));
+      } catch (Exception e) {
+        // invalid blob ids are reported by the operation itself, any controller can do that.
+        logger.trace("Could not get partition of blob {}, picking a random operation controller", blobIdStr, e);
+      }
+    }
+    return getOperationController();
+  }
+
+  /**
+   * @param index the index of the {@link OperationController}. Must be less than {@link #ocCount}.
+   * @return the {@link OperationController} at {@code index}, after recording the dispatch.
+   */
+  private OperationController getOperationController(int index) {
+    ocDispatchCounts[index].incrementAndGet();
+    return ocList.get(index);
+  }
+
+  /**
+   * Picks one of {@code count} operation controllers for {@code key} with rendezvous (highest random weight) hashing,
+   * so that the same key always maps to the same controller and keys are spread evenly.
+   * @param key the key to hash, e.g. the path string of a partition.
+   * @param count the number of operation controllers.
+   * @return the index of the operation controller, in {@code [0, count)}.
+   */
+  static int getOperationControllerIndex(String key, int count) {
+    long keyHash = key.hashCode();
+    int bestIndex = 0;
+    long bestWeight = Long.MIN_VALUE;
+    for (int i = 0; i < count; i++) {
+      long weight = mix(keyHash * 31 + i);
+      if (weight > bestWeight) {
+        bestWeight = weight;
+        bestIndex = i;
+      }
+    }
+    return bestIndex;
+  }
+
+  /**
+   * The 64 bit finalizer of MurmurHash3, used to turn a key and controller index into a well distributed weight.
+   * @param value the value to mix.
+   * @return the mixed value.
+   */
+  private static long mix(long value) {
+    value = (value ^ (value >>> 33)) * 0xff51afd7ed558ccdL;
+    value = (value ^ (value >>> 33)) * 0xc4ceb9fe1a85ec53L;
+    return value ^ (value >>> 33);
   }
 
   /**
@@ -202,7 +273,7 @@ class NonBlockingRouter implements Router {
     routerMetrics.operationQueuingRate.mark();
     try {
       if (isOpen.get()) {
-        getOperationController().getBlob(blobIdStr, internalOptions, (internalResult, exception) -> {
+        getOperationController(blobIdStr).getBlob(blobIdStr, internalOptions, (internalResult, exception) -> {
           GetBlobResult getBlobResult = internalResult == null ? null : internalResult.getBlobResult;
           futureResult.done(getBlobResult, exception);
           if (callback != null) {
@@ -316,7 +387,7 @@ class NonBlockingRouter implements Router {
     if (isOpen.get()) {
       // Can skip attemptChunkDeletes if we can determine this is not a metadata blob
       boolean attemptChunkDeletes = isMaybeMetadataBlob(blobId);
-      getOperationController().deleteBlob(blobId, serviceId, futureResult, callback, attemptChunkDeletes,
+      getOperationController(blobId).deleteBlob(blobId, serviceId, futureResult, callback, attemptChunkDeletes,
           quotaChargeCallback);
       if (!attemptChunkDeletes) {
         routerMetrics.skippedGetBlobCount.inc();
@@ -349,7 +420,7 @@ class NonBlockingRouter implements Router {
     routerMetrics.operationQueuingRate.mark();
     FutureResult<Void> futureResult = new FutureResult<>();
     if (isOpen.get()) {
-      getOperationController().undeleteBlob(blobId, serviceId, futureResult, callback, quotaChargeCallback);
+      getOperationController(blobId).undeleteBlob(blobId, serviceId, futureResult, callback, quotaChargeCallback);
     } else {
       RouterException routerException =
           new RouterException("Cannot accept operation because Router is closed", RouterErrorCode.RouterClosed);
@@ -381,7 +452,7 @@ class NonBlockingRouter implements Router {
     routerMetrics.operationQueuingRate.mark();
     FutureResult<Void> futureResult = new FutureResult<>();
     if (isOpen.get()) {
-      getOperationController().updateBlobTtl(blobId, serviceId, expiresAtMs, futureResult, callback,
+      getOperationController(blobId).updateBlobTtl(blobId, serviceId, expiresAtMs, futureResult, callback,
           quotaChargeCallback);
     } else {
       RouterException routerException =
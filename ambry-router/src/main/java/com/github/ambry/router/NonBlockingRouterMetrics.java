@@ -38,6 +38,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -209,6 +210,14 @@ public class NonBlockingRouterMetrics {
   public final Counter failedOnOriginatingDcNotFoundCount;
   public final Counter failedOnTotalNotFoundCount;
 
+  public final Counter hedgedRequestCount;
+  public final Counter hedgeBudgetExhaustedCount;
+  public final Counter putLoadAwarePartitionSwitchCount;
+
+  public final Counter getBlobReadAheadWindowGrowCount;
+  public final Counter getBlobReadAheadWindowShrinkCount;
+  public final Counter getBlobReadAheadBudgetExhaustedCount;
+
   // Workload characteristics
   public final AgeAtAccessMetrics ageAtGet;
   public final AgeAtAccessMetrics ageAtDelete;
@@ -228,6 +237,17 @@ public class NonBlockingRouterMetrics {
 
   Map<Resource, CachedHistogram> putBlobResourceToLatency = new HashMap<>();
 
+  // Load of the data nodes as seen by this router, shared by the adaptive trackers of GET operations. Null if load
+  // aware selection is disabled.
+  final HostLoadTracker hostLoadTracker;
+
+  // PUT latencies of the data nodes as seen by this router, used to choose between two candidate partitions for a PUT.
+  // Null if load aware partition selection is disabled.
+  final HostLoadTracker putHostLoadTracker;
+
+  // Bytes of the read ahead memory budget currently reserved by the GetBlobOperations of this router.
+  final AtomicLong getBlobReadAheadReservedBytes = new AtomicLong(0);
+
   // Map that stores dataNode-level metrics.
   private final Map<DataNodeId, NodeLevelMetrics> dataNodeToMetrics;
   private final RouterConfig routerConfig;
@@ -492,6 +512,25 @@ public class NonBlockingRouterMetrics {
         metricRegistry.counter(MetricRegistry.name(SimpleOperationTracker.class, "FailedOnOriginatingDcNotFoundCount"));
     failedOnTotalNotFoundCount =
         metricRegistry.counter(MetricRegistry.name(SimpleOperationTracker.class, "FailedOnTotalNotFoundCount"));
+    hedgedRequestCount =
+        metricRegistry.counter(MetricRegistry.name(AdaptiveOperationTracker.class, "HedgedRequestCount"));
+    hedgeBudgetExhaustedCount =
+        metricRegistry.counter(MetricRegistry.name(AdaptiveOperationTracker.class, "HedgeBudgetExhaustedCount"));
+    hostLoadTracker = routerConfig != null && routerConfig.routerOperationTrackerLoadAwareSelectionEnabled
+        ? new HostLoadTracker(routerConfig.routerOperationTrackerLatencyEwmaAlpha,
+        routerConfig.routerOperationTrackerHedgeBudgetRatio) : null;
+    putLoadAwarePartitionSwitchCount =
+        metricRegistry.counter(MetricRegistry.name(PutOperation.class, "LoadAwarePartitionSwitchCount"));
+    putHostLoadTracker = routerConfig != null && routerConfig.routerPutLoadAwarePartitionSelectionEnabled
+        ? new HostLoadTracker(routerConfig.routerOperationTrackerLatencyEwmaAlpha, 0) : null;
+    getBlobReadAheadWindowGrowCount =
+        metricRegistry.counter(MetricRegistry.name(GetBlobOperation.class, "ReadAheadWindowGrowCount"));
+    getBlobReadAheadWindowShrinkCount =
+        metricRegistry.counter(MetricRegistry.name(GetBlobOperation.class, "ReadAheadWindowShrinkCount"));
+    getBlobReadAheadBudgetExhaustedCount =
+        metricRegistry.counter(MetricRegistry.name(GetBlobOperation.class, "ReadAheadBudgetExhaustedCount"));
+    metricRegistry.gauge(MetricRegistry.name(GetBlobOperation.class, "ReadAheadReservedBytes"),
+        () -> getBlobReadAheadReservedBytes::get);
 
     // Workload
     ageAtGet = new AgeAtAccessMetrics(metricRegistry, "OnGet");
@@ -676,6 +715,28 @@ public class NonBlockingRouterMetrics {
         (Gauge<Integer>) concurrentBackgroundDeleteOperationCount::get);
   }
 
+  /**
+   * Initializes the metrics that show how operations are spread over the operation controllers of the router.
+   * @param dispatchCounts the number of operations dispatched to each operation controller so far.
+   */
+  void initializeOperationControllerDispatchMetrics(final AtomicLong[] dispatchCounts) {
+    for (int i = 0; i < dispatchCounts.length; i++) {
+      metricRegistry.register(MetricRegistry.name(OperationController.class, "DispatchedOperationCount" + i),
+          (Gauge<Long>) dispatchCounts[i]::get);
+    }
+    // the ratio of the busiest operation controller's dispatched operations to the average, 1.0 when perfectly even.
+    metricRegistry.register(MetricRegistry.name(OperationController.class, "DispatchSkew"), (Gauge<Double>) () -> {
+      long max = 0;
+      long total = 0;
+      for (AtomicLong dispatchCount : dispatchCounts) {
+        long count = dispatchCount.get();
+        max = Math.max(max, count);
+        total += count;
+      }
+      return total == 0 ? 1.0 : (double) max * dispatchCounts.length / total;
+    });
+  }
+
   /**
    * @return the MetricRegistry being used in {@link NonBlockingRouterMetrics}
    */
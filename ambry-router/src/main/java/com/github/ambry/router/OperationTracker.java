@@ -86,4 +86,11 @@ interface OperationTracker {
    * @return An iterator that iterates all possible and valid replicas.
    */
   Iterator<ReplicaId> getReplicaIterator();
+
+  /**
+   * Stops accounting for the requests of this operation that are still in flight. Must be invoked once the operation
+   * stops tracking responses, whether it completed or was aborted, since their responses will not be passed to
+   * {@link #onResponse(ReplicaId, TrackedRequestFinalState)}. Invoking it more than once has no further effect.
+   */
+  void releaseOutstandingRequests();
 }
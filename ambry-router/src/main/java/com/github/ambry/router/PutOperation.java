@@ -1503,6 +1503,11 @@ class PutOperation {
           // response and the response handler will be notified accordingly.
           setChunkException(
               RouterUtils.buildTimeoutException(correlationId, info.replicaId.getDataNodeId(), chunkBlobId));
+          if (routerMetrics.putHostLoadTracker != null) {
+            // the time waited so far is a lower bound of the latency, which still penalizes the slow node.
+            routerMetrics.putHostLoadTracker.onRequestDone(info.replicaId.getDataNodeId(),
+                time.milliseconds() - info.startTimeMs, true);
+          }
           requestRegistrationCallback.registerRequestToDrop(correlationId);
           inFlightRequestsIterator.remove();
         } else {
@@ -1556,7 +1561,8 @@ class PutOperation {
     }
 
     /**
-     * Choose a random {@link PartitionId} for putting the current chunk and return it.
+     * Choose a random {@link PartitionId} for putting the current chunk and return it. If load aware partition
+     * selection is enabled, two random partitions are sampled and the less loaded one is returned.
      * @param partitionClass the partition class to choose partitions from.
      * @param partitionIdsToExclude the list of {@link PartitionId}s that should be excluded from consideration.
      * @return the chosen {@link PartitionId}
@@ -1569,6 +1575,16 @@ class PutOperation {
         throw new RouterException("No writable partitions of class '" + partitionClass + "' or default available.",
             RouterErrorCode.AmbryUnavailable);
       }
+      if (routerMetrics.putHostLoadTracker != null) {
+        List<PartitionId> candidatesToExclude = new ArrayList<>(partitionIdsToExclude);
+        candidatesToExclude.add(selected);
+        PartitionId candidate = clusterMap.getRandomWritablePartition(partitionClass, candidatesToExclude);
+        if (candidate != null && candidate.getPartitionClass().equals(selected.getPartitionClass())
+            && getPutLoadScore(candidate) < getPutLoadScore(selected)) {
+          routerMetrics.putLoadAwarePartitionSwitchCount.inc();
+          selected = candidate;
+        }
+      }
       if (!partitionClass.equals(selected.getPartitionClass())) {
         logger.warn(
             "{}: No partitions for partitionClass='{}' found, partitionClass='{}' used instead. blobProperties={}",
@@ -1578,6 +1594,25 @@ class PutOperation {
       return selected;
     }
 
+    /**
+     * @param partitionId the {@link PartitionId} to score.
+     * @return the estimated PUT latency of {@code partitionId}: the highest latency EWMA among the data nodes of its
+     *         local replicas, or {@link Double#MAX_VALUE} if any of its local replicas is down. The lower the better.
+     */
+    private double getPutLoadScore(PartitionId partitionId) {
+      double score = 0;
+      for (ReplicaId replicaId : partitionId.getReplicaIds()) {
+        if (!replicaId.getDataNodeId().getDatacenterName().equals(routerConfig.routerDatacenterName)) {
+          continue;
+        }
+        if (replicaId.isDown()) {
+          return Double.MAX_VALUE;
+        }
+        score = Math.max(score, routerMetrics.putHostLoadTracker.getScore(replicaId.getDataNodeId()));
+      }
+      return score;
+    }
+
     /**
      * This method is the entry point for handling responses received for requests sent out on behalf of this chunk.
      * For puts, processing involves determining whether the request was successful, notifying the operation
@@ -1603,6 +1638,10 @@ class PutOperation {
       routerMetrics.routerRequestLatencyMs.update(requestLatencyMs);
       routerMetrics.getDataNodeBasedMetrics(chunkPutRequestInfo.replicaId.getDataNodeId()).putRequestLatencyMs.update(
           requestLatencyMs);
+      if (routerMetrics.putHostLoadTracker != null && responseInfo.getError() == null) {
+        routerMetrics.putHostLoadTracker.onRequestDone(chunkPutRequestInfo.replicaId.getDataNodeId(),
+            requestLatencyMs, true);
+      }
       boolean isSuccessful;
       TrackedRequestFinalState putRequestFinalState = null;
       if (responseInfo.getError() != null) {
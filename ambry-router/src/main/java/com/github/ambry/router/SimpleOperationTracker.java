@@ -431,6 +431,11 @@ class SimpleOperationTracker implements OperationTracker {
     return otIterator;
   }
 
+  @Override
+  public void releaseOutstandingRequests() {
+    // in flight requests are not accounted for outside of this tracker.
+  }
+
   private class OpTrackerIterator implements Iterator<ReplicaId> {
     @Override
     public boolean hasNext() {
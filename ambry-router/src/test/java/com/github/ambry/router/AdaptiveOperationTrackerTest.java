@@ -791,6 +791,83 @@ public class AdaptiveOperationTrackerTest {
     }
   }
 
+  /**
+   * Tests that with load aware selection, local replicas are ranked by the load of their data nodes and that GETs with a
+   * small response are hedged to the best two replicas within the router wide hedge budget.
+   */
+  @Test
+  public void loadAwareSelectionAndHedgingTest() {
+    List<Port> portList = Collections.singletonList(new Port(PORT, PortType.PLAINTEXT));
+    List<String> mountPaths = Collections.singletonList("mockMountPath0");
+    MockPartitionId partition = new MockPartitionId();
+    List<MockDataNodeId> localNodes = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      MockDataNodeId dataNodeId = new MockDataNodeId("host" + i, portList, mountPaths, localDcName);
+      localNodes.add(dataNodeId);
+      partition.replicaIds.add(new MockReplicaId(PORT, partition, dataNodeId, 0));
+    }
+    Properties props = new Properties();
+    props.setProperty("router.hostname", "localhost");
+    props.setProperty("router.datacenter.name", localDcName);
+    props.setProperty("router.get.request.parallelism", "1");
+    props.setProperty("router.operation.tracker.max.inflight.requests", "2");
+    props.setProperty(RouterConfig.ROUTER_OPERATION_TRACKER_LOAD_AWARE_SELECTION_ENABLED, "true");
+    props.setProperty(RouterConfig.ROUTER_OPERATION_TRACKER_HEDGE_BUDGET_RATIO, "0.5");
+    RouterConfig routerConfig = new RouterConfig(new VerifiableProperties(props));
+    routerMetrics = new NonBlockingRouterMetrics(mockClusterMap, routerConfig);
+    HostLoadTracker hostLoadTracker = routerMetrics.hostLoadTracker;
+    assertNotNull("Host load tracker should be created", hostLoadTracker);
+    // host1 is the fastest, then host2, then host0
+    long[] latencies = {100, 10, 50};
+    for (int i = 0; i < latencies.length; i++) {
+      hostLoadTracker.onRequestSent(localNodes.get(i));
+      hostLoadTracker.onRequestDone(localNodes.get(i), latencies[i], true);
+    }
+
+    // the first operation only earns half a hedge token, so it can't hedge
+    OperationTracker ot = new AdaptiveOperationTracker(routerConfig, routerMetrics, RouterOperation.GetBlobOperation,
+        partition, null, time, 1024);
+    sendRequests(ot, 1);
+    ReplicaId replicaId = partitionAndInflightReplicas.get(partition).poll();
+    assertEquals("The least loaded replica should be tried first", localNodes.get(1), replicaId.getDataNodeId());
+    assertEquals("Hedge budget should be exhausted", 1, routerMetrics.hedgeBudgetExhaustedCount.getCount());
+    ot.onResponse(replicaId, TrackedRequestFinalState.SUCCESS);
+    assertTrue("Operation should have succeeded", ot.isDone());
+    repetitionTracker.clear();
+
+    // the second operation can hedge to the two least loaded replicas
+    ot = new AdaptiveOperationTracker(routerConfig, routerMetrics, RouterOperation.GetBlobOperation, partition, null,
+        time, 1024);
+    sendRequests(ot, 2);
+    assertEquals("Hedged request count is not as expected", 1, routerMetrics.hedgedRequestCount.getCount());
+    ReplicaId first = partitionAndInflightReplicas.get(partition).poll();
+    ReplicaId second = partitionAndInflightReplicas.get(partition).poll();
+    assertEquals("Unexpected first replica", localNodes.get(1), first.getDataNodeId());
+    assertEquals("Unexpected hedged replica", localNodes.get(2), second.getDataNodeId());
+    assertEquals("Request to host2 should be outstanding", 1,
+        hostLoadTracker.getOutstandingRequestCount(localNodes.get(2)));
+    ot.onResponse(first, TrackedRequestFinalState.SUCCESS);
+    assertTrue("Operation should have succeeded", ot.isDone());
+    assertEquals("Request to host2 should be outstanding until the operation releases it", 1,
+        hostLoadTracker.getOutstandingRequestCount(localNodes.get(2)));
+    ot.releaseOutstandingRequests();
+    assertEquals("Request to host2 should no longer be counted once the operation is done", 0,
+        hostLoadTracker.getOutstandingRequestCount(localNodes.get(2)));
+    ot.releaseOutstandingRequests();
+    assertEquals("Releasing again should have no effect", 0,
+        hostLoadTracker.getOutstandingRequestCount(localNodes.get(2)));
+    repetitionTracker.clear();
+
+    // an operation whose response size is unknown is never hedged
+    for (int i = 0; i < 4; i++) {
+      hostLoadTracker.depositHedgeBudget();
+    }
+    ot = new AdaptiveOperationTracker(routerConfig, routerMetrics, RouterOperation.GetBlobOperation, partition, null,
+        time);
+    sendRequests(ot, 1);
+    assertEquals("Hedged request count should not change", 1, routerMetrics.hedgedRequestCount.getCount());
+  }
+
   // helpers
 
   // general
@@ -544,6 +544,52 @@ public class GetBlobInfoOperationTest {
         correlationIdToGetOperation.size() >= 3);
   }
 
+  /**
+   * Test that the requests still in flight when a Blob_Deleted response completes the operation are no longer counted
+   * as outstanding by the {@link HostLoadTracker}.
+   * @throws Exception
+   */
+  @Test
+  public void testOutstandingRequestsReleasedOnBlobDeleted() throws Exception {
+    assumeTrue(operationTrackerType.equals(AdaptiveOperationTracker.class.getSimpleName()));
+    Properties props = getNonBlockingRouterProperties(true);
+    props.setProperty(RouterConfig.ROUTER_OPERATION_TRACKER_LOAD_AWARE_SELECTION_ENABLED, "true");
+    RouterConfig loadAwareRouterConfig = new RouterConfig(new VerifiableProperties(props));
+    NonBlockingRouterMetrics loadAwareRouterMetrics =
+        new NonBlockingRouterMetrics(mockClusterMap, loadAwareRouterConfig);
+    HostLoadTracker hostLoadTracker = loadAwareRouterMetrics.hostLoadTracker;
+    mockServerLayout.getMockServers()
+        .forEach(server -> server.setServerErrorForAllRequests(ServerErrorCode.Blob_Deleted));
+
+    NonBlockingRouter.currentOperationsCount.incrementAndGet();
+    GetBlobInfoOperation op =
+        new GetBlobInfoOperation(loadAwareRouterConfig, loadAwareRouterMetrics, mockClusterMap, responseHandler,
+            blobId, options, null, routerCallback, kms, cryptoService, cryptoJobHandler, time, false,
+            quotaChargeCallback);
+    requestRegistrationCallback.setRequestsToSend(new ArrayList<>());
+    op.poll(requestRegistrationCallback);
+    List<RequestInfo> requests = new ArrayList<>(requestRegistrationCallback.getRequestsToSend());
+    Assert.assertEquals("There should only be as many requests at this point as requestParallelism",
+        requestParallelism, requests.size());
+    for (RequestInfo requestInfo : requests) {
+      Assert.assertEquals("Request should be outstanding", 1,
+          hostLoadTracker.getOutstandingRequestCount(requestInfo.getReplicaId().getDataNodeId()));
+    }
+
+    // the first response completes the operation while the other request is still in flight.
+    List<ResponseInfo> responses = sendAndWaitForResponses(requestRegistrationCallback.getRequestsToSend());
+    ResponseInfo responseInfo = responses.get(0);
+    op.handleResponse(responseInfo,
+        GetResponse.readFrom(new NettyByteBufDataInputStream(responseInfo.content()), mockClusterMap));
+    Assert.assertTrue("Operation should be complete", op.isOperationComplete());
+    Assert.assertEquals(RouterErrorCode.BlobDeleted, ((RouterException) op.getOperationException()).getErrorCode());
+    for (RequestInfo requestInfo : requests) {
+      Assert.assertEquals("Request should no longer be counted as outstanding", 0,
+          hostLoadTracker.getOutstandingRequestCount(requestInfo.getReplicaId().getDataNodeId()));
+    }
+    responses.forEach(ResponseInfo::release);
+  }
+
   /**
    * Test the case with Blob_Not_Found errors from most servers, and Blob_Deleted, Blob_Expired or
    * Blob_Authorization_Failure at just one server. The latter should be the exception received for the operation.
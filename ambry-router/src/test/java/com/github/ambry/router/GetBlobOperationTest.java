@@ -546,6 +546,108 @@ public class GetBlobOperationTest {
     }
   }
 
+  /**
+   * Put composite blobs and get them with adaptive read ahead enabled; ensure success and that the read ahead memory
+   * budget is given back once the operations complete.
+   */
+  @Test
+  public void testCompositeBlobGetWithReadAhead() throws Exception {
+    Properties props = getDefaultNonBlockingRouterProperties(true);
+    props.setProperty(RouterConfig.ROUTER_GET_READ_AHEAD_ENABLED, "true");
+    props.setProperty(RouterConfig.ROUTER_GET_READ_AHEAD_MAX_CHUNKS, "8");
+    props.setProperty(RouterConfig.ROUTER_GET_READ_AHEAD_MEMORY_BUDGET_BYTES, Long.toString(2L * maxChunkSize));
+    routerConfig = new RouterConfig(new VerifiableProperties(props));
+    for (int i = 2; i < 20; i += 4) {
+      blobSize = maxChunkSize * i + random.nextInt(maxChunkSize - 1) + 1;
+      doPut();
+      getAndAssertSuccess();
+      Assert.assertEquals("Read ahead budget should have been released", 0,
+          routerMetrics.getBlobReadAheadReservedBytes.get());
+    }
+    routerConfig = new RouterConfig(new VerifiableProperties(getDefaultNonBlockingRouterProperties(true)));
+  }
+
+  /**
+   * Get a composite blob with adaptive read ahead enabled and a reader that first keeps up with the router, then falls
+   * behind and then stops reading. Ensure that the read ahead window grows while the reader keeps up, shrinks when it
+   * falls behind, that no chunk is fetched while a full window is waiting to be read, and that the reserved bytes never
+   * exceed the router wide memory budget.
+   */
+  @Test
+  public void testReadAheadWindowAdaptsToReader() throws Exception {
+    // decryption completes on other threads, which makes the order in which chunks become readable nondeterministic.
+    assumeFalse(testEncryption);
+    int maxInMemChunks = 1;
+    int budgetChunks = 2;
+    long budgetBytes = (long) budgetChunks * maxChunkSize;
+    Properties props = getDefaultNonBlockingRouterProperties(true);
+    props.setProperty(RouterConfig.ROUTER_MAX_IN_MEM_GET_CHUNKS, Integer.toString(maxInMemChunks));
+    props.setProperty(RouterConfig.ROUTER_GET_READ_AHEAD_ENABLED, "true");
+    props.setProperty(RouterConfig.ROUTER_GET_READ_AHEAD_MAX_CHUNKS, "8");
+    props.setProperty(RouterConfig.ROUTER_GET_READ_AHEAD_MEMORY_BUDGET_BYTES, Long.toString(budgetBytes));
+    routerConfig = new RouterConfig(new VerifiableProperties(props));
+    blobSize = maxChunkSize * 30;
+    doPut();
+    ByteBufferAsyncWritableChannel writableChannel = new ByteBufferAsyncWritableChannel();
+    AtomicReference<Future<Long>> readIntoFuture = new AtomicReference<>();
+    GetBlobOperation op = createOperation(routerConfig, (result, exception) -> {
+      if (exception == null) {
+        readIntoFuture.set(result.getBlobResult.getBlobDataChannel().readInto(writableChannel, null));
+      }
+    });
+    ByteBuffer readContent = ByteBuffer.allocate(blobSize);
+    int maxWindow = maxInMemChunks + budgetChunks;
+
+    // the reader keeps up, so the window grows until the budget is exhausted.
+    long budgetExhaustedCount = routerMetrics.getBlobReadAheadBudgetExhaustedCount.getCount();
+    for (int round = 0; op.getReadAheadWindow() < maxWindow; round++) {
+      Assert.assertTrue("Window should have grown to " + maxWindow, round < 10);
+      int window = op.getReadAheadWindow();
+      pollAndHandleResponses(op);
+      readChunks(writableChannel, Integer.MAX_VALUE, readContent);
+      Assert.assertTrue("Window should not shrink while the reader keeps up", op.getReadAheadWindow() >= window);
+      assertReadAheadReservation(op, maxInMemChunks, budgetBytes);
+    }
+    for (int round = 0; routerMetrics.getBlobReadAheadBudgetExhaustedCount.getCount() == budgetExhaustedCount;
+        round++) {
+      Assert.assertTrue("Budget should have been exhausted", round < 10);
+      pollAndHandleResponses(op);
+      readChunks(writableChannel, Integer.MAX_VALUE, readContent);
+      Assert.assertEquals("Window should not grow beyond the budget", maxWindow, op.getReadAheadWindow());
+      assertReadAheadReservation(op, maxInMemChunks, budgetBytes);
+    }
+
+    // the reader falls behind by reading one chunk per round, so the window shrinks.
+    for (int round = 0; op.getReadAheadWindow() == maxWindow; round++) {
+      Assert.assertTrue("Window should have shrunk", round < 10);
+      pollAndHandleResponses(op);
+      readChunks(writableChannel, 1, readContent);
+      assertReadAheadReservation(op, maxInMemChunks, budgetBytes);
+    }
+    Assert.assertTrue("Window should have shrunk", op.getReadAheadWindow() < maxWindow);
+
+    // the reader stops reading, so no more chunks are fetched once a full window is waiting.
+    pollAndHandleResponses(op);
+    pollAndHandleResponses(op);
+    op.poll(requestRegistrationCallback);
+    Assert.assertEquals("No chunk should be fetched while the reader doesn't read", 0,
+        requestRegistrationCallback.getRequestsToSend().size());
+    Assert.assertFalse("Operation should not be complete", op.isOperationComplete());
+
+    // the reader reads the rest of the blob.
+    for (int round = 0; !op.isOperationComplete(); round++) {
+      Assert.assertTrue("Operation should have completed", round < 50);
+      pollAndHandleResponses(op);
+      readChunks(writableChannel, Integer.MAX_VALUE, readContent);
+      assertReadAheadReservation(op, maxInMemChunks, budgetBytes);
+    }
+    Assert.assertEquals("Size read must equal size written", blobSize, (long) readIntoFuture.get().get());
+    Assert.assertArrayEquals("Content read must equal content put", putContent, readContent.array());
+    Assert.assertEquals("Read ahead budget should have been released", 0,
+        routerMetrics.getBlobReadAheadReservedBytes.get());
+    routerConfig = new RouterConfig(new VerifiableProperties(getDefaultNonBlockingRouterProperties(true)));
+  }
+
   /**
    * Test the case where all requests time out within the GetOperation.
    * @throws Exception
@@ -1618,18 +1720,61 @@ public class GetBlobOperationTest {
   private GetBlobOperation createOperationAndComplete(Callback<GetBlobResultInternal> callback) throws Exception {
     GetBlobOperation op = createOperation(routerConfig, callback);
     while (!op.isOperationComplete()) {
-      op.poll(requestRegistrationCallback);
-      List<ResponseInfo> responses = sendAndWaitForResponses(requestRegistrationCallback.getRequestsToSend());
-      for (ResponseInfo responseInfo : responses) {
-        DataInputStream dis = new NettyByteBufDataInputStream(responseInfo.content());
-        GetResponse getResponse = responseInfo.getError() == null ? GetResponse.readFrom(dis, mockClusterMap) : null;
-        op.handleResponse(responseInfo, getResponse);
-        responseInfo.release();
-      }
+      pollAndHandleResponses(op);
     }
     return op;
   }
 
+  /**
+   * Poll the operation once and hand it the responses to the requests it issued.
+   * @param op the {@link GetBlobOperation} to poll.
+   * @throws IOException
+   */
+  private void pollAndHandleResponses(GetBlobOperation op) throws IOException {
+    op.poll(requestRegistrationCallback);
+    List<ResponseInfo> responses = sendAndWaitForResponses(requestRegistrationCallback.getRequestsToSend());
+    for (ResponseInfo responseInfo : responses) {
+      DataInputStream dis = new NettyByteBufDataInputStream(responseInfo.content());
+      GetResponse getResponse = responseInfo.getError() == null ? GetResponse.readFrom(dis, mockClusterMap) : null;
+      op.handleResponse(responseInfo, getResponse);
+      responseInfo.release();
+    }
+  }
+
+  /**
+   * Read the chunks that have been written out to the channel, up to a limit, and resolve them.
+   * @param writableChannel the {@link ByteBufferAsyncWritableChannel} the blob is read into.
+   * @param maxChunksToRead the max number of chunks to read.
+   * @param readContent the buffer to copy the content of the chunks to.
+   * @throws InterruptedException
+   */
+  private void readChunks(ByteBufferAsyncWritableChannel writableChannel, int maxChunksToRead, ByteBuffer readContent)
+      throws InterruptedException {
+    ByteBuf chunk;
+    for (int i = 0; i < maxChunksToRead && (chunk = writableChannel.getNextByteBuf(0)) != null; i++) {
+      byte[] chunkContent = new byte[chunk.readableBytes()];
+      chunk.readBytes(chunkContent);
+      readContent.put(chunkContent);
+      writableChannel.resolveOldestChunk(null);
+    }
+  }
+
+  /**
+   * Assert that the bytes reserved for read ahead match the read ahead window of the operation and don't exceed the
+   * budget.
+   * @param op the {@link GetBlobOperation}, which is the only one reserving bytes.
+   * @param maxInMemChunks the number of chunks that may be fetched ahead without reserving bytes.
+   * @param budgetBytes the read ahead memory budget of the router.
+   */
+  private void assertReadAheadReservation(GetBlobOperation op, int maxInMemChunks, long budgetBytes) {
+    long reservedBytes = routerMetrics.getBlobReadAheadReservedBytes.get();
+    Assert.assertTrue("Reserved bytes should not exceed the budget", reservedBytes <= budgetBytes);
+    if (!op.isOperationComplete()) {
+      Assert.assertEquals("Reserved bytes should match the window",
+          (long) Math.max(0, op.getReadAheadWindow() - maxInMemChunks) * maxChunkSize, reservedBytes);
+    }
+  }
+
   /**
    * Create a getBlob operation with the specified callback
    * @param routerConfig the routerConfig used to instantiate GetBlobOperation.
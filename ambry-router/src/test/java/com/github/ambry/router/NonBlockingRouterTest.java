@@ -142,6 +142,36 @@ public class NonBlockingRouterTest extends NonBlockingRouterTestBase {
     }
   }
 
+  /**
+   * Test that partitions are consistently and evenly mapped to operation controllers when partition affinity is used.
+   */
+  @Test
+  public void testOperationControllerIndex() {
+    int count = 4;
+    int numPartitions = 1000;
+    int[] hits = new int[count];
+    for (int i = 0; i < numPartitions; i++) {
+      String key = Integer.toString(i);
+      int index = NonBlockingRouter.getOperationControllerIndex(key, count);
+      assertTrue("Index out of range", index >= 0 && index < count);
+      assertEquals("Same key should map to the same index", index,
+          NonBlockingRouter.getOperationControllerIndex(key, count));
+      hits[index]++;
+    }
+    for (int hit : hits) {
+      assertTrue("Partitions not spread evenly: " + Arrays.toString(hits), hit > numPartitions / count / 2);
+    }
+    // with rendezvous hashing, adding a controller only moves keys to the new controller.
+    for (int i = 0; i < numPartitions; i++) {
+      String key = Integer.toString(i);
+      int newIndex = NonBlockingRouter.getOperationControllerIndex(key, count + 1);
+      if (newIndex != count) {
+        assertEquals("Key should not move between existing controllers",
+            NonBlockingRouter.getOperationControllerIndex(key, count), newIndex);
+      }
+    }
+  }
+
   /**
    * Test Router with a single scaling unit.
    */
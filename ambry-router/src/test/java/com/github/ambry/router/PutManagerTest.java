@@ -18,6 +18,8 @@ import com.github.ambry.account.Container;
 import com.github.ambry.account.InMemAccountService;
 import com.github.ambry.clustermap.DataNodeId;
 import com.github.ambry.clustermap.MockClusterMap;
+import com.github.ambry.clustermap.MockDataNodeId;
+import com.github.ambry.clustermap.PartitionId;
 import com.github.ambry.commons.BlobId;
 import com.github.ambry.commons.BlobId.BlobDataType;
 import com.github.ambry.commons.BlobIdFactory;
@@ -120,6 +122,7 @@ public class PutManagerTest {
   private final int requestParallelism;
   private final int successTarget;
   private boolean instantiateNewRouterForPuts;
+  private boolean loadAwarePartitionSelectionEnabled = false;
   private final NettyByteBufLeakHelper nettyByteBufLeakHelper = new NettyByteBufLeakHelper();
 
   /**
@@ -194,6 +197,33 @@ public class PutManagerTest {
     }
   }
 
+  /**
+   * Tests that with load aware partition selection, PUTs avoid a partition whose local replicas this router has seen to
+   * be slow as long as other writable partitions are available.
+   * @throws Exception
+   */
+  @Test
+  public void testLoadAwarePartitionSelection() throws Exception {
+    loadAwarePartitionSelectionEnabled = true;
+    List<MockDataNodeId> slowNodes = mockClusterMap.createNewDataNodes(3, LOCAL_DC);
+    PartitionId slowPartition = mockClusterMap.createNewPartition(slowNodes);
+    mockServerLayout.addMockServers(slowNodes, mockClusterMap);
+    instantiateNewRouterForPuts = false;
+    router = getNonBlockingRouter();
+    for (MockDataNodeId slowNode : slowNodes) {
+      metrics.putHostLoadTracker.onRequestDone(slowNode, 1000, true);
+    }
+    requestAndResultsList.clear();
+    for (int i = 0; i < 20; i++) {
+      requestAndResultsList.add(new RequestAndResult(random.nextInt(chunkSize) + 1));
+    }
+    submitPutsAndAssertSuccess(true);
+    for (RequestAndResult requestAndResult : requestAndResultsList) {
+      BlobId blobId = new BlobId(requestAndResult.result.result(), mockClusterMap);
+      Assert.assertNotEquals("Blob should not be put on the slow partition", slowPartition, blobId.getPartition());
+    }
+  }
+
   /**
    * Tests put of a composite blob (blob with more than one data chunk) where the composite blob size is a multiple of
    * the chunk size.
@@ -990,6 +1020,8 @@ public class PutManagerTest {
     properties.setProperty("router.put.request.parallelism", Integer.toString(requestParallelism));
     properties.setProperty("router.put.success.target", Integer.toString(successTarget));
     properties.setProperty("router.metadata.content.version", String.valueOf(metadataContentVersion));
+    properties.setProperty("router.put.load.aware.partition.selection.enabled",
+        Boolean.toString(loadAwarePartitionSelectionEnabled));
     return new VerifiableProperties(properties);
   }
 
@@ -1002,8 +1034,9 @@ public class PutManagerTest {
     if (testEncryption && instantiateEncryptionCast) {
       setupEncryptionCast(vProps);
     }
-    metrics = new NonBlockingRouterMetrics(mockClusterMap, null);
-    router = new NonBlockingRouter(new RouterConfig(vProps), metrics,
+    RouterConfig routerConfig = new RouterConfig(vProps);
+    metrics = new NonBlockingRouterMetrics(mockClusterMap, routerConfig);
+    router = new NonBlockingRouter(routerConfig, metrics,
         new MockNetworkClientFactory(vProps, mockSelectorState, MAX_PORTS_PLAIN_TEXT, MAX_PORTS_SSL,
             CHECKOUT_TIMEOUT_MS, mockServerLayout, mockTime), notificationSystem, mockClusterMap, kms, cryptoService,
         cryptoJobHandler, accountService, mockTime, MockClusterMap.DEFAULT_PARTITION_CLASS);
@@ -26,6 +26,7 @@ import com.github.ambry.clustermap.ClusterParticipant;
 import com.github.ambry.clustermap.VcrClusterSpectator;
 import com.github.ambry.clustermap.VcrClusterAgentsFactory;
 import com.github.ambry.clustermap.DataNodeId;
+import com.github.ambry.clustermap.ReplicaId;
 import com.github.ambry.commons.Callback;
 import com.github.ambry.commons.LoggingNotificationSystem;
 import com.github.ambry.commons.NettyInternalMetrics;
@@ -50,16 +51,21 @@ import com.github.ambry.messageformat.BlobStoreRecovery;
 import com.github.ambry.network.BlockingChannelConnectionPool;
 import com.github.ambry.network.ConnectionPool;
 import com.github.ambry.network.NettyServerRequestResponseChannel;
+import com.github.ambry.network.NetworkClientFactory;
+import com.github.ambry.network.NetworkMetrics;
 import com.github.ambry.network.NetworkServer;
 import com.github.ambry.network.Port;
 import com.github.ambry.network.PortType;
+import com.github.ambry.network.SocketNetworkClientFactory;
 import com.github.ambry.network.SocketServer;
 import com.github.ambry.network.http2.Http2BlockingChannelPool;
 import com.github.ambry.network.http2.Http2ClientMetrics;
+import com.github.ambry.network.http2.Http2NetworkClientFactory;
 import com.github.ambry.network.http2.Http2ServerMetrics;
 import com.github.ambry.notification.NotificationSystem;
 import com.github.ambry.protocol.AmbryRequests;
 import com.github.ambry.protocol.RequestHandlerPool;
+import com.github.ambry.protocol.RequestTrafficClassifier;
 import com.github.ambry.replication.CloudToStoreReplicationManager;
 import com.github.ambry.replication.FindTokenHelper;
 import com.github.ambry.replication.ReplicationManager;
@@ -74,6 +80,7 @@ import com.github.ambry.store.MessageInfo;
 import com.github.ambry.store.StorageManager;
 import com.github.ambry.store.StoreKeyConverterFactory;
 import com.github.ambry.store.StoreKeyFactory;
+import com.github.ambry.utils.Crc32;
 import com.github.ambry.utils.SystemTime;
 import com.github.ambry.utils.Time;
 import com.github.ambry.utils.Utils;
@@ -201,6 +208,7 @@ public class AmbryServer {
       // verify the configs
       properties.verify();
 
+      Crc32.setJavaNativeImplementationEnabled(serverConfig.serverUseJavaNativeCrc32);
       scheduler = Utils.newScheduler(serverConfig.serverSchedulerNumOfthreads, false);
       // if there are more than one participants on local node, we create a consistency checker to monitor and alert any
       // mismatch in sealed/stopped replica lists that maintained by each participant.
@@ -234,14 +242,32 @@ public class AmbryServer {
 
       SSLFactory sslFactory = new NettySslHttp2Factory(sslConfig);
 
+      Http2ClientMetrics http2ClientMetrics = new Http2ClientMetrics(registry);
       if (clusterMapConfig.clusterMapEnableHttp2Replication) {
-        connectionPool = new Http2BlockingChannelPool(sslFactory, new Http2ClientConfig(properties),
-            new Http2ClientMetrics(registry));
+        connectionPool =
+            new Http2BlockingChannelPool(sslFactory, new Http2ClientConfig(properties), http2ClientMetrics);
       } else {
         connectionPool = new BlockingChannelConnectionPool(connectionPoolConfig, sslConfig, clusterMapConfig, registry);
       }
       connectionPool.start();
 
+      NetworkClientFactory replicationNetworkClientFactory = null;
+      if (replicationConfig.replicationUseNetworkClient) {
+        if (clusterMapConfig.clusterMapEnableHttp2Replication) {
+          replicationNetworkClientFactory =
+              new Http2NetworkClientFactory(http2ClientMetrics, new Http2ClientConfig(properties), sslFactory,
+                  SystemTime.getInstance());
+        } else {
+          SSLFactory socketSslFactory = clusterMapConfig.clusterMapSslEnabledDatacenters.isEmpty() ? null
+              : SSLFactory.getNewInstance(sslConfig);
+          replicationNetworkClientFactory =
+              new SocketNetworkClientFactory(new NetworkMetrics(registry), networkConfig, socketSslFactory,
+                  connectionPoolConfig.connectionPoolMaxConnectionsPerPortPlainText,
+                  connectionPoolConfig.connectionPoolMaxConnectionsPerPortSSL,
+                  replicationConfig.replicationConnectionPoolCheckoutTimeoutMs, SystemTime.getInstance());
+        }
+      }
+
       StoreKeyConverterFactory storeKeyConverterFactory =
           Utils.getObj(serverConfig.serverStoreKeyConverterFactory, properties, registry);
 
@@ -249,7 +275,8 @@ public class AmbryServer {
       replicationManager =
           new ReplicationManager(replicationConfig, clusterMapConfig, storeConfig, storageManager, storeKeyFactory,
               clusterMap, scheduler, nodeId, connectionPool, registry, notificationSystem, storeKeyConverterFactory,
-              serverConfig.serverMessageTransformer, clusterParticipants.get(0), skipPredicate);
+              serverConfig.serverMessageTransformer, clusterParticipants.get(0), skipPredicate, null,
+              SystemTime.getInstance(), replicationNetworkClientFactory);
       replicationManager.start();
 
       if (replicationConfig.replicationEnabledWithVcrCluster) {
@@ -279,7 +306,11 @@ public class AmbryServer {
       if (nodeId.hasSSLPort()) {
         ports.add(new Port(nodeId.getSSLPort(), PortType.SSL));
       }
-      networkServer = new SocketServer(networkConfig, sslConfig, registry, ports);
+      RequestTrafficClassifier requestClassifier = new RequestTrafficClassifier(clusterMap, partitionId -> {
+        ReplicaId replicaId = storageManager.getReplica(partitionId.toPathString());
+        return replicaId == null ? null : replicaId.getDiskId();
+      });
+      networkServer = new SocketServer(networkConfig, sslConfig, registry, ports, metrics, requestClassifier);
       FindTokenHelper findTokenHelper = new FindTokenHelper(storeKeyFactory, replicationConfig);
       requests = new AmbryServerRequests(storageManager, networkServer.getRequestResponseChannel(), clusterMap, nodeId,
           registry, metrics, findTokenHelper, notificationSystem, replicationManager, storeKeyFactory, serverConfig,
@@ -297,7 +328,7 @@ public class AmbryServer {
 
         logger.info("Http2 port {} is enabled. Starting HTTP/2 service.", nodeId.getHttp2Port());
         NettyServerRequestResponseChannel requestResponseChannel =
-            new NettyServerRequestResponseChannel(networkConfig.queuedMaxRequests, http2ServerMetrics);
+            new NettyServerRequestResponseChannel(networkConfig, http2ServerMetrics, metrics, requestClassifier);
 
         AmbryServerRequests ambryServerRequestsForHttp2 =
             new AmbryServerRequests(storageManager, requestResponseChannel, clusterMap, nodeId, registry, metrics,
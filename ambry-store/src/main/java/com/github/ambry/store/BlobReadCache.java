@@ -0,0 +1,319 @@
+/**
+ * Copyright 2021 LinkedIn Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ */
+package com.github.ambry.store;
+
+import io.netty.buffer.ByteBuf;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+
+/**
+ * A size bounded cache of the serialized messages of small blobs that are read often, shared by all the stores on a
+ * node. The messages are kept in the (direct) {@link ByteBuf}s they were read from the log into, so a hit avoids both
+ * the allocation and the disk read of {@link BlobReadOptions#doPrefetch(long, long)}.
+ *
+ * The cache is split into segments, each guarded by its own lock and evicting in LRU order. Admission follows TinyLFU:
+ * every segment keeps an approximate, periodically aged count of how often each key was read and a new message only
+ * replaces the messages it would evict if it was read more often than all of them. This keeps blobs that are read once
+ * from pushing hot blobs out of the cache.
+ *
+ * An entry is only served for the same put record it was read from, that is the same life version at the same
+ * {@link Offset}, so messages moved by compaction or undeleted are never served stale. Deleted blobs are never cached
+ * or served from the cache since their records may be hard deleted. On top of that, stores invalidate the entries of
+ * keys that are deleted, undeleted or have their TTL updated and all of their entries after compaction.
+ */
+class BlobReadCache {
+  private static final int SEGMENT_COUNT = 16;
+  private final Segment[] segments = new Segment[SEGMENT_COUNT];
+  private final long maxEntrySizeBytes;
+  private final StorageManagerMetrics metrics;
+
+  /**
+   * @param capacityBytes the total number of bytes of messages the cache can hold.
+   * @param maxEntrySizeBytes the size of the largest message that is cached.
+   * @param metrics the {@link StorageManagerMetrics} to record hits, misses and evictions in.
+   */
+  BlobReadCache(long capacityBytes, long maxEntrySizeBytes, StorageManagerMetrics metrics) {
+    this.maxEntrySizeBytes = maxEntrySizeBytes;
+    this.metrics = metrics;
+    long segmentCapacityBytes = capacityBytes / SEGMENT_COUNT;
+    // size the frequency sketch of a segment for the number of messages of a quarter of the max size it can hold.
+    long expectedEntries = segmentCapacityBytes / Math.max(1, maxEntrySizeBytes / 4);
+    for (int i = 0; i < SEGMENT_COUNT; i++) {
+      segments[i] = new Segment(segmentCapacityBytes, new FrequencySketch(expectedEntries));
+    }
+    metrics.initializeBlobReadCacheMetrics(this);
+  }
+
+  /**
+   * @param info the {@link MessageInfo} of a message about to be read.
+   * @return {@code true} if the message can be served from and added to the cache.
+   */
+  boolean isCacheable(MessageInfo info) {
+    return !info.isDeleted() && info.getSize() <= maxEntrySizeBytes;
+  }
+
+  /**
+   * Records a read of {@code key} and returns the cached part of its message, if any.
+   * @param key the {@link StoreKey} of the message.
+   * @param lifeVersion the life version of the blob.
+   * @param offset the {@link Offset} of the put record of the blob in the log.
+   * @param relativeOffset the offset of the first byte requested, relative to the start of the message.
+   * @param size the number of bytes requested.
+   * @return a retained slice of the cached message that the caller has to release, or {@code null} on a miss.
+   */
+  ByteBuf get(StoreKey key, short lifeVersion, Offset offset, int relativeOffset, int size) {
+    Segment segment = getSegment(key);
+    synchronized (segment) {
+      segment.sketch.increment(key);
+      Entry entry = segment.entries.get(key);
+      if (entry != null && (entry.lifeVersion != lifeVersion || !entry.offset.equals(offset))) {
+        segment.remove(key);
+        entry = null;
+      }
+      if (entry == null || relativeOffset + size > entry.data.readableBytes()) {
+        metrics.blobReadCacheMissCount.inc();
+        return null;
+      }
+      metrics.blobReadCacheHitCount.inc();
+      metrics.blobReadCacheBytesServed.inc(size);
+      return entry.data.retainedSlice(entry.data.readerIndex() + relativeOffset, size);
+    }
+  }
+
+  /**
+   * Adds a whole message that was just read from the log, if it is read often enough to be admitted.
+   * @param storeId the id of the store the message belongs to.
+   * @param key the {@link StoreKey} of the message.
+   * @param lifeVersion the life version of the blob.
+   * @param offset the {@link Offset} of the put record of the blob in the log.
+   * @param data the message. The cache takes over the ownership of {@code data} and releases it once it is evicted or
+   *             not admitted.
+   */
+  void put(String storeId, StoreKey key, short lifeVersion, Offset offset, ByteBuf data) {
+    int size = data.readableBytes();
+    Segment segment = getSegment(key);
+    synchronized (segment) {
+      if (segment.entries.containsKey(key) || size > segment.capacityBytes) {
+        data.release();
+        return;
+      }
+      List<Entry> victims = new ArrayList<>();
+      long bytesToFree = segment.sizeBytes + size - segment.capacityBytes;
+      if (bytesToFree > 0) {
+        int frequency = segment.sketch.frequency(key);
+        Iterator<Entry> iterator = segment.entries.values().iterator();
+        while (bytesToFree > 0 && iterator.hasNext()) {
+          Entry victim = iterator.next();
+          if (segment.sketch.frequency(victim.key) >= frequency) {
+            metrics.blobReadCacheAdmissionRejectedCount.inc();
+            data.release();
+            return;
+          }
+          victims.add(victim);
+          bytesToFree -= victim.data.readableBytes();
+        }
+      }
+      for (Entry victim : victims) {
+        segment.remove(victim.key);
+        metrics.blobReadCacheEvictionCount.inc();
+      }
+      segment.entries.put(key, new Entry(storeId, key, lifeVersion, offset, data));
+      segment.sizeBytes += size;
+    }
+  }
+
+  /**
+   * Removes the message of {@code key}, if it is cached.
+   * @param key the {@link StoreKey} to invalidate.
+   */
+  void invalidate(StoreKey key) {
+    Segment segment = getSegment(key);
+    synchronized (segment) {
+      if (segment.remove(key)) {
+        metrics.blobReadCacheInvalidationCount.inc();
+      }
+    }
+  }
+
+  /**
+   * Removes all the messages of a store.
+   * @param storeId the id of the store whose messages have to be removed.
+   */
+  void invalidateStore(String storeId) {
+    for (Segment segment : segments) {
+      synchronized (segment) {
+        Iterator<Entry> iterator = segment.entries.values().iterator();
+        while (iterator.hasNext()) {
+          Entry entry = iterator.next();
+          if (entry.storeId.equals(storeId)) {
+            iterator.remove();
+            segment.sizeBytes -= entry.data.readableBytes();
+            entry.data.release();
+            metrics.blobReadCacheInvalidationCount.inc();
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Releases all the cached messages.
+   */
+  void clear() {
+    for (Segment segment : segments) {
+      synchronized (segment) {
+        for (Entry entry : segment.entries.values()) {
+          entry.data.release();
+        }
+        segment.entries.clear();
+        segment.sizeBytes = 0;
+      }
+    }
+  }
+
+  /**
+   * @return the number of bytes of messages in the cache.
+   */
+  long getSizeInBytes() {
+    long sizeBytes = 0;
+    for (Segment segment : segments) {
+      synchronized (segment) {
+        sizeBytes += segment.sizeBytes;
+      }
+    }
+    return sizeBytes;
+  }
+
+  private Segment getSegment(StoreKey key) {
+    int hash = key.hashCode();
+    return segments[(hash ^ (hash >>> 16)) & (SEGMENT_COUNT - 1)];
+  }
+
+  /**
+   * A part of the cache with its own lock, LRU order and frequency sketch. All fields are guarded by the segment.
+   */
+  private static class Segment {
+    final LinkedHashMap<StoreKey, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    final long capacityBytes;
+    final FrequencySketch sketch;
+    long sizeBytes = 0;
+
+    Segment(long capacityBytes, FrequencySketch sketch) {
+      this.capacityBytes = capacityBytes;
+      this.sketch = sketch;
+    }
+
+    /**
+     * @param key the {@link StoreKey} whose entry has to be removed.
+     * @return {@code true} if there was an entry for {@code key}.
+     */
+    boolean remove(StoreKey key) {
+      Entry entry = entries.remove(key);
+      if (entry == null) {
+        return false;
+      }
+      sizeBytes -= entry.data.readableBytes();
+      entry.data.release();
+      return true;
+    }
+  }
+
+  /**
+   * A cached message.
+   */
+  private static class Entry {
+    final String storeId;
+    final StoreKey key;
+    final short lifeVersion;
+    final Offset offset;
+    final ByteBuf data;
+
+    Entry(String storeId, StoreKey key, short lifeVersion, Offset offset, ByteBuf data) {
+      this.storeId = storeId;
+      this.key = key;
+      this.lifeVersion = lifeVersion;
+      this.offset = offset;
+      this.data = data;
+    }
+  }
+
+  /**
+   * A count-min sketch of 4 bit counters that estimates how often keys were read. All counters are halved once the
+   * number of increments reaches 10 times the number of counters in a row, so that the estimates follow recent reads.
+   */
+  static class FrequencySketch {
+    private static final int DEPTH = 4;
+    private static final int MAX_COUNT = 15;
+    private static final int[] SEEDS = {0x97cb3127, 0xb7e15163, 0x9e3779b9, 0x85ebca6b};
+    private final byte[][] counters;
+    private final int mask;
+    private final int sampleSize;
+    private int additions = 0;
+
+    /**
+     * @param expectedEntries the expected number of distinct keys in the cache.
+     */
+    FrequencySketch(long expectedEntries) {
+      int width = Integer.highestOneBit((int) Math.max(64, Math.min(1 << 24, expectedEntries)) - 1) << 1;
+      counters = new byte[DEPTH][width];
+      mask = width - 1;
+      sampleSize = 10 * width;
+    }
+
+    /**
+     * Records a read of {@code key}.
+     * @param key the key that was read.
+     */
+    void increment(Object key) {
+      int hash = key.hashCode();
+      boolean incremented = false;
+      for (int i = 0; i < DEPTH; i++) {
+        int index = index(hash, i);
+        if (counters[i][index] < MAX_COUNT) {
+          counters[i][index]++;
+          incremented = true;
+        }
+      }
+      if (incremented && ++additions >= sampleSize) {
+        for (byte[] row : counters) {
+          for (int j = 0; j < row.length; j++) {
+            row[j] >>= 1;
+          }
+        }
+        additions /= 2;
+      }
+    }
+
+    /**
+     * @param key the key to get the frequency of.
+     * @return the estimated number of recent reads of {@code key}.
+     */
+    int frequency(Object key) {
+      int hash = key.hashCode();
+      int frequency = MAX_COUNT;
+      for (int i = 0; i < DEPTH; i++) {
+        frequency = Math.min(frequency, counters[i][index(hash, i)]);
+      }
+      return frequency;
+    }
+
+    private int index(int hash, int row) {
+      int h = (hash ^ SEEDS[row]) * 0x9e3779b1;
+      return (h ^ (h >>> 16)) & mask;
+    }
+  }
+}
@@ -41,8 +41,10 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -71,6 +73,7 @@ public class BlobStore implements Store {
   private final DiskSpaceAllocator diskSpaceAllocator;
   private static final Logger logger = LoggerFactory.getLogger(BlobStore.class);
   private final Object storeWriteLock = new Object();
+  private final Queue<PendingPut> pendingPuts = new ConcurrentLinkedQueue<>();
   private final StoreConfig config;
   private final long capacityInBytes;
   private final StoreKeyFactory factory;
@@ -88,6 +91,7 @@ public class BlobStore implements Store {
   private final RemoteTokenTracker remoteTokenTracker;
   private final AtomicInteger errorCount;
   private final AccountService accountService;
+  private final BlobReadCache blobReadCache;
   private Log log;
   private BlobStoreCompactor compactor;
   private BlobStoreStats blobStoreStats;
@@ -114,6 +118,31 @@ public class BlobStore implements Store {
     SOME_NOT_ALL_DUPLICATE, // At least one of the message is a duplicate, but not all.
   }
 
+  /**
+   * A PUT waiting in {@link #pendingPuts} to be group committed. The mutable fields are only accessed while holding
+   * {@link #storeWriteLock}.
+   */
+  private static class PendingPut {
+    final MessageWriteSet writeSet;
+    final Offset indexEndOffsetBeforeCheck;
+    final long enqueueTimeMs;
+    MessageWriteSetStateInStore state;
+    Exception exception;
+    boolean done;
+
+    PendingPut(MessageWriteSet writeSet, Offset indexEndOffsetBeforeCheck, long enqueueTimeMs) {
+      this.writeSet = writeSet;
+      this.indexEndOffsetBeforeCheck = indexEndOffsetBeforeCheck;
+      this.enqueueTimeMs = enqueueTimeMs;
+    }
+
+    void complete(MessageWriteSetStateInStore state, Exception exception) {
+      this.state = state;
+      this.exception = exception;
+      done = true;
+    }
+  }
+
   /**
    * Constructor for BlobStore, used in ambry-server
    * @param replicaId replica associated with BlobStore.  BlobStore id, data directory, and capacity derived from this
@@ -138,10 +167,40 @@ public class BlobStore implements Store {
       StoreKeyFactory factory, MessageStoreRecovery recovery, MessageStoreHardDelete hardDelete,
       List<ReplicaStatusDelegate> replicaStatusDelegates, Time time, AccountService accountService,
       DiskMetrics diskMetrics) {
+    this(replicaId, config, taskScheduler, longLivedTaskScheduler, diskIOScheduler, diskSpaceAllocator, metrics,
+        storeUnderCompactionMetrics, factory, recovery, hardDelete, replicaStatusDelegates, time, accountService,
+        diskMetrics, null);
+  }
+
+  /**
+   * Constructor for BlobStore, used by {@link DiskManager}
+   * @param replicaId replica associated with BlobStore.  BlobStore id, data directory, and capacity derived from this
+   * @param config the settings for store configuration.
+   * @param taskScheduler the {@link ScheduledExecutorService} for executing short period background tasks.
+   * @param longLivedTaskScheduler the {@link ScheduledExecutorService} for executing long period background tasks.
+   * @param diskIOScheduler schedules disk IO operations
+   * @param diskSpaceAllocator allocates log segment files.
+   * @param metrics the {@link StorageManagerMetrics} instance to use.
+   * @param storeUnderCompactionMetrics the {@link StoreMetrics} object used by stores created for compaction.
+   * @param factory the {@link StoreKeyFactory} for parsing store keys.
+   * @param recovery the {@link MessageStoreRecovery} instance to use.
+   * @param hardDelete the {@link MessageStoreHardDelete} instance to use.
+   * @param replicaStatusDelegates delegates used to communicate BlobStore write status(sealed/unsealed, stopped/started)
+   * @param time the {@link Time} instance to use.
+   * @param accountService  the {@link AccountService} instance to use.
+   * @param diskMetrics the {@link DiskMetrics} for the disk of this {@link BlobStore}
+   * @param blobReadCache the {@link BlobReadCache} shared by the stores of the node. Can be {@code null}.
+   */
+  BlobStore(ReplicaId replicaId, StoreConfig config, ScheduledExecutorService taskScheduler,
+      ScheduledExecutorService longLivedTaskScheduler, DiskIOScheduler diskIOScheduler,
+      DiskSpaceAllocator diskSpaceAllocator, StoreMetrics metrics, StoreMetrics storeUnderCompactionMetrics,
+      StoreKeyFactory factory, MessageStoreRecovery recovery, MessageStoreHardDelete hardDelete,
+      List<ReplicaStatusDelegate> replicaStatusDelegates, Time time, AccountService accountService,
+      DiskMetrics diskMetrics, BlobReadCache blobReadCache) {
     this(replicaId, replicaId.getPartitionId().toString(), config, taskScheduler, longLivedTaskScheduler,
         diskIOScheduler, diskSpaceAllocator, metrics, storeUnderCompactionMetrics, replicaId.getReplicaPath(),
         replicaId.getCapacityInBytes(), factory, recovery, hardDelete, replicaStatusDelegates, time, accountService,
-        null, diskMetrics);
+        null, diskMetrics, blobReadCache);
   }
 
   /**
@@ -177,6 +236,18 @@ public class BlobStore implements Store {
       String dataDir, long capacityInBytes, StoreKeyFactory factory, MessageStoreRecovery recovery,
       MessageStoreHardDelete hardDelete, List<ReplicaStatusDelegate> replicaStatusDelegates, Time time,
       AccountService accountService, BlobStoreStats blobStoreStats, DiskMetrics diskMetrics) {
+    this(replicaId, storeId, config, taskScheduler, longLivedTaskScheduler, diskIOScheduler, diskSpaceAllocator, metrics,
+        storeUnderCompactionMetrics, dataDir, capacityInBytes, factory, recovery, hardDelete, replicaStatusDelegates,
+        time, accountService, blobStoreStats, diskMetrics, null);
+  }
+
+  BlobStore(ReplicaId replicaId, String storeId, StoreConfig config, ScheduledExecutorService taskScheduler,
+      ScheduledExecutorService longLivedTaskScheduler, DiskIOScheduler diskIOScheduler,
+      DiskSpaceAllocator diskSpaceAllocator, StoreMetrics metrics, StoreMetrics storeUnderCompactionMetrics,
+      String dataDir, long capacityInBytes, StoreKeyFactory factory, MessageStoreRecovery recovery,
+      MessageStoreHardDelete hardDelete, List<ReplicaStatusDelegate> replicaStatusDelegates, Time time,
+      AccountService accountService, BlobStoreStats blobStoreStats, DiskMetrics diskMetrics,
+      BlobReadCache blobReadCache) {
     this.replicaId = replicaId;
     this.storeId = storeId;
     this.dataDir = dataDir;
@@ -193,6 +264,7 @@ public class BlobStore implements Store {
     this.recovery = recovery;
     this.hardDelete = hardDelete;
     this.accountService = accountService;
+    this.blobReadCache = blobReadCache;
     this.replicaStatusDelegates = config.storeReplicaStatusDelegateEnable ? replicaStatusDelegates : null;
     this.time = time;
     long threshold = config.storeReadOnlyEnableSizeThresholdPercentage;
@@ -309,7 +381,7 @@ public class BlobStore implements Store {
         }
       }
 
-      MessageReadSet readSet = new StoreMessageReadSet(readOptions);
+      MessageReadSet readSet = new StoreMessageReadSet(readOptions, blobReadCache, storeId);
       // We ensure that the metadata list is ordered with the order of the message read set view that the
       // log provides. This ensures ordering of all messages across the log and metadata from the index.
       List<MessageInfo> messageInfoList = new ArrayList<MessageInfo>(readSet.count());
@@ -458,7 +530,9 @@ public class BlobStore implements Store {
       Offset indexEndOffsetBeforeCheck = index.getCurrentEndOffset();
       MessageWriteSetStateInStore state =
           checkWriteSetStateInStore(messageSetToWrite, new FileSpan(index.getStartOffset(), indexEndOffsetBeforeCheck));
-      if (state == MessageWriteSetStateInStore.ALL_ABSENT) {
+      if (state == MessageWriteSetStateInStore.ALL_ABSENT && config.storeGroupCommitEnabled) {
+        state = groupCommitPut(messageSetToWrite, indexEndOffsetBeforeCheck);
+      } else if (state == MessageWriteSetStateInStore.ALL_ABSENT) {
         synchronized (storeWriteLock) {
           // Validate that log end offset was not changed. If changed, check once again for existing
           // keys in store
@@ -534,6 +608,138 @@ public class BlobStore implements Store {
     }
   }
 
+  /**
+   * Queues the given {@link MessageWriteSet} and commits it together with any other PUTs pending on this store. The
+   * thread that holds {@link #storeWriteLock} drains the queue, appends the pending message sets to the log back to
+   * back and adds all the resulting entries to the index in one batch. When this method returns, the write set has been
+   * committed either by the calling thread or by another thread that drained the queue earlier.
+   * @param messageSetToWrite the {@link MessageWriteSet} to write.
+   * @param indexEndOffsetBeforeCheck the index end offset at the time the write set was checked against the store.
+   * @return the {@link MessageWriteSetStateInStore} of the write set at the time it was committed.
+   * @throws StoreException if the write set could not be written to the log or added to the index.
+   */
+  private MessageWriteSetStateInStore groupCommitPut(MessageWriteSet messageSetToWrite,
+      Offset indexEndOffsetBeforeCheck) throws StoreException {
+    PendingPut pendingPut = new PendingPut(messageSetToWrite, indexEndOffsetBeforeCheck, time.milliseconds());
+    pendingPuts.add(pendingPut);
+    synchronized (storeWriteLock) {
+      while (!pendingPut.done) {
+        drainPendingPuts();
+      }
+    }
+    if (pendingPut.exception instanceof StoreException) {
+      throw (StoreException) pendingPut.exception;
+    } else if (pendingPut.exception != null) {
+      throw new StoreException("Unknown error while trying to put blobs to store " + dataDir, pendingPut.exception,
+          StoreErrorCodes.Unknown_Error);
+    }
+    return pendingPut.state;
+  }
+
+  /**
+   * Drains up to {@link StoreConfig#storeGroupCommitMaxBatchSize} PUTs from {@link #pendingPuts}, writes them to the log
+   * and adds their entries to the index. Must be called while holding {@link #storeWriteLock}.
+   */
+  private void drainPendingPuts() {
+    List<PendingPut> batch = new ArrayList<>();
+    PendingPut pendingPut;
+    while (batch.size() < config.storeGroupCommitMaxBatchSize && (pendingPut = pendingPuts.poll()) != null) {
+      batch.add(pendingPut);
+    }
+    if (batch.isEmpty()) {
+      return;
+    }
+    long batchStartTimeMs = time.milliseconds();
+    metrics.groupCommitBatchSize.update(batch.size());
+    List<PendingPut> writtenPuts = new ArrayList<>();
+    List<IndexEntry> indexEntries = new ArrayList<>();
+    Set<StoreKey> keysInBatch = new HashSet<>();
+    long sizeWritten = 0;
+    for (PendingPut put : batch) {
+      metrics.groupCommitQueueWaitTimeInMs.update(batchStartTimeMs - put.enqueueTimeMs);
+      List<MessageInfo> messageInfo = put.writeSet.getMessageSetInfo();
+      try {
+        checkStarted();
+        // a key that was written earlier in this batch is not visible in the index yet, so commit what has been written
+        // so far before checking the state of this write set.
+        if (messageInfo.stream().anyMatch(info -> keysInBatch.contains(info.getStoreKey()))) {
+          commitPendingIndexEntries(indexEntries, writtenPuts);
+          keysInBatch.clear();
+        }
+        MessageWriteSetStateInStore state = MessageWriteSetStateInStore.ALL_ABSENT;
+        Offset currentIndexEndOffset = index.getCurrentEndOffset();
+        if (!currentIndexEndOffset.equals(put.indexEndOffsetBeforeCheck)) {
+          state = checkWriteSetStateInStore(put.writeSet,
+              new FileSpan(put.indexEndOffsetBeforeCheck, currentIndexEndOffset));
+        }
+        if (state != MessageWriteSetStateInStore.ALL_ABSENT) {
+          put.complete(state, null);
+          continue;
+        }
+        Offset endOffsetOfLastMessage = log.getEndOffset();
+        try {
+          sizeWritten += put.writeSet.writeTo(log);
+        } catch (Exception e) {
+          // entries already written by earlier puts in the batch are intact and precede this write in the log.
+          commitPendingIndexEntries(indexEntries, writtenPuts);
+          keysInBatch.clear();
+          throw e;
+        }
+        for (MessageInfo info : messageInfo) {
+          FileSpan fileSpan = log.getFileSpanForMessage(endOffsetOfLastMessage, info.getSize());
+          short lifeVersion = IndexValue.hasLifeVersion(info.getLifeVersion()) ? info.getLifeVersion() : (short) 0;
+          IndexValue value = new IndexValue(info.getSize(), fileSpan.getStartOffset(), IndexValue.FLAGS_DEFAULT_VALUE,
+              info.getExpirationTimeInMs(), info.getOperationTimeMs(), info.getAccountId(), info.getContainerId(),
+              lifeVersion);
+          indexEntries.add(new IndexEntry(info.getStoreKey(), value, info.getCrc()));
+          keysInBatch.add(info.getStoreKey());
+          endOffsetOfLastMessage = fileSpan.getEndOffset();
+        }
+        writtenPuts.add(put);
+      } catch (Exception e) {
+        put.complete(null, e);
+      }
+    }
+    commitPendingIndexEntries(indexEntries, writtenPuts);
+    if (diskMetrics != null && sizeWritten > 0) {
+      diskMetrics.diskWriteTimePerMbInMs.update(((time.milliseconds() - batchStartTimeMs) << 20) / sizeWritten);
+    }
+    logger.trace("Store : {} group committed {} message sets", dataDir, batch.size());
+    if (started) {
+      checkCapacityAndUpdateReplicaStatusDelegate();
+    }
+  }
+
+  /**
+   * Adds the given entries, which must be contiguous in the log, to the index and completes the PUTs they belong to.
+   * Both lists are cleared once the entries are committed.
+   * @param indexEntries the {@link IndexEntry}s written to the log that are yet to be added to the index.
+   * @param writtenPuts the {@link PendingPut}s whose entries are in {@code indexEntries}.
+   */
+  private void commitPendingIndexEntries(List<IndexEntry> indexEntries, List<PendingPut> writtenPuts) {
+    if (indexEntries.isEmpty()) {
+      return;
+    }
+    Exception exception = null;
+    try {
+      IndexValue lastValue = indexEntries.get(indexEntries.size() - 1).getValue();
+      Offset lastStartOffset = lastValue.getOffset();
+      FileSpan fileSpan = new FileSpan(indexEntries.get(0).getValue().getOffset(),
+          new Offset(lastStartOffset.getName(), lastStartOffset.getOffset() + lastValue.getSize()));
+      index.addToIndex(indexEntries, fileSpan);
+      for (IndexEntry newEntry : indexEntries) {
+        blobStoreStats.handleNewPutEntry(newEntry.getKey(), newEntry.getValue());
+      }
+    } catch (Exception e) {
+      exception = e;
+    }
+    for (PendingPut put : writtenPuts) {
+      put.complete(exception == null ? MessageWriteSetStateInStore.ALL_ABSENT : null, exception);
+    }
+    indexEntries.clear();
+    writtenPuts.clear();
+  }
+
   @Override
   public void delete(List<MessageInfo> infosToDelete) throws StoreException {
     checkStarted();
@@ -653,6 +859,7 @@ public class BlobStore implements Store {
           FileSpan fileSpan = log.getFileSpanForMessage(endOffsetOfLastMessage, info.getSize());
           IndexValue deleteIndexValue =
               index.markAsDeleted(info.getStoreKey(), fileSpan, null, info.getOperationTimeMs(), info.getLifeVersion());
+          invalidateBlobReadCache(info.getStoreKey());
           endOffsetOfLastMessage = fileSpan.getEndOffset();
           blobStoreStats.handleNewDeleteEntry(info.getStoreKey(), deleteIndexValue,
               originalPuts.get(correspondingPutIndex), indexValuesPriorToDelete.get(correspondingPutIndex));
@@ -770,6 +977,7 @@ public class BlobStore implements Store {
           IndexValue ttlUpdateValue =
               index.markAsPermanent(info.getStoreKey(), fileSpan, null, info.getOperationTimeMs(),
                   MessageInfo.LIFE_VERSION_FROM_FRONTEND);
+          invalidateBlobReadCache(info.getStoreKey());
           endOffsetOfLastMessage = fileSpan.getEndOffset();
           blobStoreStats.handleNewTtlUpdateEntry(info.getStoreKey(), ttlUpdateValue,
               indexValuesToUpdate.get(correspondingPutIndex++));
@@ -860,6 +1068,7 @@ public class BlobStore implements Store {
         // we still use lifeVersion from message info here so that we can re-verify the sanity of undelete request in persistent index.
         IndexValue newUndelete = index.markAsUndeleted(info.getStoreKey(), fileSpan, null, info.getOperationTimeMs(),
             lifeVersionFromMessageInfo);
+        invalidateBlobReadCache(info.getStoreKey());
         blobStoreStats.handleNewUndeleteEntry(info.getStoreKey(), newUndelete, originalPut, latestValue);
       }
       onSuccess();
@@ -1107,6 +1316,9 @@ public class BlobStore implements Store {
         compactor.close(30);
         index.close(skipDiskFlush);
         log.close(skipDiskFlush);
+        if (blobReadCache != null) {
+          blobReadCache.invalidateStore(storeId);
+        }
         metrics.deregisterMetrics(storeId);
         currentState = ReplicaState.OFFLINE;
         started = false;
@@ -1204,6 +1416,9 @@ public class BlobStore implements Store {
       remoteTokenTracker.refreshPeerReplicaTokens();
     }
     compactor.compact(details, bundleReadBuffer);
+    if (blobReadCache != null) {
+      blobReadCache.invalidateStore(storeId);
+    }
     checkCapacityAndUpdateReplicaStatusDelegate();
     blobStoreStats.onCompactionFinished();
     logger.info("One cycle of compaction is completed on the store {}", storeId);
@@ -1240,11 +1455,24 @@ public class BlobStore implements Store {
         remoteTokenTracker.refreshPeerReplicaTokens();
       }
       compactor.resumeCompaction(bundleReadBuffer);
+      if (blobReadCache != null) {
+        blobReadCache.invalidateStore(storeId);
+      }
       checkCapacityAndUpdateReplicaStatusDelegate();
       blobStoreStats.onCompactionFinished();
     }
   }
 
+  /**
+   * Removes the message of {@code key} from the {@link BlobReadCache}, if there is one.
+   * @param key the {@link StoreKey} whose put record changed state.
+   */
+  private void invalidateBlobReadCache(StoreKey key) {
+    if (blobReadCache != null) {
+      blobReadCache.invalidate(key);
+    }
+  }
+
   private void checkStarted() throws StoreException {
     if (!started) {
       throw new StoreException("Store not started", StoreErrorCodes.Store_Not_Started);
@@ -27,9 +27,11 @@ import java.io.FilenameFilter;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -41,6 +43,10 @@ import java.util.SortedMap;
 import java.util.TreeMap;
 import java.util.UUID;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -103,6 +109,9 @@ class BlobStoreCompactor {
   private CompactionLog compactionLog;
   private volatile CountDownLatch runningLatch = new CountDownLatch(0);
   private byte[] bundleReadBuffer;
+  // computes the valid entries of the next index segments while the current one is copied. Only set while a
+  // compaction is running and StoreConfig#storeCompactionCopyValidEntriesLookahead is positive.
+  private ExecutorService validEntriesExecutor;
   private final AtomicReference<CompactionDetails> currentCompactionDetails = new AtomicReference();
   private final AtomicInteger compactedLogCount = new AtomicInteger(0);
   private final AtomicInteger logSegmentCount = new AtomicInteger(0);
@@ -273,6 +282,10 @@ class BlobStoreCompactor {
     logger.trace("resumeCompaction() started for {}", storeId);
     runningLatch = new CountDownLatch(1);
     compactionInProgress.set(true);
+    if (config.storeCompactionCopyValidEntriesLookahead > 0) {
+      validEntriesExecutor = Executors.newSingleThreadExecutor(
+          runnable -> Utils.newThread("CompactionValidEntries-" + storeId, runnable, true));
+    }
     if (config.storeContainerDeletionEnabled) {
       getDeprecatedContainers();
       logger.info("Deprecated containers are {} for {}", deprecatedContainers, storeId);
@@ -315,6 +328,10 @@ class BlobStoreCompactor {
       }
       throw new StoreException("Exception during compaction", e, StoreErrorCodes.Unknown_Error);
     } finally {
+      if (validEntriesExecutor != null) {
+        validEntriesExecutor.shutdownNow();
+        validEntriesExecutor = null;
+      }
       compactionInProgress.set(false);
       runningLatch.countDown();
       logger.trace("resumeCompaction() ended for {}", storeId);
@@ -594,46 +611,172 @@ class BlobStoreCompactor {
       throws IOException, StoreException {
     logger.debug("Copying data from {}", logSegmentToCopy);
     long logSegmentStartTime = time.milliseconds();
+    List<IndexSegment> indexSegmentsToCopy = new ArrayList<>();
     for (Offset indexSegmentStartOffset : getIndexSegmentDetails(logSegmentToCopy.getName()).keySet()) {
       IndexSegment indexSegmentToCopy = srcIndex.getIndexSegments().get(indexSegmentStartOffset);
-      logger.info("Processing index segment {} with {}", indexSegmentToCopy.getFile(), storeId);
-      long startTime = SystemTime.getInstance().milliseconds();
-      if (needsCopying(indexSegmentToCopy.getEndOffset()) && !copyDataByIndexSegment(logSegmentToCopy,
-          indexSegmentToCopy, duplicateSearchSpan)) {
-        // there is a shutdown in progress or there was no space to copy all entries.
-        logger.info("Did not copy all entries in {} with {} (either because there is no space or there is a shutdown)",
-            indexSegmentToCopy.getFile(), storeId);
-        return false;
+      if (needsCopying(indexSegmentToCopy.getEndOffset())) {
+        indexSegmentsToCopy.add(indexSegmentToCopy);
+      }
+    }
+    // the valid entries of the index segments after the one being copied that are being computed by
+    // validEntriesExecutor, in the order of the index segments. The valid entries of index segment i are at the head
+    // of the queue or, if it is empty, have not been requested yet.
+    Deque<Future<List<IndexEntry>>> validEntriesLookahead = new ArrayDeque<>();
+    int nextIndexSegmentToLookahead = 0;
+    try {
+      for (int i = 0; i < indexSegmentsToCopy.size(); i++) {
+        IndexSegment indexSegmentToCopy = indexSegmentsToCopy.get(i);
+        logger.info("Processing index segment {} with {}", indexSegmentToCopy.getFile(), storeId);
+        long startTime = SystemTime.getInstance().milliseconds();
+        List<IndexEntry> indexEntriesToCopy;
+        if (validEntriesLookahead.isEmpty()) {
+          indexEntriesToCopy = getValidEntries(indexSegmentToCopy, duplicateSearchSpan);
+          nextIndexSegmentToLookahead = i + 1;
+        } else {
+          indexEntriesToCopy = awaitValidEntries(validEntriesLookahead.poll());
+        }
+        // Entries that may already be in the target index can only be checked once everything before them has been
+        // copied, so the lookahead stops at such an index segment until the copy catches up with it.
+        while (validEntriesExecutor != null
+            && validEntriesLookahead.size() < config.storeCompactionCopyValidEntriesLookahead
+            && nextIndexSegmentToLookahead < indexSegmentsToCopy.size() && !shouldCheckAlreadyCopied(
+            indexSegmentsToCopy.get(nextIndexSegmentToLookahead))) {
+          IndexSegment indexSegment = indexSegmentsToCopy.get(nextIndexSegmentToLookahead++);
+          validEntriesLookahead.add(
+              validEntriesExecutor.submit(() -> getValidEntries(indexSegment, duplicateSearchSpan)));
+        }
+        if (!copyDataByIndexSegment(logSegmentToCopy, indexSegmentToCopy, indexEntriesToCopy)) {
+          // there is a shutdown in progress or there was no space to copy all entries.
+          logger.info(
+              "Did not copy all entries in {} with {} (either because there is no space or there is a shutdown)",
+              indexSegmentToCopy.getFile(), storeId);
+          return false;
+        }
+        srcMetrics.compactionCopyDataByIndexSegmentTimeInMs.update(
+            SystemTime.getInstance().milliseconds() - startTime, TimeUnit.MILLISECONDS);
       }
-      srcMetrics.compactionCopyDataByIndexSegmentTimeInMs.update(SystemTime.getInstance().milliseconds() - startTime,
-          TimeUnit.MILLISECONDS);
+    } finally {
+      cancelValidEntriesLookahead(validEntriesLookahead);
     }
     srcMetrics.compactionCopyDataByLogSegmentTimeInMs.update(
         SystemTime.getInstance().milliseconds() - logSegmentStartTime, TimeUnit.MILLISECONDS);
     return true;
   }
 
+  /**
+   * @param indexSegment the {@link IndexSegment} to check.
+   * @return {@code true} if the valid entries of {@code indexSegment} have to be checked for existence in the target
+   * index.
+   */
+  private boolean shouldCheckAlreadyCopied(IndexSegment indexSegment) {
+    return config.storeAlwaysEnableTargetIndexDuplicateChecking || isIndexSegmentUnderCopy(
+        indexSegment.getStartOffset());
+  }
+
+  /**
+   * Gets the entries in {@code indexSegment} that need to be copied. This only reads the source index (and the target
+   * index if {@link #shouldCheckAlreadyCopied(IndexSegment)}), so it can run on {@link #validEntriesExecutor} while
+   * the records of a previous index segment are being copied.
+   * @param indexSegment the {@link IndexSegment} to get the valid entries of.
+   * @param duplicateSearchSpan the {@link FileSpan} in which to search for duplicates.
+   * @return the entries to copy, ordered by offset.
+   * @throws StoreException if there are any problems reading the index.
+   */
+  private List<IndexEntry> getValidEntries(IndexSegment indexSegment, FileSpan duplicateSearchSpan)
+      throws StoreException {
+    // call into diskIOScheduler to make sure we can proceed (assuming it won't be 0).
+    diskIOScheduler.getSlice(INDEX_SEGMENT_READ_JOB_NAME, INDEX_SEGMENT_READ_JOB_NAME, 1);
+    boolean checkAlreadyCopied = shouldCheckAlreadyCopied(indexSegment);
+    logger.trace("Should check already copied for {}: {} ", indexSegment.getFile(), checkAlreadyCopied);
+    if (srcIndex.isLogSegmentFullyValid(indexSegment.getLogSegmentName(), time.milliseconds())) {
+      // every entry is an unexpired PUT that is the latest state of its key, so only duplicates need to be removed.
+      srcMetrics.compactionFullyValidIndexSegmentCount.inc();
+      List<IndexEntry> copyCandidates = new ArrayList<>();
+      indexSegment.forEach(copyCandidates::add);
+      copyCandidates.removeIf(copyCandidate ->
+          isDuplicate(copyCandidate, duplicateSearchSpan, indexSegment.getStartOffset(), checkAlreadyCopied) || (
+              config.storeContainerDeletionEnabled && isFromDeprecatedContainer(copyCandidate)));
+      copyCandidates.sort(PersistentIndex.INDEX_ENTRIES_OFFSET_COMPARATOR);
+      logger.debug("All {} entries of index segment with start offset {} in {} are valid, {} will be copied",
+          indexSegment.size(), indexSegment.getStartOffset(), storeId, copyCandidates.size());
+      return copyCandidates;
+    }
+    return validEntryFilter.getValidEntry(indexSegment, duplicateSearchSpan, checkAlreadyCopied);
+  }
+
+  /**
+   * Waits for valid entries computed by {@link #validEntriesExecutor}.
+   * @param validEntries the {@link Future} of the valid entries.
+   * @return the valid entries.
+   * @throws StoreException if the valid entries could not be computed or the wait was interrupted.
+   */
+  private List<IndexEntry> awaitValidEntries(Future<List<IndexEntry>> validEntries) throws StoreException {
+    try {
+      return validEntries.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new StoreException("Interrupted while waiting for valid entries", e, StoreErrorCodes.Unknown_Error);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof StoreException) {
+        throw (StoreException) cause;
+      } else if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      throw new StoreException("Exception while computing valid entries", cause, StoreErrorCodes.Unknown_Error);
+    }
+  }
+
+  /**
+   * Cancels the valid entries that have not been computed yet and waits for the one being computed, if any, so that
+   * nothing reads the indexes on {@link #validEntriesExecutor} once the copy of a log segment is over.
+   * @param validEntriesLookahead the valid entries that have been requested but not used.
+   */
+  private void cancelValidEntriesLookahead(Deque<Future<List<IndexEntry>>> validEntriesLookahead) {
+    if (validEntriesLookahead.isEmpty()) {
+      return;
+    }
+    validEntriesLookahead.forEach(validEntries -> validEntries.cancel(false));
+    validEntriesLookahead.clear();
+    try {
+      // validEntriesExecutor has a single thread, so this runs once the running computation is done.
+      validEntriesExecutor.submit(() -> {
+      }).get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (ExecutionException e) {
+      logger.error("Unexpected exception while waiting for the valid entries lookahead of {}", storeId, e);
+    }
+  }
+
+  /**
+   * Records that the copy of {@code indexSegment} is starting, so that a restarted compaction resumes from it.
+   * @param indexSegment the {@link IndexSegment} whose entries are about to be copied.
+   * @throws StoreException if the first key of {@code indexSegment} could not be read.
+   */
+  private void setSafeToken(IndexSegment indexSegment) throws StoreException {
+    // save a token for restart (the key gets ignored but is required to be non null for construction)
+    StoreFindToken safeToken =
+        new StoreFindToken(indexSegment.iterator().next().getKey(), indexSegment.getStartOffset(), sessionId,
+            incarnationId, null, null, UNINITIALIZED_RESET_KEY_VERSION);
+    compactionLog.setSafeToken(safeToken);
+    logger.debug("Set safe token for compaction in {} to {}", storeId, safeToken);
+  }
+
   /**
    * Copies data in the provided {@code indexSegmentToCopy} into the target log (swap spaces).
    * @param logSegmentToCopy the {@link LogSegment} to copy from.
    * @param indexSegmentToCopy the {@link IndexSegment} that contains the entries that need to be copied.
-   * @param duplicateSearchSpan the {@link FileSpan} in which to search for duplicates.
+   * @param indexEntriesToCopy the valid entries of {@code indexSegmentToCopy}, ordered by offset.
    * @return {@code true} if all the records in the index segment were copied. {@code false} if some records were not
    * copied either because there was no more capacity or because a shutdown was initiated.
    * @throws IOException if there were I/O errors during copying.
    * @throws StoreException if there are any problems reading or writing to store components.
    */
   private boolean copyDataByIndexSegment(LogSegment logSegmentToCopy, IndexSegment indexSegmentToCopy,
-      FileSpan duplicateSearchSpan) throws IOException, StoreException {
+      List<IndexEntry> indexEntriesToCopy) throws IOException, StoreException {
     logger.debug("Copying data from {}", indexSegmentToCopy.getFile());
-    // call into diskIOScheduler to make sure we can proceed (assuming it won't be 0).
-    diskIOScheduler.getSlice(INDEX_SEGMENT_READ_JOB_NAME, INDEX_SEGMENT_READ_JOB_NAME, 1);
-    boolean checkAlreadyCopied = config.storeAlwaysEnableTargetIndexDuplicateChecking || isIndexSegmentUnderCopy(
-        indexSegmentToCopy.getStartOffset());
-    logger.trace("Should check already copied for {}: {} ", indexSegmentToCopy.getFile(), checkAlreadyCopied);
-
-    List<IndexEntry> indexEntriesToCopy =
-        validEntryFilter.getValidEntry(indexSegmentToCopy, duplicateSearchSpan, checkAlreadyCopied);
+    setSafeToken(indexSegmentToCopy);
     long dataSize = indexEntriesToCopy.stream().mapToLong(entry -> entry.getValue().getSize()).sum();
     logger.info("{} entries/{} bytes need to be copied in {} with {}", indexEntriesToCopy.size(), dataSize,
         indexSegmentToCopy.getFile(), storeId);
@@ -1348,13 +1491,6 @@ class BlobStoreCompactor {
       // get all entries. We get one entry per key
       indexSegment.getIndexEntriesSince(null, new FindEntriesCondition(Long.MAX_VALUE), allIndexEntries,
           new AtomicLong(0), true, false);
-      // save a token for restart (the key gets ignored but is required to be non null for construction)
-      StoreFindToken safeToken =
-          new StoreFindToken(allIndexEntries.get(0).getKey(), indexSegment.getStartOffset(), sessionId, incarnationId,
-              null, null, UNINITIALIZED_RESET_KEY_VERSION);
-      compactionLog.setSafeToken(safeToken);
-      logger.debug("Set safe token for compaction in {} to {}", storeId, safeToken);
-
       List<IndexEntry> copyCandidates = getValidIndexEntries(indexSegment, allIndexEntries);
       int validEntriesSize = copyCandidates.size();
       copyCandidates.removeIf(copyCandidate ->
@@ -1642,14 +1778,6 @@ class BlobStoreCompactor {
         IndexValue currentValue = entry.getValue();
         IndexValue currentLatestState;
 
-        if (previousKey == null) {
-          // save a token for restart (the key gets ignored but is required to be non null for construction)
-          StoreFindToken safeToken =
-              new StoreFindToken(currentKey, indexSegment.getStartOffset(), sessionId, incarnationId, null, null,
-                  UNINITIALIZED_RESET_KEY_VERSION);
-          compactionLog.setSafeToken(safeToken);
-          logger.debug("Set safe token for compaction in {} to {}", storeId, safeToken);
-        }
         // If an IndexSegment contains more than one IndexValue for the same StoreKey, then they must follow each other
         // since IndexSegment stores IndexValues based on StoreKey. If the current key equals to the previous key, then
         // we don't have to query the latest state again.
@@ -622,6 +622,15 @@ class BlobStoreStats implements StoreStats, Closeable {
       }
       long indexSegmentStartProcessTimeMs = time.milliseconds();
       LogSegmentName logSegmentName = indexSegment.getLogSegmentName();
+      if (index.isLogSegmentFullyValid(logSegmentName, expiryReferenceTimeInMs)) {
+        // every record is an unexpired PUT without any later record for its key, so the whole span of the index segment
+        // is valid and none of its keys has a final state to track.
+        metrics.statsFullyValidIndexSegmentCount.inc();
+        updateMapHelper(validSizePerLogSegment, logSegmentName,
+            indexSegment.getEndOffset().getOffset() - indexSegment.getStartOffset().getOffset());
+        indexSegmentCount++;
+        continue;
+      }
       diskIOScheduler.getSlice(BlobStoreStats.IO_SCHEDULER_JOB_TYPE, BlobStoreStats.IO_SCHEDULER_JOB_ID,
           indexSegment.size());
       forEachValidIndexEntry(indexSegment, deleteReferenceTimeInMs, expiryReferenceTimeInMs, fileSpanUnderCompaction,
@@ -14,9 +14,15 @@
 
 package com.github.ambry.store;
 
+import com.github.ambry.config.StoreConfig;
+import com.github.ambry.utils.SystemTime;
 import com.github.ambry.utils.Throttler;
+import com.github.ambry.utils.Time;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 
 /**
@@ -25,18 +31,83 @@ import java.util.Map;
  * 1. Application reads/writes from/to the log.
  * 2. Hard delete
  * 3. Compaction
- * The initial implementation simply returns MAX_VALUE for the application and uses the throttler for the other 2.
- * In the future this will have functions to submit feedback so that more intelligent decisions can be made.
+ * 4. Index scans for stats
+ * There is one instance per disk, so the throttlers of each job type are shared by all the stores on the disk.
+ * Application I/O is never throttled. When adaptive scheduling is enabled, the rates of the background job types are
+ * scaled by a background share that is shrunk when the p99 of foreground disk latency (tracked in {@link DiskMetrics})
+ * is above the configured thresholds and expanded again when it is not. Lower priority classes are scaled down
+ * faster than higher ones.
  */
 class DiskIOScheduler {
+  private static final Logger logger = LoggerFactory.getLogger(DiskIOScheduler.class);
+  // the amount by which the background share is expanded on each adjustment when foreground latency is healthy.
+  static final double BACKGROUND_SHARE_EXPAND_STEP = 0.1;
+
   private final Map<String, Throttler> throttlers;
+  private final StoreConfig config;
+  private final DiskMetrics diskMetrics;
+  private final Time time;
+  private final boolean adaptive;
+  private final Map<String, Double> desiredRatesPerSec = new ConcurrentHashMap<>();
+  private final Map<String, Double> appliedShares = new ConcurrentHashMap<>();
+  private volatile double backgroundShare = 1.0;
+  private volatile long lastAdjustTimeMs;
 
   /**
-   * Create a {@link DiskIOScheduler}.
+   * The priority classes of the job types that request I/O slices. Background classes with a higher rank are scaled
+   * down faster when foreground latency is high.
+   */
+  enum IOPriorityClass {
+    FOREGROUND(0), HARD_DELETE(1), COMPACTION(2), INDEX_SCAN(3);
+
+    private final int rank;
+
+    IOPriorityClass(int rank) {
+      this.rank = rank;
+    }
+
+    /**
+     * @param backgroundShare the current background share of the disk.
+     * @param minShare the lower bound of the share of any background class.
+     * @return the share of its desired rate that a job of this class is allowed.
+     */
+    double getShare(double backgroundShare, double minShare) {
+      return rank == 0 ? 1.0 : Math.max(minShare, Math.pow(backgroundShare, rank));
+    }
+  }
+
+  /**
+   * Create a {@link DiskIOScheduler} that does not adapt to foreground latency.
    * @param throttlers the {@link Throttler}s to use for each job type.
    */
   DiskIOScheduler(Map<String, Throttler> throttlers) {
+    this(throttlers, null, null, SystemTime.getInstance());
+  }
+
+  /**
+   * Create a {@link DiskIOScheduler}.
+   * @param throttlers the {@link Throttler}s to use for each job type.
+   * @param config the {@link StoreConfig} that contains the configured rates and the adaptive scheduling parameters.
+   *               Can be {@code null}, in which case scheduling is not adaptive.
+   * @param diskMetrics the {@link DiskMetrics} of the disk whose foreground latency is used as feedback. Can be
+   *                    {@code null}, in which case scheduling is not adaptive.
+   * @param time the {@link Time} instance to use.
+   */
+  DiskIOScheduler(Map<String, Throttler> throttlers, StoreConfig config, DiskMetrics diskMetrics, Time time) {
     this.throttlers = throttlers != null ? throttlers : new HashMap<String, Throttler>();
+    this.config = config;
+    this.diskMetrics = diskMetrics;
+    this.time = time;
+    adaptive = config != null && config.storeDiskIoSchedulerAdaptiveEnabled && diskMetrics != null;
+    if (adaptive) {
+      for (String jobType : this.throttlers.keySet()) {
+        Double configuredRate = getConfiguredRatePerSec(jobType, config);
+        if (configuredRate != null) {
+          desiredRatesPerSec.put(jobType, configuredRate);
+        }
+      }
+    }
+    lastAdjustTimeMs = time.milliseconds();
   }
 
   /**
@@ -49,6 +120,10 @@ class DiskIOScheduler {
   long getSlice(String jobType, String jobId, long usedSinceLastCall) {
     Throttler throttler = throttlers.get(jobType);
     if (throttler != null) {
+      if (adaptive) {
+        maybeAdjustBackgroundShare();
+        applyShare(jobType, throttler);
+      }
       try {
         throttler.maybeThrottle(usedSinceLastCall);
       } catch (InterruptedException e) {
@@ -75,8 +150,112 @@ class DiskIOScheduler {
   void updateThrottlerDesiredRate(String jobType, double newDesiredRatePerSec) {
     Throttler throttler = throttlers.get(jobType);
     if (throttler != null) {
-      throttler.updateDesiredRatePerSecond(newDesiredRatePerSec);
+      if (adaptive) {
+        // the background share is applied on top of the new rate on the next call to getSlice().
+        desiredRatesPerSec.put(jobType, newDesiredRatePerSec);
+        appliedShares.remove(jobType);
+      } else {
+        throttler.updateDesiredRatePerSecond(newDesiredRatePerSec);
+      }
     }
   }
-}
 
+  /**
+   * @return the current share of their desired rates that background jobs are allowed before the per class scaling.
+   */
+  double getBackgroundShare() {
+    return backgroundShare;
+  }
+
+  /**
+   * @param jobType the type of the job requesting I/O slices.
+   * @return the {@link IOPriorityClass} of the given job type. Job types that are not known are foreground.
+   */
+  static IOPriorityClass getPriorityClass(String jobType) {
+    switch (jobType) {
+      case HardDeleter.HARD_DELETE_CLEANUP_JOB_NAME:
+        return IOPriorityClass.HARD_DELETE;
+      case BlobStoreCompactor.COMPACTION_CLEANUP_JOB_NAME:
+      case BlobStoreCompactor.INDEX_SEGMENT_READ_JOB_NAME:
+        return IOPriorityClass.COMPACTION;
+      case BlobStoreStats.IO_SCHEDULER_JOB_TYPE:
+        return IOPriorityClass.INDEX_SCAN;
+      default:
+        return IOPriorityClass.FOREGROUND;
+    }
+  }
+
+  /**
+   * @param jobType the type of the job.
+   * @param config the {@link StoreConfig} to read the rate from.
+   * @return the rate configured for the given job type or {@code null} if there is none.
+   */
+  private static Double getConfiguredRatePerSec(String jobType, StoreConfig config) {
+    switch (jobType) {
+      case HardDeleter.HARD_DELETE_CLEANUP_JOB_NAME:
+        return (double) config.storeHardDeleteOperationsBytesPerSec;
+      case BlobStoreCompactor.COMPACTION_CLEANUP_JOB_NAME:
+        return (double) config.storeCompactionOperationsBytesPerSec;
+      case BlobStoreStats.IO_SCHEDULER_JOB_TYPE:
+        return (double) config.storeStatsIndexEntriesPerSecond;
+      default:
+        return null;
+    }
+  }
+
+  /**
+   * Shrinks the background share by half if the p99 of foreground read or write latency is above its threshold and
+   * expands it by {@link #BACKGROUND_SHARE_EXPAND_STEP} otherwise. Does nothing if the previous adjustment happened less
+   * than the configured interval ago.
+   */
+  private void maybeAdjustBackgroundShare() {
+    if (time.milliseconds() - lastAdjustTimeMs < config.storeDiskIoSchedulerAdjustIntervalMs) {
+      return;
+    }
+    synchronized (this) {
+      long now = time.milliseconds();
+      if (now - lastAdjustTimeMs < config.storeDiskIoSchedulerAdjustIntervalMs) {
+        return;
+      }
+      lastAdjustTimeMs = now;
+      double readP99 = diskMetrics.diskReadTimePerMbInMs.getSnapshot().get99thPercentile();
+      double writeP99 = diskMetrics.diskWriteTimePerMbInMs.getSnapshot().get99thPercentile();
+      double newShare;
+      if (readP99 > config.storeDiskIoSchedulerForegroundReadLatencyThresholdMs
+          || writeP99 > config.storeDiskIoSchedulerForegroundWriteLatencyThresholdMs) {
+        newShare = Math.max(config.storeDiskIoSchedulerMinBackgroundShare, backgroundShare / 2);
+        if (newShare < backgroundShare) {
+          diskMetrics.diskIoSchedulerBackgroundShrinkCount.inc();
+        }
+      } else {
+        newShare = Math.min(1.0, backgroundShare + BACKGROUND_SHARE_EXPAND_STEP);
+        if (newShare > backgroundShare) {
+          diskMetrics.diskIoSchedulerBackgroundExpandCount.inc();
+        }
+      }
+      if (newShare != backgroundShare) {
+        logger.debug("Foreground p99 read per MB: {} ms, write per MB: {} ms. Background share changed from {} to {}",
+            readP99, writeP99, backgroundShare, newShare);
+        backgroundShare = newShare;
+      }
+    }
+  }
+
+  /**
+   * Applies the current background share to the throttler of the given job type if it has changed since the last
+   * time. This is done by the thread of the job itself so that it never waits for another job that is being throttled.
+   * @param jobType the type of the job.
+   * @param throttler the {@link Throttler} of the job type.
+   */
+  private void applyShare(String jobType, Throttler throttler) {
+    Double desiredRate = desiredRatesPerSec.get(jobType);
+    if (desiredRate == null) {
+      return;
+    }
+    double share = getPriorityClass(jobType).getShare(backgroundShare, config.storeDiskIoSchedulerMinBackgroundShare);
+    Double appliedShare = appliedShares.put(jobType, share);
+    if (appliedShare == null || appliedShare != share) {
+      throttler.updateDesiredRatePerSecond(desiredRate * share);
+    }
+  }
+}
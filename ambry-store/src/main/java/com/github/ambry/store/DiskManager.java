@@ -36,6 +36,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.ReadWriteLock;
@@ -58,6 +59,7 @@ class DiskManager {
   private final StorageManagerMetrics metrics;
   private final Time time;
   private final DiskIOScheduler diskIOScheduler;
+  private final DiskMetrics diskMetrics;
   private final ScheduledExecutorService longLivedTaskScheduler;
   private final DiskSpaceAllocator diskSpaceAllocator;
   private final CompactionManager compactionManager;
@@ -73,6 +75,8 @@ class DiskManager {
   private final MessageStoreHardDelete hardDelete;
   private final List<String> unexpectedDirs = new ArrayList<>();
   private final AccountService accountService;
+  private final BlobReadCache blobReadCache;
+  private final int storeStartupParallelism;
   private boolean running = false;
 
   private static final Logger logger = LoggerFactory.getLogger(DiskManager.class);
@@ -95,12 +99,13 @@ class DiskManager {
    * @param stoppedReplicas a set of replicas that have been stopped (which should be skipped during startup).
    * @param time the {@link Time} instance to use.
    * @param accountService the {@link AccountService} instance to use.
+   * @param blobReadCache the {@link BlobReadCache} shared by the stores of the node. Can be {@code null}.
    */
   DiskManager(DiskId disk, List<ReplicaId> replicas, StoreConfig storeConfig, DiskManagerConfig diskManagerConfig,
       ScheduledExecutorService scheduler, StorageManagerMetrics metrics, StoreMetrics storeMainMetrics,
       StoreMetrics storeUnderCompactionMetrics, StoreKeyFactory keyFactory, MessageStoreRecovery recovery,
       MessageStoreHardDelete hardDelete, List<ReplicaStatusDelegate> replicaStatusDelegates,
-      Set<String> stoppedReplicas, Time time, AccountService accountService) {
+      Set<String> stoppedReplicas, Time time, AccountService accountService, BlobReadCache blobReadCache) {
     this.disk = disk;
     this.storeConfig = storeConfig;
     this.scheduler = scheduler;
@@ -111,8 +116,12 @@ class DiskManager {
     this.recovery = recovery;
     this.hardDelete = hardDelete;
     this.accountService = accountService;
+    this.blobReadCache = blobReadCache;
     this.time = time;
-    diskIOScheduler = new DiskIOScheduler(getThrottlers(storeConfig, time));
+    storeStartupParallelism = diskManagerConfig.diskManagerStoreStartupParallelism;
+    diskMetrics = new DiskMetrics(storeMainMetrics.getRegistry(), disk.getMountPath(),
+        storeConfig.storeDiskIoReservoirTimeWindowMs);
+    diskIOScheduler = new DiskIOScheduler(getThrottlers(storeConfig, time), storeConfig, diskMetrics, time);
     longLivedTaskScheduler = Utils.newScheduler(1, true);
     File reserveFileDir = new File(disk.getMountPath(), diskManagerConfig.diskManagerReserveFileDirName);
     diskSpaceAllocator = new DiskSpaceAllocator(diskManagerConfig.diskManagerEnableSegmentPooling, reserveFileDir,
@@ -122,12 +131,10 @@ class DiskManager {
     expectedDirs.add(reserveFileDir.getAbsolutePath());
     for (ReplicaId replica : replicas) {
       if (disk.equals(replica.getDiskId())) {
-        DiskMetrics diskMetrics = new DiskMetrics(storeMainMetrics.getRegistry(), disk.getMountPath(),
-            storeConfig.storeDiskIoReservoirTimeWindowMs);
         BlobStore store =
             new BlobStore(replica, storeConfig, scheduler, longLivedTaskScheduler, diskIOScheduler, diskSpaceAllocator,
                 storeMainMetrics, storeUnderCompactionMetrics, keyFactory, recovery, hardDelete, replicaStatusDelegates,
-                time, accountService, diskMetrics);
+                time, accountService, diskMetrics, blobReadCache);
         stores.put(replica.getPartitionId(), store);
         partitionToReplicaMap.put(replica.getPartitionId(), replica);
         expectedDirs.add(replica.getReplicaPath());
@@ -148,17 +155,28 @@ class DiskManager {
       checkMountPathAccessible();
 
       List<Thread> startupThreads = new ArrayList<>();
+      // bounds the number of stores of this disk that read their index and recover their log at the same time.
+      final Semaphore startupPermits = storeStartupParallelism > 0 ? new Semaphore(storeStartupParallelism) : null;
       for (final Map.Entry<PartitionId, BlobStore> partitionAndStore : stores.entrySet()) {
         if (stoppedReplicas.contains(partitionAndStore.getKey().toPathString())) {
           logger.info("Skip the store {} because it is on the stopped list", partitionAndStore.getKey());
           continue;
         }
         Thread thread = Utils.newThread("store-startup-" + partitionAndStore.getKey(), () -> {
+          boolean acquired = false;
           try {
+            if (startupPermits != null) {
+              startupPermits.acquire();
+              acquired = true;
+            }
             partitionAndStore.getValue().start();
           } catch (Exception e) {
             numStoreFailures.incrementAndGet();
             logger.error("Exception while starting store for the {}", partitionAndStore.getKey(), e);
+          } finally {
+            if (acquired) {
+              startupPermits.release();
+            }
           }
         }, false);
         thread.start();
@@ -338,7 +356,7 @@ class DiskManager {
         BlobStore store =
             new BlobStore(replica, storeConfig, scheduler, longLivedTaskScheduler, diskIOScheduler, diskSpaceAllocator,
                 storeMainMetrics, storeUnderCompactionMetrics, keyFactory, recovery, hardDelete, replicaStatusDelegates,
-                time, accountService, null);
+                time, accountService, null, blobReadCache);
         store.start();
         // collect store segment requirements and add into DiskSpaceAllocator
         List<DiskSpaceRequirements> storeRequirements = Collections.singletonList(store.getDiskSpaceRequirements());
@@ -32,6 +32,8 @@ public class DiskMetrics {
   public final Histogram diskWriteTimePerMbInMs;
   public final Meter diskCompactionCopyRateInBytes;
   public final Counter diskCompactionErrorDueToDiskFailureCount;
+  public final Counter diskIoSchedulerBackgroundShrinkCount;
+  public final Counter diskIoSchedulerBackgroundExpandCount;
 
   public DiskMetrics(MetricRegistry registry, String diskMountPath, int diskIoHistogramReservoirTimeWindow) {
     this.registry = registry;
@@ -48,5 +50,9 @@ public class DiskMetrics {
         registry.meter(MetricRegistry.name(BlobStoreCompactor.class, prefix + "DiskCompactionCopyRateInBytes"));
     diskCompactionErrorDueToDiskFailureCount =
         registry.counter(MetricRegistry.name(BlobStoreCompactor.class, prefix + "DiskCompactionErrorDueToDiskFailureCount"));
+    diskIoSchedulerBackgroundShrinkCount =
+        registry.counter(MetricRegistry.name(DiskIOScheduler.class, prefix + "DiskIoSchedulerBackgroundShrinkCount"));
+    diskIoSchedulerBackgroundExpandCount =
+        registry.counter(MetricRegistry.name(DiskIOScheduler.class, prefix + "DiskIoSchedulerBackgroundExpandCount"));
   }
 }
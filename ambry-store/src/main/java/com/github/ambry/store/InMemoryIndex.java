@@ -0,0 +1,59 @@
+/**
+ * Copyright 2021 LinkedIn Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ */
+package com.github.ambry.store;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableSet;
+
+
+/**
+ * The in memory representation of the entries of an unsealed {@link IndexSegment}. Implementations must be safe for
+ * concurrent readers while a single writer adds entries.
+ */
+interface InMemoryIndex {
+
+  /**
+   * @param key the {@link StoreKey} to look up.
+   * @return a copy of the {@link IndexValue}s of {@code key} ordered by offset, or {@code null} if the key is absent.
+   */
+  NavigableSet<IndexValue> get(StoreKey key);
+
+  /**
+   * @param key the {@link StoreKey} to look up.
+   * @return {@code true} if there is at least one {@link IndexValue} for {@code key}.
+   */
+  boolean containsKey(StoreKey key);
+
+  /**
+   * Adds an {@link IndexValue} for the given key.
+   * @param key the {@link StoreKey} of the entry.
+   * @param value the {@link IndexValue} of the entry. It must not be modified after it has been added.
+   * @return {@code true} if {@code key} was not present before this call.
+   */
+  boolean add(StoreKey key, IndexValue value);
+
+  /**
+   * Removes all the entries.
+   */
+  void clear();
+
+  /**
+   * @param fromKey the {@link StoreKey} to start from, or {@code null} to start from the first key.
+   * @param inclusive whether to include {@code fromKey} itself. Ignored if {@code fromKey} is {@code null}.
+   * @return a read only {@link Iterator} over the entries sorted by {@link StoreKey}. The iterator may be over a
+   *         snapshot, in which case entries added after this call are not reflected in it.
+   */
+  Iterator<Map.Entry<StoreKey, NavigableSet<IndexValue>>> entries(StoreKey fromKey, boolean inclusive);
+}
@@ -0,0 +1,191 @@
+/**
+ * Copyright 2021 LinkedIn Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ */
+package com.github.ambry.store;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+
+/**
+ * A bounded cache of the latest {@link IndexValue} of recently looked up keys in a {@link PersistentIndex}, along with
+ * the start offset of the {@link IndexSegment} that holds it.
+ *
+ * Entries are invalidated when a new entry for the key is added to the index and all entries are invalidated when
+ * index segments are swapped by compaction. To avoid a lookup that raced with an invalidation from caching a stale
+ * value, every key maps to one of a fixed number of stripes whose version is bumped on invalidation. A lookup reads the
+ * version before searching the index and the value is only kept in the cache if the version is unchanged after it was
+ * inserted.
+ *
+ * The keys are spread over a few segments, each an access ordered {@link LinkedHashMap} that evicts its least recently
+ * used key once it holds more than its share of {@code maxEntries}.
+ */
+class IndexKeyLookupCache {
+  private static final int STRIPE_COUNT = 1024;
+  private static final int MAX_SEGMENT_COUNT = 16;
+  private final Segment[] segments;
+  private final AtomicLongArray stripeVersions = new AtomicLongArray(STRIPE_COUNT);
+  private final StoreMetrics metrics;
+
+  /**
+   * @param maxEntries the maximum number of keys to cache.
+   * @param metrics the {@link StoreMetrics} to record hits and misses in.
+   */
+  IndexKeyLookupCache(int maxEntries, StoreMetrics metrics) {
+    this.metrics = metrics;
+    segments = new Segment[Integer.highestOneBit(Math.min(maxEntries, MAX_SEGMENT_COUNT))];
+    for (int i = 0; i < segments.length; i++) {
+      segments[i] = new Segment(maxEntries / segments.length);
+    }
+  }
+
+  /**
+   * @param key the {@link StoreKey} to look up.
+   * @param indexSegments the current index segments. A cached value whose segment is no longer present is ignored.
+   * @return a copy of the cached {@link IndexValue} of {@code key}, or {@code null} if there is no valid cached value.
+   */
+  IndexValue get(StoreKey key, NavigableMap<Offset, IndexSegment> indexSegments) {
+    Segment segment = segment(stripe(key));
+    CachedIndexValue cached;
+    synchronized (segment) {
+      cached = segment.get(key);
+    }
+    if (cached != null && indexSegments.containsKey(cached.segmentStartOffset)) {
+      metrics.indexKeyLookupCacheHitCount.inc();
+      return copy(cached.value);
+    }
+    metrics.indexKeyLookupCacheMissCount.inc();
+    return null;
+  }
+
+  /**
+   * @param key the {@link StoreKey} that is about to be looked up in the index.
+   * @return the stamp to pass to {@link #put(StoreKey, IndexValue, Offset, long)} once the lookup is done.
+   */
+  long getStamp(StoreKey key) {
+    return stripeVersions.get(stripe(key));
+  }
+
+  /**
+   * Caches the result of an index lookup unless the key was invalidated since {@code stamp} was obtained.
+   * @param key the {@link StoreKey} that was looked up.
+   * @param value the latest {@link IndexValue} of {@code key}.
+   * @param segmentStartOffset the start offset of the {@link IndexSegment} that holds {@code value}.
+   * @param stamp the stamp returned by {@link #getStamp(StoreKey)} before the lookup started.
+   */
+  void put(StoreKey key, IndexValue value, Offset segmentStartOffset, long stamp) {
+    int stripe = stripe(key);
+    if (segmentStartOffset == null || stripeVersions.get(stripe) != stamp) {
+      return;
+    }
+    CachedIndexValue cached = new CachedIndexValue(copy(value), segmentStartOffset);
+    Segment segment = segment(stripe);
+    synchronized (segment) {
+      // an invalidation bumps the version before it takes the segment lock to remove the key, so checking the version
+      // under the lock guarantees that a stale value is either not inserted or removed by the invalidation.
+      if (stripeVersions.get(stripe) == stamp) {
+        segment.put(key, cached);
+      }
+    }
+  }
+
+  /**
+   * Invalidates the cached value of {@code key}. Must be called after the new entry is visible in the index.
+   * @param key the {@link StoreKey} to invalidate.
+   */
+  void invalidate(StoreKey key) {
+    int stripe = stripe(key);
+    stripeVersions.incrementAndGet(stripe);
+    Segment segment = segment(stripe);
+    synchronized (segment) {
+      segment.remove(key);
+    }
+  }
+
+  /**
+   * Invalidates all cached values. Must be called after the new index segments are visible in the index.
+   */
+  void invalidateAll() {
+    for (int i = 0; i < STRIPE_COUNT; i++) {
+      stripeVersions.incrementAndGet(i);
+    }
+    for (Segment segment : segments) {
+      synchronized (segment) {
+        segment.clear();
+      }
+    }
+  }
+
+  /**
+   * @return the number of keys in the cache.
+   */
+  int size() {
+    int size = 0;
+    for (Segment segment : segments) {
+      synchronized (segment) {
+        size += segment.size();
+      }
+    }
+    return size;
+  }
+
+  /**
+   * @param stripe the stripe of a key.
+   * @return the {@link Segment} that holds the keys of {@code stripe}.
+   */
+  private Segment segment(int stripe) {
+    return segments[stripe & (segments.length - 1)];
+  }
+
+  private static int stripe(StoreKey key) {
+    int hash = key.hashCode();
+    return (hash ^ (hash >>> 16)) & (STRIPE_COUNT - 1);
+  }
+
+  private static IndexValue copy(IndexValue value) {
+    return new IndexValue(value.getOffset().getName(), value.getBytes(), value.getFormatVersion());
+  }
+
+  /**
+   * An access ordered map that drops its least recently used entry once it holds more than {@code maxEntries}. It is
+   * not thread safe and all access must be synchronized on the segment.
+   */
+  private static class Segment extends LinkedHashMap<StoreKey, CachedIndexValue> {
+    private final int maxEntries;
+
+    Segment(int maxEntries) {
+      super(16, 0.75f, true);
+      this.maxEntries = maxEntries;
+    }
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<StoreKey, CachedIndexValue> eldest) {
+      return size() > maxEntries;
+    }
+  }
+
+  /**
+   * A cached {@link IndexValue} and the start offset of the {@link IndexSegment} it was found in.
+   */
+  private static class CachedIndexValue {
+    final IndexValue value;
+    final Offset segmentStartOffset;
+
+    CachedIndexValue(IndexValue value, Offset segmentStartOffset) {
+      this.value = value;
+      this.segmentStartOffset = segmentStartOffset;
+    }
+  }
+}
@@ -43,13 +43,10 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
-import java.util.NavigableMap;
 import java.util.NavigableSet;
 import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.TreeSet;
-import java.util.concurrent.ConcurrentSkipListMap;
-import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -105,6 +102,8 @@ class IndexSegment implements Iterable<IndexEntry> {
   private int indexSizeExcludingEntries;
   private int firstKeyRelativeOffset;
   private ByteBuffer serEntries = null;
+  // keys sampled every storeIndexSealedSegmentFenceInterval entries of serEntries, built lazily on first lookup
+  private volatile StoreKey[] fences = null;
   private IFilter bloomFilter = null;
   private int valueSize;
   private int persistedEntrySize;
@@ -112,7 +111,7 @@ class IndexSegment implements Iterable<IndexEntry> {
   private Offset prevSafeEndPoint = null;
   // reset key refers to the first StoreKey that is added to the index segment
   private ResetKeyInfo resetKeyInfo = null;
-  private NavigableMap<StoreKey, ConcurrentSkipListSet<IndexValue>> index = null;
+  private InMemoryIndex index = null;
 
   /**
    * Creates a new segment
@@ -135,11 +134,10 @@ class IndexSegment implements Iterable<IndexEntry> {
     this.time = time;
     this.valueSize = valueSize;
     endOffset = new AtomicReference<>(startOffset);
-    index = new ConcurrentSkipListMap<>();
+    index = createInMemoryIndex();
     version = PersistentIndex.CURRENT_VERSION;
     persistedEntrySize = Math.max(config.storeIndexPersistedEntryMinBytes, entrySize);
-    bloomFilter = FilterFactory.getFilter(config.storeIndexMaxNumberOfInmemElements,
-        config.storeIndexBloomMaxFalsePositiveProbability, config.storeBloomFilterMaximumPageCount);
+    bloomFilter = createBloomFilter(config.storeIndexMaxNumberOfInmemElements);
     lastModifiedTimeSec.set(time.seconds());
     indexSegmentFilenamePrefix = generateIndexSegmentFilenamePrefix(startOffset);
     indexFile = new File(dataDir, indexSegmentFilenamePrefix + INDEX_SEGMENT_FILE_NAME_SUFFIX);
@@ -211,9 +209,8 @@ class IndexSegment implements Iterable<IndexEntry> {
           Utils.setFilesPermission(Arrays.asList(this.indexFile, bloomFile), config.storeDataFilePermission);
         }
       } else {
-        index = new ConcurrentSkipListMap<>();
-        bloomFilter = FilterFactory.getFilter(config.storeIndexMaxNumberOfInmemElements,
-            config.storeIndexBloomMaxFalsePositiveProbability, config.storeBloomFilterMaximumPageCount);
+        index = createInMemoryIndex();
+        bloomFilter = createBloomFilter(config.storeIndexMaxNumberOfInmemElements);
         try {
           readFromFile(indexFile, journal);
         } catch (StoreException e) {
@@ -374,14 +371,14 @@ class IndexSegment implements Iterable<IndexEntry> {
    */
   NavigableSet<IndexValue> find(StoreKey keyToFind) throws StoreException {
     NavigableSet<IndexValue> toReturn = null;
-    NavigableMap<StoreKey, ConcurrentSkipListSet<IndexValue>> indexCopy = index;
+    InMemoryIndex indexCopy = index;
     rwLock.readLock().lock();
     try {
       if (!sealed.get()) {
-        ConcurrentSkipListSet<IndexValue> values = indexCopy.get(keyToFind);
+        NavigableSet<IndexValue> values = indexCopy.get(keyToFind);
         if (values != null) {
           metrics.blobFoundInMemSegmentCount.inc();
-          toReturn = values.clone();
+          toReturn = values;
         }
       } else {
         if (bloomFilter != null) {
@@ -408,27 +405,11 @@ class IndexSegment implements Iterable<IndexEntry> {
               metrics.mappedSegmentIsNotLoadedDuringFindCount.inc();
             }
           }
-          // binary search on the mapped file
           ByteBuffer duplicate = serEntries.duplicate();
-          int low = 0;
-          int totalEntries = numberOfEntries(duplicate);
-          int high = totalEntries - 1;
-          logger.trace("binary search low : {} high : {}", low, high);
-          while (low <= high) {
-            int mid = (int) (Math.ceil(high / 2.0 + low / 2.0));
-            StoreKey found = getKeyAt(duplicate, mid);
-            logger.trace("Index Segment {} binary search - key found on iteration {}", indexFile.getAbsolutePath(),
-                found);
-            int result = found.compareTo(keyToFind);
-            if (result == 0) {
-              toReturn = new TreeSet<>();
-              getAllValuesFromMmap(duplicate, keyToFind, mid, totalEntries, toReturn);
-              break;
-            } else if (result < 0) {
-              low = mid + 1;
-            } else {
-              high = mid - 1;
-            }
+          int index = findIndex(keyToFind, duplicate);
+          if (index != -1) {
+            toReturn = new TreeSet<>();
+            getAllValuesFromMmap(duplicate, keyToFind, index, numberOfEntries(duplicate), toReturn);
           }
           if (bloomFilter != null && toReturn == null) {
             metrics.bloomFalsePositiveCount.inc();
@@ -455,6 +436,26 @@ class IndexSegment implements Iterable<IndexEntry> {
         : ByteBuffer.wrap(key.toBytes());
   }
 
+  /**
+   * @return a new, empty {@link InMemoryIndex} of the type selected by
+   *         {@link StoreConfig#storeIndexInMemSegmentOffHeapEnabled}.
+   */
+  private InMemoryIndex createInMemoryIndex() {
+    return config.storeIndexInMemSegmentOffHeapEnabled ? new OffHeapInMemoryIndex(factory, startOffset.getName())
+        : new SkipListInMemoryIndex();
+  }
+
+  /**
+   * @param numElements the number of elements the bloom filter should hold.
+   * @return a new, empty bloom filter of the type selected by {@link StoreConfig#storeIndexBlockedBloomFilterEnabled}.
+   */
+  private IFilter createBloomFilter(long numElements) {
+    return config.storeIndexBlockedBloomFilterEnabled ? FilterFactory.getBlockedFilter(numElements,
+        config.storeIndexBloomMaxFalsePositiveProbability)
+        : FilterFactory.getFilter(numElements, config.storeIndexBloomMaxFalsePositiveProbability,
+            config.storeBloomFilterMaximumPageCount);
+  }
+
   /**
    * Generate bloom filter by walking through all index entries in this segment and persist it.
    * @throws StoreException
@@ -464,8 +465,7 @@ class IndexSegment implements Iterable<IndexEntry> {
     // This is a workaround since we found higher than intended false positive rates with small bloom filter sizes. Note
     // that the number of entries in each index segment varies (from hundreds to thousands), the workaround ensures bloom
     // filter uses at least storeIndexMaxNumberOfInmemElements for creation to achieve decent performance.
-    bloomFilter = FilterFactory.getFilter(Math.max(numOfIndexEntries, config.storeIndexMaxNumberOfInmemElements),
-        config.storeIndexBloomMaxFalsePositiveProbability, config.storeBloomFilterMaximumPageCount);
+    bloomFilter = createBloomFilter(Math.max(numOfIndexEntries, config.storeIndexMaxNumberOfInmemElements));
     for (int i = 0; i < numOfIndexEntries; i++) {
       StoreKey key = getKeyAt(serEntries, i);
       bloomFilter.add(getStoreKeyBytes(key));
@@ -531,6 +531,26 @@ class IndexSegment implements Iterable<IndexEntry> {
     return (mmap.capacity() - indexSizeExcludingEntries) / persistedEntrySize;
   }
 
+  /**
+   * @param mmap the serEntries to sample the fences from.
+   * @return the keys at every {@link StoreConfig#storeIndexSealedSegmentFenceInterval}th entry of this sealed segment,
+   *         or {@code null} if fences are disabled.
+   * @throws StoreException if there are problems reading from the mmap
+   */
+  private StoreKey[] getFences(ByteBuffer mmap) throws StoreException {
+    StoreKey[] fencesCopy = fences;
+    int interval = config.storeIndexSealedSegmentFenceInterval;
+    if (fencesCopy == null && interval > 0) {
+      int totalEntries = numberOfEntries(mmap);
+      fencesCopy = new StoreKey[(totalEntries + interval - 1) / interval];
+      for (int i = 0; i < fencesCopy.length; i++) {
+        fencesCopy[i] = getKeyAt(mmap, i * interval);
+      }
+      fences = fencesCopy;
+    }
+    return fencesCopy;
+  }
+
   private StoreKey getKeyAt(ByteBuffer mmap, int index) throws StoreException {
     StoreKey storeKey = null;
     try {
@@ -548,10 +568,43 @@ class IndexSegment implements Iterable<IndexEntry> {
     return storeKey;
   }
 
+  /**
+   * Finds the position of {@code keyToFind} in the mapped segment. If fences are enabled, the fences narrow the search
+   * down to a single block of adjacent entries first, so that only a few keys, all on the same one or two pages, are
+   * read from the mapped file.
+   * @param keyToFind the {@link StoreKey} to find.
+   * @param mmap the serEntries to search.
+   * @return the index of one of the entries of {@code keyToFind}, or -1 if the key is not in this segment.
+   * @throws StoreException if there are problems reading from the mmap
+   */
   private int findIndex(StoreKey keyToFind, ByteBuffer mmap) throws StoreException {
-    // binary search on the mapped file
     int low = 0;
     int high = numberOfEntries(mmap) - 1;
+    StoreKey[] fencesCopy = getFences(mmap);
+    if (fencesCopy != null) {
+      int interval = config.storeIndexSealedSegmentFenceInterval;
+      int block = -1;
+      int fenceLow = 0;
+      int fenceHigh = fencesCopy.length - 1;
+      while (fenceLow <= fenceHigh) {
+        int mid = (fenceLow + fenceHigh) >>> 1;
+        int result = fencesCopy[mid].compareTo(keyToFind);
+        if (result == 0) {
+          return mid * interval;
+        } else if (result < 0) {
+          block = mid;
+          fenceLow = mid + 1;
+        } else {
+          fenceHigh = mid - 1;
+        }
+      }
+      if (block == -1) {
+        return -1;
+      }
+      low = block * interval + 1;
+      high = Math.min(high, (block + 1) * interval - 1);
+    }
+    // binary search on the mapped file
     logger.trace("IndexSegment {} binary search low : {} high : {}", indexFile.getAbsolutePath(), low, high);
     while (low <= high) {
       int mid = (int) (Math.ceil(high / 2.0 + low / 2.0));
@@ -586,9 +639,7 @@ class IndexSegment implements Iterable<IndexEntry> {
               + "originalMessageOffset {} fileEndOffset {}", indexFile.getAbsolutePath(), entry.getKey(),
           entry.getValue().getOffset(), entry.getValue().getSize(), entry.getValue().getExpiresAtMs(),
           entry.getValue().getOriginalMessageOffset(), fileEndOffset);
-      boolean isPresent = index.containsKey(entry.getKey());
-      index.computeIfAbsent(entry.getKey(), key -> new ConcurrentSkipListSet<>()).add(entry.getValue());
-      if (!isPresent) {
+      if (index.add(entry.getKey(), entry.getValue())) {
         bloomFilter.add(getStoreKeyBytes(entry.getKey()));
       }
       if (resetKeyInfo == null) {
@@ -788,7 +839,9 @@ class IndexSegment implements Iterable<IndexEntry> {
           maxPaddingBytes = new byte[persistedEntrySize - valueSize];
         }
         if (index != null) {
-          for (Map.Entry<StoreKey, ConcurrentSkipListSet<IndexValue>> entry : index.entrySet()) {
+          Iterator<Map.Entry<StoreKey, NavigableSet<IndexValue>>> entries = index.entries(null, true);
+          while (entries.hasNext()) {
+            Map.Entry<StoreKey, NavigableSet<IndexValue>> entry = entries.next();
             for (IndexValue value : entry.getValue()) {
               if (value.getOffset().getOffset() + value.getSize() <= safeEndPoint.getOffset()) {
                 writer.write(entry.getKey().toBytes());
@@ -850,7 +903,7 @@ class IndexSegment implements Iterable<IndexEntry> {
    */
   IndexValue getIndexValueOfLastPut() throws StoreException {
     IndexValue indexValueOfLastPut = null;
-    NavigableMap<StoreKey, ConcurrentSkipListSet<IndexValue>> indexCopy = index;
+    InMemoryIndex indexCopy = index;
     rwLock.readLock().lock();
     boolean isSealed = sealed.get();
     rwLock.readLock().unlock();
@@ -875,8 +928,9 @@ class IndexSegment implements Iterable<IndexEntry> {
         }
       }
     } else {
-      for (Map.Entry<StoreKey, ConcurrentSkipListSet<IndexValue>> entry : indexCopy.entrySet()) {
-        for (IndexValue indexValue : entry.getValue()) {
+      Iterator<Map.Entry<StoreKey, NavigableSet<IndexValue>>> entries = indexCopy.entries(null, true);
+      while (entries.hasNext()) {
+        for (IndexValue indexValue : entries.next().getValue()) {
           // FLAGS_DEFAULT_VALUE means PUT record
           if (indexValue.getFlags() == IndexValue.FLAGS_DEFAULT_VALUE && (indexValueOfLastPut == null
               || indexValue.compareTo(indexValueOfLastPut) > 0)) {
@@ -911,6 +965,7 @@ class IndexSegment implements Iterable<IndexEntry> {
           break;
       }
       checkDataIntegrity();
+      fences = null;
       serEntries.position(0);
       setVersion(serEntries.getShort());
       StoreKey storeKey;
@@ -1048,12 +1103,11 @@ class IndexSegment implements Iterable<IndexEntry> {
         long offsetInLogSegment = blobValue.getOffset().getOffset();
         // ignore entries that have offsets outside the log end offset that this index represents
         if (offsetInLogSegment + blobValue.getSize() <= logEndOffset) {
-          boolean isPresent = index.containsKey(key);
-          index.computeIfAbsent(key, k -> new ConcurrentSkipListSet<>()).add(blobValue);
+          boolean isNewKey = index.add(key, blobValue);
           logger.trace("IndexSegment : {} putting key {} in index offset {} size {}", indexFile.getAbsolutePath(), key,
               blobValue.getOffset(), blobValue.getSize());
           // regenerate the bloom filter for index segments that are not sealed
-          if (!isPresent) {
+          if (isNewKey) {
             bloomFilter.add(getStoreKeyBytes(key));
           }
           // add to the journal
@@ -1161,12 +1215,12 @@ class IndexSegment implements Iterable<IndexEntry> {
    * @return an {@link Iterator<IndexEntry>}.
    */
   public Iterator<IndexEntry> iterator() {
-    NavigableMap<StoreKey, ConcurrentSkipListSet<IndexValue>> indexCopy = index;
+    InMemoryIndex indexCopy = index;
     rwLock.readLock().lock();
     boolean isSealed = sealed.get();
     rwLock.readLock().unlock();
     if (!isSealed) {
-      return new UnsealedIndexSegmentEntryIterator(indexCopy);
+      return new UnsealedIndexSegmentEntryIterator(indexCopy.entries(null, true));
     }
     return new SealedIndexSegmentEntryIterator(serEntries);
   }
@@ -1191,12 +1245,12 @@ class IndexSegment implements Iterable<IndexEntry> {
    * @return an {@link Iterator<IndexEntry>}.
    */
   ListIterator<IndexEntry> listIterator(int idx) {
-    NavigableMap<StoreKey, ConcurrentSkipListSet<IndexValue>> indexCopy = index;
+    InMemoryIndex indexCopy = index;
     rwLock.readLock().lock();
     boolean isSealed = sealed.get();
     rwLock.readLock().unlock();
     if (!isSealed) {
-      return new UnsealedIndexSegmentEntryListIterator(indexCopy, idx);
+      return new UnsealedIndexSegmentEntryListIterator(indexCopy.entries(null, true), idx);
     }
     return new SealedIndexSegmentEntryListIterator(serEntries, idx);
   }
@@ -1222,7 +1276,7 @@ class IndexSegment implements Iterable<IndexEntry> {
     }
 
     // These variables would change with sealed boolean
-    NavigableMap<StoreKey, ConcurrentSkipListSet<IndexValue>> indexCopy = index;
+    InMemoryIndex indexCopy = index;
     NavigableSet<IndexValue> values = new TreeSet<>();
     List<IndexEntry> entriesLocal = new ArrayList<>();
     rwLock.readLock().lock();
@@ -1255,11 +1309,9 @@ class IndexSegment implements Iterable<IndexEntry> {
         metrics.keyInFindEntriesAbsent.inc();
       }
     } else if (key == null || indexCopy.containsKey(key)) {
-      NavigableMap<StoreKey, ConcurrentSkipListSet<IndexValue>> tempMap = indexCopy;
-      if (key != null) {
-        tempMap = indexCopy.tailMap(key, inclusive);
-      }
-      for (Map.Entry<StoreKey, ConcurrentSkipListSet<IndexValue>> entry : tempMap.entrySet()) {
+      Iterator<Map.Entry<StoreKey, NavigableSet<IndexValue>>> indexEntries = indexCopy.entries(key, inclusive);
+      while (indexEntries.hasNext()) {
+        Map.Entry<StoreKey, NavigableSet<IndexValue>> entry = indexEntries.next();
         for (IndexValue value : entry.getValue()) {
           IndexValue newValue = new IndexValue(startOffset.getName(), value.getBytes(), getVersion());
           entriesLocal.add(new IndexEntry(entry.getKey(), newValue));
@@ -1504,16 +1556,12 @@ class IndexSegment implements Iterable<IndexEntry> {
     protected final ArrayList<IndexEntry> entries = new ArrayList<>();
     protected final Iterator<IndexEntry> it;
 
-    UnsealedIndexSegmentEntryIterator(NavigableMap<StoreKey, ConcurrentSkipListSet<IndexValue>> index) {
-      NavigableMap<StoreKey, ConcurrentSkipListSet<IndexValue>> indexMap = index;
-      StoreKey keyCursor = indexMap.firstKey();
-      while (keyCursor != null) {
-        ConcurrentSkipListSet<IndexValue> indexValues = indexMap.get(keyCursor);
-        Iterator<IndexValue> it = indexValues.iterator();
-        while (it.hasNext()) {
-          entries.add(new IndexEntry(keyCursor, it.next()));
+    UnsealedIndexSegmentEntryIterator(Iterator<Map.Entry<StoreKey, NavigableSet<IndexValue>>> index) {
+      while (index.hasNext()) {
+        Map.Entry<StoreKey, NavigableSet<IndexValue>> entry = index.next();
+        for (IndexValue indexValue : entry.getValue()) {
+          entries.add(new IndexEntry(entry.getKey(), indexValue));
         }
-        keyCursor = indexMap.higherKey(keyCursor);
       }
       it = entries.iterator();
     }
@@ -1537,7 +1585,7 @@ class IndexSegment implements Iterable<IndexEntry> {
       implements ListIterator<IndexEntry> {
     private final ListIterator<IndexEntry> listiter;
 
-    UnsealedIndexSegmentEntryListIterator(NavigableMap<StoreKey, ConcurrentSkipListSet<IndexValue>> index,
+    UnsealedIndexSegmentEntryListIterator(Iterator<Map.Entry<StoreKey, NavigableSet<IndexValue>>> index,
         int currentIndex) {
       super(index);
       listiter = entries.listIterator(currentIndex);
@@ -14,6 +14,8 @@
 package com.github.ambry.store;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.NavigableMap;
@@ -240,6 +242,27 @@ class Journal {
     return recentCrcs.get(key);
   }
 
+  /**
+   * @return a copy of the crcs of the keys in the journal that have one.
+   */
+  Map<StoreKey, Long> getRecentCrcs() {
+    return new HashMap<>(recentCrcs);
+  }
+
+  /**
+   * Restores the crcs of keys that are in the journal but whose crc is not known, like after the journal was rebuilt
+   * from the index on startup. Crcs of keys that are not in the journal are ignored.
+   * @param crcs the crcs to restore.
+   */
+  void restoreCrcs(Map<StoreKey, Long> crcs) {
+    for (StoreKey key : new HashSet<>(journal.values())) {
+      Long crc = crcs.get(key);
+      if (crc != null) {
+        recentCrcs.putIfAbsent(key, crc);
+      }
+    }
+  }
+
   /**
    * @param offset the offset of the record whose key is needed
    * @return the {@link StoreKey} of the record at {@code offset}. {@code null} if the journal is not tracking that
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2021 LinkedIn Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ */
+package com.github.ambry.store;
+
+import com.github.ambry.utils.CrcInputStream;
+import com.github.ambry.utils.CrcOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Persists the crcs of the recent blobs held by the {@link Journal}. The journal is rebuilt from the index segments on
+ * startup but the index does not record crcs, so without this the journal forgets them on every restart.
+ *
+ * The snapshot is persisted along with the index and records the end offset of the index it was persisted with. It is
+ * only restored if the index was loaded up to that same offset.
+ */
+class JournalCrcSnapshot {
+  static final String FILE_NAME = "journal_crcs";
+  private static final short VERSION_0 = 0;
+  private static final Logger logger = LoggerFactory.getLogger(JournalCrcSnapshot.class);
+
+  private final File file;
+  private final StoreKeyFactory factory;
+
+  /**
+   * @param dataDir the directory of the store that holds the snapshot.
+   * @param factory the {@link StoreKeyFactory} used to read the keys of the snapshot.
+   */
+  JournalCrcSnapshot(String dataDir, StoreKeyFactory factory) {
+    file = new File(dataDir, FILE_NAME);
+    this.factory = factory;
+  }
+
+  /**
+   * Restores the crcs of the snapshot into {@code journal}, if the snapshot is consistent with the loaded index.
+   * @param indexEndOffset the end {@link Offset} of the index segments loaded from disk, before recovery. {@code null}
+   *                       if there are none.
+   * @param journal the {@link Journal} bootstrapped from the loaded index segments.
+   */
+  void restore(Offset indexEndOffset, Journal journal) {
+    if (!file.exists()) {
+      return;
+    }
+    try (FileInputStream fileInputStream = new FileInputStream(file)) {
+      CrcInputStream crcStream = new CrcInputStream(fileInputStream);
+      DataInputStream stream = new DataInputStream(crcStream);
+      short version = stream.readShort();
+      if (version != VERSION_0) {
+        throw new IllegalArgumentException("Unrecognized version: " + version);
+      }
+      Offset coveredEndOffset = stream.readByte() == (byte) 1 ? Offset.fromBytes(stream) : null;
+      int count = stream.readInt();
+      Map<StoreKey, Long> crcs = new HashMap<>();
+      for (int i = 0; i < count; i++) {
+        StoreKey key = factory.getStoreKey(stream);
+        crcs.put(key, stream.readLong());
+      }
+      long crc = crcStream.getValue();
+      if (crc != stream.readLong()) {
+        throw new IllegalStateException("CRC of data read does not match CRC in file");
+      }
+      if (!Objects.equals(coveredEndOffset, indexEndOffset)) {
+        logger.info("Not restoring {} because it was persisted with index end offset {} but the index ends at {}", file,
+            coveredEndOffset, indexEndOffset);
+        return;
+      }
+      journal.restoreCrcs(crcs);
+      logger.info("Restored {} journal crcs from {}", crcs.size(), file);
+    } catch (IOException | RuntimeException e) {
+      logger.warn("Could not restore journal crcs from {}", file, e);
+    }
+  }
+
+  /**
+   * Persists the crcs currently held by {@code journal}. Must be called after the index has been persisted up to
+   * {@code coveredEndOffset}.
+   * @param coveredEndOffset the end {@link Offset} up to which the index has been persisted.
+   * @param journal the {@link Journal} of the index.
+   */
+  void persist(Offset coveredEndOffset, Journal journal) {
+    Map<StoreKey, Long> crcs = journal.getRecentCrcs();
+    /*
+        Description of serialized format
+          version
+          byte to indicate whether the covered end offset is present (1) or not (0)
+          covered end offset if not null
+          number of crcs
+          key 1, crc 1
+          ...
+          crc
+     */
+    File tempFile = new File(file.getAbsolutePath() + ".tmp");
+    try (FileOutputStream fileOutputStream = new FileOutputStream(tempFile)) {
+      CrcOutputStream crcOutputStream = new CrcOutputStream(fileOutputStream);
+      DataOutputStream stream = new DataOutputStream(crcOutputStream);
+      stream.writeShort(VERSION_0);
+      if (coveredEndOffset == null) {
+        stream.writeByte(0);
+      } else {
+        stream.writeByte(1);
+        stream.write(coveredEndOffset.toBytes());
+      }
+      stream.writeInt(crcs.size());
+      for (Map.Entry<StoreKey, Long> entry : crcs.entrySet()) {
+        stream.write(entry.getKey().toBytes());
+        stream.writeLong(entry.getValue());
+      }
+      stream.writeLong(crcOutputStream.getValue());
+      stream.flush();
+      fileOutputStream.getChannel().force(true);
+    } catch (IOException e) {
+      // a stale snapshot is not restored since the index end offset it records won't match the index anymore.
+      logger.error("Could not persist {}", file, e);
+      return;
+    }
+    if (!tempFile.renameTo(file)) {
+      logger.error("Could not rename {} to {}", tempFile, file);
+    }
+  }
+
+  /**
+   * Deletes the snapshot of the store in {@code dataDir}, if any.
+   * @param dataDir the directory of the store.
+   */
+  static void deleteFile(String dataDir) {
+    File file = new File(dataDir, FILE_NAME);
+    if (file.exists() && !file.delete()) {
+      logger.warn("Could not delete {}", file);
+    }
+  }
+}
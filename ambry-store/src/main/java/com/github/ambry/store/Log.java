@@ -171,6 +171,26 @@ class Log implements Write {
     activeSegment.appendFrom(channel, size);
   }
 
+  /**
+   * {@inheritDoc}
+   * <p/>
+   * Appends the content of all the {@code buffers} to the active log segment with a single gathering write. The data
+   * will be written to a single log segment i.e. the data will not exist across segments.
+   * @param buffers The buffers from which data needs to be written from
+   * @throws IllegalArgumentException if the total size of {@code buffers} is greater than a single segment's size.
+   * @throws IllegalStateException if there no more capacity in the log.
+   * @throws StoreException if there was a store exception while writing.
+   */
+  @Override
+  public void appendFrom(ByteBuffer[] buffers) throws StoreException {
+    long size = 0;
+    for (ByteBuffer buffer : buffers) {
+      size += buffer.remaining();
+    }
+    rollOverIfRequired(size);
+    activeSegment.appendFrom(buffers, size);
+  }
+
   /**
    * Sets the active segment in the log.
    * </p>
@@ -261,6 +261,36 @@ class LogSegment implements Read, Write {
     endOffset.addAndGet(bytesWritten);
   }
 
+  /**
+   * Attempts to write the {@code buffers} in their entirety in this segment with a gathering write, so that data that
+   * is already in (direct) memory doesn't have to be copied through {@link #byteBufferForAppend}. To guarantee that
+   * the write is persisted, {@link #flush()} has to be called.
+   * <p/>
+   * The write is not started if it cannot be completed.
+   * @param buffers The buffers from which data needs to be written from
+   * @param size The total number of bytes remaining in {@code buffers}
+   * @throws IllegalArgumentException if there is not enough space for data of size {@code size}.
+   * @throws StoreException if data could not be written to the file because of store exception
+   */
+  void appendFrom(ByteBuffer[] buffers, long size) throws StoreException {
+    validateAppendSize(size);
+    long bytesWritten = 0;
+    try {
+      // FileChannel has no positional gathering write. Appends are serialized by the store and reads are positional,
+      // so moving the channel position to the end offset here doesn't affect anything else.
+      fileChannel.position(endOffset.get());
+      while (bytesWritten < size) {
+        bytesWritten += fileChannel.write(buffers);
+      }
+    } catch (ClosedChannelException e) {
+      throw new StoreException("Channel closed while writing into the log segment", e, StoreErrorCodes.Channel_Closed);
+    } catch (IOException e) {
+      StoreErrorCodes errorCode = StoreException.resolveErrorCode(e);
+      throw new StoreException(errorCode.toString() + " while writing into the log segment", e, errorCode);
+    }
+    endOffset.addAndGet(bytesWritten);
+  }
+
   /**
    * <p/>
    * Attempts to write the {@code byteArray} to this segment in direct IO manner.
@@ -0,0 +1,239 @@
+/*
+ * Copyright 2021 LinkedIn Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ */
+package com.github.ambry.store;
+
+import com.github.ambry.utils.CrcInputStream;
+import com.github.ambry.utils.CrcOutputStream;
+import com.github.ambry.utils.Utils;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Predicate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Tracks, for the log segments whose records have all been added to the index while tracking was on, how many of
+ * their index entries may no longer be valid. An entry may be invalid if it is not a PUT (DELETE, TTL update and
+ * UNDELETE records need the state of other records to be validated) or if a later record of the same key was added.
+ * A tracked log segment without any such entry only holds PUTs that are the latest state of their keys, so they are all
+ * valid until the earliest of their expiration times. This lets compaction and stats skip the index lookups that
+ * validate the entries of such a segment.
+ *
+ * The counts are persisted along with the index and the file records the end offset of the index it was persisted
+ * with. The counts are only reloaded if the index was loaded up to that same offset, so that recovery replays every
+ * record that happened after the counts were persisted. Replaying a record that was already counted only makes the
+ * counts higher, which is safe.
+ */
+class LogSegmentValidityTracker {
+  static final String FILE_NAME = "log_segment_validity";
+  private static final short VERSION_0 = 0;
+  private static final Logger logger = LoggerFactory.getLogger(LogSegmentValidityTracker.class);
+
+  private final File file;
+  // guarded by this
+  private final Map<LogSegmentName, SegmentState> states = new HashMap<>();
+
+  /**
+   * @param dataDir the directory of the store that holds the file of the tracker.
+   */
+  LogSegmentValidityTracker(String dataDir) {
+    file = new File(dataDir, FILE_NAME);
+  }
+
+  /**
+   * Loads the persisted counts, if they are consistent with the loaded index. Otherwise no log segment is tracked.
+   * @param indexEndOffset the end {@link Offset} of the index segments loaded from disk, before recovery. {@code null}
+   *                       if there are none.
+   * @param isPresent whether a log segment is still in the log. Log segments that aren't are dropped.
+   */
+  synchronized void load(Offset indexEndOffset, Predicate<LogSegmentName> isPresent) {
+    states.clear();
+    if (!file.exists()) {
+      return;
+    }
+    try (FileInputStream fileInputStream = new FileInputStream(file)) {
+      CrcInputStream crcStream = new CrcInputStream(fileInputStream);
+      DataInputStream stream = new DataInputStream(crcStream);
+      short version = stream.readShort();
+      if (version != VERSION_0) {
+        throw new IllegalArgumentException("Unrecognized version: " + version);
+      }
+      Offset coveredEndOffset = stream.readByte() == (byte) 1 ? Offset.fromBytes(stream) : null;
+      int count = stream.readInt();
+      Map<LogSegmentName, SegmentState> loaded = new HashMap<>();
+      for (int i = 0; i < count; i++) {
+        LogSegmentName name = LogSegmentName.fromString(Utils.readIntString(stream, StandardCharsets.UTF_8));
+        loaded.put(name, new SegmentState(stream.readLong(), stream.readLong()));
+      }
+      long crc = crcStream.getValue();
+      if (crc != stream.readLong()) {
+        throw new IllegalStateException("CRC of data read does not match CRC in file");
+      }
+      if (!Objects.equals(coveredEndOffset, indexEndOffset)) {
+        logger.info("Not loading {} because it was persisted with index end offset {} but the index ends at {}", file,
+            coveredEndOffset, indexEndOffset);
+        return;
+      }
+      loaded.forEach((name, state) -> {
+        if (isPresent.test(name)) {
+          states.put(name, state);
+        }
+      });
+      logger.info("Loaded validity of {} log segments from {}", states.size(), file);
+    } catch (IOException | RuntimeException e) {
+      logger.warn("Could not load {}, no log segment will be tracked until new ones are created", file, e);
+    }
+  }
+
+  /**
+   * Records that an entry is about to be added to the index.
+   * @param value the {@link IndexValue} of the entry.
+   * @param startsLogSegment {@code true} if the entry is the first record of its log segment, in which case the log
+   *                         segment starts being tracked.
+   */
+  synchronized void onEntryAdded(IndexValue value, boolean startsLogSegment) {
+    LogSegmentName name = value.getOffset().getName();
+    if (startsLogSegment) {
+      states.putIfAbsent(name, new SegmentState(0, Long.MAX_VALUE));
+    }
+    SegmentState state = states.get(name);
+    if (state != null) {
+      if (!value.isPut()) {
+        state.possiblyInvalidEntryCount++;
+      } else if (value.getExpiresAtMs() != Utils.Infinite_Time) {
+        state.minExpiresAtMs = Math.min(state.minExpiresAtMs, value.getExpiresAtMs());
+      }
+    }
+  }
+
+  /**
+   * Records that a later record was added for the key of an existing entry.
+   * @param supersededValue the {@link IndexValue} of the existing entry.
+   */
+  synchronized void onEntrySuperseded(IndexValue supersededValue) {
+    SegmentState state = states.get(supersededValue.getOffset().getName());
+    if (state != null) {
+      state.possiblyInvalidEntryCount++;
+    }
+  }
+
+  /**
+   * @param name the {@link LogSegmentName} of the log segment.
+   * @param referenceTimeMs the time in ms against which the expiration of blobs is checked.
+   * @return {@code true} if all the records of the log segment are known to be valid at {@code referenceTimeMs}, that
+   *         is if it is tracked, only holds PUTs that are the latest state of their keys and none of them expired.
+   */
+  synchronized boolean isFullyValid(LogSegmentName name, long referenceTimeMs) {
+    SegmentState state = states.get(name);
+    return state != null && state.possiblyInvalidEntryCount == 0 && state.minExpiresAtMs >= referenceTimeMs;
+  }
+
+  /**
+   * @param name the {@link LogSegmentName} of the log segment.
+   * @return the number of entries of the log segment that may be invalid, or -1 if it is not tracked.
+   */
+  synchronized long getPossiblyInvalidEntryCount(LogSegmentName name) {
+    SegmentState state = states.get(name);
+    return state == null ? -1 : state.possiblyInvalidEntryCount;
+  }
+
+  /**
+   * Persists the counts. Must be called after the index has been persisted up to {@code coveredEndOffset}, so that the
+   * counts persisted include all the entries persisted in the index.
+   * @param coveredEndOffset the end {@link Offset} up to which the index has been persisted.
+   * @param isPresent whether a log segment is still in the log. Log segments that aren't are dropped.
+   */
+  void persist(Offset coveredEndOffset, Predicate<LogSegmentName> isPresent) {
+    Map<LogSegmentName, SegmentState> snapshot = new HashMap<>();
+    synchronized (this) {
+      states.keySet().removeIf(name -> !isPresent.test(name));
+      states.forEach((name, state) -> snapshot.put(name,
+          new SegmentState(state.possiblyInvalidEntryCount, state.minExpiresAtMs)));
+    }
+    /*
+        Description of serialized format
+          version
+          byte to indicate whether the covered end offset is present (1) or not (0)
+          covered end offset if not null
+          number of log segments
+          log segment name length and bytes, possibly invalid entry count, min expiration time of log segment 1
+          ...
+          crc
+     */
+    File tempFile = new File(file.getAbsolutePath() + ".tmp");
+    try (FileOutputStream fileOutputStream = new FileOutputStream(tempFile)) {
+      CrcOutputStream crcOutputStream = new CrcOutputStream(fileOutputStream);
+      DataOutputStream stream = new DataOutputStream(crcOutputStream);
+      stream.writeShort(VERSION_0);
+      if (coveredEndOffset == null) {
+        stream.writeByte(0);
+      } else {
+        stream.writeByte(1);
+        stream.write(coveredEndOffset.toBytes());
+      }
+      stream.writeInt(snapshot.size());
+      for (Map.Entry<LogSegmentName, SegmentState> entry : snapshot.entrySet()) {
+        byte[] nameBytes = entry.getKey().toString().getBytes(StandardCharsets.UTF_8);
+        stream.writeInt(nameBytes.length);
+        stream.write(nameBytes);
+        stream.writeLong(entry.getValue().possiblyInvalidEntryCount);
+        stream.writeLong(entry.getValue().minExpiresAtMs);
+      }
+      stream.writeLong(crcOutputStream.getValue());
+      stream.flush();
+      fileOutputStream.getChannel().force(true);
+    } catch (IOException e) {
+      // a stale file is not loaded since the index end offset it records won't match the index anymore.
+      logger.error("Could not persist {}", file, e);
+      return;
+    }
+    if (!tempFile.renameTo(file)) {
+      logger.error("Could not rename {} to {}", tempFile, file);
+    }
+  }
+
+  /**
+   * Deletes the persisted counts of the store in {@code dataDir}, if any. Used when tracking is turned off, so that
+   * stale counts are not loaded if it is turned on again.
+   * @param dataDir the directory of the store.
+   */
+  static void deleteFile(String dataDir) {
+    File file = new File(dataDir, FILE_NAME);
+    if (file.exists() && !file.delete()) {
+      logger.warn("Could not delete {}", file);
+    }
+  }
+
+  /**
+   * The validity state of a single log segment.
+   */
+  private static class SegmentState {
+    long possiblyInvalidEntryCount;
+    long minExpiresAtMs;
+
+    SegmentState(long possiblyInvalidEntryCount, long minExpiresAtMs) {
+      this.possiblyInvalidEntryCount = possiblyInvalidEntryCount;
+      this.minExpiresAtMs = minExpiresAtMs;
+    }
+  }
+}
@@ -0,0 +1,393 @@
+/**
+ * Copyright 2021 LinkedIn Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ */
+package com.github.ambry.store;
+
+import com.github.ambry.utils.ByteBufferInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.NoSuchElementException;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+
+/**
+ * An {@link InMemoryIndex} that keeps keys and values in off-heap slabs. Every entry is a record appended to a direct
+ * {@link ByteBuffer} slab. Keys are numbered in the order they are first added, and three arrays of primitive ints
+ * index the records: an open addressing table from key hash to key number, the address of the latest record of each
+ * key, and the key numbers sorted by {@link StoreKey}. Records of the same key are chained from the latest to the
+ * oldest. Adding an entry does not allocate any long lived heap object, so the GC cost of an active index segment does
+ * not grow with the number of entries in it.
+ *
+ * Record format:
+ * <pre>
+ * - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - -
+ * | key size | value size | value version | key hash | previous record |  key   | value  |
+ * | (2 bytes)|  (2 bytes) |   (2 bytes)   | (4 bytes)|    (4 bytes)    | (n b)  | (m b)  |
+ * - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - -
+ * </pre>
+ * Sorted access (replication, persistence and sealing) walks the sorted key numbers as they were when the iterator was
+ * created and deserializes keys and values from the slabs as it goes, so no heap copy of the index is kept.
+ */
+class OffHeapInMemoryIndex implements InMemoryIndex {
+  static final int SLAB_SIZE_IN_BYTES = 64 * 1024;
+  private static final int SLAB_SHIFT = 16;
+  private static final int POSITION_MASK = SLAB_SIZE_IN_BYTES - 1;
+  private static final int MAX_SLAB_COUNT = Integer.MAX_VALUE >>> SLAB_SHIFT;
+  private static final int KEY_SIZE_RELATIVE_OFFSET = 0;
+  private static final int VALUE_SIZE_RELATIVE_OFFSET = 2;
+  private static final int VALUE_VERSION_RELATIVE_OFFSET = 4;
+  private static final int KEY_HASH_RELATIVE_OFFSET = 6;
+  private static final int PREVIOUS_RECORD_RELATIVE_OFFSET = 10;
+  private static final int RECORD_HEADER_SIZE = 14;
+  private static final int NO_RECORD = -1;
+  private static final int NO_KEY = -1;
+  private static final int INITIAL_TABLE_SIZE = 256;
+  private static final int INITIAL_KEY_CAPACITY = 128;
+
+  private final StoreKeyFactory factory;
+  private final LogSegmentName logSegmentName;
+  private final ReadWriteLock rwLock = new ReentrantReadWriteLock();
+  private final List<ByteBuffer> slabs = new ArrayList<>();
+  // each slot holds the number of a key, or NO_KEY
+  private int[] table;
+  // the address (slab index << SLAB_SHIFT | position in slab) of the latest record of each key, by key number
+  private int[] latestRecords;
+  // the key numbers in the order of their StoreKey
+  private int[] sortedKeys;
+  private int numberOfKeys;
+  private int writePosition;
+
+  /**
+   * @param factory the {@link StoreKeyFactory} used to deserialize keys for sorted access.
+   * @param logSegmentName the name of the log segment that the {@link IndexValue}s of this index refer to.
+   */
+  OffHeapInMemoryIndex(StoreKeyFactory factory, LogSegmentName logSegmentName) {
+    this.factory = factory;
+    this.logSegmentName = logSegmentName;
+    resetKeys();
+  }
+
+  @Override
+  public NavigableSet<IndexValue> get(StoreKey key) {
+    byte[] keyBytes = key.toBytes();
+    int hash = hash(keyBytes);
+    rwLock.readLock().lock();
+    try {
+      int keyNumber = table[findSlot(table, keyBytes, hash)];
+      if (keyNumber == NO_KEY) {
+        return null;
+      }
+      return readValues(slabs, latestRecords[keyNumber]);
+    } finally {
+      rwLock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public boolean containsKey(StoreKey key) {
+    byte[] keyBytes = key.toBytes();
+    int hash = hash(keyBytes);
+    rwLock.readLock().lock();
+    try {
+      return table[findSlot(table, keyBytes, hash)] != NO_KEY;
+    } finally {
+      rwLock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public boolean add(StoreKey key, IndexValue value) {
+    byte[] keyBytes = key.toBytes();
+    ByteBuffer valueBytes = value.getBytes();
+    int recordSize = RECORD_HEADER_SIZE + keyBytes.length + valueBytes.remaining();
+    if (recordSize > SLAB_SIZE_IN_BYTES) {
+      throw new IllegalArgumentException("Entry of size " + recordSize + " for key " + key + " does not fit in a slab");
+    }
+    int hash = hash(keyBytes);
+    rwLock.writeLock().lock();
+    try {
+      int slot = findSlot(table, keyBytes, hash);
+      int keyNumber = table[slot];
+      int previousAddress = keyNumber == NO_KEY ? NO_RECORD : latestRecords[keyNumber];
+      if (slabs.isEmpty() || writePosition + recordSize > SLAB_SIZE_IN_BYTES) {
+        if (slabs.size() == MAX_SLAB_COUNT) {
+          throw new IllegalStateException("Off heap index is full after " + slabs.size() + " slabs");
+        }
+        slabs.add(ByteBuffer.allocateDirect(SLAB_SIZE_IN_BYTES));
+        writePosition = 0;
+      }
+      int address = ((slabs.size() - 1) << SLAB_SHIFT) | writePosition;
+      ByteBuffer record = slabs.get(slabs.size() - 1).duplicate();
+      record.position(writePosition);
+      record.putShort((short) keyBytes.length);
+      record.putShort((short) valueBytes.remaining());
+      record.putShort(value.getFormatVersion());
+      record.putInt(hash);
+      record.putInt(previousAddress);
+      record.put(keyBytes);
+      record.put(valueBytes.duplicate());
+      writePosition += recordSize;
+      if (keyNumber != NO_KEY) {
+        latestRecords[keyNumber] = address;
+        return false;
+      }
+      if (numberOfKeys == latestRecords.length) {
+        latestRecords = Arrays.copyOf(latestRecords, numberOfKeys * 2);
+        sortedKeys = Arrays.copyOf(sortedKeys, numberOfKeys * 2);
+      }
+      keyNumber = numberOfKeys;
+      latestRecords[keyNumber] = address;
+      table[slot] = keyNumber;
+      int sortedPosition = ceilingPosition(key);
+      System.arraycopy(sortedKeys, sortedPosition, sortedKeys, sortedPosition + 1, numberOfKeys - sortedPosition);
+      sortedKeys[sortedPosition] = keyNumber;
+      numberOfKeys++;
+      if (numberOfKeys * 2 > table.length) {
+        resize();
+      }
+      return true;
+    } finally {
+      rwLock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public void clear() {
+    rwLock.writeLock().lock();
+    try {
+      slabs.clear();
+      resetKeys();
+    } finally {
+      rwLock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public Iterator<Map.Entry<StoreKey, NavigableSet<IndexValue>>> entries(StoreKey fromKey, boolean inclusive) {
+    rwLock.readLock().lock();
+    try {
+      int start = 0;
+      if (fromKey != null) {
+        start = ceilingPosition(fromKey);
+        if (!inclusive && start < numberOfKeys && fromKey.compareTo(
+            readKey(slabs, latestRecords[sortedKeys[start]])) == 0) {
+          start++;
+        }
+      }
+      int[] addresses = new int[numberOfKeys - start];
+      for (int i = 0; i < addresses.length; i++) {
+        addresses[i] = latestRecords[sortedKeys[start + i]];
+      }
+      // records are never modified once written, so the iterator can read them after the lock is released.
+      return new SortedEntryIterator(new ArrayList<>(slabs), addresses);
+    } finally {
+      rwLock.readLock().unlock();
+    }
+  }
+
+  /**
+   * @return the number of bytes of off-heap memory held by this index.
+   */
+  long getOffHeapSizeInBytes() {
+    rwLock.readLock().lock();
+    try {
+      return (long) slabs.size() * SLAB_SIZE_IN_BYTES;
+    } finally {
+      rwLock.readLock().unlock();
+    }
+  }
+
+  private void resetKeys() {
+    table = new int[INITIAL_TABLE_SIZE];
+    Arrays.fill(table, NO_KEY);
+    latestRecords = new int[INITIAL_KEY_CAPACITY];
+    sortedKeys = new int[INITIAL_KEY_CAPACITY];
+    numberOfKeys = 0;
+    writePosition = 0;
+  }
+
+  /**
+   * @param key the {@link StoreKey} to look for.
+   * @return the position in {@link #sortedKeys} of the first key that is greater than or equal to {@code key}, or
+   *         {@link #numberOfKeys} if there is none.
+   */
+  private int ceilingPosition(StoreKey key) {
+    int low = 0;
+    int high = numberOfKeys;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (readKey(slabs, latestRecords[sortedKeys[mid]]).compareTo(key) < 0) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  /**
+   * Finds the slot in {@code slots} that holds {@code keyBytes}, or the empty slot where it would be inserted.
+   * @param slots the open addressing table to probe.
+   * @param keyBytes the serialized key.
+   * @param hash the hash of {@code keyBytes}.
+   * @return the index of the slot.
+   */
+  private int findSlot(int[] slots, byte[] keyBytes, int hash) {
+    int mask = slots.length - 1;
+    int slot = hash & mask;
+    while (slots[slot] != NO_KEY && !keyMatches(latestRecords[slots[slot]], keyBytes, hash)) {
+      slot = (slot + 1) & mask;
+    }
+    return slot;
+  }
+
+  /**
+   * @param address the address of a record.
+   * @param keyBytes the serialized key to compare with.
+   * @param hash the hash of {@code keyBytes}.
+   * @return {@code true} if the key of the record at {@code address} is equal to {@code keyBytes}.
+   */
+  private boolean keyMatches(int address, byte[] keyBytes, int hash) {
+    ByteBuffer slab = slabs.get(slabIndex(address));
+    int position = position(address);
+    if (slab.getInt(position + KEY_HASH_RELATIVE_OFFSET) != hash
+        || slab.getShort(position + KEY_SIZE_RELATIVE_OFFSET) != keyBytes.length) {
+      return false;
+    }
+    int keyPosition = position + RECORD_HEADER_SIZE;
+    for (int i = 0; i < keyBytes.length; i++) {
+      if (slab.get(keyPosition + i) != keyBytes[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Doubles the size of the table and rehashes all the keys using the hashes stored in the records.
+   */
+  private void resize() {
+    int[] newSlots = new int[table.length * 2];
+    Arrays.fill(newSlots, NO_KEY);
+    int mask = newSlots.length - 1;
+    for (int keyNumber = 0; keyNumber < numberOfKeys; keyNumber++) {
+      int address = latestRecords[keyNumber];
+      int slot = slabs.get(slabIndex(address)).getInt(position(address) + KEY_HASH_RELATIVE_OFFSET) & mask;
+      while (newSlots[slot] != NO_KEY) {
+        slot = (slot + 1) & mask;
+      }
+      newSlots[slot] = keyNumber;
+    }
+    table = newSlots;
+  }
+
+  /**
+   * @param buffers the slabs to read from.
+   * @param address the address of a record.
+   * @return the {@link StoreKey} in the record at {@code address}.
+   */
+  private StoreKey readKey(List<ByteBuffer> buffers, int address) {
+    ByteBuffer record = buffers.get(slabIndex(address)).duplicate();
+    int position = position(address);
+    int keySize = record.getShort(position + KEY_SIZE_RELATIVE_OFFSET);
+    record.limit(position + RECORD_HEADER_SIZE + keySize);
+    record.position(position + RECORD_HEADER_SIZE);
+    try {
+      return factory.getStoreKey(new DataInputStream(new ByteBufferInputStream(record)));
+    } catch (IOException e) {
+      throw new IllegalStateException("Could not deserialize key at address " + address, e);
+    }
+  }
+
+  /**
+   * @param buffers the slabs to read from.
+   * @param latestAddress the address of the latest record of a key.
+   * @return new {@link IndexValue}s deserialized from the record at {@code latestAddress} and all the older records of
+   *         the same key.
+   */
+  private NavigableSet<IndexValue> readValues(List<ByteBuffer> buffers, int latestAddress) {
+    NavigableSet<IndexValue> values = new TreeSet<>();
+    int address = latestAddress;
+    while (address != NO_RECORD) {
+      ByteBuffer slab = buffers.get(slabIndex(address));
+      int position = position(address);
+      int keySize = slab.getShort(position + KEY_SIZE_RELATIVE_OFFSET);
+      byte[] value = new byte[slab.getShort(position + VALUE_SIZE_RELATIVE_OFFSET)];
+      ByteBuffer record = slab.duplicate();
+      record.position(position + RECORD_HEADER_SIZE + keySize);
+      record.get(value);
+      values.add(new IndexValue(logSegmentName, ByteBuffer.wrap(value),
+          slab.getShort(position + VALUE_VERSION_RELATIVE_OFFSET)));
+      address = slab.getInt(position + PREVIOUS_RECORD_RELATIVE_OFFSET);
+    }
+    return values;
+  }
+
+  private static int slabIndex(int address) {
+    return address >>> SLAB_SHIFT;
+  }
+
+  private static int position(int address) {
+    return address & POSITION_MASK;
+  }
+
+  private static int hash(byte[] keyBytes) {
+    int hash = Arrays.hashCode(keyBytes);
+    return hash ^ (hash >>> 16);
+  }
+
+  /**
+   * An {@link Iterator} over the keys of the index at the time it was created. Keys and values are deserialized from
+   * the slabs one entry at a time.
+   */
+  private class SortedEntryIterator implements Iterator<Map.Entry<StoreKey, NavigableSet<IndexValue>>> {
+    private final List<ByteBuffer> buffers;
+    private final int[] addresses;
+    private int next = 0;
+
+    /**
+     * @param buffers the slabs of the index when the iterator was created.
+     * @param addresses the addresses of the latest record of each key to return, in key order.
+     */
+    SortedEntryIterator(List<ByteBuffer> buffers, int[] addresses) {
+      this.buffers = buffers;
+      this.addresses = addresses;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return next < addresses.length;
+    }
+
+    @Override
+    public Map.Entry<StoreKey, NavigableSet<IndexValue>> next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      int address = addresses[next++];
+      return new AbstractMap.SimpleImmutableEntry<>(readKey(buffers, address),
+          Collections.unmodifiableNavigableSet(readValues(buffers, address)));
+    }
+  }
+}
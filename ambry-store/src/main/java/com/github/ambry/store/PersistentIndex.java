@@ -117,6 +117,9 @@ class PersistentIndex {
   private final UUID incarnationId;
   private final Time time;
   private final File cleanShutdownFile;
+  private final IndexKeyLookupCache keyLookupCache;
+  private final LogSegmentValidityTracker validityTracker;
+  private final JournalCrcSnapshot journalCrcSnapshot;
 
   // switching the ref to this is thread safe as long as there are no modifications to IndexSegment instances whose
   // offsets are still present in the journal.
@@ -225,6 +228,8 @@ class PersistentIndex {
     this.incarnationId = incarnationId;
     this.maxInMemoryIndexSizeInBytes = config.storeIndexMaxMemorySizeBytes;
     this.maxInMemoryNumElements = config.storeIndexMaxNumberOfInmemElements;
+    this.keyLookupCache = config.storeIndexKeyLookupCacheMaxEntries > 0 ? new IndexKeyLookupCache(
+        config.storeIndexKeyLookupCacheMaxEntries, metrics) : null;
 
     List<File> indexFiles = getAllIndexSegmentFiles();
     try {
@@ -239,6 +244,29 @@ class PersistentIndex {
             indexFiles.get(i), info.getStartOffset(), info.getEndOffset());
         validIndexSegments.put(info.getStartOffset(), info);
       }
+      // only the index of the store tracks validity and persists journal crcs. The index of the swap spaces used by
+      // compaction shares its directory but uses a different clean shutdown file.
+      boolean isStoreIndex = CLEAN_SHUTDOWN_FILENAME.equals(cleanShutdownFileName);
+      Offset indexEndOffset =
+          validIndexSegments.isEmpty() ? null : validIndexSegments.lastEntry().getValue().getEndOffset();
+      if (config.storeIndexLogSegmentValidityTrackingEnabled && isStoreIndex) {
+        validityTracker = new LogSegmentValidityTracker(datadir);
+        validityTracker.load(indexEndOffset, name -> log.getSegment(name) != null);
+      } else {
+        if (isStoreIndex) {
+          LogSegmentValidityTracker.deleteFile(datadir);
+        }
+        validityTracker = null;
+      }
+      if (config.storeJournalCrcSnapshotEnabled && isStoreIndex) {
+        journalCrcSnapshot = new JournalCrcSnapshot(datadir, factory);
+        journalCrcSnapshot.restore(indexEndOffset, journal);
+      } else {
+        if (isStoreIndex) {
+          JournalCrcSnapshot.deleteFile(datadir);
+        }
+        journalCrcSnapshot = null;
+      }
       // delete the shutdown file
       cleanShutdownFile = new File(datadir, cleanShutdownFileName);
       cleanShutdown = cleanShutdownFile.exists();
@@ -531,6 +559,10 @@ class PersistentIndex {
       inFluxIndexSegments.putAll(segmentsToAdd);
       // change the reference (this is guaranteed to be atomic by java)
       validIndexSegments = inFluxIndexSegments;
+      if (keyLookupCache != null) {
+        // cached values may point to records that were moved by compaction
+        keyLookupCache.invalidateAll();
+      }
     } finally {
       rwLock.writeLock().unlock();
     }
@@ -546,6 +578,10 @@ class PersistentIndex {
    */
   void addToIndex(IndexEntry entry, FileSpan fileSpan) throws StoreException {
     validateFileSpan(fileSpan, true);
+    if (validityTracker != null) {
+      // the tracker is updated before the index so that it never persists less than what the index persisted.
+      validityTracker.onEntryAdded(entry.getValue(), isFirstRecordOfLogSegment(entry.getValue().getOffset()));
+    }
     if (needToRollOverIndex(entry)) {
       int valueSize = entry.getValue().getBytes().capacity();
       int entrySize = entry.getKey().sizeInBytes() + valueSize;
@@ -560,6 +596,9 @@ class PersistentIndex {
       validIndexSegments.lastEntry().getValue().addEntry(entry, fileSpan.getEndOffset());
     }
     journal.addEntry(entry.getValue().getOffset(), entry.getKey(), entry.getCrc());
+    if (keyLookupCache != null) {
+      keyLookupCache.invalidate(entry.getKey());
+    }
   }
 
   /**
@@ -577,6 +616,38 @@ class PersistentIndex {
     }
   }
 
+  /**
+   * @param offset the {@link Offset} of a record that is about to be added to the index.
+   * @return {@code true} if the record is the first one of its log segment and there is no index segment for that log
+   *         segment yet.
+   */
+  private boolean isFirstRecordOfLogSegment(Offset offset) {
+    Map.Entry<Offset, IndexSegment> lastEntry = validIndexSegments.lastEntry();
+    if (lastEntry != null && lastEntry.getValue().getLogSegmentName().equals(offset.getName())) {
+      return false;
+    }
+    LogSegment logSegment = log.getSegment(offset.getName());
+    return logSegment != null && logSegment.getStartOffset() == offset.getOffset();
+  }
+
+  /**
+   * @param logSegmentName the {@link LogSegmentName} of the log segment.
+   * @param referenceTimeMs the time in ms against which the expiration of blobs is checked.
+   * @return {@code true} if all the records of the log segment are known to be valid at {@code referenceTimeMs}: they
+   *         are PUTs that are the latest state of their keys and have not expired. {@code false} if they may not be or
+   *         if validity tracking is disabled.
+   */
+  boolean isLogSegmentFullyValid(LogSegmentName logSegmentName, long referenceTimeMs) {
+    return validityTracker != null && validityTracker.isFullyValid(logSegmentName, referenceTimeMs);
+  }
+
+  /**
+   * @return the {@link LogSegmentValidityTracker} of this index, or {@code null} if validity tracking is disabled.
+   */
+  LogSegmentValidityTracker getValidityTracker() {
+    return validityTracker;
+  }
+
   /**
    * Checks if the index segment needs to roll over to a new segment
    * @param entry The new entry that needs to be added to the existing active segment
@@ -641,7 +712,21 @@ class PersistentIndex {
    * @throws StoreException
    */
   IndexValue findKey(StoreKey key) throws StoreException {
-    return findKey(key, null, EnumSet.of(IndexEntryType.PUT, IndexEntryType.DELETE, IndexEntryType.UNDELETE));
+    EnumSet<IndexEntryType> types = EnumSet.of(IndexEntryType.PUT, IndexEntryType.DELETE, IndexEntryType.UNDELETE);
+    if (keyLookupCache == null) {
+      return findKey(key, null, types);
+    }
+    // the stamp must be read before the segments so that a concurrent changeIndexSegments() invalidates the lookup
+    long stamp = keyLookupCache.getStamp(key);
+    ConcurrentSkipListMap<Offset, IndexSegment> indexSegments = validIndexSegments;
+    IndexValue value = keyLookupCache.get(key, indexSegments);
+    if (value == null) {
+      value = findKey(key, null, types, indexSegments);
+      if (value != null) {
+        keyLookupCache.put(key, value, indexSegments.floorKey(value.getOffset()), stamp);
+      }
+    }
+    return value;
   }
 
   /**
@@ -1035,6 +1120,9 @@ class PersistentIndex {
     }
     newValue.clearFlag(IndexValue.Flags.Undelete_Index);
     newValue.setFlag(IndexValue.Flags.Delete_Index);
+    if (validityTracker != null && value != null) {
+      validityTracker.onEntrySuperseded(value);
+    }
     addToIndex(new IndexEntry(id, newValue, null), fileSpan);
     return newValue;
   }
@@ -1103,6 +1191,9 @@ class PersistentIndex {
     }
     newValue.clearFlag(IndexValue.Flags.Undelete_Index);
     newValue.setFlag(IndexValue.Flags.Ttl_Update_Index);
+    if (validityTracker != null && value != null) {
+      validityTracker.onEntrySuperseded(value);
+    }
     addToIndex(new IndexEntry(id, newValue, null), fileSpan);
     return newValue;
   }
@@ -1167,6 +1258,9 @@ class PersistentIndex {
     newValue.setFlag(IndexValue.Flags.Undelete_Index);
     newValue.clearFlag(IndexValue.Flags.Delete_Index);
     newValue.clearOriginalMessageOffset();
+    if (validityTracker != null && values != null) {
+      validityTracker.onEntrySuperseded(values.get(0));
+    }
     addToIndex(new IndexEntry(id, newValue, null), fileSpan);
     return newValue;
   }
@@ -2391,6 +2485,12 @@ class PersistentIndex {
           }
           // Compaction may seal the current last index segment.
           currentInfo.writeIndexSegmentToFile(indexEndOffsetBeforeFlush);
+          if (validityTracker != null) {
+            validityTracker.persist(indexEndOffsetBeforeFlush, name -> log.getSegment(name) != null);
+          }
+          if (journalCrcSnapshot != null) {
+            journalCrcSnapshot.persist(indexEndOffsetBeforeFlush, journal);
+          }
         }
       } catch (FileNotFoundException e) {
         throw new StoreException("File not found while writing index to file", e, StoreErrorCodes.File_Not_Found);
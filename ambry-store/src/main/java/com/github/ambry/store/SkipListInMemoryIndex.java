@@ -0,0 +1,63 @@
+/**
+ * Copyright 2021 LinkedIn Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ */
+package com.github.ambry.store;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+
+/**
+ * An {@link InMemoryIndex} backed by a {@link ConcurrentSkipListMap} of on-heap keys and values.
+ */
+class SkipListInMemoryIndex implements InMemoryIndex {
+  private final ConcurrentSkipListMap<StoreKey, ConcurrentSkipListSet<IndexValue>> index =
+      new ConcurrentSkipListMap<>();
+
+  @Override
+  public NavigableSet<IndexValue> get(StoreKey key) {
+    ConcurrentSkipListSet<IndexValue> values = index.get(key);
+    return values == null ? null : values.clone();
+  }
+
+  @Override
+  public boolean containsKey(StoreKey key) {
+    return index.containsKey(key);
+  }
+
+  @Override
+  public boolean add(StoreKey key, IndexValue value) {
+    boolean isPresent = index.containsKey(key);
+    index.computeIfAbsent(key, k -> new ConcurrentSkipListSet<>()).add(value);
+    return !isPresent;
+  }
+
+  @Override
+  public void clear() {
+    index.clear();
+  }
+
+  @Override
+  public Iterator<Map.Entry<StoreKey, NavigableSet<IndexValue>>> entries(StoreKey fromKey, boolean inclusive) {
+    NavigableMap<StoreKey, NavigableSet<IndexValue>> entries = Collections.unmodifiableNavigableMap(index);
+    if (fromKey != null) {
+      entries = entries.tailMap(fromKey, inclusive);
+    }
+    return entries.entrySet().iterator();
+  }
+}
@@ -82,6 +82,7 @@ public class StorageManager implements StoreManager {
   private final Set<String> unexpectedDirs = new HashSet<>();
   private static final Logger logger = LoggerFactory.getLogger(StorageManager.class);
   private final AccountService accountService;
+  private final BlobReadCache blobReadCache;
 
   /**
    * Constructs a {@link StorageManager}
@@ -125,6 +126,8 @@ public class StorageManager implements StoreManager {
     metrics = new StorageManagerMetrics(registry);
     storeMainMetrics = new StoreMetrics(registry);
     storeUnderCompactionMetrics = new StoreMetrics("UnderCompaction", registry);
+    blobReadCache = storeConfig.storeBlobReadCacheSizeBytes > 0 ? new BlobReadCache(
+        storeConfig.storeBlobReadCacheSizeBytes, storeConfig.storeBlobReadCacheMaxEntrySizeBytes, metrics) : null;
     if (clusterParticipants != null) {
       replicaStatusDelegates = new ArrayList<>();
       for (ClusterParticipant clusterParticipant : clusterParticipants) {
@@ -147,7 +150,7 @@ public class StorageManager implements StoreManager {
       DiskManager diskManager =
           new DiskManager(disk, replicasForDisk, storeConfig, diskManagerConfig, scheduler, metrics, storeMainMetrics,
               storeUnderCompactionMetrics, keyFactory, recovery, hardDelete, replicaStatusDelegates, stoppedReplicas,
-              time, accountService);
+              time, accountService, blobReadCache);
       diskToDiskManager.put(disk, diskManager);
       for (ReplicaId replica : replicasForDisk) {
         partitionToDiskManager.put(replica.getPartitionId(), diskManager);
@@ -314,6 +317,9 @@ public class StorageManager implements StoreManager {
         shutdownThread.join();
       }
       metrics.deregisterCompactionThreadsTracker();
+      if (blobReadCache != null) {
+        blobReadCache.clear();
+      }
       logger.info("Shutting down storage manager complete");
     } finally {
       metrics.storageManagerShutdownTimeMs.update(time.milliseconds() - startTimeMs);
@@ -330,7 +336,7 @@ public class StorageManager implements StoreManager {
       DiskManager newDiskManager =
           new DiskManager(disk, Collections.emptyList(), storeConfig, diskManagerConfig, scheduler, metrics,
               storeMainMetrics, storeUnderCompactionMetrics, keyFactory, recovery, hardDelete, replicaStatusDelegates,
-              stoppedReplicas, time, accountService);
+              stoppedReplicas, time, accountService, blobReadCache);
       logger.info("Creating new DiskManager on {} for new added store", replica.getDiskId().getMountPath());
       try {
         newDiskManager.start();
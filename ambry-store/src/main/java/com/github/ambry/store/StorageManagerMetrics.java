@@ -53,6 +53,14 @@ public class StorageManagerMetrics {
   public final Counter compactionErrorCount;
   public final Counter compactionExecutorErrorCount;
 
+  // BlobReadCache related metrics
+  public final Counter blobReadCacheHitCount;
+  public final Counter blobReadCacheMissCount;
+  public final Counter blobReadCacheBytesServed;
+  public final Counter blobReadCacheAdmissionRejectedCount;
+  public final Counter blobReadCacheEvictionCount;
+  public final Counter blobReadCacheInvalidationCount;
+
   private final Counter compactionCount;
   private final AtomicLong compactionsInProgress = new AtomicLong(0);
 
@@ -93,6 +101,13 @@ public class StorageManagerMetrics {
         registry.counter(MetricRegistry.name(DiskSpaceAllocator.class, "DiskSpaceAllocatorAllocBeforeInitCount"));
     diskSpaceAllocatorFreeBeforeInitCount =
         registry.counter(MetricRegistry.name(DiskSpaceAllocator.class, "DiskSpaceAllocatorFreeBeforeInitCount"));
+    blobReadCacheHitCount = registry.counter(MetricRegistry.name(BlobReadCache.class, "HitCount"));
+    blobReadCacheMissCount = registry.counter(MetricRegistry.name(BlobReadCache.class, "MissCount"));
+    blobReadCacheBytesServed = registry.counter(MetricRegistry.name(BlobReadCache.class, "BytesServed"));
+    blobReadCacheAdmissionRejectedCount =
+        registry.counter(MetricRegistry.name(BlobReadCache.class, "AdmissionRejectedCount"));
+    blobReadCacheEvictionCount = registry.counter(MetricRegistry.name(BlobReadCache.class, "EvictionCount"));
+    blobReadCacheInvalidationCount = registry.counter(MetricRegistry.name(BlobReadCache.class, "InvalidationCount"));
     compactionCount = registry.counter(MetricRegistry.name(CompactionManager.class, "CompactionCount"));
     compactionManagerTerminateErrorCount =
         registry.counter(MetricRegistry.name(CompactionManager.class, "CompactionManagerTerminateErrorCount"));
@@ -110,6 +125,21 @@ public class StorageManagerMetrics {
         () -> storeToSkipGauge);
   }
 
+  /**
+   * Initializes gauges that track the size and the hit rate of the {@link BlobReadCache}.
+   * @param blobReadCache the {@link BlobReadCache} of the node.
+   */
+  void initializeBlobReadCacheMetrics(BlobReadCache blobReadCache) {
+    Gauge<Long> sizeGauge = blobReadCache::getSizeInBytes;
+    registry.gauge(MetricRegistry.name(BlobReadCache.class, "SizeInBytes"), () -> sizeGauge);
+    Gauge<Double> hitRateGauge = () -> {
+      long hits = blobReadCacheHitCount.getCount();
+      long total = hits + blobReadCacheMissCount.getCount();
+      return total == 0 ? 0.0 : (double) hits / total;
+    };
+    registry.gauge(MetricRegistry.name(BlobReadCache.class, "HitRate"), () -> hitRateGauge);
+  }
+
   /**
    * Initializes gauges that track the compaction thread counts.
    * @param storageManager the {@link StorageManager} instance to use to obtain values.
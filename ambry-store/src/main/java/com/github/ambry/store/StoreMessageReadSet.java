@@ -174,6 +174,34 @@ class BlobReadOptions implements Comparable<BlobReadOptions>, Closeable {
     prefetchedDataRelativeOffset = relativeOffset;
   }
 
+  /**
+   * Do data doPrefetch, serving it from {@code blobReadCache} if the message is cached there. A read of a whole message
+   * that missed the cache is offered to the cache.
+   * @param relativeOffset the relativeOffset to start.
+   * @param size The size requested to doPrefetch.
+   * @param blobReadCache the {@link BlobReadCache} to use.
+   * @param storeId the id of the store this message belongs to.
+   * @throws IOException
+   */
+  void doPrefetch(long relativeOffset, long size, BlobReadCache blobReadCache, String storeId) throws IOException {
+    if (!blobReadCache.isCacheable(info)) {
+      doPrefetch(relativeOffset, size);
+      return;
+    }
+    long sizeToRead = Math.min(size, info.getSize() - relativeOffset);
+    ByteBuf cachedData =
+        blobReadCache.get(info.getStoreKey(), info.getLifeVersion(), offset, (int) relativeOffset, (int) sizeToRead);
+    if (cachedData != null) {
+      prefetchedData = cachedData;
+      prefetchedDataRelativeOffset = relativeOffset;
+      return;
+    }
+    doPrefetch(relativeOffset, size);
+    if (relativeOffset == 0 && sizeToRead == info.getSize()) {
+      blobReadCache.put(storeId, info.getStoreKey(), info.getLifeVersion(), offset, prefetchedData.retainedDuplicate());
+    }
+  }
+
   ByteBuf getPrefetchedData() {
     return prefetchedData;
   }
@@ -190,11 +218,24 @@ class BlobReadOptions implements Comparable<BlobReadOptions>, Closeable {
 class StoreMessageReadSet implements MessageReadSet {
 
   private final List<BlobReadOptions> readOptions;
+  private final BlobReadCache blobReadCache;
+  private final String storeId;
   private static final Logger logger = LoggerFactory.getLogger(StoreMessageReadSet.class);
 
   StoreMessageReadSet(List<BlobReadOptions> readOptions) {
+    this(readOptions, null, null);
+  }
+
+  /**
+   * @param readOptions the {@link BlobReadOptions} of the messages to read.
+   * @param blobReadCache the {@link BlobReadCache} to serve prefetches from. Can be {@code null}.
+   * @param storeId the id of the store the messages belong to.
+   */
+  StoreMessageReadSet(List<BlobReadOptions> readOptions, BlobReadCache blobReadCache, String storeId) {
     Collections.sort(readOptions);
     this.readOptions = readOptions;
+    this.blobReadCache = blobReadCache;
+    this.storeId = storeId;
   }
 
   @Override
@@ -264,7 +305,11 @@ class StoreMessageReadSet implements MessageReadSet {
 
   @Override
   public void doPrefetch(int index, long relativeOffset, long size) throws IOException {
-    readOptions.get(index).doPrefetch(relativeOffset, size);
+    if (blobReadCache == null) {
+      readOptions.get(index).doPrefetch(relativeOffset, size);
+    } else {
+      readOptions.get(index).doPrefetch(relativeOffset, size, blobReadCache, storeId);
+    }
   }
 
   @Override
@@ -63,6 +63,8 @@ public class StoreMetrics {
   public final Timer hardDeleteTime;
   public final Counter nonzeroMessageRecovery;
   public final Counter blobFoundInMemSegmentCount;
+  public final Counter indexKeyLookupCacheHitCount;
+  public final Counter indexKeyLookupCacheMissCount;
   public final Counter bloomAccessedCount;
   public final Counter bloomPositiveCount;
   public final Counter bloomFalsePositiveCount;
@@ -86,6 +88,8 @@ public class StoreMetrics {
   public final Counter duplicateKeysInBatch;
   public final Counter storeIoErrorTriggeredShutdownCount;
   public final Counter blobStoreRecoverCompactionPolicySwitchInfoErrorCount;
+  public final Histogram groupCommitBatchSize;
+  public final Histogram groupCommitQueueWaitTimeInMs;
 
   // Compaction related metrics
   public final Counter compactionFixStateCount;
@@ -95,6 +99,8 @@ public class StoreMetrics {
   public final Counter compactionBundleReadBufferUsed;
   public final Counter compactionBundleReadBufferIoCount;
   public final Counter compactionTargetIndexDuplicateOnNonRecoveryCount;
+  public final Counter compactionFullyValidIndexSegmentCount;
+  public final Counter statsFullyValidIndexSegmentCount;
   public final Counter permanentDeleteTombstonePurgeCount;
   public final Timer compactionCopyRecordTimeInMs;
   public final Timer compactionCopyDataByIndexSegmentTimeInMs;
@@ -163,6 +169,10 @@ public class StoreMetrics {
         registry.counter(MetricRegistry.name(PersistentIndex.class, name + "NonZeroMessageRecovery"));
     blobFoundInMemSegmentCount =
         registry.counter(MetricRegistry.name(IndexSegment.class, name + "BlobFoundInMemSegmentCount"));
+    indexKeyLookupCacheHitCount =
+        registry.counter(MetricRegistry.name(PersistentIndex.class, name + "IndexKeyLookupCacheHitCount"));
+    indexKeyLookupCacheMissCount =
+        registry.counter(MetricRegistry.name(PersistentIndex.class, name + "IndexKeyLookupCacheMissCount"));
     bloomAccessedCount = registry.counter(MetricRegistry.name(IndexSegment.class, name + "BloomAccessedCount"));
     bloomPositiveCount = registry.counter(MetricRegistry.name(IndexSegment.class, name + "BloomPositiveCount"));
     bloomFalsePositiveCount =
@@ -200,6 +210,9 @@ public class StoreMetrics {
     duplicateKeysInBatch = registry.counter(MetricRegistry.name(BlobStore.class, name + "DuplicateKeysInBatch"));
     storeIoErrorTriggeredShutdownCount =
         registry.counter(MetricRegistry.name(BlobStore.class, name + "StoreIoErrorTriggeredShutdownCount"));
+    groupCommitBatchSize = registry.histogram(MetricRegistry.name(BlobStore.class, name + "GroupCommitBatchSize"));
+    groupCommitQueueWaitTimeInMs =
+        registry.histogram(MetricRegistry.name(BlobStore.class, name + "GroupCommitQueueWaitTimeInMs"));
     compactionFixStateCount = registry.counter(MetricRegistry.name(BlobStoreCompactor.class, name + "FixStateCount"));
     compactionCopyRateInBytes = registry.meter(MetricRegistry.name(BlobStoreCompactor.class, name + "CopyRateInBytes"));
     compactionBytesReclaimedCount =
@@ -212,6 +225,10 @@ public class StoreMetrics {
         registry.counter(MetricRegistry.name(BlobStoreCompactor.class, name + "CompactionBundleReadBufferIoCount"));
     compactionTargetIndexDuplicateOnNonRecoveryCount = registry.counter(
         MetricRegistry.name(BlobStoreCompactor.class, name + "CompactionTargetIndexDuplicateOnNonRecoveryCount"));
+    compactionFullyValidIndexSegmentCount =
+        registry.counter(MetricRegistry.name(BlobStoreCompactor.class, name + "CompactionFullyValidIndexSegmentCount"));
+    statsFullyValidIndexSegmentCount =
+        registry.counter(MetricRegistry.name(BlobStoreStats.class, name + "StatsFullyValidIndexSegmentCount"));
     permanentDeleteTombstonePurgeCount =
         registry.counter(MetricRegistry.name(BlobStoreCompactor.class, name + "PermanentDeleteTombstonePurgeCount"));
     compactionCopyRecordTimeInMs =
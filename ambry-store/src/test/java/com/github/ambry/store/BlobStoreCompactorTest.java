@@ -534,6 +534,32 @@ public class BlobStoreCompactorTest {
     compactAndVerify(segmentsUnderCompaction, deleteReferenceTimeMs, true);
   }
 
+  /**
+   * A test similar to compactWholeLogWithChangeExpectedTest but with the valid entries of the next index segments
+   * computed while the current one is copied.
+   * @throws Exception
+   */
+  @Test
+  public void compactWithValidEntriesLookaheadTest() throws Exception {
+    refreshState(false, true, false);
+    state.properties.put("store.compaction.copy.valid.entries.lookahead", "2");
+    long requiredCount = state.log.getCapacityInBytes() / state.log.getSegmentCapacity() - 2;
+    writeDataToMeetRequiredSegmentCount(requiredCount,
+        Arrays.asList(state.time.milliseconds() / 2, state.time.milliseconds(), state.time.milliseconds() * 2));
+    int deleteCount =
+        Math.min(state.liveKeys.size() / 3, (int) (1.8 * state.log.getSegmentCapacity() / DELETE_RECORD_SIZE));
+    List<MockId> allLiveKeys = new ArrayList<>(state.liveKeys);
+    for (int i = 0; i < deleteCount; i++) {
+      MockId idToDelete = allLiveKeys.remove(TestUtils.RANDOM.nextInt(allLiveKeys.size()));
+      state.addDeleteEntry(idToDelete);
+    }
+    // reload index to make sure journal is on only the latest log segment
+    state.reloadIndex(true, false);
+    long deleteReferenceTimeMs = state.time.milliseconds();
+    List<LogSegmentName> segmentsUnderCompaction = getLogSegments(0, state.index.getLogSegmentCount() - 1);
+    compactAndVerify(segmentsUnderCompaction, deleteReferenceTimeMs, true);
+  }
+
   /**
    * Compacts the whole log (except the last log segment) but without any changes expected i.e all data is valid and is
    * simply copied over from the old log segments to the new log segments.
@@ -643,6 +669,42 @@ public class BlobStoreCompactorTest {
     }
   }
 
+  /**
+   * Compacts the whole log (except the last log segment) with log segment validity tracking enabled. The entries of log
+   * segments that only have valid PUTs are copied without being validated, the log segment whose PUTs are deleted and
+   * ttl updated later is validated as usual and the result is verified against the reference index just like it is
+   * without tracking.
+   * @throws Exception
+   */
+  @Test
+  public void compactWithLogSegmentValidityTrackingTest() throws Exception {
+    refreshState(false, false, false);
+    state.properties.put("store.index.log.segment.validity.tracking.enabled", "true");
+    state.reloadIndex(true, false);
+    long requiredCount = state.log.getCapacityInBytes() / state.log.getSegmentCapacity() - 2;
+    long expiryTimeMs = getInvalidationTime(requiredCount);
+    writeDataToMeetRequiredSegmentCount(requiredCount, Collections.singletonList(expiryTimeMs));
+    // the delete and the ttl update are records of the last log segment
+    LogSegmentName supersededSegmentName = getLogSegments(1, 1).get(0);
+    List<MockId> idsInSupersededSegment =
+        new ArrayList<>(state.getIdsWithPutsInLogSegment(state.log.getSegment(supersededSegmentName)));
+    state.addDeleteEntry(idsInSupersededSegment.get(0));
+    state.makePermanent(idsInSupersededSegment.get(1), false);
+    assertTrue("Log segment should be fully valid",
+        state.index.isLogSegmentFullyValid(getLogSegments(2, 1).get(0), state.time.milliseconds()));
+    assertFalse("Log segment with deleted and ttl updated PUTs should not be fully valid",
+        state.index.isLogSegmentFullyValid(supersededSegmentName, state.time.milliseconds()));
+    // reload index to make sure journal is on only the latest log segment
+    state.reloadIndex(true, false);
+    state.advanceTime(Time.MsPerSec);
+    List<LogSegmentName> segmentsUnderCompaction = getLogSegments(0, state.index.getLogSegmentCount() - 1);
+    compactAndVerify(segmentsUnderCompaction, state.time.milliseconds(), true);
+    assertTrue("Index segments of fully valid log segments should not have been validated",
+        metricRegistry.getCounters()
+            .get(MetricRegistry.name(BlobStoreCompactor.class, "CompactionFullyValidIndexSegmentCount"))
+            .getCount() > 0);
+  }
+
   /**
    * Compacts the whole log (except the last log segment) and a changed size is expected i.e. there is some invalid
    * data. All this is done with hard delete enabled (compactor is expected to pause it).
@@ -925,6 +925,56 @@ public class BlobStoreStatsTest {
     blobStoreStats.close();
   }
 
+  /**
+   * Tests that the valid data size per log segment is the same with and without log segment validity tracking, both
+   * for a log segment that is fully valid and for a log segment whose PUTs are deleted and ttl updated later.
+   * @throws StoreException
+   */
+  @Test
+  public void testLogSegmentValidDataSizeWithValidityTracking() throws StoreException {
+    assumeTrue(!bucketingEnabled);
+    state.properties.put("store.index.log.segment.validity.tracking.enabled", "true");
+    state.reloadIndex(true, false);
+    long expiresAtMs = state.time.milliseconds() + TimeUnit.HOURS.toMillis(1);
+    LogSegmentName fullyValidSegmentName =
+        addPutEntriesToNewLogSegment(3, expiresAtMs).get(0).getValue().getOffset().getName();
+    List<IndexEntry> supersededEntries = addPutEntriesToNewLogSegment(3, expiresAtMs);
+    LogSegmentName supersededSegmentName = supersededEntries.get(0).getValue().getOffset().getName();
+    // start another log segment so that the delete and the ttl update are not records of the superseded log segment
+    addPutEntriesToNewLogSegment(1, Utils.Infinite_Time);
+    advanceTimeToNextSecond();
+    state.addDeleteEntry((MockId) supersededEntries.get(1).getKey());
+    state.makePermanent((MockId) supersededEntries.get(2).getKey(), false);
+    advanceTimeToNextSecond();
+    assertTrue("Log segment should be fully valid",
+        state.index.isLogSegmentFullyValid(fullyValidSegmentName, state.time.milliseconds()));
+    assertFalse("Log segment with deleted and ttl updated PUTs should not be fully valid",
+        state.index.isLogSegmentFullyValid(supersededSegmentName, state.time.milliseconds()));
+
+    TimeRange timeRange = new TimeRange(state.time.milliseconds(), 0L);
+    long[] expiryReferenceTimesInMs = {state.time.milliseconds(), expiresAtMs + 1};
+    List<NavigableMap<LogSegmentName, Long>> trackedValidSizes = new ArrayList<>();
+    long fullyValidIndexSegmentCount = METRICS.statsFullyValidIndexSegmentCount.getCount();
+    BlobStoreStats blobStoreStats = setupBlobStoreStats(0, 0);
+    verifyAndGetLogSegmentValidSize(blobStoreStats, timeRange);
+    assertTrue("Index segments of the fully valid log segment should not have been validated",
+        METRICS.statsFullyValidIndexSegmentCount.getCount() > fullyValidIndexSegmentCount);
+    for (long expiryReferenceTimeInMs : expiryReferenceTimesInMs) {
+      trackedValidSizes.add(
+          blobStoreStats.getValidDataSizeByLogSegment(timeRange, expiryReferenceTimeInMs).getSecond());
+    }
+    blobStoreStats.close();
+
+    state.properties.put("store.index.log.segment.validity.tracking.enabled", "false");
+    state.reloadIndex(true, false);
+    blobStoreStats = setupBlobStoreStats(0, 0);
+    for (int i = 0; i < expiryReferenceTimesInMs.length; i++) {
+      assertEquals("Valid data size should not depend on validity tracking", trackedValidSizes.get(i),
+          blobStoreStats.getValidDataSizeByLogSegment(timeRange, expiryReferenceTimesInMs[i]).getSecond());
+    }
+    blobStoreStats.close();
+  }
+
   /**
    * Test the getContainerStorageStats method by verifying the returned stats against the original quota {@link Map}.
    */
@@ -1063,6 +1113,28 @@ public class BlobStoreStatsTest {
     blobStoreStats.handleNewTtlUpdateEntry(idToUpdate, ttlUpdateValue, originalPut);
   }
 
+  /**
+   * Adds PUTs until one of them starts a new log segment and then adds {@code count} - 1 more PUTs to that log segment.
+   * @param count the number of PUTs to add to the new log segment
+   * @param expiresAtMs the expire time of the PUTs in the new log segment
+   * @return the {@link IndexEntry}s of the PUTs in the new log segment
+   * @throws StoreException
+   */
+  private List<IndexEntry> addPutEntriesToNewLogSegment(int count, long expiresAtMs) throws StoreException {
+    LogSegmentName activeSegmentName = state.log.getEndOffset().getName();
+    List<IndexEntry> newSegmentEntries = new ArrayList<>();
+    while (newSegmentEntries.isEmpty()) {
+      IndexEntry entry = state.addPutEntries(1, PUT_RECORD_SIZE, expiresAtMs).get(0);
+      if (!entry.getValue().getOffset().getName().equals(activeSegmentName)) {
+        newSegmentEntries.add(entry);
+      }
+    }
+    if (count > 1) {
+      newSegmentEntries.addAll(state.addPutEntries(count - 1, PUT_RECORD_SIZE, expiresAtMs));
+    }
+    return newSegmentEntries;
+  }
+
   /**
    * Advance the time to the next nearest second. That is, 1 sec to 2 sec or 1001 ms to 2000ms.
    */
@@ -630,6 +630,43 @@ public class BlobStoreTest {
     verifyPutFutures(putters, futures);
   }
 
+  /**
+   * Tests the case where there are many concurrent PUTs with group commit enabled.
+   * @throws Exception
+   */
+  @Test
+  public void concurrentGroupCommitPutTest() throws Exception {
+    store.shutdown();
+    properties.put("store.group.commit.enabled", "true");
+    properties.put("store.group.commit.max.batch.size", "4");
+    StoreConfig config = new StoreConfig(new VerifiableProperties(properties));
+    MetricRegistry registry = new MetricRegistry();
+    StoreMetrics metrics = new StoreMetrics(registry);
+    store = new MockBlobStore(getMockReplicaId(tempDirStr), config, null, metrics);
+    store.start();
+    int blobCount = 4000 / PUT_RECORD_SIZE + 1;
+    List<Putter> putters = new ArrayList<>(blobCount);
+    for (int i = 0; i < blobCount; i++) {
+      putters.add(new Putter());
+    }
+    ExecutorService executorService = Executors.newFixedThreadPool(putters.size());
+    List<Future<CallableResult>> futures;
+    try {
+      futures = executorService.invokeAll(putters);
+      verifyPutFutures(putters, futures);
+    } finally {
+      executorService.shutdownNow();
+    }
+    assertTrue("Batches should have been committed", metrics.groupCommitBatchSize.getCount() > 0);
+    assertTrue("No batch should exceed the max batch size", metrics.groupCommitBatchSize.getSnapshot().getMax() <= 4);
+    // duplicate puts are still detected
+    MockId id = put(1, PUT_RECORD_SIZE, Utils.Infinite_Time).get(0);
+    verifyPutFailure(id, StoreErrorCodes.Already_Exist);
+    // the batched entries must survive a restart
+    reloadStore();
+    verifyPutFutures(putters, futures);
+  }
+
   /**
    * Tests the case where there are many concurrent GETs.
    * @throws Exception
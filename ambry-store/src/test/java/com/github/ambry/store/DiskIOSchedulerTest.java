@@ -14,10 +14,14 @@
 
 package com.github.ambry.store;
 
+import com.codahale.metrics.MetricRegistry;
+import com.github.ambry.config.StoreConfig;
+import com.github.ambry.config.VerifiableProperties;
 import com.github.ambry.utils.MockTime;
 import com.github.ambry.utils.Throttler;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Properties;
 import java.util.concurrent.ThreadLocalRandom;
 import org.junit.Test;
 
@@ -78,6 +82,95 @@ public class DiskIOSchedulerTest {
     assertEquals("Unexpected i/o slice availability returned", Long.MAX_VALUE, scheduler.getSlice("jobType", "job", 0));
   }
 
+  /**
+   * Test that the adaptive scheduler shrinks and expands the rates of background job types from the foreground latency
+   * and scales lower priority classes down faster.
+   */
+  @Test
+  public void adaptiveTest() {
+    Properties properties = new Properties();
+    properties.setProperty("store.disk.io.scheduler.adaptive.enabled", "true");
+    properties.setProperty("store.disk.io.scheduler.adjust.interval.ms", "1000");
+    properties.setProperty("store.disk.io.scheduler.foreground.read.latency.threshold.ms", "50");
+    properties.setProperty("store.disk.io.scheduler.foreground.write.latency.threshold.ms", "50");
+    properties.setProperty("store.disk.io.scheduler.min.background.share", "0.1");
+    properties.setProperty("store.hard.delete.operations.bytes.per.sec", "100");
+    properties.setProperty("store.compaction.operations.bytes.per.sec", "1000");
+    properties.setProperty("store.stats.index.entries.per.second", "10");
+    StoreConfig config = new StoreConfig(new VerifiableProperties(properties));
+    DiskMetrics diskMetrics = new DiskMetrics(new MetricRegistry(), "/mnt0", 60 * 1000);
+    MockTime time = new MockTime();
+    Map<String, Throttler> throttlers = new HashMap<>();
+    String[] jobTypes = {HardDeleter.HARD_DELETE_CLEANUP_JOB_NAME, BlobStoreCompactor.COMPACTION_CLEANUP_JOB_NAME,
+        BlobStoreStats.IO_SCHEDULER_JOB_TYPE};
+    for (String jobType : jobTypes) {
+      throttlers.put(jobType, new MockThrottler());
+    }
+    DiskIOScheduler scheduler = new DiskIOScheduler(throttlers, config, diskMetrics, time);
+    assertEquals("Unexpected priority class", DiskIOScheduler.IOPriorityClass.FOREGROUND,
+        DiskIOScheduler.getPriorityClass("unknown"));
+
+    // healthy foreground latency and full share
+    getSlices(scheduler, jobTypes);
+    assertRates(throttlers, jobTypes, new double[]{100, 1000, 10});
+
+    // foreground latency goes above the threshold but the interval has not elapsed yet
+    diskMetrics.diskWriteTimePerMbInMs.update(100);
+    getSlices(scheduler, jobTypes);
+    assertEquals("Background share should not change", 1.0, scheduler.getBackgroundShare(), 0.0);
+
+    // share is halved and lower priority classes are scaled down faster, bounded by the min share
+    time.sleep(1000);
+    getSlices(scheduler, jobTypes);
+    assertEquals("Unexpected background share", 0.5, scheduler.getBackgroundShare(), 0.0001);
+    assertRates(throttlers, jobTypes, new double[]{50, 250, 1.25});
+    time.sleep(1000);
+    getSlices(scheduler, jobTypes);
+    assertEquals("Unexpected background share", 0.25, scheduler.getBackgroundShare(), 0.0001);
+    assertRates(throttlers, jobTypes, new double[]{25, 100, 1});
+    assertEquals("Unexpected shrink count", 2, diskMetrics.diskIoSchedulerBackgroundShrinkCount.getCount());
+
+    // foreground latency recovers and the share is expanded step by step
+    for (int i = 0; i < 1000; i++) {
+      diskMetrics.diskWriteTimePerMbInMs.update(1);
+      diskMetrics.diskReadTimePerMbInMs.update(1);
+    }
+    time.sleep(1000);
+    getSlices(scheduler, jobTypes);
+    assertEquals("Unexpected background share", 0.35, scheduler.getBackgroundShare(), 0.0001);
+    assertRates(throttlers, jobTypes, new double[]{35, 122.5, 1});
+    assertEquals("Unexpected expand count", 1, diskMetrics.diskIoSchedulerBackgroundExpandCount.getCount());
+
+    // an explicit rate update is scaled by the current share
+    scheduler.updateThrottlerDesiredRate(HardDeleter.HARD_DELETE_CLEANUP_JOB_NAME, 1000);
+    getSlices(scheduler, jobTypes);
+    assertRates(throttlers, jobTypes, new double[]{350, 122.5, 1});
+  }
+
+  /**
+   * Calls {@link DiskIOScheduler#getSlice(String, String, long)} once for each of the given job types.
+   * @param scheduler the {@link DiskIOScheduler} to use.
+   * @param jobTypes the job types to get slices for.
+   */
+  private void getSlices(DiskIOScheduler scheduler, String[] jobTypes) {
+    for (String jobType : jobTypes) {
+      assertEquals("Unexpected i/o slice availability returned", Long.MAX_VALUE, scheduler.getSlice(jobType, "job", 1));
+    }
+  }
+
+  /**
+   * Verifies the desired rates of the throttlers of the given job types.
+   * @param throttlers the {@link MockThrottler}s by job type.
+   * @param jobTypes the job types to verify.
+   * @param expectedRates the expected rate of each job type.
+   */
+  private void assertRates(Map<String, Throttler> throttlers, String[] jobTypes, double[] expectedRates) {
+    for (int i = 0; i < jobTypes.length; i++) {
+      assertEquals("Unexpected desired rate for " + jobTypes[i], expectedRates[i],
+          ((MockThrottler) throttlers.get(jobTypes[i])).desiredRate, 0.0001);
+    }
+  }
+
   /**
    * A mock of {@link Throttler} for testing purposes.
    */
@@ -85,6 +178,7 @@ public class DiskIOSchedulerTest {
     boolean called;
     boolean closed;
     double observedUnits;
+    double desiredRate = -1;
 
     /**
      * Build a {@link MockThrottler}.
@@ -100,6 +194,11 @@ public class DiskIOSchedulerTest {
       observedUnits = observed;
     }
 
+    @Override
+    public void updateDesiredRatePerSecond(double desiredRatePerSec) {
+      desiredRate = desiredRatePerSec;
+    }
+
     @Override
     public void disable() {
       closed = true;
@@ -0,0 +1,102 @@
+/**
+ * Copyright 2021 LinkedIn Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ */
+package com.github.ambry.store;
+
+import com.codahale.metrics.MetricRegistry;
+import com.github.ambry.utils.SystemTime;
+import com.github.ambry.utils.TestUtils;
+import com.github.ambry.utils.Utils;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+
+/**
+ * Tests for {@link IndexKeyLookupCache}.
+ */
+public class IndexKeyLookupCacheTest {
+  private static final int MAX_ENTRIES = 64;
+  private final LogSegmentName logSegmentName = LogSegmentName.fromPositionAndGeneration(0, 0);
+  private final Offset segmentStartOffset = new Offset(logSegmentName, 0);
+  private final NavigableMap<Offset, IndexSegment> indexSegments = new TreeMap<>();
+  private final IndexKeyLookupCache cache =
+      new IndexKeyLookupCache(MAX_ENTRIES, new StoreMetrics(new MetricRegistry()));
+
+  public IndexKeyLookupCacheTest() {
+    indexSegments.put(segmentStartOffset, mock(IndexSegment.class));
+  }
+
+  /**
+   * Tests that a key that keeps being looked up survives the insertion of many more than the maximum number of other
+   * keys, and that the cache never holds more than the maximum number of keys.
+   */
+  @Test
+  public void hotKeySurvivesEvictionTest() {
+    MockId hotKey = new MockId(TestUtils.getRandomString(10));
+    put(hotKey, newValue(0));
+    for (int i = 0; i < MAX_ENTRIES * 10; i++) {
+      put(new MockId(TestUtils.getRandomString(10)), newValue(i + 1));
+      assertNotNull("Hot key was evicted after " + i + " inserts", cache.get(hotKey, indexSegments));
+      assertTrue("Cache holds more than the maximum number of keys", cache.size() <= MAX_ENTRIES);
+    }
+    assertEquals("Unexpected value for the hot key", 0, cache.get(hotKey, indexSegments).getOffset().getOffset());
+  }
+
+  /**
+   * Tests that the least recently used keys are the ones evicted.
+   */
+  @Test
+  public void leastRecentlyUsedKeyEvictedTest() {
+    MockId coldKey = new MockId(TestUtils.getRandomString(10));
+    put(coldKey, newValue(0));
+    for (int i = 0; i < MAX_ENTRIES * 10; i++) {
+      put(new MockId(TestUtils.getRandomString(10)), newValue(i + 1));
+    }
+    assertNull("Cold key should have been evicted", cache.get(coldKey, indexSegments));
+  }
+
+  /**
+   * Tests that invalidations remove keys and that a lookup that raced with an invalidation is not cached.
+   */
+  @Test
+  public void invalidationTest() {
+    MockId key = new MockId(TestUtils.getRandomString(10));
+    put(key, newValue(0));
+    assertNotNull("Key should be cached", cache.get(key, indexSegments));
+    cache.invalidate(key);
+    assertNull("Key should have been invalidated", cache.get(key, indexSegments));
+
+    long stamp = cache.getStamp(key);
+    cache.invalidate(key);
+    cache.put(key, newValue(0), segmentStartOffset, stamp);
+    assertNull("Stale value should not be cached", cache.get(key, indexSegments));
+
+    put(key, newValue(0));
+    cache.invalidateAll();
+    assertNull("Key should have been invalidated", cache.get(key, indexSegments));
+    assertEquals("Cache should be empty", 0, cache.size());
+  }
+
+  private void put(MockId key, IndexValue value) {
+    cache.put(key, value, segmentStartOffset, cache.getStamp(key));
+  }
+
+  private IndexValue newValue(long offset) {
+    return IndexValueTest.getIndexValue(100, new Offset(logSegmentName, offset), Utils.Infinite_Time,
+        SystemTime.getInstance().milliseconds(), (short) 0, (short) 0, (short) 0, PersistentIndex.VERSION_4);
+  }
+}
@@ -88,19 +88,22 @@ public class IndexSegmentTest {
    * Creates a temporary directory and sets up metrics.
    * @param formatVersion the format version of the index
    * @param indexMemState the value for {@link StoreConfig#storeIndexMemStateName}
+   * @param offHeapInMemSegment the value for {@link StoreConfig#storeIndexInMemSegmentOffHeapEnabled}
    * @throws IOException
    */
-  public IndexSegmentTest(short formatVersion, IndexMemState indexMemState) throws IOException {
+  public IndexSegmentTest(short formatVersion, IndexMemState indexMemState, boolean offHeapInMemSegment)
+      throws IOException {
     tempDir = StoreTestUtils.createTempDirectory("indexSegmentDir-" + TestUtils.getRandomString(10));
     MetricRegistry metricRegistry = new MetricRegistry();
     metrics = new StoreMetrics(metricRegistry);
     this.formatVersion = formatVersion;
     PersistentIndex.CURRENT_VERSION = formatVersion;
+    properties.setProperty("store.index.in.mem.segment.off.heap.enabled", Boolean.toString(offHeapInMemSegment));
     setIndexMemState(indexMemState);
   }
 
   /**
-   * Running for all versions and {@link IndexMemState} values.
+   * Running for all versions, {@link IndexMemState} values and both in memory segment implementations.
    * @return an array with the list of parameters for different iterations.
    */
   @Parameterized.Parameters
@@ -110,7 +113,8 @@ public class IndexSegmentTest {
     List<Object[]> parametersList = new ArrayList<>();
     for (short version : versions) {
       for (IndexMemState state : IndexMemState.values()) {
-        parametersList.add(new Object[]{version, state});
+        parametersList.add(new Object[]{version, state, false});
+        parametersList.add(new Object[]{version, state, true});
       }
     }
     return parametersList;
@@ -141,6 +145,19 @@ public class IndexSegmentTest {
     }
   }
 
+  /**
+   * Runs the comprehensive tests with fence keys enabled for sealed segments, using intervals that leave a partial last
+   * block as well as intervals larger than the segment.
+   */
+  @Test
+  public void sealedSegmentFenceTest() throws IOException, StoreException {
+    for (int interval : new int[]{1, 3, 100}) {
+      properties.setProperty("store.index.sealed.segment.fence.interval", Integer.toString(interval));
+      config = new StoreConfig(new VerifiableProperties(properties));
+      doComprehensiveTest(formatVersion, false, false);
+    }
+  }
+
   /**
    * Tests the case when {@link IndexSegment#writeIndexSegmentToFile(Offset)} is provided with different offsets <=
    * {@link IndexSegment#getEndOffset()} and makes sure that only the relevant parts of the segment are written to disk.
@@ -754,6 +771,62 @@ public class IndexSegmentTest {
     }
   }
 
+  /**
+   * Tests that iterators over an unsealed segment are snapshots in key order, that entries added later show up in new
+   * iterators and that {@link IndexSegment#getIndexEntriesSince} honors the start key when enough keys are added to
+   * grow the in memory index several times.
+   * @throws Exception
+   */
+  @Test
+  public void unsealedIteratorSnapshotTest() throws Exception {
+    LogSegmentName logSegmentName = StoreTestUtils.getRandomLogSegmentName(null);
+    IndexSegment indexSegment = generateIndexSegment(new Offset(logSegmentName, 0), STORE_KEY_FACTORY);
+    NavigableMap<MockId, NavigableSet<IndexValue>> referenceIndex = new TreeMap<>();
+    List<Long> offsets = new ArrayList<>();
+    for (int i = 0; i < 300; i++) {
+      offsets.add(i * 100L);
+    }
+    addPutEntries(offsets, 100, indexSegment, referenceIndex, false, false);
+    NavigableMap<MockId, NavigableSet<IndexValue>> referenceSnapshot = new TreeMap<>();
+    referenceIndex.forEach((key, values) -> referenceSnapshot.put(key, new TreeSet<>(values)));
+    Iterator<IndexEntry> snapshotIterator = indexSegment.iterator();
+
+    offsets.clear();
+    for (int i = 300; i < 400; i++) {
+      offsets.add(i * 100L);
+    }
+    addPutEntries(offsets, 100, indexSegment, referenceIndex, false, false);
+    Set<MockId> idsToDelete = getIdsToDelete(referenceIndex, 40);
+    addDeleteEntries(idsToDelete, indexSegment, referenceIndex);
+
+    verifyIteratorMatches(referenceSnapshot, snapshotIterator);
+    verifyIteratorMatches(referenceIndex, indexSegment.iterator());
+
+    MockId fromKey = referenceIndex.keySet().stream().skip(referenceIndex.size() / 2).findFirst().get();
+    for (boolean inclusive : new boolean[]{true, false}) {
+      List<IndexEntry> entries = new ArrayList<>();
+      indexSegment.getIndexEntriesSince(fromKey, new FindEntriesCondition(Long.MAX_VALUE), entries, new AtomicLong(0),
+          false, inclusive);
+      verifyIteratorMatches(referenceIndex.tailMap(fromKey, inclusive), entries.iterator());
+    }
+  }
+
+  /**
+   * Verifies that {@code iterator} returns exactly the entries of {@code referenceIndex} in order.
+   * @param referenceIndex the index entries to be used as reference.
+   * @param iterator the {@link Iterator} to verify.
+   */
+  private void verifyIteratorMatches(NavigableMap<MockId, NavigableSet<IndexValue>> referenceIndex,
+      Iterator<IndexEntry> iterator) {
+    for (Map.Entry<MockId, NavigableSet<IndexValue>> entry : referenceIndex.entrySet()) {
+      for (IndexValue value : entry.getValue()) {
+        assertTrue("Iterator has fewer entries than expected", iterator.hasNext());
+        assertIndexEntryEquals(new IndexEntry(entry.getKey(), value), iterator.next());
+      }
+    }
+    assertFalse("Iterator has more entries than expected", iterator.hasNext());
+  }
+
   /**
    * Tests data corruption case when loading index file to memory.
    * @throws Exception
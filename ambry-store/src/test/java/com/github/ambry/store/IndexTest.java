@@ -13,6 +13,7 @@
  */
 package com.github.ambry.store;
 
+import com.codahale.metrics.Counter;
 import com.codahale.metrics.MetricRegistry;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.ambry.account.Account;
@@ -210,6 +211,84 @@ public class IndexTest {
     verifyValue(nonExistentId, state.index.findKey(nonExistentId));
   }
 
+  /**
+   * Tests {@link PersistentIndex#findKey(StoreKey)} with the key lookup cache enabled, including invalidation of cached
+   * values when new entries are added for a key.
+   * @throws StoreException
+   */
+  @Test
+  public void findKeyWithLookupCacheTest() throws StoreException {
+    state.properties.put("store.index.key.lookup.cache.max.entries", Integer.toString(state.allKeys.size()));
+    state.reloadIndex(true, false);
+    for (int i = 0; i < 2; i++) {
+      for (MockId id : state.allKeys.keySet()) {
+        verifyValue(id, state.index.findKey(id));
+      }
+    }
+    Counter hitCount =
+        state.metricRegistry.getCounters().get(MetricRegistry.name(PersistentIndex.class, "IndexKeyLookupCacheHitCount"));
+    assertTrue("Second round of lookups should have been served by the cache", hitCount.getCount() > 0);
+    // a new entry for a cached key must not be shadowed by the cached value
+    MockId id = state.liveKeys.iterator().next();
+    verifyValue(id, state.index.findKey(id));
+    state.addDeleteEntry(id);
+    verifyValue(id, state.index.findKey(id));
+    assertTrue("Value should be a delete", state.index.findKey(id).isDelete());
+  }
+
+  /**
+   * Tests that the index tracks the log segments whose records are all valid when
+   * {@link StoreConfig#storeIndexLogSegmentValidityTrackingEnabled} is turned on and that the tracking survives restarts.
+   * @throws StoreException
+   */
+  @Test
+  public void logSegmentValidityTrackingTest() throws StoreException {
+    Assume.assumeTrue(isLogSegmented);
+    state.properties.put("store.index.log.segment.validity.tracking.enabled", "true");
+    state.reloadIndex(true, false);
+    LogSegmentName firstSegmentName = state.log.getFirstSegment().getName();
+    assertFalse("Log segments that existed before tracking was on should not be fully valid",
+        state.index.isLogSegmentFullyValid(firstSegmentName, state.time.milliseconds()));
+    // fill up the active log segment so that the next PUT starts a new one
+    LogSegmentName activeSegmentName = state.log.getEndOffset().getName();
+    List<IndexEntry> newSegmentEntries = new ArrayList<>();
+    while (newSegmentEntries.isEmpty()) {
+      IndexEntry entry = state.addPutEntries(1, CuratedLogIndexState.PUT_RECORD_SIZE, Utils.Infinite_Time).get(0);
+      if (!entry.getValue().getOffset().getName().equals(activeSegmentName)) {
+        newSegmentEntries.add(entry);
+      }
+    }
+    LogSegmentName newSegmentName = newSegmentEntries.get(0).getValue().getOffset().getName();
+    long expiresAtMs = state.time.milliseconds() + TimeUnit.HOURS.toMillis(1);
+    newSegmentEntries.addAll(state.addPutEntries(3, CuratedLogIndexState.PUT_RECORD_SIZE, expiresAtMs));
+    assertTrue("New log segment should be fully valid",
+        state.index.isLogSegmentFullyValid(newSegmentName, state.time.milliseconds()));
+    assertFalse("New log segment should not be fully valid once its blobs expire",
+        state.index.isLogSegmentFullyValid(newSegmentName, expiresAtMs + 1));
+
+    // tracking survives a restart
+    state.reloadIndex(true, false);
+    assertTrue("New log segment should still be fully valid after restart",
+        state.index.isLogSegmentFullyValid(newSegmentName, state.time.milliseconds()));
+
+    // a DELETE both adds a non PUT record and supersedes a PUT of the log segment
+    state.addDeleteEntry((MockId) newSegmentEntries.get(1).getKey());
+    assertFalse("New log segment should not be fully valid after a delete",
+        state.index.isLogSegmentFullyValid(newSegmentName, state.time.milliseconds()));
+    assertEquals("Unexpected number of possibly invalid entries", 2,
+        state.index.getValidityTracker().getPossiblyInvalidEntryCount(newSegmentName));
+    state.reloadIndex(true, false);
+    assertEquals("Unexpected number of possibly invalid entries after restart", 2,
+        state.index.getValidityTracker().getPossiblyInvalidEntryCount(newSegmentName));
+
+    // turning tracking off drops the persisted state
+    state.properties.put("store.index.log.segment.validity.tracking.enabled", "false");
+    state.reloadIndex(true, false);
+    assertNull("There should be no tracker", state.index.getValidityTracker());
+    assertFalse("Tracker file should have been deleted",
+        new File(tempDir, LogSegmentValidityTracker.FILE_NAME).exists());
+  }
+
   /**
    * Tests for {@link PersistentIndex#findKey(StoreKey, FileSpan, EnumSet)}.
    * Cases:
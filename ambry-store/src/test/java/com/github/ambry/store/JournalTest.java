@@ -15,6 +15,8 @@ package com.github.ambry.store;
 
 import com.github.ambry.utils.TestUtils;
 import com.github.ambry.utils.Utils;
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
@@ -137,6 +139,41 @@ public class JournalTest {
     Assert.assertEquals("Entries in journal not expected", journalEntries, journal.getAllEntries());
   }
 
+  /**
+   * Tests that {@link JournalCrcSnapshot} restores the crcs of the keys in the journal only if the snapshot matches the
+   * end offset of the index.
+   * @throws IOException
+   */
+  @Test
+  public void testCrcSnapshot() throws IOException {
+    File tempDir = StoreTestUtils.createTempDirectory("journalDir-" + TestUtils.getRandomString(10));
+    try {
+      LogSegmentName logSegmentName = StoreTestUtils.getRandomLogSegmentName(null);
+      Offset[] offsets = {new Offset(logSegmentName, 0), new Offset(logSegmentName, 1000)};
+      MockId[] keys = {new MockId("id1"), new MockId("id2")};
+      Journal journal = new Journal("test", 10, 5);
+      for (int i = 0; i < keys.length; i++) {
+        addEntryAndVerify(journal, offsets[i], keys[i], null);
+      }
+      Offset indexEndOffset = new Offset(logSegmentName, 2000);
+      JournalCrcSnapshot snapshot = new JournalCrcSnapshot(tempDir.getAbsolutePath(), new MockIdFactory());
+      snapshot.persist(indexEndOffset, journal);
+
+      // a journal rebuilt from the index only has the keys that were in the index
+      Journal rebuiltJournal = new Journal("test", 10, 5);
+      rebuiltJournal.addEntry(offsets[1], keys[1]);
+      snapshot.restore(new Offset(logSegmentName, 1000), rebuiltJournal);
+      Assert.assertNull("Crc should not be restored if the index end offset does not match",
+          rebuiltJournal.getCrcOfKey(keys[1]));
+      snapshot.restore(indexEndOffset, rebuiltJournal);
+      Assert.assertEquals("Unexpected restored crc", journal.getCrcOfKey(keys[1]), rebuiltJournal.getCrcOfKey(keys[1]));
+      Assert.assertNull("Crc of a key that is not in the journal should not be restored",
+          rebuiltJournal.getCrcOfKey(keys[0]));
+    } finally {
+      Utils.deleteFileOrDirectory(tempDir);
+    }
+  }
+
   /**
    * Adds an entry to the journal and verifies some getters
    * @param journal the {@link Journal} to add to
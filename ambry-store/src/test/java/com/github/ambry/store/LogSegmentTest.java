@@ -235,8 +235,8 @@ public class LogSegmentTest {
   }
 
   /**
-   * Tests {@link LogSegment#appendFrom(ByteBuffer)} and {@link LogSegment#appendFrom(ReadableByteChannel, long)} for
-   * various cases.
+   * Tests {@link LogSegment#appendFrom(ByteBuffer)}, {@link LogSegment#appendFrom(ReadableByteChannel, long)} and
+   * {@link LogSegment#appendFrom(ByteBuffer[], long)} for various cases.
    * @throws IOException
    */
   @Test
@@ -261,6 +261,20 @@ public class LogSegmentTest {
       }
     });
 
+    // gathering append
+    doAppendTest(new Appender() {
+      @Override
+      public void append(LogSegment segment, ByteBuffer buffer) throws StoreException {
+        int writeSize = buffer.remaining();
+        ByteBuffer first = buffer.duplicate();
+        first.limit(first.position() + writeSize / 2);
+        ByteBuffer second = buffer.duplicate();
+        second.position(first.limit());
+        segment.appendFrom(new ByteBuffer[]{first, second}, writeSize);
+        assertFalse("The buffers were not completely written", first.hasRemaining() || second.hasRemaining());
+      }
+    });
+
     // direct IO append
     if (Utils.isLinux()) {
       doAppendTest(new Appender() {
@@ -21,6 +21,7 @@ import com.github.ambry.utils.ByteBufferOutputStream;
 import com.github.ambry.utils.Pair;
 import com.github.ambry.utils.TestUtils;
 import com.github.ambry.utils.Utils;
+import io.netty.buffer.ByteBuf;
 import java.io.DataInputStream;
 import java.io.File;
 import java.io.IOException;
@@ -238,6 +239,80 @@ public class StoreMessageReadSetTest {
     }
   }
 
+  /**
+   * Tests that {@link StoreMessageReadSet} serves prefetches from a {@link BlobReadCache} and that the cache admits,
+   * validates and invalidates messages correctly.
+   * @throws IOException
+   */
+  @Test
+  public void blobReadCacheTest() throws IOException, StoreException {
+    int logCapacity = 2000;
+    Log log = new Log(tempDir.getAbsolutePath(), logCapacity, StoreTestUtils.DEFAULT_DISK_SPACE_ALLOCATOR,
+        createStoreConfig(logCapacity, setFilePermissionEnabled), metrics, null);
+    StorageManagerMetrics storageManagerMetrics = new StorageManagerMetrics(new MetricRegistry());
+    // every segment of the cache can hold one message of 50 bytes.
+    int messageSize = 50;
+    BlobReadCache cache = new BlobReadCache(16 * messageSize, messageSize, storageManagerMetrics);
+    try {
+      LogSegment segment = log.getFirstSegment();
+      int availableSegCapacity = (int) (logCapacity - segment.getStartOffset());
+      byte[] srcOfTruth = TestUtils.getRandomBytes(availableSegCapacity);
+      log.appendFrom(Channels.newChannel(new ByteBufferInputStream(ByteBuffer.wrap(srcOfTruth))),
+          availableSegCapacity);
+      Offset offset = new Offset(segment.getName(), segment.getStartOffset());
+      MockId hotId = new MockId("hot");
+      byte[] expected = Arrays.copyOfRange(srcOfTruth, 0, messageSize);
+
+      // the first read misses and is admitted since there is room in the cache.
+      assertArrayEquals(expected, readThroughCache(log, cache, offset, hotId, messageSize, (short) 0, false, 0));
+      assertEquals(1, storageManagerMetrics.blobReadCacheMissCount.getCount());
+      assertEquals(messageSize, cache.getSizeInBytes());
+      // whole and partial reads are served from the cache.
+      for (int i = 0; i < 5; i++) {
+        assertArrayEquals(expected, readThroughCache(log, cache, offset, hotId, messageSize, (short) 0, false, 0));
+      }
+      assertArrayEquals(Arrays.copyOfRange(expected, 10, messageSize),
+          readThroughCache(log, cache, offset, hotId, messageSize, (short) 0, false, 10));
+      assertEquals(6, storageManagerMetrics.blobReadCacheHitCount.getCount());
+      assertEquals(5 * messageSize + messageSize - 10, storageManagerMetrics.blobReadCacheBytesServed.getCount());
+
+      // deleted blobs are neither served from nor added to the cache.
+      assertArrayEquals(expected, readThroughCache(log, cache, offset, hotId, messageSize, (short) 0, true, 0));
+      assertEquals(6, storageManagerMetrics.blobReadCacheHitCount.getCount());
+      assertEquals(1, storageManagerMetrics.blobReadCacheMissCount.getCount());
+
+      // a different life version is a miss and the stale message is replaced.
+      assertArrayEquals(expected, readThroughCache(log, cache, offset, hotId, messageSize, (short) 1, false, 0));
+      assertEquals(2, storageManagerMetrics.blobReadCacheMissCount.getCount());
+      assertArrayEquals(expected, readThroughCache(log, cache, offset, hotId, messageSize, (short) 1, false, 0));
+      assertEquals(7, storageManagerMetrics.blobReadCacheHitCount.getCount());
+
+      // messages that are read once don't replace the hot message.
+      for (int i = 0; i < 100; i++) {
+        MockId coldId = new MockId("cold" + i);
+        Offset coldOffset = new Offset(segment.getName(), segment.getStartOffset() + messageSize * (i % 10 + 1));
+        readThroughCache(log, cache, coldOffset, coldId, messageSize, (short) 0, false, 0);
+      }
+      assertTrue("Some cold messages should have been rejected",
+          storageManagerMetrics.blobReadCacheAdmissionRejectedCount.getCount() > 0);
+      long hits = storageManagerMetrics.blobReadCacheHitCount.getCount();
+      assertArrayEquals(expected, readThroughCache(log, cache, offset, hotId, messageSize, (short) 1, false, 0));
+      assertEquals("Hot message should still be cached", hits + 1,
+          storageManagerMetrics.blobReadCacheHitCount.getCount());
+
+      // invalidation
+      cache.invalidate(hotId);
+      long misses = storageManagerMetrics.blobReadCacheMissCount.getCount();
+      readThroughCache(log, cache, offset, hotId, messageSize, (short) 1, false, 0);
+      assertEquals(misses + 1, storageManagerMetrics.blobReadCacheMissCount.getCount());
+      cache.invalidateStore("store");
+      assertEquals("All messages of the store should have been removed", 0, cache.getSizeInBytes());
+    } finally {
+      cache.clear();
+      log.close(false);
+    }
+  }
+
   /**
    * Tests {@link BlobReadOptions} for getter correctness, serialization/deserialization and bad input.
    * @throws IOException
@@ -305,6 +380,40 @@ public class StoreMessageReadSetTest {
   }
 
   // helpers
+  // blobReadCacheTest() helpers
+
+  /**
+   * Prefetches a message through a {@link StoreMessageReadSet} that uses {@code cache}.
+   * @param log the {@link Log} the message is in.
+   * @param cache the {@link BlobReadCache} to use.
+   * @param offset the {@link Offset} of the message.
+   * @param id the {@link MockId} of the message.
+   * @param size the size of the message.
+   * @param lifeVersion the life version of the blob.
+   * @param deleted {@code true} if the blob is deleted.
+   * @param relativeOffset the offset in the message to read from.
+   * @return the bytes prefetched.
+   * @throws IOException
+   */
+  private byte[] readThroughCache(Log log, BlobReadCache cache, Offset offset, MockId id, int size, short lifeVersion,
+      boolean deleted, int relativeOffset) throws IOException {
+    MessageInfo info =
+        new MessageInfo(id, size, deleted, false, false, Utils.Infinite_Time, null, Account.UNKNOWN_ACCOUNT_ID,
+            Container.UNKNOWN_CONTAINER_ID, System.currentTimeMillis(), lifeVersion);
+    BlobReadOptions options = new BlobReadOptions(log, offset, info);
+    try {
+      MessageReadSet readSet = new StoreMessageReadSet(new ArrayList<>(Arrays.asList(options)), cache, "store");
+      readSet.doPrefetch(0, relativeOffset, size);
+      ByteBuf data = readSet.getPrefetchedData(0);
+      byte[] bytes = new byte[data.readableBytes()];
+      data.readBytes(bytes);
+      data.release();
+      return bytes;
+    } finally {
+      options.close();
+    }
+  }
+
   // blobReadOptionsTest() helpers
 
   /**
@@ -25,7 +25,7 @@ public class Crc32Benchmark {
   public static void main(String[] args) {
     // Benchmark two crc32 implementation
     // 1. java.util.zip.CRC32
-    // 2. com.github.ambry.util.Crc32
+    // 2. com.github.ambry.util.Crc32, with and without the java native implementation enabled
     // Benchmark on several ByteBuffer on different sizes and different memory
     // -----------------------
     // size  | heap | direct
@@ -55,104 +55,110 @@ public class Crc32Benchmark {
     final int NUM_ITERATION = 500;
     final int NUM_BUFFERS = 10;
     final Random random = new Random();
-    System.out.println("Time Unit: us");
-    System.out.printf("size\t\theapJava\theapAmbry\tdirectJava\tdirectAmbry\tarrayJava\tarrayAmbry\n");
-    for (int size : BUFFER_SIZES) {
-      ByteBuffer[] buffers = new ByteBuffer[NUM_BUFFERS];
-      long[] crcs = new long[NUM_BUFFERS];
-      // first test on heap buffer
-      byte[] arr = new byte[size];
-      for (int i = 0; i < NUM_BUFFERS; i++) {
-        random.nextBytes(arr);
-        buffers[i] = ByteBuffer.allocate(size);
-        buffers[i].put(arr);
-        buffers[i].flip();
-      }
+    // Run the benchmark once with the pure java lookup table implementation of com.github.ambry.util.Crc32 and once
+    // with it delegating to the intrinsified java.util.zip.CRC32.
+    for (boolean javaNativeEnabled : new boolean[]{false, true}) {
+      Crc32.setJavaNativeImplementationEnabled(javaNativeEnabled);
+      System.out.println("Crc32 java native implementation enabled: " + javaNativeEnabled);
+      System.out.println("Time Unit: us");
+      System.out.printf("size\t\theapJava\theapAmbry\tdirectJava\tdirectAmbry\tarrayJava\tarrayAmbry\n");
+      for (int size : BUFFER_SIZES) {
+        ByteBuffer[] buffers = new ByteBuffer[NUM_BUFFERS];
+        long[] crcs = new long[NUM_BUFFERS];
+        // first test on heap buffer
+        byte[] arr = new byte[size];
+        for (int i = 0; i < NUM_BUFFERS; i++) {
+          random.nextBytes(arr);
+          buffers[i] = ByteBuffer.allocate(size);
+          buffers[i].put(arr);
+          buffers[i].flip();
+        }
 
-      long start = System.nanoTime();
-      for (int iter = 0; iter < NUM_ITERATION; iter++) {
-        Crc32 test = new Crc32();
-        ByteBuffer buffer = buffers[iter % NUM_BUFFERS];
-        assert buffer.remaining() == size;
-        test.update(buffer);
-        crcs[iter % NUM_BUFFERS] = test.getValue();
-        buffer.position(0);
-      }
-      double heapAmbry = ((double) (System.nanoTime() - start)) / NUM_ITERATION / 1000;
-      printArray(crcs);
+        long start = System.nanoTime();
+        for (int iter = 0; iter < NUM_ITERATION; iter++) {
+          Crc32 test = new Crc32();
+          ByteBuffer buffer = buffers[iter % NUM_BUFFERS];
+          assert buffer.remaining() == size;
+          test.update(buffer);
+          crcs[iter % NUM_BUFFERS] = test.getValue();
+          buffer.position(0);
+        }
+        double heapAmbry = ((double) (System.nanoTime() - start)) / NUM_ITERATION / 1000;
+        printArray(crcs);
 
-      start = System.nanoTime();
-      for (int iter = 0; iter < NUM_ITERATION; iter++) {
-        CRC32 test = new CRC32();
-        ByteBuffer buffer = buffers[iter % NUM_BUFFERS];
-        assert buffer.remaining() == size;
-        test.update(buffer);
-        crcs[iter % NUM_BUFFERS] = test.getValue();
-        buffer.position(0);
-      }
-      double heapJava = ((double) (System.nanoTime() - start)) / NUM_ITERATION / 1000;
-      printArray(crcs);
+        start = System.nanoTime();
+        for (int iter = 0; iter < NUM_ITERATION; iter++) {
+          CRC32 test = new CRC32();
+          ByteBuffer buffer = buffers[iter % NUM_BUFFERS];
+          assert buffer.remaining() == size;
+          test.update(buffer);
+          crcs[iter % NUM_BUFFERS] = test.getValue();
+          buffer.position(0);
+        }
+        double heapJava = ((double) (System.nanoTime() - start)) / NUM_ITERATION / 1000;
+        printArray(crcs);
 
-      // then test on direct buffer
-      for (int i = 0; i < NUM_BUFFERS; i++) {
-        random.nextBytes(arr);
-        buffers[i] = ByteBuffer.allocateDirect(size);
-        buffers[i].put(arr);
-        buffers[i].flip();
-      }
+        // then test on direct buffer
+        for (int i = 0; i < NUM_BUFFERS; i++) {
+          random.nextBytes(arr);
+          buffers[i] = ByteBuffer.allocateDirect(size);
+          buffers[i].put(arr);
+          buffers[i].flip();
+        }
 
-      start = System.nanoTime();
-      for (int iter = 0; iter < NUM_ITERATION; iter++) {
-        Crc32 test = new Crc32();
-        ByteBuffer buffer = buffers[iter % NUM_BUFFERS];
-        assert buffer.remaining() == size;
-        test.update(buffer);
-        crcs[iter % NUM_BUFFERS] = test.getValue();
-        buffer.position(0);
-      }
-      double directAmbry = ((double) (System.nanoTime() - start)) / NUM_ITERATION / 1000;
-      printArray(crcs);
+        start = System.nanoTime();
+        for (int iter = 0; iter < NUM_ITERATION; iter++) {
+          Crc32 test = new Crc32();
+          ByteBuffer buffer = buffers[iter % NUM_BUFFERS];
+          assert buffer.remaining() == size;
+          test.update(buffer);
+          crcs[iter % NUM_BUFFERS] = test.getValue();
+          buffer.position(0);
+        }
+        double directAmbry = ((double) (System.nanoTime() - start)) / NUM_ITERATION / 1000;
+        printArray(crcs);
 
-      start = System.nanoTime();
-      for (int iter = 0; iter < NUM_ITERATION; iter++) {
-        CRC32 test = new CRC32();
-        ByteBuffer buffer = buffers[iter % NUM_BUFFERS];
-        assert buffer.remaining() == size;
-        test.update(buffer);
-        crcs[iter % NUM_BUFFERS] = test.getValue();
-        buffer.position(0);
-      }
-      double directJava = ((double) (System.nanoTime() - start)) / NUM_ITERATION / 1000;
-      printArray(crcs);
+        start = System.nanoTime();
+        for (int iter = 0; iter < NUM_ITERATION; iter++) {
+          CRC32 test = new CRC32();
+          ByteBuffer buffer = buffers[iter % NUM_BUFFERS];
+          assert buffer.remaining() == size;
+          test.update(buffer);
+          crcs[iter % NUM_BUFFERS] = test.getValue();
+          buffer.position(0);
+        }
+        double directJava = ((double) (System.nanoTime() - start)) / NUM_ITERATION / 1000;
+        printArray(crcs);
 
-      start = System.nanoTime();
-      for (int iter = 0; iter < NUM_ITERATION; iter++) {
-        Crc32 test = new Crc32();
-        ByteBuffer buffer = buffers[iter % NUM_BUFFERS];
-        assert buffer.remaining() == size;
-        buffer.get(arr);
-        test.update(arr, 0, arr.length);
-        crcs[iter % NUM_BUFFERS] = test.getValue();
-        buffer.position(0);
-      }
-      double arrayAmbry = ((double) (System.nanoTime() - start)) / NUM_ITERATION / 1000;
-      printArray(crcs);
+        start = System.nanoTime();
+        for (int iter = 0; iter < NUM_ITERATION; iter++) {
+          Crc32 test = new Crc32();
+          ByteBuffer buffer = buffers[iter % NUM_BUFFERS];
+          assert buffer.remaining() == size;
+          buffer.get(arr);
+          test.update(arr, 0, arr.length);
+          crcs[iter % NUM_BUFFERS] = test.getValue();
+          buffer.position(0);
+        }
+        double arrayAmbry = ((double) (System.nanoTime() - start)) / NUM_ITERATION / 1000;
+        printArray(crcs);
 
-      start = System.nanoTime();
-      for (int iter = 0; iter < NUM_ITERATION; iter++) {
-        CRC32 test = new CRC32();
-        ByteBuffer buffer = buffers[iter % NUM_BUFFERS];
-        assert buffer.remaining() == size;
-        buffer.get(arr);
-        test.update(arr, 0, arr.length);
-        crcs[iter % NUM_BUFFERS] = test.getValue();
-        buffer.position(0);
-      }
-      double arrayJava = ((double) (System.nanoTime() - start)) / NUM_ITERATION / 1000;
-      printArray(crcs);
+        start = System.nanoTime();
+        for (int iter = 0; iter < NUM_ITERATION; iter++) {
+          CRC32 test = new CRC32();
+          ByteBuffer buffer = buffers[iter % NUM_BUFFERS];
+          assert buffer.remaining() == size;
+          buffer.get(arr);
+          test.update(arr, 0, arr.length);
+          crcs[iter % NUM_BUFFERS] = test.getValue();
+          buffer.position(0);
+        }
+        double arrayJava = ((double) (System.nanoTime() - start)) / NUM_ITERATION / 1000;
+        printArray(crcs);
 
-      System.out.printf("%s\t\t%.2f\t\t%.2f\t\t%.2f\t\t%.2f\t\t%.2f\t\t%.2f\n", sizeLiterals.get(size), heapJava,
-          heapAmbry, directJava, directAmbry, arrayJava, arrayAmbry);
+        System.out.printf("%s\t\t%.2f\t\t%.2f\t\t%.2f\t\t%.2f\t\t%.2f\t\t%.2f\n", sizeLiterals.get(size), heapJava,
+            heapAmbry, directJava, directAmbry, arrayJava, arrayAmbry);
+      }
     }
   }
 
@@ -0,0 +1,196 @@
+/*
+ * Copyright 2021 LinkedIn Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ */
+package com.github.ambry.tools.perf;
+
+import com.codahale.metrics.MetricRegistry;
+import com.github.ambry.commons.ServerMetrics;
+import com.github.ambry.config.NetworkConfig;
+import com.github.ambry.config.VerifiableProperties;
+import com.github.ambry.network.FifoNetworkRequestQueue;
+import com.github.ambry.network.NetworkRequest;
+import com.github.ambry.network.NetworkRequestClassifier;
+import com.github.ambry.network.NetworkRequestQueue;
+import com.github.ambry.network.PartitionShardedNetworkRequestQueue;
+import com.github.ambry.network.RequestShardKey;
+import com.github.ambry.network.TrafficClass;
+import java.io.InputStream;
+import java.util.Properties;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+
+/**
+ * Compares the throughput of the request handlers of a server with a {@link FifoNetworkRequestQueue} and with a
+ * {@link PartitionShardedNetworkRequestQueue}, under a load that is skewed towards a few hot partitions. Requests are
+ * simulated: a write holds the lock of its partition (like the write lock of a store) for a fixed time and a read
+ * just takes a fixed time.
+ */
+public class RequestQueueBenchmark {
+  private static final int NUM_HANDLERS = 16;
+  private static final int NUM_PARTITIONS = 100;
+  private static final int NUM_DISKS = 10;
+  // the fraction of requests that go to the hot partitions.
+  private static final double HOT_FRACTION = 0.8;
+  private static final int NUM_HOT_PARTITIONS = 2;
+  private static final double WRITE_FRACTION = 0.3;
+  private static final long WRITE_TIME_NS = TimeUnit.MICROSECONDS.toNanos(200);
+  private static final long READ_TIME_NS = TimeUnit.MICROSECONDS.toNanos(100);
+  private static final long RUN_TIME_MS = 10000;
+
+  public static void main(String[] args) throws Exception {
+    Properties properties = new Properties();
+    properties.setProperty(NetworkConfig.QUEUED_MAX_REQUESTS, "1000");
+    properties.setProperty(NetworkConfig.REQUEST_QUEUE_NUM_LANES, Integer.toString(NUM_HANDLERS));
+    NetworkConfig config = new NetworkConfig(new VerifiableProperties(properties));
+    System.out.printf("queue\t\t\t\t\trequests/s\twrites/s\treads/s\n");
+    run("FifoNetworkRequestQueue", new FifoNetworkRequestQueue(config.queuedMaxRequests));
+    run("PartitionShardedNetworkRequestQueue",
+        new PartitionShardedNetworkRequestQueue(config, "Benchmark", new ServerMetrics(new MetricRegistry(),
+            RequestQueueBenchmark.class), new SimulatedRequestClassifier()));
+  }
+
+  /**
+   * Runs the simulated load against {@code queue} and prints the throughput.
+   * @param name the name of the queue.
+   * @param queue the {@link NetworkRequestQueue} to benchmark.
+   */
+  private static void run(String name, NetworkRequestQueue queue) throws Exception {
+    ReentrantLock[] partitionLocks = new ReentrantLock[NUM_PARTITIONS];
+    for (int i = 0; i < NUM_PARTITIONS; i++) {
+      partitionLocks[i] = new ReentrantLock();
+    }
+    AtomicBoolean running = new AtomicBoolean(true);
+    AtomicLong writes = new AtomicLong();
+    AtomicLong reads = new AtomicLong();
+    CountDownLatch handlersDone = new CountDownLatch(NUM_HANDLERS);
+    for (int i = 0; i < NUM_HANDLERS; i++) {
+      Thread handler = new Thread(() -> {
+        try {
+          while (true) {
+            SimulatedRequest request = (SimulatedRequest) queue.take();
+            if (request.partition < 0) {
+              return;
+            }
+            if (request.write) {
+              ReentrantLock lock = partitionLocks[request.partition];
+              lock.lock();
+              try {
+                spin(WRITE_TIME_NS);
+              } finally {
+                lock.unlock();
+              }
+              writes.incrementAndGet();
+            } else {
+              spin(READ_TIME_NS);
+              reads.incrementAndGet();
+            }
+          }
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        } finally {
+          handlersDone.countDown();
+        }
+      });
+      handler.setDaemon(true);
+      handler.start();
+    }
+    Thread producer = new Thread(() -> {
+      Random random = new Random(0);
+      try {
+        while (running.get()) {
+          int partition = random.nextDouble() < HOT_FRACTION ? random.nextInt(NUM_HOT_PARTITIONS)
+              : NUM_HOT_PARTITIONS + random.nextInt(NUM_PARTITIONS - NUM_HOT_PARTITIONS);
+          queue.put(new SimulatedRequest(partition, random.nextDouble() < WRITE_FRACTION));
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    });
+    producer.setDaemon(true);
+    producer.start();
+
+    Thread.sleep(RUN_TIME_MS);
+    running.set(false);
+    long numWrites = writes.get();
+    long numReads = reads.get();
+    producer.join();
+    queue.clear();
+    for (int i = 0; i < NUM_HANDLERS; i++) {
+      queue.put(new SimulatedRequest(-1, false));
+    }
+    handlersDone.await();
+    double seconds = RUN_TIME_MS / 1000.0;
+    System.out.printf("%-36s\t%.0f\t\t%.0f\t\t%.0f\n", name, (numWrites + numReads) / seconds, numWrites / seconds,
+        numReads / seconds);
+  }
+
+  /**
+   * Busy waits for {@code nanos}, to simulate the cpu and io time of a request.
+   * @param nanos the time to wait for.
+   */
+  private static void spin(long nanos) {
+    long end = System.nanoTime() + nanos;
+    while (System.nanoTime() < end) {
+      // busy wait
+    }
+  }
+
+  /**
+   * A simulated request on a partition.
+   */
+  private static class SimulatedRequest implements NetworkRequest {
+    final int partition;
+    final boolean write;
+    final long startTimeInMs = System.currentTimeMillis();
+
+    SimulatedRequest(int partition, boolean write) {
+      this.partition = partition;
+      this.write = write;
+    }
+
+    @Override
+    public InputStream getInputStream() {
+      return null;
+    }
+
+    @Override
+    public long getStartTimeInMs() {
+      return startTimeInMs;
+    }
+  }
+
+  /**
+   * Keys writes by partition and reads by the disk of the partition, like the classifier of the server.
+   */
+  private static class SimulatedRequestClassifier implements NetworkRequestClassifier {
+    @Override
+    public TrafficClass getTrafficClass(NetworkRequest request) {
+      return TrafficClass.CLIENT;
+    }
+
+    @Override
+    public RequestShardKey getShardKey(NetworkRequest request) {
+      SimulatedRequest simulatedRequest = (SimulatedRequest) request;
+      if (simulatedRequest.partition < 0) {
+        return RequestShardKey.NONE;
+      }
+      return simulatedRequest.write ? new RequestShardKey("partition-" + simulatedRequest.partition, false)
+          : new RequestShardKey("disk-" + simulatedRequest.partition % NUM_DISKS, true);
+    }
+  }
+}
@@ -25,7 +25,18 @@ abstract class BloomFilterSerializer {
   }
 
   public BloomFilter deserialize(DataInput in, int maxPageCount) throws IOException {
-    int hashes = in.readInt();
+    return deserialize(in, in.readInt(), maxPageCount);
+  }
+
+  /**
+   * Reads the rest of a filter whose hash count has already been read from {@code in}.
+   * @param in the {@link DataInput} to read the bit set from.
+   * @param hashes the hash count of the filter.
+   * @param maxPageCount the max number of pages of the bit set.
+   * @return the {@link BloomFilter} read.
+   * @throws IOException
+   */
+  public BloomFilter deserialize(DataInput in, int hashes, int maxPageCount) throws IOException {
     IBitSet bs = OpenBitSet.deserialize(in, maxPageCount);
     return createFilter(hashes, bs);
   }
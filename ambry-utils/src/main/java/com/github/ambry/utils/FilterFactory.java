@@ -24,13 +24,27 @@ public class FilterFactory {
 
   private static final Logger logger = LoggerFactory.getLogger(FilterFactory.class);
   private static final long BITSET_EXCESS = 20;
+  // A serialized Murmur3BloomFilter starts with its hash count, which is always positive. A serialized
+  // BlockedBloomFilter starts with this marker instead.
+  static final int BLOCKED_BLOOM_FILTER_FORMAT = -1;
+  // The extra bits per element a BlockedBloomFilter gets to make up for the higher false positive rate of blocking.
+  static final int BLOCKED_BLOOM_FILTER_EXTRA_BUCKETS_PER_ELEMENT = 2;
 
   public static void serialize(IFilter bf, DataOutput output) throws IOException {
-    Murmur3BloomFilter.serializer.serialize((Murmur3BloomFilter) bf, output);
+    if (bf instanceof BlockedBloomFilter) {
+      output.writeInt(BLOCKED_BLOOM_FILTER_FORMAT);
+      ((BlockedBloomFilter) bf).serialize(output);
+    } else {
+      Murmur3BloomFilter.serializer.serialize((Murmur3BloomFilter) bf, output);
+    }
   }
 
   public static IFilter deserialize(DataInput input, int maxPageCount) throws IOException {
-    return Murmur3BloomFilter.serializer.deserialize(input, maxPageCount);
+    int header = input.readInt();
+    if (header == BLOCKED_BLOOM_FILTER_FORMAT) {
+      return BlockedBloomFilter.deserialize(input);
+    }
+    return Murmur3BloomFilter.serializer.deserialize(input, header, maxPageCount);
   }
 
   /**
@@ -62,6 +76,19 @@ public class FilterFactory {
     return createFilter(spec.K, numElements, spec.bucketsPerElement, maxPageCount);
   }
 
+  /**
+   * @return The smallest {@link BlockedBloomFilter} that can provide about the given false positive probability rate
+   *         for the given number of elements.
+   */
+  public static IFilter getBlockedFilter(long numElements, double maxFalsePosProbability) {
+    int bucketsPerElement = BloomCalculations.maxBucketsPerElement(numElements);
+    BloomCalculations.BloomSpecification spec =
+        BloomCalculations.computeBloomSpec(bucketsPerElement, maxFalsePosProbability);
+    long numBits =
+        (numElements * (spec.bucketsPerElement + BLOCKED_BLOOM_FILTER_EXTRA_BUCKETS_PER_ELEMENT)) + BITSET_EXCESS;
+    return new BlockedBloomFilter(spec.K, numBits);
+  }
+
   private static IFilter createFilter(int hash, long numElements, int bucketsPer, int maxPageCount) {
     long numBits = (numElements * bucketsPer) + BITSET_EXCESS;
     IBitSet bitset = new OpenBitSet(numBits, maxPageCount);
@@ -103,6 +103,28 @@ public class BloomFilterTest {
     BloomFilterTest.testSerialize(bf);
   }
 
+  /**
+   * Test the false positive rate, serialization and clearing of {@link BlockedBloomFilter}.
+   */
+  @Test
+  public void testBlockedBloomFilter() throws IOException {
+    IFilter blocked = FilterFactory.getBlockedFilter(ELEMENTS, MAX_FAILURE_RATE);
+    Assert.assertTrue("Expected a BlockedBloomFilter", blocked instanceof BlockedBloomFilter);
+    FilterTestHelper.testFalsePositives(blocked, FilterTestHelper.intKeys(), FilterTestHelper.randomKeys2());
+    blocked.clear();
+    FilterTestHelper.testFalsePositives(blocked, FilterTestHelper.randomKeys(), FilterTestHelper.randomKeys2());
+
+    blocked.clear();
+    IFilter deserialized = BloomFilterTest.testSerialize(blocked);
+    Assert.assertTrue("Expected a BlockedBloomFilter", deserialized instanceof BlockedBloomFilter);
+    Assert.assertEquals("Capacity mismatch after deserialization", ((BlockedBloomFilter) blocked).capacity(),
+        ((BlockedBloomFilter) deserialized).capacity());
+
+    deserialized.clear();
+    Assert.assertFalse("Key should not be present after clear",
+        deserialized.isPresent(ByteBuffer.wrap("a".getBytes())));
+  }
+
   public void testManyHashes(Iterator<ByteBuffer> keys) {
     int MAX_HASH_COUNT = 128;
     Set<Long> hashes = new HashSet<Long>();
@@ -13,6 +13,7 @@
  */
 package com.github.ambry.utils;
 
+import java.nio.ByteBuffer;
 import java.util.Random;
 import org.junit.Assert;
 import org.junit.Test;
@@ -39,4 +40,50 @@ public class Crc32Test {
     long value3 = crc.getValue();
     Assert.assertFalse(value1 == value3);
   }
+
+  /**
+   * Tests that the java native implementation computes the same checksums as the pure java one, for all the ways of
+   * updating the checksum.
+   */
+  @Test
+  public void javaNativeImplementationTest() {
+    byte[] buf = new byte[4000];
+    new Random().nextBytes(buf);
+    long[] pureJavaValues = computeChecksums(buf);
+    Crc32.setJavaNativeImplementationEnabled(true);
+    try {
+      Assert.assertArrayEquals(pureJavaValues, computeChecksums(buf));
+    } finally {
+      Crc32.setJavaNativeImplementationEnabled(false);
+    }
+  }
+
+  /**
+   * @param buf the bytes to checksum.
+   * @return the checksums of {@code buf} computed from a byte array, a heap and a direct {@link ByteBuffer}, byte by
+   *         byte and after a reset.
+   */
+  private long[] computeChecksums(byte[] buf) {
+    long[] values = new long[5];
+    Crc32 crc = new Crc32();
+    crc.update(buf, 0, buf.length);
+    values[0] = crc.getValue();
+    crc = new Crc32();
+    crc.update(ByteBuffer.wrap(buf));
+    values[1] = crc.getValue();
+    ByteBuffer directBuffer = ByteBuffer.allocateDirect(buf.length);
+    directBuffer.put(buf).flip();
+    crc = new Crc32();
+    crc.update(directBuffer);
+    values[2] = crc.getValue();
+    crc = new Crc32();
+    for (byte b : buf) {
+      crc.update(b);
+    }
+    values[3] = crc.getValue();
+    crc.reset();
+    crc.update(buf, 100, 1000);
+    values[4] = crc.getValue();
+    return values;
+  }
 }